@@ -1,26 +1,16 @@
 import com.SC2002.bto.boundary.CLI;
-import com.SC2002.bto.di.ServiceLocator;
+import com.SC2002.bto.boundary.api.ApiServer;
+import com.SC2002.bto.di.Bootstrap;
+import com.SC2002.bto.utils.Constants;
 import com.SC2002.bto.utils.FileManager;
-import com.SC2002.bto.repository.IApplicationRepository;
-import com.SC2002.bto.repository.IEnquiryRepository;
-import com.SC2002.bto.repository.IOfficerRegistrationRepository;
-import com.SC2002.bto.repository.IProjectRepository;
-import com.SC2002.bto.repository.IUserRepository;
-import com.SC2002.bto.repository.RepositoryFactory;
-import com.SC2002.bto.service.IApplicationService;
-import com.SC2002.bto.service.IEnquiryService;
-import com.SC2002.bto.service.IOfficerRegistrationService;
-import com.SC2002.bto.service.IProjectService;
-import com.SC2002.bto.service.IReportService;
-import com.SC2002.bto.service.IUserService;
-import com.SC2002.bto.service.IValidationService;
-import com.SC2002.bto.service.impl.ApplicationService;
-import com.SC2002.bto.service.impl.EnquiryService;
-import com.SC2002.bto.service.impl.OfficerRegistrationService;
-import com.SC2002.bto.service.impl.ProjectService;
-import com.SC2002.bto.service.impl.ReportService;
-import com.SC2002.bto.service.impl.UserService;
-import com.SC2002.bto.service.impl.ValidationService;
+import com.SC2002.bto.utils.MetricsRegistry;
+import com.SC2002.bto.utils.OperationTimer;
+import com.SC2002.bto.utils.UnitOfWork;
+import com.SC2002.bto.utils.WriteBehindBuffer;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Main class that initializes the application.
@@ -28,6 +18,8 @@ import com.SC2002.bto.service.impl.ValidationService;
  */
 public class Main {
     public static void main(String[] args) {
+        long startupBegan = System.nanoTime();
+        
         // Ensure data directory exists before any file operations
         boolean dirExists = FileManager.ensureDataDirectoryExists();
         if (!dirExists) {
@@ -35,39 +27,108 @@ public class Main {
             return;
         }
         
-        // Get repositories from the factory
-        IProjectRepository projectRepository = RepositoryFactory.getProjectRepository();
-        IEnquiryRepository enquiryRepository = RepositoryFactory.getEnquiryRepository();
-        IApplicationRepository applicationRepository = RepositoryFactory.getApplicationRepository();
-        IOfficerRegistrationRepository officerRegistrationRepository = RepositoryFactory.getOfficerRegistrationRepository();
-        IUserRepository userRepository = RepositoryFactory.getUserRepository();
+        // Finish any transaction that was interrupted while being applied
+        long began = System.nanoTime();
+        UnitOfWork.recover();
+        Bootstrap.recordPhase("recover", began);
+        
+        // Optional write-behind mode: --write-behind [--durability=sync]
+        List<String> options = Arrays.asList(args);
+        if (options.contains("--write-behind")) {
+            WriteBehindBuffer.Durability durability = options.contains("--durability=sync")
+                ? WriteBehindBuffer.Durability.SYNC : WriteBehindBuffer.Durability.ASYNC;
+            WriteBehindBuffer.enable(Constants.WRITE_BEHIND_FLUSH_INTERVAL_MS,
+                Constants.WRITE_BEHIND_MAX_PENDING, durability);
+        }
+        
+        // Create the repositories and services and register them in the ServiceLocator
+        Bootstrap.registerServices();
         
-        // Initialize services
-        IProjectService projectService = new ProjectService(projectRepository);
-        IEnquiryService enquiryService = new EnquiryService(enquiryRepository);
-        IApplicationService applicationService = new ApplicationService(applicationRepository, projectRepository);
-        IOfficerRegistrationService officerRegistrationService = new OfficerRegistrationService(officerRegistrationRepository, projectRepository);
-        IReportService reportService = new ReportService(projectRepository, applicationRepository, userRepository);
-        IUserService userService = new UserService(userRepository);
-        IValidationService validationService = new ValidationService();
+        // Load the commonly used tables while the first prompt is shown; the rest load on first use
+        Bootstrap.preloadInBackground();
         
-        // Register repositories in the ServiceLocator
-        ServiceLocator.register(IProjectRepository.class, projectRepository);
-        ServiceLocator.register(IEnquiryRepository.class, enquiryRepository);
-        ServiceLocator.register(IApplicationRepository.class, applicationRepository);
-        ServiceLocator.register(IOfficerRegistrationRepository.class, officerRegistrationRepository);
-        ServiceLocator.register(IUserRepository.class, userRepository);
+        // Optional periodic metrics dump: --metrics-dump or --metrics-dump=<seconds>
+        String metricsOption = options.stream().filter(o -> o.startsWith("--metrics-dump")).findFirst().orElse(null);
+        if (metricsOption != null) {
+            startMetricsDump(metricsOption);
+        }
+        
+        // Slow-operation log threshold: --slow-op-ms=<ms>
+        String slowOption = options.stream().filter(o -> o.startsWith("--slow-op-ms=")).findFirst().orElse(null);
+        if (slowOption != null) {
+            try {
+                OperationTimer.setSlowThresholdMillis(Long.parseLong(slowOption.substring("--slow-op-ms=".length())));
+            } catch (NumberFormatException e) {
+                System.out.println("Error: Invalid threshold in " + slowOption);
+            }
+        }
         
-        // Register services in the ServiceLocator
-        ServiceLocator.register(IProjectService.class, projectService);
-        ServiceLocator.register(IEnquiryService.class, enquiryService);
-        ServiceLocator.register(IApplicationService.class, applicationService);
-        ServiceLocator.register(IOfficerRegistrationService.class, officerRegistrationService);
-        ServiceLocator.register(IReportService.class, reportService);
-        ServiceLocator.register(IUserService.class, userService);
-        ServiceLocator.register(IValidationService.class, validationService);
+        // Serve the HTTP API instead of the CLI: --api or --api=<port>
+        String apiOption = options.stream().filter(o -> o.startsWith("--api")).findFirst().orElse(null);
+        if (apiOption != null) {
+            startApiServer(apiOption, startupBegan);
+            return;
+        }
         
         // Start the CLI
+        Bootstrap.recordPhase("ready", startupBegan);
         new CLI().start();
+        MetricsRegistry.getDefault().stopPeriodicDump();
+    }
+    
+    /**
+     * Starts dumping the metrics to a text file at a fixed interval.
+     * 
+     * @param option the --metrics-dump command-line option, optionally with an interval in seconds
+     */
+    private static void startMetricsDump(String option) {
+        int seconds = Constants.METRICS_DUMP_INTERVAL_SECONDS;
+        if (option.startsWith("--metrics-dump=")) {
+            try {
+                seconds = Integer.parseInt(option.substring("--metrics-dump=".length()));
+            } catch (NumberFormatException e) {
+                System.out.println("Error: Invalid interval in " + option);
+                return;
+            }
+        }
+        if (seconds <= 0) {
+            System.out.println("Error: The metrics dump interval must be positive.");
+            return;
+        }
+        MetricsRegistry.getDefault().startPeriodicDump(seconds * 1000L, Constants.METRICS_DUMP_FILE);
+        System.out.println("Writing metrics to " + Constants.METRICS_DUMP_FILE + " every " + seconds + " s");
+    }
+    
+    /**
+     * Starts the local HTTP API and keeps it running until the process is stopped.
+     * 
+     * @param option the --api command-line option, optionally with a port
+     * @param startupBegan when startup began, from {@link System#nanoTime()}
+     */
+    private static void startApiServer(String option, long startupBegan) {
+        int port = Constants.API_DEFAULT_PORT;
+        if (option.startsWith("--api=")) {
+            try {
+                port = Integer.parseInt(option.substring("--api=".length()));
+            } catch (NumberFormatException e) {
+                System.out.println("Error: Invalid port in " + option);
+                return;
+            }
+        }
+        
+        ApiServer apiServer = new ApiServer(Constants.API_SESSION_TIMEOUT_MS);
+        try {
+            int boundPort = apiServer.start(port, Constants.API_WORKER_THREADS);
+            System.out.println("HTTP API listening on http://localhost:" + boundPort + "/api");
+            Bootstrap.recordPhase("ready", startupBegan);
+        } catch (IOException e) {
+            System.out.println("Error: Could not start HTTP API: " + e.getMessage());
+            return;
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            apiServer.stop();
+            WriteBehindBuffer.shutdown();
+            MetricsRegistry.getDefault().stopPeriodicDump();
+        }, "api-shutdown"));
     }
 }
@@ -3,13 +3,16 @@ package com.SC2002.bto.boundary;
 
 import com.SC2002.bto.control.ApplicationController;
 import com.SC2002.bto.control.ProjectController;
+import com.SC2002.bto.di.ServiceLocator;
 import com.SC2002.bto.entities.Applicant;
 import com.SC2002.bto.entities.Enquiry;
 import com.SC2002.bto.entities.Project;
-import com.SC2002.bto.utils.ProjectRepository;
+import com.SC2002.bto.service.IEnquiryService;
+import com.SC2002.bto.utils.ProjectCatalog;
 import com.SC2002.bto.utils.Constants;
 import com.SC2002.bto.utils.FileManager;
 import com.SC2002.bto.utils.InputValidator;
+import com.SC2002.bto.utils.MetricsRegistry;
 import com.SC2002.bto.entities.ApplicationStatus;
 
 import java.util.ArrayList;
@@ -68,22 +71,29 @@ public class ApplicantMenu {
             System.out.println("6. Edit/Delete Enquiry");
             System.out.println("7. Change Password");
             System.out.println("8. Withdraw Application");
-            System.out.println("9. Logout");
+            System.out.println("9. View Cheapest Available Flats");
+            System.out.println("10. Logout");
             
             System.out.print("Enter your choice: ");
             String choice = scanner.nextLine();
-            switch (choice) {
-                case "1": viewAvailableProjects(); 		  break;
-                case "2": applyForProject();       		  break;
-                case "3": viewApplicationStatus(); 		  break;
-                case "4": viewMyEnquiriesWithResponses(); break;
-                case "5": submitEnquiry();           	  break;
-                case "6": editOrDeleteEnquiry();    	  break;	 
-                case "7": if (changePassword()) return;     break;
-                case "8": withdrawApplication();  	      break;
-                case "9": return;
+            MetricsRegistry.Action action = MetricsRegistry.getDefault().action("ApplicantMenu." + choice);
+            try {
+                switch (choice) {
+                    case "1": viewAvailableProjects(); 		  break;
+                    case "2": applyForProject();       		  break;
+                    case "3": viewApplicationStatus(); 		  break;
+                    case "4": viewMyEnquiriesWithResponses(); break;
+                    case "5": submitEnquiry();           	  break;
+                    case "6": editOrDeleteEnquiry();    	  break;	 
+                    case "7": if (changePassword()) return;     break;
+                    case "8": withdrawApplication();  	      break;
+                    case "9": viewCheapestAvailableFlats();     break;
+                    case "10": return;
                 
-                default:  System.out.println("Invalid option.");
+                    default:  System.out.println("Invalid option.");
+                }
+            } finally {
+                action.close();
             }
         }
     }
@@ -97,9 +107,7 @@ public class ApplicantMenu {
         System.out.println("\n--- Available Projects ---");
         // Use ProjectController to get currently open projects
         ProjectController projectController = new ProjectController();
-        // Refresh the project repository to ensure we have the latest data
-        ProjectRepository.refresh();
-        List<Project> all = ProjectRepository.getAll();
+        List<Project> all = ProjectCatalog.getAll();
         if (all.isEmpty()) {
             System.out.println("No projects available.");
             return;
@@ -169,6 +177,58 @@ public class ApplicantMenu {
         }
     }
 
+
+    /**
+     * Displays the cheapest flats the applicant is eligible for that still have units left,
+     * among the visible projects open for application. Singles are shown 2-Room flats only.
+     */
+    private void viewCheapestAvailableFlats() {
+        System.out.println("\n--- Cheapest Available Flats ---");
+        String ms = applicant.getMaritalStatus();
+        int age = applicant.getAge();
+        String flatType;
+        if ("Single".equalsIgnoreCase(ms)) {
+            if (!InputValidator.validateSingleApplicantAge(age, ms)) {
+                System.out.println("As a single applicant you must be at least 35 to view any projects.");
+                return;
+            }
+            flatType = "2-Room";
+        } else if ("Married".equalsIgnoreCase(ms)) {
+            if (!InputValidator.validateMarriedApplicantAge(age, ms)) {
+                System.out.println("As a married applicant you must be at least 21 to view any projects.");
+                return;
+            }
+            System.out.print("Flat type (2-Room, 3-Room, or Enter for either): ");
+            String input = scanner.nextLine().trim();
+            flatType = input.isEmpty() ? null : input;
+            if (flatType != null && !InputValidator.validateFlatTypeEligibility(flatType, ms)) {
+                System.out.println("Invalid flat type.");
+                return;
+            }
+        } else {
+            System.out.println("Invalid marital status in your profile. Please contact support.");
+            return;
+        }
+        
+        List<Project> cheapest = new ProjectController().getCheapestAvailableProjects(flatType, Constants.CHEAPEST_FLATS_SHOWN);
+        if (cheapest.isEmpty()) {
+            System.out.println("No flats are available.");
+            return;
+        }
+        for (Project p : cheapest) {
+            System.out.println("Project ID: " + p.getProjectId() + " | " + p.getProjectName() + " (" + p.getNeighborhood() + ")");
+            printAvailableFlat(p.getType1Desc(), p.getType1Units(), p.getType1Price(), flatType);
+            printAvailableFlat(p.getType2Desc(), p.getType2Units(), p.getType2Price(), flatType);
+            System.out.println("  Closes        : " + p.getApplicationClosingDate());
+            System.out.println("-------------------------------------");
+        }
+    }
+    
+    private void printAvailableFlat(String desc, int units, int price, String flatType) {
+        if (units > 0 && (flatType == null || flatType.equalsIgnoreCase(desc))) {
+            System.out.println("  Flat Type     : " + desc + " | Units: " + units + " | Price: " + price);
+        }
+    }
     
     /**
      * Handles the process of applying for a project.
@@ -192,9 +252,7 @@ public class ApplicantMenu {
         }
         
         // Get the list of projects the applicant can view (using the same logic as viewAvailableProjects)
-        // Refresh the project repository to ensure we have the latest data
-        ProjectRepository.refresh();
-        List<Project> all = ProjectRepository.getAll();
+        List<Project> all = ProjectCatalog.getAll();
         if (all.isEmpty()) {
             System.out.println("No projects available.");
             return;
@@ -317,7 +375,7 @@ public class ApplicantMenu {
             System.out.printf("Applied Project ID: %d | Status: %s%n", appliedProjectId, status);
             
             // Get project details
-            Project p = ProjectRepository.getAll().stream()
+            Project p = ProjectCatalog.getAll().stream()
                 .filter(proj -> proj.getProjectId() == appliedProjectId)
                 .findFirst()
                 .orElse(null);
@@ -357,9 +415,7 @@ public class ApplicantMenu {
      */
     private void submitEnquiry() {
         // Get the list of projects the applicant can view (using the same logic as viewAvailableProjects)
-        // Refresh the project repository to ensure we have the latest data
-        ProjectRepository.refresh();
-        List<Project> all = ProjectRepository.getAll();
+        List<Project> all = ProjectCatalog.getAll();
         if (all.isEmpty()) {
             System.out.println("No projects available.");
             return;
@@ -436,12 +492,8 @@ public class ApplicantMenu {
         System.out.print("Enquiry text: ");
         String text = scanner.nextLine();
 
-        List<Enquiry> allEnquiries = FileManager.loadAllEnquiries(Constants.ENQUIRY_CSV);
-        int enquiryId = allEnquiries.size() + 1;
-
-        Enquiry newEnquiry = new Enquiry(enquiryId, applicant.getNric(), text, projectId);
-        allEnquiries.add(newEnquiry);
-        FileManager.saveAllEnquiries(allEnquiries);
+        // Submitting through the service appends the enquiry and queues it for officers
+        int enquiryId = ServiceLocator.get(IEnquiryService.class).submitEnquiry(applicant.getNric(), projectId, text);
 
         System.out.println("Enquiry #" + enquiryId + " submitted.");
     }
@@ -6,6 +6,7 @@ import com.SC2002.bto.entities.User;
 import com.SC2002.bto.entities.Applicant;
 import com.SC2002.bto.entities.HDBOfficer;
 import com.SC2002.bto.entities.HDBManager;
+import com.SC2002.bto.utils.WriteBehindBuffer;
 
 import java.util.Scanner;
 
@@ -40,6 +41,8 @@ public class CLI {
                     break;
                 case "2":
                     System.out.println("Exiting system. Goodbye!");
+                    // Make sure buffered changes are on disk before the process ends
+                    WriteBehindBuffer.shutdown();
                     System.exit(0);
                     break;
                 default:
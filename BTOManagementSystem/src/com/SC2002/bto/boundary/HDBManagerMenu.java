@@ -5,35 +5,54 @@ import com.SC2002.bto.entities.HDBOfficer;
 import com.SC2002.bto.entities.Project;
 import com.SC2002.bto.entities.User;
 import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.ApplicationLease;
+import com.SC2002.bto.entities.ApplicationView;
 import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.BallotPriority;
 import com.SC2002.bto.entities.Enquiry;
+import com.SC2002.bto.entities.EnquiryView;
+import com.SC2002.bto.control.ApplicationController;
 import com.SC2002.bto.control.ProjectController;
 import com.SC2002.bto.control.ReportController;
+import com.SC2002.bto.di.Bootstrap;
+import com.SC2002.bto.di.ServiceLocator;
+import com.SC2002.bto.repository.ProjectQuery;
+import com.SC2002.bto.service.IApplicationService;
+import com.SC2002.bto.service.IBallotService;
+import com.SC2002.bto.service.IEnquiryService;
+import com.SC2002.bto.service.IImportService;
+import com.SC2002.bto.service.IOfficerRegistrationService;
+import com.SC2002.bto.utils.ApplicationCatalog;
 import com.SC2002.bto.utils.Constants;
 import com.SC2002.bto.utils.FileManager;
 import com.SC2002.bto.utils.InputValidator;
-import com.SC2002.bto.utils.ProjectRepository;
+import com.SC2002.bto.utils.ManagerAssignments;
+import com.SC2002.bto.utils.OfficerAssignments;
+import com.SC2002.bto.utils.ProjectCatalog;
+import com.SC2002.bto.utils.MetricsRegistry;
+import com.SC2002.bto.utils.OperationTimer;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.FileReader;
 import java.io.FileWriter;
-import java.io.IOException;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Scanner;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 public class HDBManagerMenu {
     private Scanner scanner;
     private HDBManager manager;
     private ProjectController projectController;
-    private static final String CSV_PATH = Constants.PROJECT_CSV;
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("d/M/yy");
 
     /**
@@ -69,8 +88,8 @@ public class HDBManagerMenu {
         }
         
         // Find all projects the officer is assigned to (excluding the current project)
-        List<Project> officerProjects = allProjects.stream()
-            .filter(p -> p.getProjectId() != projectId && p.isOfficerAssigned(officerName))
+        List<Project> officerProjects = OfficerAssignments.getProjects(officerNric).stream()
+            .filter(p -> p.getProjectId() != projectId)
             .collect(Collectors.toList());
             
         // Check for date overlaps with assigned projects
@@ -125,7 +144,6 @@ public class HDBManagerMenu {
         this.scanner = scanner;
         this.manager = manager;
         this.projectController = new ProjectController();
-        ProjectRepository.init(CSV_PATH);
     }
 
     public void displayMenu() {
@@ -138,27 +156,38 @@ public class HDBManagerMenu {
             System.out.println("5. View Projects");
             System.out.println("6. Approve/Reject HDB Officer Registrations");
             System.out.println("7. Approve/Reject Applicant Applications");
-            System.out.println("8. Process Withdrawal Requests");
-            System.out.println("9. Generate Reports");
-            System.out.println("10. View All Enquiries");
-            System.out.println("11. Change Password");
-            System.out.println("12. Logout");
+            System.out.println("8. Run Ballot for Pending Applications");
+            System.out.println("9. Process Withdrawal Requests");
+            System.out.println("10. Generate Reports");
+            System.out.println("11. View All Enquiries");
+            System.out.println("12. Change Password");
+            System.out.println("13. Bulk Import Users");
+            System.out.println("14. View Performance Statistics");
+            System.out.println("15. Logout");
             System.out.print("Enter your choice: ");
             String choice = scanner.nextLine();
-            switch (choice) {
-                case "1": createNewProjectListing(); break;
-                case "2": editExistingProject(); break;
-                case "3": deleteProject(); break;
-                case "4": toggleProjectVisibility(); break;
-                case "5": viewProjects(); break;
-                case "6": processOfficerRegistrations(); break;
-                case "7": processApplicantApplications(); break;
-                case "8": processWithdrawalRequests(); break;
-                case "9": generateReports(); break;
-                case "10": viewAllEnquiries(); break;
-                case "11": if (changePassword()) return; break;
-                case "12": System.out.println("Logging out..."); return;
-                default: System.out.println("Invalid option, please try again.");
+            MetricsRegistry.Action action = MetricsRegistry.getDefault().action("ManagerMenu." + choice);
+            try {
+                switch (choice) {
+                    case "1": createNewProjectListing(); break;
+                    case "2": editExistingProject(); break;
+                    case "3": deleteProject(); break;
+                    case "4": toggleProjectVisibility(); break;
+                    case "5": viewProjects(); break;
+                    case "6": processOfficerRegistrations(); break;
+                    case "7": processApplicantApplications(); break;
+                    case "8": runBallot(); break;
+                    case "9": processWithdrawalRequests(); break;
+                    case "10": generateReports(); break;
+                    case "11": viewAllEnquiries(); break;
+                    case "12": if (changePassword()) return; break;
+                    case "13": bulkImportUsers(); break;
+                    case "14": viewPerformanceStatistics(); break;
+                    case "15": System.out.println("Logging out..."); return;
+                    default: System.out.println("Invalid option, please try again.");
+                }
+            } finally {
+                action.close();
             }
         }
     }
@@ -172,8 +201,8 @@ public class HDBManagerMenu {
      * @return true if there's an overlap, false otherwise
      */
     private boolean hasDateOverlap(int projectId, LocalDate openingDate, LocalDate closingDate) {
-        List<Project> managerProjects = projectController.getAllProjects().stream()
-            .filter(p -> p.getManager().equalsIgnoreCase(manager.getName()) && p.getProjectId() != projectId)
+        List<Project> managerProjects = ManagerAssignments.getProjects(manager.getNric()).stream()
+            .filter(p -> p.getProjectId() != projectId)
             .collect(Collectors.toList());
             
         for (Project existingProject : managerProjects) {
@@ -269,7 +298,6 @@ public class HDBManagerMenu {
             );
             projects.add(newProj);
             FileManager.saveProjects(projects);
-            ProjectRepository.init(CSV_PATH);
             System.out.println("New project listing created.");
         } catch (Exception e) {
             System.out.println("Error creating project: " + e.getMessage());
@@ -404,7 +432,6 @@ public class HDBManagerMenu {
         }
 
         FileManager.saveProjects(projects);
-        ProjectRepository.init(CSV_PATH);
         System.out.println("Project updated successfully.");
     }
 
@@ -490,8 +517,6 @@ public class HDBManagerMenu {
 
         boolean saved = FileManager.saveProjects(projects);
         if (saved) {
-            ProjectRepository.init(CSV_PATH);
-            
             // Force a refresh of the project controller's data
             this.projectController = new ProjectController();
             System.out.println("Project deleted and IDs updated successfully.");
@@ -502,14 +527,7 @@ public class HDBManagerMenu {
 
     private void toggleProjectVisibility() {
         System.out.println("\n--- Toggle Project Visibility ---");
-        List<Project> projects = projectController.getAllProjects();
-
-        List<Project> managedProjects = new ArrayList<>();
-        for (Project p : projects) {
-            if (p.getManager().equalsIgnoreCase(manager.getName())) {
-                managedProjects.add(p);
-            }
-        }
+        List<Project> managedProjects = projectController.getManagedProjects(manager.getNric());
 
         if (managedProjects.isEmpty()) {
             System.out.println("You have no projects to manage.");
@@ -537,167 +555,144 @@ public class HDBManagerMenu {
             return;
         }
 
-        projectToToggle.setVisible(!projectToToggle.isVisible());
-        FileManager.saveProjects(projects);
-        ProjectRepository.init(CSV_PATH);
-        System.out.println("Project visibility is now set to: " + (projectToToggle.isVisible() ? "Visible to Applicants" : "Hidden from Applicants"));
+        boolean visible = !projectToToggle.isVisible();
+        if (!projectController.toggleProjectVisibility(projectToToggle.getProjectId(), visible)) {
+            System.out.println("Error: Failed to save project visibility.");
+            return;
+        }
+        System.out.println("Project visibility is now set to: " + (visible ? "Visible to Applicants" : "Hidden from Applicants"));
     }
 
     private void processOfficerRegistrations() {
         System.out.println("\n--- Approve/Reject Officer Registrations ---");
-        String path = Constants.REGISTRATION_CSV;
-        List<String> linesToRetain = new ArrayList<>();
-        List<Project> projects = projectController.getAllProjects();
-        boolean updated = false;
-
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            String header = br.readLine(); // skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] tokens = line.split(",");
-                if (tokens.length < 2) continue;
+        IOfficerRegistrationService registrationService = ServiceLocator.get(IOfficerRegistrationService.class);
+        List<IOfficerRegistrationService.OfficerProjectPair> pending = registrationService.getAllPendingRegistrations();
+        if (pending.isEmpty()) {
+            System.out.println("No pending officer registrations.");
+            return;
+        }
 
-                String nric = tokens[0].trim();
-                int projectId = Integer.parseInt(tokens[1].trim());
+        for (IOfficerRegistrationService.OfficerProjectPair registration : pending) {
+            String nric = registration.getOfficerNric();
+            int projectId = registration.getProjectId();
 
-                Project project = projects.stream()
-                        .filter(p -> p.getProjectId() == projectId && p.getManager().equalsIgnoreCase(manager.getName()))
-                        .findFirst().orElse(null);
+            Project project = ProjectCatalog.findById(projectId)
+                    .filter(p -> ManagerAssignments.isManaging(manager.getNric(), p.getProjectId()))
+                    .orElse(null);
 
-                if (project == null) {
-                    System.out.println("Skipped: Project ID " + projectId + " not found or not under your management.");
-                    linesToRetain.add(line);
-                    continue;
-                }
+            if (project == null) {
+                System.out.println("Skipped: Project ID " + projectId + " not found or not under your management.");
+                continue;
+            }
 
-                System.out.printf("Officer NRIC: %s | Project ID: %d (%s)%n", nric, projectId, project.getProjectName());
-                System.out.print("Approve (A) / Reject (R) / Skip (S): ");
-                String choice = scanner.nextLine().trim();
+            System.out.printf("Officer NRIC: %s | Project ID: %d (%s)%n", nric, projectId, project.getProjectName());
+            System.out.print("Approve (A) / Reject (R) / Skip (S): ");
+            String choice = scanner.nextLine().trim();
 
-                if ("A".equalsIgnoreCase(choice)) {
-                    if (project.getOfficerSlots() <= 0) {
-                        System.out.println("No officer slots remaining for this project.");
-                        linesToRetain.add(line);
-                        continue;
-                    }
-                    
-                    // Get officer name from NRIC
-                    String officerName = getOfficerNameFromNRIC(nric);
-                    
-                    if (officerName != null && !project.getOfficers().contains(officerName)) {
-                        // Create a new mutable list from the existing officers list
-                        List<String> updatedOfficers = new ArrayList<>(project.getOfficers());
-                        // Add the new officer to the mutable list
-                        updatedOfficers.add(officerName);
-                        // Set the new list back to the project
-                        project.setOfficers(updatedOfficers);
-                        
-                        // Update officer slots
-                        project.setOfficerSlots(project.getOfficerSlots() - 1);
-                        
-                        // Update the HDBOfficer entity's registeredProjectIds list
-                        List<User> officers = FileManager.loadUsersFromCSV(Constants.OFFICER_CSV, "HDBOfficer");
-                        for (User user : officers) {
-                            if (user instanceof HDBOfficer && user.getNric().equalsIgnoreCase(nric)) {
-                                HDBOfficer officer = (HDBOfficer) user;
-                                officer.addRegisteredProjectId(project.getProjectId());
-                                break;
-                            }
-                        }
-                        
-                        updated = true;
-                        System.out.println("Approved and officer added to project.");
-                    } else if (officerName == null) {
-                        System.out.println("Officer NRIC not found in the system.");
-                        linesToRetain.add(line);
-                    } else {
-                        System.out.println("Officer already registered for this project.");
-                    }
-                } else if ("R".equalsIgnoreCase(choice)) {
-                    System.out.println("Registration rejected.");
+            if ("A".equalsIgnoreCase(choice)) {
+                // The registration and the project's officer list are saved together
+                if (registrationService.approveRegistration(nric, projectId)) {
+                    System.out.println("Approved and officer added to project.");
                 } else {
-                    System.out.println("Skipped.");
-                    linesToRetain.add(line);
+                    System.out.println("Registration could not be approved. It remains pending.");
                 }
-            }
-        } catch (IOException e) {
-            System.out.println("Error reading OfficerRegistration.csv: " + e.getMessage());
-            return;
-        }
-
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(path))) {
-            bw.write("OfficerNRIC,ProjectID\n");
-            for (String l : linesToRetain) {
-                bw.write(l); bw.newLine();
-            }
-        } catch (IOException e) {
-            System.out.println("Error writing OfficerRegistration.csv: " + e.getMessage());
-        }
-
-        if (updated) {
-            FileManager.saveProjects(projects);
-            ProjectRepository.init(CSV_PATH);
-        }
-    }
-    
-    // Helper method to get officer name from NRIC
-    private String getOfficerNameFromNRIC(String nric) {
-        List<User> officers = FileManager.loadUsersFromCSV(Constants.OFFICER_CSV, "HDBOfficer");
-        for (User user : officers) {
-            if (user.getNric().equalsIgnoreCase(nric)) {
-                return user.getName();
+            } else if ("R".equalsIgnoreCase(choice)) {
+                System.out.println(registrationService.rejectRegistration(nric, projectId)
+                    ? "Registration rejected." : "Registration could not be rejected. It remains pending.");
+            } else {
+                System.out.println("Skipped.");
             }
         }
-        return null;
     }
     
     private void processApplicantApplications() {
         System.out.println("\n--- Approve/Reject Applicant Applications ---");
 
-        List<User> users = FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, "Applicant");
-        List<Project> managedProjects = projectController.getAllProjects().stream()
-            .filter(p -> p.getManager().equalsIgnoreCase(manager.getName()))
+        List<Integer> managedProjectIds = managedProjects().stream()
+            .map(Project::getProjectId)
             .collect(Collectors.toList());
-
-        List<Applicant> applicants = users.stream()
-            .filter(u -> u instanceof Applicant)
-            .map(u -> (Applicant) u)
-            .filter(a -> {
-                int pid = a.getAppliedProjectId();
-                return pid >= 0 && a.getApplicationStatus() != ApplicationStatus.SUCCESSFUL &&
-                       managedProjects.stream().anyMatch(p -> p.getProjectId() == pid);
-            }).collect(Collectors.toList());
-
-        if (applicants.isEmpty()) {
-            System.out.println("No applicants to process.");
+        if (managedProjectIds.isEmpty()) {
+            System.out.println("You are not managing any projects.");
             return;
         }
 
-        for (Applicant a : applicants) {
-            System.out.printf("Applicant: %s (%s)\n", a.getName(), a.getNric());
-            System.out.printf("  Age: %d | Marital: %s | Applied Project ID: %d | Flat Type: %s\n",
-                a.getAge(), a.getMaritalStatus(), a.getAppliedProjectId(), a.getAppliedFlatType());
-            System.out.printf("  Current Status: %s\n", a.getApplicationStatus());
-            System.out.print("Approve (A) / Reject (R) / Skip (S): ");
-            String choice = scanner.nextLine().trim();
+        // Pending applications are claimed a page at a time, so other staff get different ones
+        ApplicationController applicationController = new ApplicationController();
+        List<String> claimed = new ArrayList<>();
+        try {
+            while (true) {
+                List<ApplicationLease> page = applicationController.claimApplications(
+                    manager.getNric(), ApplicationStatus.PENDING, managedProjectIds, Constants.LIST_PAGE_SIZE);
+                if (page.isEmpty()) {
+                    System.out.println(claimed.isEmpty() ? "No applicants to process." : "No more applicants to process.");
+                    return;
+                }
 
-            if ("A".equalsIgnoreCase(choice)) {
-                a.setApplicationStatus(ApplicationStatus.SUCCESSFUL);
-                FileManager.updateApplicantApplication(a);
-                System.out.println("Application marked as SUCCESSFUL.");
-            } else if ("R".equalsIgnoreCase(choice)) {
-                a.setAppliedProjectId(-1);
-                a.setAppliedFlatType("");
-                a.setApplicationStatus(ApplicationStatus.UNSUCCESSFUL);
-                FileManager.updateApplicantApplication(a);
-                System.out.println("Application marked as UNSUCCESSFUL.");
-            } else {
-                System.out.println("Skipped.");
+                // Collect the decisions for the page first and save them together
+                List<IApplicationService.Decision> decisions = new ArrayList<>();
+                for (ApplicationLease lease : page) {
+                    claimed.add(lease.getApplicantNric());
+                    ApplicationView a = ApplicationCatalog.findByNric(lease.getApplicantNric()).orElse(null);
+                    if (a == null) {
+                        continue;
+                    }
+                    System.out.printf("Applicant: %s (%s)\n", a.getName(), a.getNric());
+                    System.out.printf("  Age: %d | Marital: %s | Applied Project ID: %d | Flat Type: %s\n",
+                        a.getAge(), a.getMaritalStatus(), a.getAppliedProjectId(), a.getFlatType());
+                    System.out.printf("  Current Status: %s\n", a.getStatus());
+                    System.out.print("Approve (A) / Reject (R) / Skip (S): ");
+                    String choice = scanner.nextLine().trim();
+
+                    if ("A".equalsIgnoreCase(choice)) {
+                        decisions.add(new IApplicationService.Decision(a.getNric(), ApplicationStatus.SUCCESSFUL));
+                        System.out.println("Application will be marked as SUCCESSFUL.");
+                    } else if ("R".equalsIgnoreCase(choice)) {
+                        decisions.add(new IApplicationService.Decision(a.getNric(), ApplicationStatus.UNSUCCESSFUL));
+                        System.out.println("Application will be marked as UNSUCCESSFUL.");
+                    } else {
+                        System.out.println("Skipped.");
+                    }
+                    System.out.println("------------------------------------------------");
+                }
+
+                if (!decisions.isEmpty()) {
+                    List<IApplicationService.DecisionResult> results = applicationController.processDecisions(manager.getNric(), decisions);
+                    for (IApplicationService.DecisionResult r : results) {
+                        if (r.isSuccess()) {
+                            System.out.printf("%s: marked as %s.\n", r.getApplicantNric(), r.getStatus());
+                        } else {
+                            System.out.printf("%s: not updated (%s).\n", r.getApplicantNric(), r.getMessage());
+                        }
+                    }
+                }
+
+                if (page.size() < Constants.LIST_PAGE_SIZE || !morePages()) {
+                    return;
+                }
             }
-            System.out.println("------------------------------------------------");
+        } finally {
+            // Skipped applications go back to the queue for other staff
+            claimed.forEach(nric -> applicationController.releaseApplication(nric, manager.getNric()));
         }
     }
 
+    /**
+     * Returns copies of the projects this manager manages, found through the manager index.
+     */
+    private List<Project> managedProjects() {
+        return projectController.getManagedProjects(manager.getNric());
+    }
+
+    /**
+     * Asks whether to go on to the next page of a work queue.
+     *
+     * @return true to continue, false if the manager stopped
+     */
+    private boolean morePages() {
+        System.out.print("Press Enter for the next page, or Q to stop: ");
+        return !"Q".equalsIgnoreCase(scanner.nextLine().trim());
+    }
+
     private void generateReports() {
         System.out.println("\n--- Report Generation ---");
         System.out.println("1. All Projects Summary");
@@ -711,26 +706,16 @@ public class HDBManagerMenu {
         
         String choice = scanner.nextLine().trim();
         
-        List<Project> managerProjects = projectController.getAllProjects().stream()
-            .filter(p -> p.getManager().equalsIgnoreCase(manager.getName()))
-            .collect(Collectors.toList());
+        List<Project> managerProjects = ManagerAssignments.getProjects(manager.getNric());
             
         if (managerProjects.isEmpty()) {
             System.out.println("You are not managing any projects.");
             return;
         }
         
-        List<User> users = FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, "Applicant");
-        List<Applicant> allApplicants = users.stream()
-            .filter(u -> u instanceof Applicant)
-            .map(u -> (Applicant) u)
-            .collect(Collectors.toList());
-            
-        // Filter applicants to only those who applied to manager's projects
-        List<Applicant> relevantApplicants = allApplicants.stream()
-            .filter(a -> a.getAppliedProjectId() > 0 && 
-                   managerProjects.stream().anyMatch(p -> p.getProjectId() == a.getAppliedProjectId()))
-            .collect(Collectors.toList());
+        // Only the applications to the manager's projects are read, through the join index
+        List<ApplicationView> relevantApplicants = ServiceLocator.get(IApplicationService.class)
+            .getApplicationsByManager(manager.getNric());
             
         if (relevantApplicants.isEmpty()) {
             System.out.println("No applicants found for your projects.");
@@ -764,49 +749,49 @@ public class HDBManagerMenu {
         }
     }
     
-    private void generateAllProjectsSummary(List<Project> projects, List<Applicant> applicants) {
+    private void generateAllProjectsSummary(List<Project> projects, List<ApplicationView> applicants) {
         System.out.println("\n--- All Projects Summary ---");
         
         for (Project p : projects) {
             System.out.printf("\nProject ID: %d | %s\n", p.getProjectId(), p.getProjectName());
             System.out.println("Applicants:");
 
-            List<Applicant> projectApplicants = applicants.stream()
+            List<ApplicationView> projectApplicants = applicants.stream()
                 .filter(a -> a.getAppliedProjectId() == p.getProjectId())
                 .collect(Collectors.toList());
 
             if (projectApplicants.isEmpty()) {
                 System.out.println("  No applicants for this project.");
             } else {
-                for (Applicant a : projectApplicants) {
+                for (ApplicationView a : projectApplicants) {
                     System.out.printf("  - %s (%s) | Age: %d | Marital: %s | Flat: %s | Status: %s\n",
                         a.getName(), a.getNric(), a.getAge(), a.getMaritalStatus(), 
-                        a.getAppliedFlatType(), a.getApplicationStatus());
+                        a.getFlatType(), a.getStatus());
                 }
             }
 
             long count2Room = projectApplicants.stream()
-                .filter(a -> "2-Room".equalsIgnoreCase(a.getAppliedFlatType()))
+                .filter(a -> "2-Room".equalsIgnoreCase(a.getFlatType()))
                 .count();
 
             long count3Room = projectApplicants.stream()
-                .filter(a -> "3-Room".equalsIgnoreCase(a.getAppliedFlatType()))
+                .filter(a -> "3-Room".equalsIgnoreCase(a.getFlatType()))
                 .count();
 
             long countPending = projectApplicants.stream()
-                .filter(a -> a.getApplicationStatus() == ApplicationStatus.PENDING)
+                .filter(a -> a.getStatus() == ApplicationStatus.PENDING)
                 .count();
 
             long countSuccessful = projectApplicants.stream()
-                .filter(a -> a.getApplicationStatus() == ApplicationStatus.SUCCESSFUL)
+                .filter(a -> a.getStatus() == ApplicationStatus.SUCCESSFUL)
                 .count();
                 
             long countBooked = projectApplicants.stream()
-                .filter(a -> a.getApplicationStatus() == ApplicationStatus.BOOKED)
+                .filter(a -> a.getStatus() == ApplicationStatus.BOOKED)
                 .count();
 
             long countUnsuccessful = projectApplicants.stream()
-                .filter(a -> a.getApplicationStatus() == ApplicationStatus.UNSUCCESSFUL)
+                .filter(a -> a.getStatus() == ApplicationStatus.UNSUCCESSFUL)
                 .count();
 
             System.out.println("Flat Application Summary:");
@@ -823,7 +808,7 @@ public class HDBManagerMenu {
         displaySuccessfulApplications(projects, applicants);
     }
     
-    private void generateProjectFilteredReport(List<Project> projects, List<Applicant> applicants) {
+    private void generateProjectFilteredReport(List<Project> projects, List<ApplicationView> applicants) {
         System.out.println("\n--- Filter by Project ---");
         
         for (Project p : projects) {
@@ -848,7 +833,7 @@ public class HDBManagerMenu {
             return;
         }
         
-        List<Applicant> filteredApplicants = applicants.stream()
+        List<ApplicationView> filteredApplicants = applicants.stream()
             .filter(a -> a.getAppliedProjectId() == projectId)
             .collect(Collectors.toList());
             
@@ -860,10 +845,10 @@ public class HDBManagerMenu {
         System.out.printf("\nProject: %s @ %s\n", selectedProject.getProjectName(), selectedProject.getNeighborhood());
         System.out.println("Applicants:");
         
-        for (Applicant a : filteredApplicants) {
+        for (ApplicationView a : filteredApplicants) {
             System.out.printf("  - %s (%s) | Age: %d | Marital: %s | Flat: %s | Status: %s\n",
                 a.getName(), a.getNric(), a.getAge(), a.getMaritalStatus(), 
-                a.getAppliedFlatType(), a.getApplicationStatus());
+                a.getFlatType(), a.getStatus());
         }
         
         printSummaryStatistics(filteredApplicants);
@@ -872,7 +857,7 @@ public class HDBManagerMenu {
         displaySuccessfulApplications(projects, applicants);
     }
     
-    private void generateMaritalStatusFilteredReport(List<Project> projects, List<Applicant> applicants) {
+    private void generateMaritalStatusFilteredReport(List<Project> projects, List<ApplicationView> applicants) {
         System.out.println("\n--- Filter by Marital Status ---");
         System.out.println("1. Single");
         System.out.println("2. Married");
@@ -890,7 +875,7 @@ public class HDBManagerMenu {
             return;
         }
         
-        List<Applicant> filteredApplicants = applicants.stream()
+        List<ApplicationView> filteredApplicants = applicants.stream()
             .filter(a -> maritalStatus.equalsIgnoreCase(a.getMaritalStatus()))
             .collect(Collectors.toList());
             
@@ -901,7 +886,7 @@ public class HDBManagerMenu {
         
         System.out.println("\nApplicants with Marital Status: " + maritalStatus);
         
-        for (Applicant a : filteredApplicants) {
+        for (ApplicationView a : filteredApplicants) {
             Project p = projects.stream()
                 .filter(proj -> proj.getProjectId() == a.getAppliedProjectId())
                 .findFirst().orElse(null);
@@ -910,7 +895,7 @@ public class HDBManagerMenu {
             
             System.out.printf("  - %s (%s) | Age: %d | Project: %s | Flat: %s | Status: %s\n",
                 a.getName(), a.getNric(), a.getAge(), projectName, 
-                a.getAppliedFlatType(), a.getApplicationStatus());
+                a.getFlatType(), a.getStatus());
         }
         
         printSummaryStatistics(filteredApplicants);
@@ -919,7 +904,7 @@ public class HDBManagerMenu {
         displaySuccessfulApplications(projects, applicants);
     }
     
-    private void generateAgeGroupFilteredReport(List<Project> projects, List<Applicant> applicants) {
+    private void generateAgeGroupFilteredReport(List<Project> projects, List<ApplicationView> applicants) {
         System.out.println("\n--- Filter by Age Group ---");
         System.out.println("1. Below 30");
         System.out.println("2. 30-40");
@@ -959,7 +944,7 @@ public class HDBManagerMenu {
         final int finalMinAge = minAge;
         final int finalMaxAge = maxAge;
         
-        List<Applicant> filteredApplicants = applicants.stream()
+        List<ApplicationView> filteredApplicants = applicants.stream()
             .filter(a -> a.getAge() >= finalMinAge && a.getAge() <= finalMaxAge)
             .collect(Collectors.toList());
             
@@ -970,7 +955,7 @@ public class HDBManagerMenu {
         
         System.out.println("\nApplicants in Age Group: " + ageGroupDesc);
         
-        for (Applicant a : filteredApplicants) {
+        for (ApplicationView a : filteredApplicants) {
             Project p = projects.stream()
                 .filter(proj -> proj.getProjectId() == a.getAppliedProjectId())
                 .findFirst().orElse(null);
@@ -979,7 +964,7 @@ public class HDBManagerMenu {
             
             System.out.printf("  - %s (%s) | Age: %d | Marital: %s | Project: %s | Flat: %s | Status: %s\n",
                 a.getName(), a.getNric(), a.getAge(), a.getMaritalStatus(), projectName, 
-                a.getAppliedFlatType(), a.getApplicationStatus());
+                a.getFlatType(), a.getStatus());
         }
         
         printSummaryStatistics(filteredApplicants);
@@ -988,7 +973,7 @@ public class HDBManagerMenu {
         displaySuccessfulApplications(projects, applicants);
     }
     
-    private void generateFlatTypeFilteredReport(List<Project> projects, List<Applicant> applicants) {
+    private void generateFlatTypeFilteredReport(List<Project> projects, List<ApplicationView> applicants) {
         System.out.println("\n--- Filter by Flat Type ---");
         System.out.println("1. 2-Room");
         System.out.println("2. 3-Room");
@@ -1006,8 +991,8 @@ public class HDBManagerMenu {
             return;
         }
         
-        List<Applicant> filteredApplicants = applicants.stream()
-            .filter(a -> flatType.equalsIgnoreCase(a.getAppliedFlatType()))
+        List<ApplicationView> filteredApplicants = applicants.stream()
+            .filter(a -> flatType.equalsIgnoreCase(a.getFlatType()))
             .collect(Collectors.toList());
             
         if (filteredApplicants.isEmpty()) {
@@ -1017,7 +1002,7 @@ public class HDBManagerMenu {
         
         System.out.println("\nApplicants for Flat Type: " + flatType);
         
-        for (Applicant a : filteredApplicants) {
+        for (ApplicationView a : filteredApplicants) {
             Project p = projects.stream()
                 .filter(proj -> proj.getProjectId() == a.getAppliedProjectId())
                 .findFirst().orElse(null);
@@ -1026,7 +1011,7 @@ public class HDBManagerMenu {
             
             System.out.printf("  - %s (%s) | Age: %d | Marital: %s | Project: %s | Status: %s\n",
                 a.getName(), a.getNric(), a.getAge(), a.getMaritalStatus(), projectName, 
-                a.getApplicationStatus());
+                a.getStatus());
         }
         
         // Additional statistics for flat type report
@@ -1048,7 +1033,7 @@ public class HDBManagerMenu {
         displaySuccessfulApplications(projects, applicants);
     }
     
-    private void generateStatusFilteredReport(List<Project> projects, List<Applicant> applicants) {
+    private void generateStatusFilteredReport(List<Project> projects, List<ApplicationView> applicants) {
         System.out.println("\n--- Filter by Application Status ---");
         System.out.println("1. Pending");
         System.out.println("2. Successful");
@@ -1077,8 +1062,8 @@ public class HDBManagerMenu {
                 return;
         }
         
-        List<Applicant> filteredApplicants = applicants.stream()
-            .filter(a -> a.getApplicationStatus() == status)
+        List<ApplicationView> filteredApplicants = applicants.stream()
+            .filter(a -> a.getStatus() == status)
             .collect(Collectors.toList());
             
         if (filteredApplicants.isEmpty()) {
@@ -1088,7 +1073,7 @@ public class HDBManagerMenu {
         
         System.out.println("\nApplicants with Status: " + status);
         
-        for (Applicant a : filteredApplicants) {
+        for (ApplicationView a : filteredApplicants) {
             Project p = projects.stream()
                 .filter(proj -> proj.getProjectId() == a.getAppliedProjectId())
                 .findFirst().orElse(null);
@@ -1097,16 +1082,16 @@ public class HDBManagerMenu {
             
             System.out.printf("  - %s (%s) | Age: %d | Marital: %s | Project: %s | Flat: %s\n",
                 a.getName(), a.getNric(), a.getAge(), a.getMaritalStatus(), projectName, 
-                a.getAppliedFlatType());
+                a.getFlatType());
         }
         
         // Additional statistics for status report
         long type2RoomCount = filteredApplicants.stream()
-            .filter(a -> "2-Room".equalsIgnoreCase(a.getAppliedFlatType()))
+            .filter(a -> "2-Room".equalsIgnoreCase(a.getFlatType()))
             .count();
             
         long type3RoomCount = filteredApplicants.stream()
-            .filter(a -> "3-Room".equalsIgnoreCase(a.getAppliedFlatType()))
+            .filter(a -> "3-Room".equalsIgnoreCase(a.getFlatType()))
             .count();
             
         System.out.println("\nFlat Type Distribution:");
@@ -1134,9 +1119,9 @@ public class HDBManagerMenu {
      * This method is called at the end of each report to ensure managers can always see
      * successful applications regardless of the filter being applied.
      */
-    private void displaySuccessfulApplications(List<Project> projects, List<Applicant> allApplicants) {
-        List<Applicant> successfulApplicants = allApplicants.stream()
-            .filter(a -> a.getApplicationStatus() == ApplicationStatus.SUCCESSFUL)
+    private void displaySuccessfulApplications(List<Project> projects, List<ApplicationView> allApplicants) {
+        List<ApplicationView> successfulApplicants = allApplicants.stream()
+            .filter(a -> a.getStatus() == ApplicationStatus.SUCCESSFUL)
             .collect(Collectors.toList());
             
         if (successfulApplicants.isEmpty()) {
@@ -1148,7 +1133,7 @@ public class HDBManagerMenu {
         System.out.println("SUCCESSFUL APPLICATIONS SUMMARY");
         System.out.println("==============================================");
         
-        for (Applicant a : successfulApplicants) {
+        for (ApplicationView a : successfulApplicants) {
             Project p = projects.stream()
                 .filter(proj -> proj.getProjectId() == a.getAppliedProjectId())
                 .findFirst().orElse(null);
@@ -1159,34 +1144,34 @@ public class HDBManagerMenu {
             System.out.printf("Applicant: %s (%s)\n", a.getName(), a.getNric());
             System.out.printf("  Age: %d | Marital Status: %s\n", a.getAge(), a.getMaritalStatus());
             System.out.printf("  Project: %s @ %s\n", projectName, neighborhood);
-            System.out.printf("  Flat Type: %s\n", a.getAppliedFlatType());
+            System.out.printf("  Flat Type: %s\n", a.getFlatType());
             System.out.println("----------------------------------------------");
         }
     }
     
-    private void printSummaryStatistics(List<Applicant> applicants) {
+    private void printSummaryStatistics(List<ApplicationView> applicants) {
         long count2Room = applicants.stream()
-            .filter(a -> "2-Room".equalsIgnoreCase(a.getAppliedFlatType()))
+            .filter(a -> "2-Room".equalsIgnoreCase(a.getFlatType()))
             .count();
 
         long count3Room = applicants.stream()
-            .filter(a -> "3-Room".equalsIgnoreCase(a.getAppliedFlatType()))
+            .filter(a -> "3-Room".equalsIgnoreCase(a.getFlatType()))
             .count();
 
         long countPending = applicants.stream()
-            .filter(a -> a.getApplicationStatus() == ApplicationStatus.PENDING)
+            .filter(a -> a.getStatus() == ApplicationStatus.PENDING)
             .count();
 
         long countSuccessful = applicants.stream()
-            .filter(a -> a.getApplicationStatus() == ApplicationStatus.SUCCESSFUL)
+            .filter(a -> a.getStatus() == ApplicationStatus.SUCCESSFUL)
             .count();
             
         long countBooked = applicants.stream()
-            .filter(a -> a.getApplicationStatus() == ApplicationStatus.BOOKED)
+            .filter(a -> a.getStatus() == ApplicationStatus.BOOKED)
             .count();
 
         long countUnsuccessful = applicants.stream()
-            .filter(a -> a.getApplicationStatus() == ApplicationStatus.UNSUCCESSFUL)
+            .filter(a -> a.getStatus() == ApplicationStatus.UNSUCCESSFUL)
             .count();
 
         System.out.println("\nSummary Statistics:");
@@ -1201,14 +1186,76 @@ public class HDBManagerMenu {
         System.out.println("    UNSUCCESSFUL: " + countUnsuccessful);
     }
 
+    private void runBallot() {
+        System.out.println("\n--- Run Ballot for Pending Applications ---");
+
+        List<Integer> managedIds = ManagerAssignments.getProjects(manager.getNric()).stream()
+            .map(Project::getProjectId)
+            .collect(Collectors.toList());
+        if (managedIds.isEmpty()) {
+            System.out.println("You are not managing any projects.");
+            return;
+        }
+
+        System.out.print("Enter Project ID to ballot (or press Enter for all your projects): ");
+        String idInput = scanner.nextLine().trim();
+        List<Integer> projectIds = managedIds;
+        if (!idInput.isEmpty()) {
+            try {
+                int projectId = Integer.parseInt(idInput);
+                if (!managedIds.contains(projectId)) {
+                    System.out.println("Project ID " + projectId + " not found or not under your management.");
+                    return;
+                }
+                projectIds = Arrays.asList(projectId);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid Project ID.");
+                return;
+            }
+        }
+
+        System.out.print("Enter ballot seed (or press Enter for a random seed): ");
+        String seedInput = scanner.nextLine().trim();
+        long seed;
+        try {
+            seed = seedInput.isEmpty() ? System.nanoTime() : Long.parseLong(seedInput);
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid seed.");
+            return;
+        }
+
+        List<BallotPriority> priorities = new ArrayList<>();
+        System.out.print("Give priority to married applicants? (Y/N): ");
+        if ("Y".equalsIgnoreCase(scanner.nextLine().trim())) {
+            priorities.add(BallotPriority.MARRIED_FIRST);
+        }
+        System.out.print("Give priority to older applicants? (Y/N): ");
+        if ("Y".equalsIgnoreCase(scanner.nextLine().trim())) {
+            priorities.add(BallotPriority.OLDER_FIRST);
+        }
+
+        IBallotService.BallotResult result = ServiceLocator.get(IBallotService.class)
+            .runBallot(projectIds, seed, priorities);
+        if (result.getGroups().isEmpty()) {
+            System.out.println("No pending applications to ballot.");
+            return;
+        }
+        for (IBallotService.GroupResult g : result.getGroups()) {
+            System.out.printf("Project ID %d | %s: %d applicant(s), %d unit(s) offered, %d successful (%s)\n",
+                g.getProjectId(), g.getFlatType(), g.getApplicants(), g.getUnitsOffered(),
+                g.getSuccessful(), g.getMessage());
+        }
+        if (result.isCommitted()) {
+            System.out.println("Ballot " + result.getBallotId() + " saved. Seed: " + result.getSeed());
+        } else {
+            System.out.println("Ballot results could not be saved. No applications were changed.");
+        }
+    }
+
     private void processWithdrawalRequests() {
         System.out.println("\n--- Process Withdrawal Requests ---");
         
-        List<User> users = FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, "Applicant");
-        List<Project> managedProjects = projectController.getAllProjects().stream()
-            .filter(p -> p.getManager().equalsIgnoreCase(manager.getName()))
-            .collect(Collectors.toList());
-            
+        List<Project> managedProjects = managedProjects();
         if (managedProjects.isEmpty()) {
             System.out.println("You are not managing any projects.");
             return;
@@ -1217,24 +1264,43 @@ public class HDBManagerMenu {
         List<Integer> managedProjectIds = managedProjects.stream()
             .map(Project::getProjectId)
             .collect(Collectors.toList());
-            
-        List<Applicant> pendingWithdrawals = users.stream()
-            .filter(u -> u instanceof Applicant)
-            .map(u -> (Applicant) u)
-            .filter(a -> {
-                int pid = a.getAppliedProjectId();
-                return pid >= 0 && 
-                       a.getApplicationStatus() == ApplicationStatus.PENDING_WITHDRAWAL &&
-                       managedProjectIds.contains(pid);
-            })
-            .collect(Collectors.toList());
-            
-        if (pendingWithdrawals.isEmpty()) {
-            System.out.println("No pending withdrawal requests for your projects.");
-            return;
-        }
         
-        for (Applicant a : pendingWithdrawals) {
+        // Withdrawal requests are claimed a page at a time, so other staff get different ones
+        ApplicationController applicationController = new ApplicationController();
+        List<String> claimed = new ArrayList<>();
+        try {
+            while (true) {
+                List<ApplicationLease> page = applicationController.claimApplications(
+                    manager.getNric(), ApplicationStatus.PENDING_WITHDRAWAL, managedProjectIds, Constants.LIST_PAGE_SIZE);
+                if (page.isEmpty()) {
+                    System.out.println(claimed.isEmpty() ? "No pending withdrawal requests for your projects."
+                        : "No more withdrawal requests to process.");
+                    return;
+                }
+                List<ApplicationView> pendingWithdrawals = new ArrayList<>();
+                for (ApplicationLease lease : page) {
+                    claimed.add(lease.getApplicantNric());
+                    ApplicationCatalog.findByNric(lease.getApplicantNric()).ifPresent(pendingWithdrawals::add);
+                }
+                processWithdrawalPage(applicationController, managedProjects, pendingWithdrawals);
+                if (page.size() < Constants.LIST_PAGE_SIZE || !morePages()) {
+                    return;
+                }
+            }
+        } finally {
+            // Skipped requests go back to the queue for other staff
+            claimed.forEach(nric -> applicationController.releaseApplication(nric, manager.getNric()));
+        }
+    }
+    
+    /**
+     * Decides one page of withdrawal requests and returns the units of approved withdrawals.
+     */
+    private void processWithdrawalPage(ApplicationController applicationController, List<Project> managedProjects,
+                                       List<ApplicationView> pendingWithdrawals) {
+        // Collect all decisions first and save them together at the end
+        List<IApplicationService.Decision> decisions = new ArrayList<>();
+        for (ApplicationView a : pendingWithdrawals) {
             Project p = managedProjects.stream()
                 .filter(proj -> proj.getProjectId() == a.getAppliedProjectId())
                 .findFirst().orElse(null);
@@ -1243,44 +1309,138 @@ public class HDBManagerMenu {
             
             System.out.printf("Applicant: %s (%s)\n", a.getName(), a.getNric());
             System.out.printf("  Age: %d | Marital: %s | Project: %s | Flat Type: %s\n",
-                a.getAge(), a.getMaritalStatus(), projectName, a.getAppliedFlatType());
+                a.getAge(), a.getMaritalStatus(), projectName, a.getFlatType());
             System.out.print("Approve withdrawal (A) / Reject withdrawal (R) / Skip (S): ");
             
             String choice = scanner.nextLine().trim();
             
             if ("A".equalsIgnoreCase(choice)) {
-                // If the applicant has a successful or booked application, restore inventory
-                if (a.getApplicationStatus() == ApplicationStatus.PENDING_WITHDRAWAL) {
-                    if (p != null) {
-                        String flatType = a.getAppliedFlatType();
-                        if ("2-Room".equalsIgnoreCase(flatType)) {
-                            p.setType1Units(p.getType1Units() + 1);
-                        } else if ("3-Room".equalsIgnoreCase(flatType)) {
-                            p.setType2Units(p.getType2Units() + 1);
-                        }
-                        FileManager.saveProjects(projectController.getAllProjects());
-                        ProjectRepository.init(Constants.PROJECT_CSV);
-                    }
-                }
-                
-                boolean success = new com.SC2002.bto.control.ApplicationController().approveWithdrawal(a);
-                if (success) {
-                    System.out.println("Withdrawal approved. Application has been reset.");
-                } else {
-                    System.out.println("Error approving withdrawal.");
-                }
+                decisions.add(new IApplicationService.Decision(a.getNric(), ApplicationStatus.NOT_APPLIED));
+                System.out.println("Withdrawal will be approved.");
             } else if ("R".equalsIgnoreCase(choice)) {
-                boolean success = new com.SC2002.bto.control.ApplicationController().rejectWithdrawal(a);
-                if (success) {
-                    System.out.println("Withdrawal rejected. Application status reverted to PENDING.");
-                } else {
-                    System.out.println("Error rejecting withdrawal.");
-                }
+                decisions.add(new IApplicationService.Decision(a.getNric(), ApplicationStatus.PENDING));
+                System.out.println("Withdrawal will be rejected.");
             } else {
                 System.out.println("Skipped.");
             }
             System.out.println("------------------------------------------------");
         }
+        
+        if (decisions.isEmpty()) {
+            return;
+        }
+        
+        List<IApplicationService.DecisionResult> results = applicationController.processDecisions(manager.getNric(), decisions);
+        boolean inventoryChanged = false;
+        Map<Integer, Set<String>> released = new TreeMap<>();
+        for (IApplicationService.DecisionResult r : results) {
+            if (!r.isSuccess()) {
+                System.out.printf("%s: error processing withdrawal (%s).\n", r.getApplicantNric(), r.getMessage());
+            } else if (r.getStatus() == ApplicationStatus.PENDING) {
+                System.out.printf("%s: withdrawal rejected. Application status reverted to PENDING.\n", r.getApplicantNric());
+            } else {
+                System.out.printf("%s: withdrawal approved. Application has been reset.\n", r.getApplicantNric());
+                
+                // Restore inventory for the withdrawn flat
+                ApplicationView a = pendingWithdrawals.stream()
+                    .filter(x -> x.getNric().equalsIgnoreCase(r.getApplicantNric()))
+                    .findFirst().orElse(null);
+                Project p = a == null ? null : managedProjects.stream()
+                    .filter(proj -> proj.getProjectId() == a.getAppliedProjectId())
+                    .findFirst().orElse(null);
+                if (p != null) {
+                    String flatType = a.getFlatType();
+                    released.computeIfAbsent(p.getProjectId(), k -> new LinkedHashSet<>()).add(flatType);
+                    if ("2-Room".equalsIgnoreCase(flatType)) {
+                        p.setType1Units(p.getType1Units() + 1);
+                        inventoryChanged = true;
+                    } else if ("3-Room".equalsIgnoreCase(flatType)) {
+                        p.setType2Units(p.getType2Units() + 1);
+                        inventoryChanged = true;
+                    }
+                }
+            }
+        }
+        
+        if (inventoryChanged) {
+            List<Project> allProjects = new ArrayList<>(projectController.getAllProjects());
+            allProjects.replaceAll(proj -> managedProjects.stream()
+                .filter(m -> m.getProjectId() == proj.getProjectId())
+                .findFirst().orElse(proj));
+            FileManager.saveProjects(allProjects);
+        }
+        
+        // Released units go to the next applicants on the waitlist
+        for (Map.Entry<Integer, Set<String>> entry : released.entrySet()) {
+            for (String flatType : entry.getValue()) {
+                int offered = applicationController.offerReleasedUnits(entry.getKey(), flatType);
+                if (offered > 0) {
+                    System.out.printf("Project ID %d | %s: %d unit(s) offered to waitlisted applicants.\n",
+                        entry.getKey(), flatType, offered);
+                }
+            }
+        }
+    }
+    
+    private void bulkImportUsers() {
+        System.out.println("\n--- Bulk Import Users ---");
+        System.out.println("1. Applicants");
+        System.out.println("2. HDB Officers");
+        System.out.println("3. HDB Managers");
+        System.out.print("Select the list to import into: ");
+        String choice = scanner.nextLine().trim();
+        if (!choice.equals("1") && !choice.equals("2") && !choice.equals("3")) {
+            System.out.println("Invalid option.");
+            return;
+        }
+
+        System.out.print("Enter the path of the CSV file to import: ");
+        String path = scanner.nextLine().trim();
+        if (path.isEmpty()) {
+            System.out.println("No file given.");
+            return;
+        }
+
+        IImportService importService = ServiceLocator.get(IImportService.class);
+        IImportService.ImportReport report;
+        switch (choice) {
+            case "1": report = importService.importApplicants(path); break;
+            case "2": report = importService.importOfficers(path); break;
+            default: report = importService.importManagers(path); break;
+        }
+        System.out.println(report);
+        if (!report.isCompleted()) {
+            System.out.println("Run the import again with the same file to resume.");
+        }
+    }
+    
+    private void viewPerformanceStatistics() {
+        System.out.println("\n--- Performance Statistics ---");
+        if (OperationTimer.getHistograms().isEmpty()) {
+            System.out.println("No actions timed yet.");
+        } else {
+            System.out.print(OperationTimer.dumpHistograms());
+        }
+        System.out.println("\nStartup phases:");
+        System.out.print(Bootstrap.formatPhaseTimings());
+        System.out.println("Actions slower than " + OperationTimer.getSlowThresholdMillis()
+            + " ms are logged to " + Constants.SLOW_OPERATION_LOG + ".");
+        System.out.print("Enter a new threshold in ms, or press Enter to keep it: ");
+        String input = scanner.nextLine().trim();
+        if (input.isEmpty()) {
+            return;
+        }
+        try {
+            long threshold = Long.parseLong(input);
+            if (threshold < 0) {
+                System.out.println("Threshold cannot be negative.");
+                return;
+            }
+            OperationTimer.setSlowThresholdMillis(threshold);
+            System.out.println("Slow-operation threshold set to " + threshold + " ms.");
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid number.");
+        }
     }
     
     private void viewProjects() {
@@ -1290,34 +1450,28 @@ public class HDBManagerMenu {
         System.out.print("Enter your choice: ");
         
         String choice = scanner.nextLine().trim();
-        List<Project> projectsToView;
+        ProjectQuery.Builder query = ProjectQuery.builder();
         
         if ("1".equals(choice)) {
-            projectsToView = projectController.getAllProjects();
-            if (projectsToView.isEmpty()) {
-                System.out.println("No projects available in the system.");
-                return;
-            }
             System.out.println("\nViewing All Projects:");
         } else if ("2".equals(choice)) {
-            projectsToView = projectController.getAllProjects().stream()
-                .filter(p -> p.getManager().equalsIgnoreCase(manager.getName()))
-                .collect(Collectors.toList());
-            if (projectsToView.isEmpty()) {
-                System.out.println("You are not managing any projects.");
-                return;
-            }
+            query.manager(manager.getName());
             System.out.println("\nViewing Your Projects:");
         } else {
             System.out.println("Invalid choice.");
             return;
         }
         
-        // Apply filters if requested
-        projectsToView = applyFilters(projectsToView);
+        // Filters are combined into one query, which the repository answers from its indexes
+        applyFilters(query);
+        List<Project> projectsToView = projectController.findProjects(query.build());
         
         if (projectsToView.isEmpty()) {
-            System.out.println("No projects match the selected filters.");
+            if ("2".equals(choice)) {
+                System.out.println("You are not managing any projects that match the selected filters.");
+            } else {
+                System.out.println("No projects match the selected filters.");
+            }
             return;
         }
         
@@ -1325,44 +1479,50 @@ public class HDBManagerMenu {
         displayProjectDetails(projectsToView);
     }
     
-    private List<Project> applyFilters(List<Project> projects) {
-        System.out.println("\nFilter Options:");
-        System.out.println("1. Filter by Location (Neighborhood)");
-        System.out.println("2. Filter by Flat Type");
-        System.out.println("3. Filter by Price Range");
-        System.out.println("4. Filter by Application Period");
-        System.out.println("5. Filter by Visibility");
-        System.out.println("6. No Filter (Show All)");
-        System.out.print("Enter your choice: ");
-        
-        String choice = scanner.nextLine().trim();
-        
-        switch (choice) {
-            case "1":
-                return filterByLocation(projects);
-            case "2":
-                return filterByFlatType(projects);
-            case "3":
-                return filterByPriceRange(projects);
-            case "4":
-                return filterByApplicationPeriod(projects);
-            case "5":
-                return filterByVisibility(projects);
-            case "6":
-                return projects;
-            default:
-                System.out.println("Invalid choice. Showing all projects.");
-                return projects;
+    private void applyFilters(ProjectQuery.Builder query) {
+        while (true) {
+            System.out.println("\nFilter Options:");
+            System.out.println("1. Filter by Location (Neighborhood)");
+            System.out.println("2. Filter by Flat Type");
+            System.out.println("3. Filter by Price Range");
+            System.out.println("4. Filter by Application Period");
+            System.out.println("5. Filter by Visibility");
+            System.out.println("6. Sort Results");
+            System.out.println("7. Show Results");
+            System.out.print("Enter your choice: ");
+            
+            String choice = scanner.nextLine().trim();
+            
+            switch (choice) {
+                case "1":
+                    filterByLocation(query);
+                    break;
+                case "2":
+                    filterByFlatType(query);
+                    break;
+                case "3":
+                    filterByPriceRange(query);
+                    break;
+                case "4":
+                    filterByApplicationPeriod(query);
+                    break;
+                case "5":
+                    filterByVisibility(query);
+                    break;
+                case "6":
+                    sortResults(query);
+                    break;
+                case "7":
+                    return;
+                default:
+                    System.out.println("Invalid choice. Showing results.");
+                    return;
+            }
         }
     }
     
-    private List<Project> filterByLocation(List<Project> projects) {
-        // Get unique neighborhoods
-        List<String> neighborhoods = projects.stream()
-            .map(Project::getNeighborhood)
-            .distinct()
-            .sorted()
-            .collect(Collectors.toList());
+    private void filterByLocation(ProjectQuery.Builder query) {
+        List<String> neighborhoods = ProjectCatalog.snapshot().getNeighborhoods();
             
         System.out.println("\nAvailable Neighborhoods:");
         for (int i = 0; i < neighborhoods.size(); i++) {
@@ -1373,21 +1533,16 @@ public class HDBManagerMenu {
         try {
             int index = Integer.parseInt(scanner.nextLine().trim()) - 1;
             if (index >= 0 && index < neighborhoods.size()) {
-                String selectedNeighborhood = neighborhoods.get(index);
-                return projects.stream()
-                    .filter(p -> p.getNeighborhood().equalsIgnoreCase(selectedNeighborhood))
-                    .collect(Collectors.toList());
+                query.neighborhood(neighborhoods.get(index));
             } else {
-                System.out.println("Invalid selection. Showing all projects.");
-                return projects;
+                System.out.println("Invalid selection. Location filter not applied.");
             }
         } catch (NumberFormatException e) {
-            System.out.println("Invalid input. Showing all projects.");
-            return projects;
+            System.out.println("Invalid input. Location filter not applied.");
         }
     }
     
-    private List<Project> filterByFlatType(List<Project> projects) {
+    private void filterByFlatType(ProjectQuery.Builder query) {
         System.out.println("\nSelect Flat Type:");
         System.out.println("1. 2-Room");
         System.out.println("2. 3-Room");
@@ -1396,20 +1551,15 @@ public class HDBManagerMenu {
         String choice = scanner.nextLine().trim();
         
         if ("1".equals(choice)) {
-            return projects.stream()
-                .filter(p -> p.getType1Desc().contains("2-Room"))
-                .collect(Collectors.toList());
+            query.flatType("2-Room");
         } else if ("2".equals(choice)) {
-            return projects.stream()
-                .filter(p -> p.getType2Desc().contains("3-Room"))
-                .collect(Collectors.toList());
+            query.flatType("3-Room");
         } else {
-            System.out.println("Invalid choice. Showing all projects.");
-            return projects;
+            System.out.println("Invalid choice. Flat type filter not applied.");
         }
     }
     
-    private List<Project> filterByPriceRange(List<Project> projects) {
+    private void filterByPriceRange(ProjectQuery.Builder query) {
         System.out.println("\nEnter Price Range:");
         System.out.print("Minimum Price: ");
         int minPrice;
@@ -1427,17 +1577,10 @@ public class HDBManagerMenu {
             maxPrice = Integer.MAX_VALUE;
         }
         
-        final int finalMinPrice = minPrice;
-        final int finalMaxPrice = maxPrice;
-        
-        return projects.stream()
-            .filter(p -> 
-                (p.getType1Price() >= finalMinPrice && p.getType1Price() <= finalMaxPrice) ||
-                (p.getType2Price() >= finalMinPrice && p.getType2Price() <= finalMaxPrice))
-            .collect(Collectors.toList());
+        query.priceRange(minPrice, maxPrice);
     }
     
-    private List<Project> filterByApplicationPeriod(List<Project> projects) {
+    private void filterByApplicationPeriod(ProjectQuery.Builder query) {
         System.out.println("\nSelect Application Period:");
         System.out.println("1. Currently Open");
         System.out.println("2. Upcoming (Not Yet Open)");
@@ -1445,29 +1588,23 @@ public class HDBManagerMenu {
         System.out.print("Enter your choice: ");
         
         String choice = scanner.nextLine().trim();
-        LocalDate today = LocalDate.now();
         
         switch (choice) {
             case "1":
-                return projects.stream()
-                    .filter(p -> !today.isBefore(p.getApplicationOpeningDate()) && 
-                                 !today.isAfter(p.getApplicationClosingDate()))
-                    .collect(Collectors.toList());
+                query.period(ProjectQuery.Period.OPEN);
+                break;
             case "2":
-                return projects.stream()
-                    .filter(p -> today.isBefore(p.getApplicationOpeningDate()))
-                    .collect(Collectors.toList());
+                query.period(ProjectQuery.Period.UPCOMING);
+                break;
             case "3":
-                return projects.stream()
-                    .filter(p -> today.isAfter(p.getApplicationClosingDate()))
-                    .collect(Collectors.toList());
+                query.period(ProjectQuery.Period.CLOSED);
+                break;
             default:
-                System.out.println("Invalid choice. Showing all projects.");
-                return projects;
+                System.out.println("Invalid choice. Application period filter not applied.");
         }
     }
     
-    private List<Project> filterByVisibility(List<Project> projects) {
+    private void filterByVisibility(ProjectQuery.Builder query) {
         System.out.println("\nSelect Visibility:");
         System.out.println("1. Visible Projects");
         System.out.println("2. Hidden Projects");
@@ -1476,16 +1613,30 @@ public class HDBManagerMenu {
         String choice = scanner.nextLine().trim();
         
         if ("1".equals(choice)) {
-            return projects.stream()
-                .filter(Project::isVisible)
-                .collect(Collectors.toList());
+            query.visible(true);
         } else if ("2".equals(choice)) {
-            return projects.stream()
-                .filter(p -> !p.isVisible())
-                .collect(Collectors.toList());
+            query.visible(false);
         } else {
-            System.out.println("Invalid choice. Showing all projects.");
-            return projects;
+            System.out.println("Invalid choice. Visibility filter not applied.");
+        }
+    }
+    
+    private void sortResults(ProjectQuery.Builder query) {
+        ProjectQuery.Sort[] sorts = ProjectQuery.Sort.values();
+        System.out.println("\nSort By:");
+        for (int i = 0; i < sorts.length; i++) {
+            System.out.printf("%d. %s\n", i + 1, sorts[i].name().replace('_', ' ').toLowerCase());
+        }
+        System.out.print("Enter your choice: ");
+        try {
+            int index = Integer.parseInt(scanner.nextLine().trim()) - 1;
+            if (index >= 0 && index < sorts.length) {
+                query.sort(sorts[index]);
+            } else {
+                System.out.println("Invalid selection. Sort order not changed.");
+            }
+        } catch (NumberFormatException e) {
+            System.out.println("Invalid input. Sort order not changed.");
         }
     }
     
@@ -1535,41 +1686,69 @@ public class HDBManagerMenu {
     private void viewAllEnquiries() {
         System.out.println("\n--- All Enquiries for Your Projects ---");
 
-        List<Enquiry> allEnquiries = FileManager.loadAllEnquiries(Constants.ENQUIRY_CSV);
-        List<Project> managerProjects = projectController.getAllProjects().stream()
-            .filter(p -> p.getManager().equalsIgnoreCase(manager.getName()))
+        List<Integer> managedProjectIds = ManagerAssignments.getProjects(manager.getNric()).stream()
+            .map(Project::getProjectId)
             .collect(Collectors.toList());
 
-        if (managerProjects.isEmpty()) {
+        if (managedProjectIds.isEmpty()) {
             System.out.println("You are not managing any projects.");
             return;
         }
 
-        List<Integer> managedProjectIds = managerProjects.stream()
-            .map(Project::getProjectId)
-            .collect(Collectors.toList());
-
-        List<Enquiry> filteredEnquiries = allEnquiries.stream()
-            .filter(e -> managedProjectIds.contains(e.getProjectId()))
-            .sorted((e1, e2) -> {
-                boolean r1 = e1.getResponse() == null || e1.getResponse().isEmpty();
-                boolean r2 = e2.getResponse() == null || e2.getResponse().isEmpty();
-                return Boolean.compare(r1, r2); // Pending first
-            })
-            .collect(Collectors.toList());
-
-        if (filteredEnquiries.isEmpty()) {
-            System.out.println("No enquiries submitted for your projects.");
-            return;
+        // Pending enquiries first, oldest first from the work queues, with the officer handling each
+        IEnquiryService enquiryService = ServiceLocator.get(IEnquiryService.class);
+        List<EnquiryView> pendingEnquiries = new ArrayList<>();
+        for (Integer projectId : managedProjectIds) {
+            pendingEnquiries.addAll(enquiryService.getUnansweredEnquiries(projectId));
         }
-
-        for (Enquiry e : filteredEnquiries) {
+        pendingEnquiries.sort(Comparator.comparingInt(EnquiryView::getEnquiryId));
+        for (EnquiryView e : pendingEnquiries) {
             System.out.printf("Enquiry ID: %d | Project ID: %d | From: %s\n",
                 e.getEnquiryId(), e.getProjectId(), e.getUserNric());
             System.out.println("  Message : " + e.getEnquiryText());
-            System.out.println("  Response: " + (e.getResponse().isEmpty() ? "(Pending)" : e.getResponse()));
+            System.out.println("  Response: (Pending" + enquiryService.getEnquiryClaim(e.getEnquiryId())
+                .map(l -> ", claimed by " + l.getOfficerNric()).orElse("") + ")");
             System.out.println("------------------------------------------------");
         }
+        int pending = pendingEnquiries.size();
+        
+        // Answered enquiries come from the manager's projects only and are shown a page at a time
+        List<Enquiry> answeredEnquiries = enquiryService.getEnquiriesByManager(manager.getNric()).stream()
+            .filter(HDBManagerMenu::hasResponse)
+            .sorted(Comparator.comparingInt(Enquiry::getEnquiryId))
+            .collect(Collectors.toList());
+        int answered = printEnquiryPages(answeredEnquiries);
+        if (pending == 0 && answered == 0) {
+            System.out.println("No enquiries submitted for your projects.");
+        }
+    }
+    
+    private static boolean hasResponse(Enquiry e) {
+        return e.getResponse() != null && !e.getResponse().isEmpty();
+    }
+    
+    /**
+     * Prints enquiries a page at a time.
+     * 
+     * @return the number of enquiries printed, or -1 if the manager stopped the listing
+     */
+    private int printEnquiryPages(List<Enquiry> enquiries) {
+        for (int start = 0; start < enquiries.size(); start += Constants.LIST_PAGE_SIZE) {
+            if (start > 0) {
+                System.out.print("Press Enter for more, or Q to stop: ");
+                if ("Q".equalsIgnoreCase(scanner.nextLine().trim())) {
+                    return -1;
+                }
+            }
+            for (Enquiry e : enquiries.subList(start, Math.min(start + Constants.LIST_PAGE_SIZE, enquiries.size()))) {
+                System.out.printf("Enquiry ID: %d | Project ID: %d | From: %s\n",
+                    e.getEnquiryId(), e.getProjectId(), e.getUserNric());
+                System.out.println("  Message : " + e.getEnquiryText());
+                System.out.println("  Response: " + (hasResponse(e) ? e.getResponse() : "(Pending)"));
+                System.out.println("------------------------------------------------");
+            }
+        }
+        return enquiries.size();
     }
     
     /**
@@ -1,19 +1,28 @@
 // File: src/com/SC2002/bto/boundary/HDBOfficerMenu.java
 package com.SC2002.bto.boundary;
 
+import com.SC2002.bto.control.ApplicationController;
 import com.SC2002.bto.control.ProjectController;
+import com.SC2002.bto.di.ServiceLocator;
 import com.SC2002.bto.entities.*;
+import com.SC2002.bto.service.IApplicationService;
+import com.SC2002.bto.service.IEnquiryService;
+import com.SC2002.bto.utils.ApplicationCatalog;
 import com.SC2002.bto.utils.Constants;
 import com.SC2002.bto.utils.FileManager;
 import com.SC2002.bto.utils.InputValidator;
-import com.SC2002.bto.utils.ProjectRepository;
+import com.SC2002.bto.utils.OfficerAssignments;
+import com.SC2002.bto.utils.OfficerRegistrations;
+import com.SC2002.bto.utils.ProjectCatalog;
+import com.SC2002.bto.utils.UnitOfWork;
+import com.SC2002.bto.utils.MetricsRegistry;
 
-import java.io.BufferedReader;
 import java.io.FileReader;
-import java.io.IOException;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.Scanner;
 import java.util.stream.Collectors;
 
@@ -39,7 +48,6 @@ public class HDBOfficerMenu {
     public HDBOfficerMenu(Scanner scanner, HDBOfficer officer) {
         this.scanner = scanner;
         this.officer = officer;
-        ProjectRepository.init(Constants.PROJECT_CSV);
     }
 
     /**
@@ -82,17 +90,22 @@ public class HDBOfficerMenu {
             System.out.print("Enter your choice: ");
 
             String choice = scanner.nextLine();
-            switch (choice) {
-                case "1": viewAssignedProjects(); break;
-                case "2": updateFlatAvailability(); break;
-                case "3": registerForProject(); break;
-                case "4": viewRegistrationStatus(); break;
-                case "5": processApplicantApplications(); break;
-                case "6": respondToEnquiries(); break;
-                case "7": generateReceipt(); break;
-                case "8": if (changePassword()) return; break;
-                case "9": return;
-                default: System.out.println("Invalid option. Try again.");
+            MetricsRegistry.Action action = MetricsRegistry.getDefault().action("OfficerMenu." + choice);
+            try {
+                switch (choice) {
+                    case "1": viewAssignedProjects(); break;
+                    case "2": updateFlatAvailability(); break;
+                    case "3": registerForProject(); break;
+                    case "4": viewRegistrationStatus(); break;
+                    case "5": processApplicantApplications(); break;
+                    case "6": respondToEnquiries(); break;
+                    case "7": generateReceipt(); break;
+                    case "8": if (changePassword()) return; break;
+                    case "9": return;
+                    default: System.out.println("Invalid option. Try again.");
+                }
+            } finally {
+                action.close();
             }
         }
     }
@@ -103,9 +116,7 @@ public class HDBOfficerMenu {
      */
     private void displayApplicantMenu() {
         // Check if the officer has any assigned projects
-        List<Project> assignedProjects = ProjectRepository.getAll().stream()
-            .filter(p -> p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName()))
-            .collect(Collectors.toList());
+        List<Project> assignedProjects = new ArrayList<>(OfficerAssignments.getProjects(officer.getNric()));
             
         // Check if the officer has any pending registrations
         List<Integer> pendingRegistrations = officer.getPendingRegistrations();
@@ -117,7 +128,7 @@ public class HDBOfficerMenu {
         // Check if the officer has an existing application
         if (appliedProjectId != -1) {
             // Get the project the officer has applied for
-            Project appliedProject = ProjectRepository.getAll().stream()
+            Project appliedProject = ProjectCatalog.getAll().stream()
                 .filter(p -> p.getProjectId() == appliedProjectId)
                 .findFirst()
                 .orElse(null);
@@ -160,7 +171,7 @@ public class HDBOfficerMenu {
     
     private void viewAssignedProjects() {
         System.out.println("\n--- Your Assigned Projects ---");
-        List<Project> assigned = ProjectRepository.getAll().stream().filter(p -> p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName())).collect(Collectors.toList());
+        List<Project> assigned = new ArrayList<>(OfficerAssignments.getProjects(officer.getNric()));
         
         if (assigned.isEmpty()) {
             System.out.println("You are not assigned to any projects.");
@@ -182,8 +193,10 @@ public class HDBOfficerMenu {
 
     private void updateFlatAvailability() {
         System.out.println("\n--- Update Flat Availability ---");
-        List<Project> projects = ProjectRepository.getAll().stream()
-        	.filter(p -> p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName()))
+        // Work on copies so the shared project catalog is only changed by saving
+        List<Project> allProjects = ProjectCatalog.copyAll();
+        List<Project> projects = allProjects.stream()
+        	.filter(p -> OfficerAssignments.isAssigned(officer.getNric(), p.getProjectId()))
             .collect(Collectors.toList());
 
         if (projects.isEmpty()) {
@@ -220,7 +233,7 @@ public class HDBOfficerMenu {
             return;
         }
 
-        FileManager.saveProjects(ProjectRepository.getAll());
+        FileManager.saveProjects(allProjects);
         System.out.println("Availability updated.");
     }
 
@@ -244,7 +257,7 @@ public class HDBOfficerMenu {
      */
     private void registerForProject() {
         System.out.println("\n--- Register for a Project ---");
-        List<Project> allProjects = ProjectRepository.getAll();
+        List<Project> allProjects = ProjectCatalog.getAll();
         
         // Check if officer has applied for any project as an applicant
         List<Applicant> applicants = FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, "Applicant").stream()
@@ -258,7 +271,7 @@ public class HDBOfficerMenu {
         
         // Get projects the officer is already assigned to
         List<Project> assignedProjects = allProjects.stream()
-            .filter(p -> p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName()))
+            .filter(p -> OfficerAssignments.isAssigned(officer.getNric(), p.getProjectId()))
             .collect(Collectors.toList());
             
         // Check if officer has applied for any project as an applicant and has more than 1 assigned project
@@ -284,30 +297,10 @@ public class HDBOfficerMenu {
         }
             
         // Get pending registrations
-        List<Integer> pendingProjectIds = new ArrayList<>();
-        List<Project> pendingProjects = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(Constants.REGISTRATION_CSV))) {
-            br.readLine(); // Skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] tokens = line.split(",");
-                if (tokens.length < 2) continue;
-                
-                String nric = tokens[0].trim();
-                if (nric.equalsIgnoreCase(officer.getNric())) {
-                    int projectId = Integer.parseInt(tokens[1].trim());
-                    pendingProjectIds.add(projectId);
-                    
-                    // Find the project object for this pending registration
-                    allProjects.stream()
-                        .filter(p -> p.getProjectId() == projectId)
-                        .findFirst()
-                        .ifPresent(pendingProjects::add);
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("Error reading registration file: " + e.getMessage());
-        }
+        List<Integer> pendingProjectIds = OfficerRegistrations.getPendingByOfficer(officer.getNric());
+        List<Project> pendingProjects = allProjects.stream()
+            .filter(p -> pendingProjectIds.contains(p.getProjectId()))
+            .collect(Collectors.toList());
         
         // For registration, show all visible projects with available slots
         List<Project> availableProjects = allProjects.stream()
@@ -418,9 +411,7 @@ public class HDBOfficerMenu {
 
     private void processApplicantApplications() {
         System.out.println("\n--- Process Applicant Applications ---");
-        List<Project> assignedProjects = ProjectRepository.getAll().stream()
-        		.filter(p -> p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName()))
-                .collect(Collectors.toList());
+        List<Project> assignedProjects = new ArrayList<>(OfficerAssignments.getProjects(officer.getNric()));
 
         if (assignedProjects.isEmpty()) {
             System.out.println("No assigned projects."); return;
@@ -428,50 +419,96 @@ public class HDBOfficerMenu {
 
         List<Integer> assignedIds = assignedProjects.stream().map(Project::getProjectId).toList();
 
-        List<Applicant> applicants = FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, "Applicant").stream()
-            .filter(u -> u instanceof Applicant)
-            .map(u -> (Applicant) u)
-            .filter(a -> assignedIds.contains(a.getAppliedProjectId()) &&
-                         a.getApplicationStatus() == ApplicationStatus.PENDING)
-            .collect(Collectors.toList());
-
-        if (applicants.isEmpty()) {
-            System.out.println("No applicants to process."); return;
+        // Pending applications are claimed a page at a time, so other staff get different ones
+        ApplicationController applicationController = new ApplicationController();
+        List<String> claimed = new ArrayList<>();
+        try {
+            while (true) {
+                List<ApplicationLease> page = applicationController.claimApplications(
+                    officer.getNric(), ApplicationStatus.PENDING, assignedIds, Constants.LIST_PAGE_SIZE);
+                if (page.isEmpty()) {
+                    System.out.println(claimed.isEmpty() ? "No applicants to process." : "No more applicants to process.");
+                    return;
+                }
+                List<ApplicationView> applicants = new ArrayList<>();
+                for (ApplicationLease lease : page) {
+                    claimed.add(lease.getApplicantNric());
+                    ApplicationCatalog.findByNric(lease.getApplicantNric()).ifPresent(applicants::add);
+                }
+                processApplicationPage(applicationController, assignedProjects, applicants);
+                if (page.size() < Constants.LIST_PAGE_SIZE) {
+                    return;
+                }
+                System.out.print("Press Enter for the next page, or Q to stop: ");
+                if ("Q".equalsIgnoreCase(scanner.nextLine().trim())) {
+                    return;
+                }
+            }
+        } finally {
+            // Skipped applications go back to the queue for other staff
+            claimed.forEach(nric -> applicationController.releaseApplication(nric, officer.getNric()));
         }
+    }
 
-        for (Applicant a : applicants) {
-            // Find the project name for this application
-            Project applicantProject = assignedProjects.stream()
-                .filter(p -> p.getProjectId() == a.getAppliedProjectId())
-                .findFirst()
-                .orElse(null);
+    /**
+     * Decides one page of claimed applications. Unit bookings and status updates are committed together.
+     */
+    private void processApplicationPage(ApplicationController applicationController, List<Project> assignedProjects,
+                                        List<ApplicationView> applicants) {
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            List<IApplicationService.Decision> decisions = new ArrayList<>();
+            for (ApplicationView a : applicants) {
+                // Find the project name for this application
+                Project applicantProject = assignedProjects.stream()
+                    .filter(p -> p.getProjectId() == a.getAppliedProjectId())
+                    .findFirst()
+                    .orElse(null);
             
-            String projectName = applicantProject != null ? applicantProject.getProjectName() : "Unknown";
+                String projectName = applicantProject != null ? applicantProject.getProjectName() : "Unknown";
             
-            System.out.printf("Applicant: %s (%s)\n", a.getName(), a.getNric());
-            System.out.printf("Project ID: %d | Project Name: %s | Flat Type: %s | Status: %s\n",
-                a.getAppliedProjectId(), projectName, a.getAppliedFlatType(), a.getApplicationStatus());
-            System.out.print("Decision (A=Book, R=Reject, S=Skip): ");
-            String decision = scanner.nextLine().trim();
-
-            if ("A".equalsIgnoreCase(decision)) {
-                ProjectController projectController = new ProjectController();
-                boolean booked = projectController.bookFlatUnit(a.getAppliedProjectId(), a.getAppliedFlatType());
-                if (!booked) {
-                    System.out.println("Booking failed. No units left.");
-                    continue;
+                System.out.printf("Applicant: %s (%s)\n", a.getName(), a.getNric());
+                System.out.printf("Project ID: %d | Project Name: %s | Flat Type: %s | Status: %s\n",
+                    a.getAppliedProjectId(), projectName, a.getFlatType(), a.getStatus());
+                System.out.print("Decision (A=Book, R=Reject, S=Skip): ");
+                String decision = scanner.nextLine().trim();
+
+                if ("A".equalsIgnoreCase(decision)) {
+                    ProjectController projectController = new ProjectController();
+                    boolean booked = projectController.bookFlatUnit(a.getAppliedProjectId(), a.getFlatType());
+                    if (!booked) {
+                        // The applicant waits for a unit to be released instead of being turned away
+                        decisions.add(new IApplicationService.Decision(a.getNric(), ApplicationStatus.UNSUCCESSFUL));
+                        if (applicationController.joinWaitlist(a.getNric(), a.getAppliedProjectId(), a.getFlatType())) {
+                            System.out.println("Booking failed. No units left. Applicant added to the waitlist.");
+                        } else {
+                            System.out.println("Booking failed. No units left.");
+                        }
+                        continue;
+                    }
+                    decisions.add(new IApplicationService.Decision(a.getNric(), ApplicationStatus.BOOKED));
+                } else if ("R".equalsIgnoreCase(decision)) {
+                    decisions.add(new IApplicationService.Decision(a.getNric(), ApplicationStatus.UNSUCCESSFUL));
+                } else {
+                    System.out.println("Skipped."); continue;
                 }
-                a.setApplicationStatus(ApplicationStatus.BOOKED);
-            } else if ("R".equalsIgnoreCase(decision)) {
-                a.setApplicationStatus(ApplicationStatus.UNSUCCESSFUL);
-                a.setAppliedProjectId(-1);
-                a.setAppliedFlatType("");
-            } else {
-                System.out.println("Skipped."); continue;
             }
 
-            boolean success = FileManager.updateApplicantApplication(a);
-            System.out.println(success ? "Status updated." : "Failed to update.");
+            if (decisions.isEmpty()) {
+                return;
+            }
+
+            // All decisions are saved together in a single write
+            List<IApplicationService.DecisionResult> results = applicationController.processDecisions(officer.getNric(), decisions);
+            for (IApplicationService.DecisionResult r : results) {
+                System.out.println(r.getApplicantNric() + ": "
+                    + (r.isSuccess() ? "Status updated to " + r.getStatus() + "." : "Failed to update (" + r.getMessage() + ")."));
+            }
+
+            // Units taken above must not be kept if any status update failed
+            boolean allSaved = results.stream().allMatch(IApplicationService.DecisionResult::isSuccess);
+            if (!allSaved || !uow.commit()) {
+                System.out.println("No changes were saved. Please try again.");
+            }
         }
     }
 
@@ -479,9 +516,7 @@ public class HDBOfficerMenu {
         System.out.println("\n--- Respond to Enquiries ---");
         
         // Get the list of projects the officer is assigned to
-        List<Project> assignedProjects = ProjectRepository.getAll().stream()
-            .filter(p -> p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName()))
-            .collect(Collectors.toList());
+        List<Project> assignedProjects = new ArrayList<>(OfficerAssignments.getProjects(officer.getNric()));
             
         if (assignedProjects.isEmpty()) {
             System.out.println("You are not assigned to any projects."); 
@@ -493,87 +528,101 @@ public class HDBOfficerMenu {
             .map(Project::getProjectId)
             .collect(Collectors.toList());
             
-        // Load all enquiries and filter to only those for the officer's assigned projects
-        List<Enquiry> allEnquiries = FileManager.loadAllEnquiries(Constants.ENQUIRY_CSV);
-        List<Enquiry> relevantEnquiries = allEnquiries.stream()
-            .filter(e -> assignedProjectIds.contains(e.getProjectId()))
-            .collect(Collectors.toList());
+        // Only unanswered enquiries need a response; the queues list them oldest first
+        IEnquiryService enquiryService = ServiceLocator.get(IEnquiryService.class);
+        List<EnquiryView> pending = new ArrayList<>();
+        for (Integer projectId : assignedProjectIds) {
+            pending.addAll(enquiryService.getUnansweredEnquiries(projectId));
+        }
+        pending.sort(Comparator.comparingInt(EnquiryView::getEnquiryId));
             
-        if (relevantEnquiries.isEmpty()) {
-            System.out.println("No enquiries available for your assigned projects."); 
+        if (pending.isEmpty()) {
+            System.out.println("No unanswered enquiries for your assigned projects."); 
             return;
         }
         
-        System.out.println("Enquiries for your assigned projects:");
-        relevantEnquiries.forEach(e -> {
+        System.out.println("Unanswered enquiries for your assigned projects (oldest first):");
+        pending.forEach(e -> {
             // Find the project name for better context
             String projectName = assignedProjects.stream()
                 .filter(p -> p.getProjectId() == e.getProjectId())
                 .map(Project::getProjectName)
                 .findFirst()
                 .orElse("Unknown Project");
+            String claim = enquiryService.getEnquiryClaim(e.getEnquiryId())
+                .map(l -> l.getOfficerNric().equalsIgnoreCase(officer.getNric()) ? " | Claimed by you" : " | Claimed by " + l.getOfficerNric())
+                .orElse("");
                 
-            System.out.printf("ID:%d | Project:%d (%s) | From:%s | %s | Response:%s\n",
-                e.getEnquiryId(), e.getProjectId(), projectName, e.getUserNric(), 
-                e.getEnquiryText(), e.hasResponse() ? e.getResponse() : "(No response yet)");
+            System.out.printf("ID:%d | Project:%d (%s) | From:%s | %s%s\n",
+                e.getEnquiryId(), e.getProjectId(), projectName, e.getUserNric(), e.getEnquiryText(), claim);
         });
 
-        System.out.print("\nEnter Enquiry ID to respond: ");
-        int id;
-        try {
-            id = Integer.parseInt(scanner.nextLine());
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input. Please enter a number.");
-            return;
+        System.out.print("\nEnter Enquiry ID to respond, or N for the oldest unclaimed enquiry: ");
+        String input = scanner.nextLine().trim();
+        Optional<EnquiryLease> lease;
+        if (input.equalsIgnoreCase("N")) {
+            lease = enquiryService.claimNextEnquiry(officer.getNric(), assignedProjectIds);
+            if (lease.isEmpty()) {
+                System.out.println("All unanswered enquiries are claimed by other officers.");
+                return;
+            }
+        } else {
+            int id;
+            try {
+                id = Integer.parseInt(input);
+            } catch (NumberFormatException e) {
+                System.out.println("Invalid input. Please enter a number or N.");
+                return;
+            }
+            // Only enquiries about the officer's projects can be claimed
+            if (pending.stream().noneMatch(e -> e.getEnquiryId() == id)) {
+                System.out.println("Invalid ID or you are not assigned to the project this enquiry is about."); 
+                return;
+            }
+            lease = enquiryService.claimEnquiry(id, officer.getNric());
+            if (lease.isEmpty()) {
+                System.out.println("This enquiry has been answered or claimed by another officer.");
+                return;
+            }
         }
         
-        // Find the selected enquiry, but only from the relevant ones
-        Enquiry selected = relevantEnquiries.stream()
-            .filter(e -> e.getEnquiryId() == id)
+        int enquiryId = lease.get().getEnquiryId();
+        EnquiryView selected = pending.stream()
+            .filter(e -> e.getEnquiryId() == enquiryId)
             .findFirst()
             .orElse(null);
-            
-        if (selected == null) {
-            System.out.println("Invalid ID or you are not assigned to the project this enquiry is about."); 
-            return;
+        System.out.println("\nYou have claimed enquiry " + enquiryId + " for " + Constants.ENQUIRY_LEASE_MINUTES + " minutes.");
+        if (selected != null) {
+            System.out.println("From: " + selected.getUserNric() + " | " + selected.getEnquiryText());
         }
         
-        System.out.print("Enter response: ");
-        selected.setResponse(scanner.nextLine());
-        boolean ok = FileManager.updateEnquiryResponse(selected);
-        System.out.println(ok ? "Response saved." : "Failed to save response.");
+        System.out.print("Enter response (leave blank to release the enquiry): ");
+        String response = scanner.nextLine().trim();
+        if (response.isEmpty()) {
+            enquiryService.releaseEnquiry(enquiryId, officer.getNric());
+            System.out.println("Enquiry released.");
+            return;
+        }
+        boolean ok = enquiryService.respondToEnquiry(enquiryId, officer.getNric(), response);
+        System.out.println(ok ? "Response saved." : "Failed to save response. Your claim may have expired.");
     }
 
     private void viewRegistrationStatus() {
         System.out.println("\n--- Your Registration Status ---");
         
         // Get all projects
-        List<Project> allProjects = ProjectRepository.getAll();
-        
-        // Check for pending registrations in OfficerRegistration.csv
-        List<Integer> pendingProjectIds = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(Constants.REGISTRATION_CSV))) {
-            br.readLine(); // Skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] tokens = line.split(",");
-                if (tokens.length < 2) continue;
-                
-                String nric = tokens[0].trim();
-                if (nric.equalsIgnoreCase(officer.getNric())) {
-                    int projectId = Integer.parseInt(tokens[1].trim());
-                    pendingProjectIds.add(projectId);
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("Error reading registration file: " + e.getMessage());
-        }
+        List<Project> allProjects = ProjectCatalog.getAll();
         
-        // Check for approved registrations (officer is in project's officers list)
-        List<Project> approvedProjects = allProjects.stream()
-            .filter(p -> p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName()))
+        // Check for pending and rejected registrations
+        List<Integer> pendingProjectIds = OfficerRegistrations.getPendingByOfficer(officer.getNric());
+        List<Integer> rejectedProjectIds = OfficerRegistrations.getByOfficer(officer.getNric()).stream()
+            .filter(r -> r.getStatus() == RegistrationStatus.REJECTED)
+            .map(OfficerRegistration::getProjectId)
             .collect(Collectors.toList());
         
+        // Check for approved registrations (officer is in project's officers list)
+        List<Project> approvedProjects = OfficerAssignments.getProjects(officer.getNric());
+        
         // Display pending registrations
         if (!pendingProjectIds.isEmpty()) {
             System.out.println("\nPending Registrations:");
@@ -601,8 +650,18 @@ public class HDBOfficerMenu {
             }
         }
         
+        // Display rejected registrations
+        if (!rejectedProjectIds.isEmpty()) {
+            System.out.println("\nRejected Registrations:");
+            for (Integer projectId : rejectedProjectIds) {
+                ProjectCatalog.findById(projectId).ifPresent(p ->
+                    System.out.printf("  Project ID: %d | %s @ %s | Status: REJECTED\n",
+                        p.getProjectId(), p.getProjectName(), p.getNeighborhood()));
+            }
+        }
+        
         // If no registrations found
-        if (pendingProjectIds.isEmpty() && approvedProjects.isEmpty()) {
+        if (pendingProjectIds.isEmpty() && approvedProjects.isEmpty() && rejectedProjectIds.isEmpty()) {
             System.out.println("You have not registered for any projects.");
         }
     }
@@ -626,11 +685,11 @@ public class HDBOfficerMenu {
             return;
         }
 
-        Project p = ProjectRepository.getAll().stream()
+        Project p = ProjectCatalog.getAll().stream()
             .filter(proj -> proj.getProjectId() == a.getAppliedProjectId())
             .findFirst().orElse(null);
 
-        if (p == null || !(p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName()))) {
+        if (p == null || !OfficerAssignments.isAssigned(officer.getNric(), p.getProjectId())) {
             System.out.println("You are not assigned to this project.");
             return;
         }
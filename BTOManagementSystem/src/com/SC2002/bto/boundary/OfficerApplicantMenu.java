@@ -2,15 +2,19 @@ package com.SC2002.bto.boundary;
 
 import com.SC2002.bto.control.ApplicationController;
 import com.SC2002.bto.control.ProjectController;
+import com.SC2002.bto.di.ServiceLocator;
 import com.SC2002.bto.entities.ApplicationStatus;
 import com.SC2002.bto.entities.Enquiry;
 import com.SC2002.bto.entities.HDBOfficer;
 import com.SC2002.bto.entities.OfficerAsApplicant;
 import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.service.IEnquiryService;
 import com.SC2002.bto.utils.Constants;
 import com.SC2002.bto.utils.FileManager;
 import com.SC2002.bto.utils.InputValidator;
-import com.SC2002.bto.utils.ProjectRepository;
+import com.SC2002.bto.utils.OfficerAssignments;
+import com.SC2002.bto.utils.ProjectCatalog;
+import com.SC2002.bto.utils.MetricsRegistry;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -56,16 +60,21 @@ public class OfficerApplicantMenu {
             
             System.out.print("Enter your choice: ");
             String choice = scanner.nextLine();
-            switch (choice) {
-                case "1": viewAvailableProjects(); break;
-                case "2": applyForProject(); break;
-                case "3": viewApplicationStatus(); break;
-                case "4": viewMyEnquiriesWithResponses(); break;
-                case "5": submitEnquiry(); break;
-                case "6": editOrDeleteEnquiry(); break;
-                case "7": withdrawApplication(); break;
-                case "8": return;
-                default: System.out.println("Invalid option.");
+            MetricsRegistry.Action action = MetricsRegistry.getDefault().action("OfficerApplicantMenu." + choice);
+            try {
+                switch (choice) {
+                    case "1": viewAvailableProjects(); break;
+                    case "2": applyForProject(); break;
+                    case "3": viewApplicationStatus(); break;
+                    case "4": viewMyEnquiriesWithResponses(); break;
+                    case "5": submitEnquiry(); break;
+                    case "6": editOrDeleteEnquiry(); break;
+                    case "7": withdrawApplication(); break;
+                    case "8": return;
+                    default: System.out.println("Invalid option.");
+                }
+            } finally {
+                action.close();
             }
         }
     }
@@ -80,11 +89,9 @@ public class OfficerApplicantMenu {
         System.out.println("\n--- Available Projects ---");
         // Use ProjectController to get currently open projects
         ProjectController projectController = new ProjectController();
-        // Refresh the project repository to ensure we have the latest data
-        ProjectRepository.refresh();
         
         // Get projects that the officer can view as an applicant
-        List<Project> allProjects = ProjectRepository.getAll();
+        List<Project> allProjects = ProjectCatalog.getAll();
         if (allProjects.isEmpty()) {
             System.out.println("No projects available.");
             return;
@@ -117,7 +124,7 @@ public class OfficerApplicantMenu {
         // Apply eligibility criteria based on marital status and age
         for (Project p : visibleProjects) {
             // Skip projects the officer is assigned to
-            if (p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName())) {
+            if (OfficerAssignments.isAssigned(officer.getNric(), p.getProjectId())) {
                 continue;
             }
             
@@ -186,7 +193,7 @@ public class OfficerApplicantMenu {
         }
         
         // Get the list of projects the officer can view as an applicant
-        List<Project> allProjects = ProjectRepository.getAll();
+        List<Project> allProjects = ProjectCatalog.getAll();
         if (allProjects.isEmpty()) {
             System.out.println("No projects available.");
             return;
@@ -210,7 +217,7 @@ public class OfficerApplicantMenu {
         // Apply eligibility criteria based on marital status and age
         for (Project p : visibleProjects) {
             // Skip projects the officer is assigned to
-            if (p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName())) {
+            if (OfficerAssignments.isAssigned(officer.getNric(), p.getProjectId())) {
                 continue;
             }
             
@@ -314,7 +321,7 @@ public class OfficerApplicantMenu {
             System.out.printf("Applied Project ID: %d | Status: %s%n", appliedProjectId, status);
             
             // Get project details
-            Project p = ProjectRepository.getAll().stream()
+            Project p = ProjectCatalog.getAll().stream()
                 .filter(proj -> proj.getProjectId() == appliedProjectId)
                 .findFirst()
                 .orElse(null);
@@ -345,7 +352,7 @@ public class OfficerApplicantMenu {
     
     private void submitEnquiry() {
         // Get the list of projects the officer can view as an applicant
-        List<Project> allProjects = ProjectRepository.getAll();
+        List<Project> allProjects = ProjectCatalog.getAll();
         if (allProjects.isEmpty()) {
             System.out.println("No projects available.");
             return;
@@ -378,7 +385,7 @@ public class OfficerApplicantMenu {
         // Apply eligibility criteria based on marital status and age
         for (Project p : visibleProjects) {
             // Skip projects the officer is assigned to
-            if (p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName())) {
+            if (OfficerAssignments.isAssigned(officer.getNric(), p.getProjectId())) {
                 continue;
             }
             
@@ -431,7 +438,7 @@ public class OfficerApplicantMenu {
         
         // Check if the officer is assigned to this project
         boolean isAssigned = officer.getViewableProjects().stream()
-            .filter(p -> p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName()))
+            .filter(p -> OfficerAssignments.isAssigned(officer.getNric(), p.getProjectId()))
             .anyMatch(p -> p.getProjectId() == projectId);
             
         if (isAssigned) {
@@ -442,12 +449,8 @@ public class OfficerApplicantMenu {
         System.out.print("Enquiry text: ");
         String text = scanner.nextLine();
 
-        List<Enquiry> allEnquiries = FileManager.loadAllEnquiries(Constants.ENQUIRY_CSV);
-        int enquiryId = allEnquiries.size() + 1;
-
-        Enquiry newEnquiry = new Enquiry(enquiryId, officerApplicant.getNric(), text, projectId);
-        allEnquiries.add(newEnquiry);
-        FileManager.saveAllEnquiries(allEnquiries);
+        // Submitting through the service appends the enquiry and queues it for officers
+        int enquiryId = ServiceLocator.get(IEnquiryService.class).submitEnquiry(officerApplicant.getNric(), projectId, text);
 
         System.out.println("Enquiry #" + enquiryId + " submitted.");
     }
@@ -0,0 +1,897 @@
+package com.SC2002.bto.boundary.api;
+
+import com.SC2002.bto.di.ServiceLocator;
+import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.ApplicationLease;
+import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.ApplicationView;
+import com.SC2002.bto.entities.Enquiry;
+import com.SC2002.bto.entities.EnquiryLease;
+import com.SC2002.bto.entities.EnquiryView;
+import com.SC2002.bto.entities.HDBManager;
+import com.SC2002.bto.entities.HDBOfficer;
+import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.ProjectView;
+import com.SC2002.bto.entities.User;
+import com.SC2002.bto.repository.IRepository;
+import com.SC2002.bto.repository.ProjectQuery;
+import com.SC2002.bto.service.IApplicationService;
+import com.SC2002.bto.service.IEnquiryService;
+import com.SC2002.bto.service.IProjectService;
+import com.SC2002.bto.service.IReportService;
+import com.SC2002.bto.service.IUserService;
+import com.SC2002.bto.utils.ApplicationCatalog;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.MetricsRegistry;
+import com.SC2002.bto.utils.ManagerAssignments;
+import com.SC2002.bto.utils.OfficerAssignments;
+import com.SC2002.bto.utils.OperationTimer;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Local HTTP/JSON API in front of the service layer, so that many staff and applicants
+ * can use the system at the same time. It is another boundary next to the CLI menus
+ * and only talks to the service interfaces.
+ * <p>
+ * The server listens on the loopback interface only. Requests are handled by a pool of
+ * worker threads. The CSV-backed services are not safe for concurrent writes, so read
+ * requests share a lock and write requests take it exclusively.
+ * <p>
+ * Clients log in with {@code POST /api/login} and send the returned token as
+ * {@code Authorization: Bearer <token>}. List endpoints accept {@code page} (from 1)
+ * and {@code size} query parameters. {@code GET /api/applications} also accepts
+ * {@code pageToken} instead of {@code page}, reading only the requested page from storage.
+ * {@code GET /api/projects} filters by {@code neighborhood}, {@code flatType},
+ * {@code minPrice}, {@code maxPrice} and {@code available=true}, and with
+ * {@code sort=price&limit=k} returns the k cheapest matches.
+ * <p>
+ * Staff take unanswered enquiries with {@code POST /api/enquiries/claim}, which claims
+ * the oldest unclaimed one of a {@code projectId} or of the caller's projects, and give
+ * them back with {@code POST /api/enquiries/{id}/release}. Responding to an enquiry
+ * another officer has claimed fails with 409.
+ * Pending applications and withdrawal requests are claimed a page at a time with
+ * {@code POST /api/applications/claim?status=PENDING&size=20}; each call returns the
+ * next unclaimed page. Deciding an application another staff member has claimed
+ * fails with 409.
+ * <p>
+ * Staff only see and work on the applications, enquiries and receipts of their own
+ * projects: an officer's assigned projects, or the projects a manager is in charge of.
+ * A {@code projectId} outside them is refused with 403.
+ */
+public class ApiServer {
+
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 200;
+
+    private final IProjectService projectService;
+    private final IApplicationService applicationService;
+    private final IEnquiryService enquiryService;
+    private final IReportService reportService;
+    private final IUserService userService;
+
+    private final SessionManager sessions;
+    private final RequestMetrics metrics = new RequestMetrics();
+    private final ReadWriteLock dataLock = new ReentrantReadWriteLock();
+    private final List<Route> routes = new ArrayList<>();
+
+    private HttpServer server;
+    private ExecutorService executor;
+
+    /**
+     * Constructs an ApiServer using the services registered in the ServiceLocator.
+     *
+     * @param sessionTimeoutMillis how long an idle session stays valid
+     */
+    public ApiServer(long sessionTimeoutMillis) {
+        this(ServiceLocator.get(IProjectService.class), ServiceLocator.get(IApplicationService.class),
+             ServiceLocator.get(IEnquiryService.class), ServiceLocator.get(IReportService.class),
+             ServiceLocator.get(IUserService.class), sessionTimeoutMillis);
+    }
+
+    /**
+     * Constructs an ApiServer with the specified services.
+     *
+     * @param projectService The project service
+     * @param applicationService The application service
+     * @param enquiryService The enquiry service
+     * @param reportService The report service
+     * @param userService The user service
+     * @param sessionTimeoutMillis how long an idle session stays valid
+     */
+    public ApiServer(IProjectService projectService, IApplicationService applicationService,
+                     IEnquiryService enquiryService, IReportService reportService,
+                     IUserService userService, long sessionTimeoutMillis) {
+        this.projectService = projectService;
+        this.applicationService = applicationService;
+        this.enquiryService = enquiryService;
+        this.reportService = reportService;
+        this.userService = userService;
+        this.sessions = new SessionManager(sessionTimeoutMillis);
+        registerRoutes();
+    }
+
+    /**
+     * Starts listening on the loopback interface.
+     *
+     * @param port the port to listen on, or 0 to pick a free port
+     * @param workerThreads the number of threads handling requests
+     * @return the port the server is listening on
+     * @throws IOException if the server cannot be started
+     */
+    public int start(int port, int workerThreads) throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workerThreads, r -> {
+            Thread t = new Thread(r, "api-worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/api", this::handle);
+        server.start();
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops the server, giving in-flight requests a short time to finish.
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(1);
+            executor.shutdown();
+            try {
+                executor.awaitTermination(2, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void registerRoutes() {
+        route("POST", "/api/login", Access.PUBLIC, false, this::login);
+        route("POST", "/api/logout", Access.USER, false, this::logout);
+        route("GET", "/api/health", Access.PUBLIC, false, req -> Map.of("status", "ok"));
+        route("GET", "/api/metrics", Access.STAFF, false, req -> metrics.snapshot(sessions.size()));
+        route("GET", "/api/metrics/controllers", Access.MANAGER, false, this::controllerLatencies);
+        route("POST", "/api/password", Access.USER, true, this::changePassword);
+
+        route("GET", "/api/projects", Access.USER, false, this::listProjects);
+        route("GET", "/api/projects/(\\d+)", Access.USER, false, this::getProject);
+
+        route("GET", "/api/applications", Access.STAFF, false, this::listApplications);
+        route("GET", "/api/applications/me", Access.APPLICANT, false, this::myApplication);
+        route("POST", "/api/applications", Access.APPLICANT, true, this::apply);
+        route("POST", "/api/applications/withdraw", Access.APPLICANT, true, this::requestWithdrawal);
+        route("POST", "/api/applications/decision", Access.STAFF, true, this::decide);
+        route("POST", "/api/applications/claim", Access.STAFF, true, this::claimApplications);
+        route("POST", "/api/applications/([ST]\\d{7}[A-Z])/release", Access.STAFF, true, this::releaseApplication);
+
+        route("GET", "/api/enquiries", Access.USER, false, this::listEnquiries);
+        route("POST", "/api/enquiries", Access.APPLICANT, true, this::submitEnquiry);
+        route("POST", "/api/enquiries/claim", Access.STAFF, true, this::claimEnquiry);
+        route("POST", "/api/enquiries/(\\d+)/release", Access.STAFF, true, this::releaseEnquiry);
+        route("POST", "/api/enquiries/(\\d+)/response", Access.STAFF, true, this::respondToEnquiry);
+
+        route("GET", "/api/reports/projects", Access.MANAGER, false,
+            req -> Map.of("report", reportService.generateProjectReport(projectService.getAllProjects())));
+        route("GET", "/api/reports/bookings", Access.MANAGER, false,
+            req -> Map.of("report", reportService.generateFlatBookingReport(projectService.getAllProjects())));
+        route("GET", "/api/reports/applicants", Access.MANAGER, false, this::applicantReport);
+        route("GET", "/api/receipts/([ST]\\d{7}[A-Z])", Access.STAFF, false, this::receipt);
+    }
+
+    // ---- Handlers ----
+
+    private Object login(Request req) {
+        String role = req.require("role");
+        String nric = req.require("nric").toUpperCase();
+        User user = userService.authenticate(role, nric, req.require("password"))
+            .orElseThrow(() -> new ApiException(401, "Invalid credentials"));
+        // The session keeps the canonical role, whatever its case in the request
+        SessionManager.Session session = sessions.create(user.getNric(), roleOf(user), user.getName());
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("token", session.getToken());
+        result.put("nric", session.getNric());
+        result.put("name", session.getName());
+        result.put("role", session.getRole());
+        return result;
+    }
+
+    private static String roleOf(User user) {
+        if (user instanceof HDBManager) {
+            return Constants.USER_TYPE_MANAGER;
+        } else if (user instanceof HDBOfficer) {
+            return Constants.USER_TYPE_OFFICER;
+        }
+        return Constants.USER_TYPE_APPLICANT;
+    }
+
+    private Object logout(Request req) {
+        sessions.remove(req.session.getToken());
+        return Map.of("loggedOut", true);
+    }
+
+    private Object changePassword(Request req) {
+        boolean ok = userService.changePassword(req.session.getNric(),
+            req.require("currentPassword"), req.require("newPassword"));
+        if (!ok) {
+            throw new ApiException(400, "Password could not be changed");
+        }
+        sessions.remove(req.session.getToken());
+        return Map.of("changed", true, "message", "Please log in again");
+    }
+
+    private Object listProjects(Request req) {
+        boolean staff = req.session.isStaff();
+        String neighborhood = req.param("neighborhood");
+        String flatType = req.param("flatType");
+        ProjectQuery.Builder query = ProjectQuery.builder()
+            .visible(staff ? null : Boolean.TRUE)
+            .neighborhood(neighborhood)
+            .flatType(flatType)
+            .availableOnly("true".equalsIgnoreCase(req.param("available")));
+        if (req.param("minPrice") != null || req.param("maxPrice") != null) {
+            query.priceRange(req.param("minPrice") == null ? 0 : req.intParam("minPrice"),
+                req.param("maxPrice") == null ? Integer.MAX_VALUE : req.intParam("maxPrice"));
+        }
+        if ("price".equalsIgnoreCase(req.param("sort"))) {
+            query.sort(ProjectQuery.Sort.LOWEST_PRICE);
+        }
+        if (req.param("limit") != null) {
+            query.limit(Math.max(0, req.intParam("limit")));
+        }
+        List<Map<String, Object>> items = projectService.findProjectViews(query.build()).stream()
+            .map(ApiServer::projectToMap)
+            .collect(Collectors.toList());
+        return req.page(items);
+    }
+
+    private Object getProject(Request req) {
+        ProjectView project = projectService.getProjectView(req.intPathParam(1))
+            .filter(p -> req.session.isStaff() || p.isVisible())
+            .orElseThrow(() -> new ApiException(404, "Project not found"));
+        return projectToMap(project);
+    }
+
+    private Object listApplications(Request req) {
+        ApplicationStatus status = req.param("status") == null ? null : parseStatus(req.param("status"));
+        Integer projectId = req.param("projectId") == null ? null : req.intParam("projectId");
+        if (projectId != null) {
+            checkStaffOf(req, projectId);
+        }
+        if (req.param("pageToken") != null) {
+            // Cursor paging reads only this page from storage instead of the whole table
+            BitSet own = staffProjectIdSet(req);
+            return tokenPage(req, applicationService::getApplicationPage,
+                a -> a.getAppliedProjectId() >= 0 && own.get(a.getAppliedProjectId())
+                    && (projectId == null || a.getAppliedProjectId() == projectId)
+                    && (status == null || a.getApplicationStatus() == status),
+                a -> applicationToMap(ApplicationView.of(a)));
+        }
+        if (projectId != null && (status == ApplicationStatus.PENDING || status == ApplicationStatus.PENDING_WITHDRAWAL)) {
+            // Waiting applications of a project are read from its work queue
+            return req.page(applicationService.getQueuedApplications(status, projectId).stream()
+                .map(ApiServer::applicationToMap)
+                .collect(Collectors.toList()));
+        }
+        // Staff see the applications of their own projects, read through the join index
+        List<ApplicationView> source = "HDBOfficer".equals(req.session.getRole())
+            ? applicationService.getApplicationsByOfficer(req.session.getNric())
+            : applicationService.getApplicationsByManager(req.session.getNric());
+        List<Map<String, Object>> items = source.stream()
+            .filter(a -> projectId == null || a.getAppliedProjectId() == projectId)
+            .filter(a -> status == null || a.getStatus() == status)
+            .map(ApiServer::applicationToMap)
+            .collect(Collectors.toList());
+        return req.page(items);
+    }
+
+    /**
+     * Reads one page of a listing by page token. The first page is requested with an empty
+     * {@code pageToken}; each response carries the token of the next page, or null after the last.
+     */
+    private <T> Map<String, Object> tokenPage(Request req, PageSource<T> source, Predicate<T> filter,
+                                              Function<T, Map<String, Object>> toMap) {
+        int size = req.param("size") == null ? DEFAULT_PAGE_SIZE : req.intParam("size");
+        size = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        IRepository.Page<T> page;
+        try {
+            page = source.find(filter, req.param("pageToken"), size);
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, e.getMessage());
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("items", page.getItems().stream().map(toMap).collect(Collectors.toList()));
+        result.put("size", size);
+        result.put("nextPageToken", page.getNextPageToken());
+        return result;
+    }
+
+    private Object myApplication(Request req) {
+        return applicantToMap(currentApplicant(req));
+    }
+
+    private Object apply(Request req) {
+        Applicant applicant = currentApplicant(req);
+        int projectId = req.requireInt("projectId");
+        String flatType = req.require("flatType");
+        try (OperationTimer.Operation operation = OperationTimer.start("ApiServer.apply", applicant, projectId, flatType)) {
+            if (!operation.result(applicationService.applyForProject(applicant, projectId, flatType))) {
+                throw new ApiException(409, "Not eligible to apply for this project and flat type");
+            }
+        }
+        return applicantToMap(currentApplicant(req));
+    }
+
+    private Object requestWithdrawal(Request req) {
+        return decisionToMap(applicationService.processApplications(req.session.getNric(), List.of(
+            new IApplicationService.Decision(req.session.getNric(), ApplicationStatus.PENDING_WITHDRAWAL))).get(0));
+    }
+
+    private Object claimApplications(Request req) {
+        ApplicationStatus status = req.param("status") == null ? ApplicationStatus.PENDING : parseStatus(req.param("status"));
+        if (status != ApplicationStatus.PENDING && status != ApplicationStatus.PENDING_WITHDRAWAL) {
+            throw new ApiException(400, "Only PENDING and PENDING_WITHDRAWAL applications can be claimed");
+        }
+        int size = req.param("size") == null ? DEFAULT_PAGE_SIZE : req.intParam("size");
+        size = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (ApplicationLease lease : applicationService.claimApplications(req.session.getNric(), status, staffProjectIds(req), size)) {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("nric", lease.getApplicantNric());
+            m.put("appliedProjectId", lease.getProjectId());
+            m.put("status", lease.getStatus().name());
+            m.put("claimExpiresAt", lease.getExpiresAt().toString());
+            items.add(m);
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("items", items);
+        return result;
+    }
+
+    private Object releaseApplication(Request req) {
+        String nric = req.pathParam(1);
+        if (!applicationService.releaseApplication(nric, req.session.getNric())) {
+            throw new ApiException(404, "No claim on this application");
+        }
+        return Map.of("nric", nric, "released", true);
+    }
+
+    private Object decide(Request req) {
+        String nric = req.require("nric").toUpperCase();
+        ApplicationStatus status = parseStatus(req.require("status"));
+        checkMayDecide(req, nric, status);
+        boolean claimedByOther = applicationService.getApplicationClaim(nric)
+            .filter(l -> !l.getStaffNric().equalsIgnoreCase(req.session.getNric()))
+            .isPresent();
+        if (claimedByOther) {
+            throw new ApiException(409, "Application is claimed by another staff member");
+        }
+        if (status == ApplicationStatus.BOOKED) {
+            // Booking also takes a unit from the project, in one unit of work
+            boolean ok;
+            try (OperationTimer.Operation operation = OperationTimer.start("ApiServer.bookFlat", nric)) {
+                ok = operation.result(applicationService.bookFlat(nric));
+            }
+            return decisionToMap(new IApplicationService.DecisionResult(nric, status, ok,
+                ok ? "OK" : "Booking failed"));
+        }
+        return decisionToMap(applicationService.processApplications(req.session.getNric(),
+            List.of(new IApplicationService.Decision(nric, status))).get(0));
+    }
+
+    /**
+     * Checks that the caller may make a decision on an application, as in the menus:
+     * managers approve or reject applications and withdrawals of the projects they are
+     * in charge of, and officers book or reject applications of their assigned projects.
+     */
+    private void checkMayDecide(Request req, String nric, ApplicationStatus status) {
+        ApplicationView view = ApplicationCatalog.findByNric(nric)
+            .orElseThrow(() -> new ApiException(404, "Applicant not found"));
+        int projectId = view.getAppliedProjectId();
+        boolean allowed;
+        if ("HDBManager".equals(req.session.getRole())) {
+            allowed = (status == ApplicationStatus.SUCCESSFUL || status == ApplicationStatus.UNSUCCESSFUL
+                    || status == ApplicationStatus.NOT_APPLIED || status == ApplicationStatus.PENDING)
+                && ManagerAssignments.isManaging(req.session.getNric(), projectId);
+        } else {
+            allowed = (status == ApplicationStatus.BOOKED || status == ApplicationStatus.UNSUCCESSFUL)
+                && OfficerAssignments.isAssigned(req.session.getNric(), projectId);
+        }
+        if (!allowed) {
+            throw new ApiException(403, "Not allowed to set " + status + " on this application");
+        }
+    }
+
+    private Object controllerLatencies(Request req) {
+        Map<String, Object> actions = new LinkedHashMap<>();
+        OperationTimer.getHistograms().forEach((action, h) -> {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", h.getCount());
+            m.put("p50Millis", h.getP50Millis());
+            m.put("p99Millis", h.getP99Millis());
+            m.put("p999Millis", h.getP999Millis());
+            m.put("maxMillis", h.getMaxMillis());
+            actions.put(action, m);
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("slowThresholdMillis", OperationTimer.getSlowThresholdMillis());
+        result.put("actions", actions);
+        return result;
+    }
+
+    private Object listEnquiries(Request req) {
+        String userNric = req.session.isStaff() ? null : req.session.getNric();
+        boolean unanswered = req.session.isStaff() && "true".equalsIgnoreCase(req.param("unanswered"));
+        String projectId = req.param("projectId");
+        if (req.session.isStaff() && "true".equalsIgnoreCase(req.param("mine"))) {
+            List<Enquiry> mine = "HDBOfficer".equals(req.session.getRole())
+                ? enquiryService.getEnquiriesByOfficer(req.session.getNric())
+                : enquiryService.getEnquiriesByManager(req.session.getNric());
+            return req.page(mine.stream()
+                .filter(e -> !unanswered || !e.hasResponse())
+                .filter(e -> projectId == null || String.valueOf(e.getProjectId()).equals(projectId))
+                .map(e -> enquiryToMap(EnquiryView.of(e)))
+                .collect(Collectors.toList()));
+        }
+        List<Map<String, Object>> items = enquiryService.getEnquiryViews().stream()
+            .filter(e -> userNric == null || e.getUserNric().equalsIgnoreCase(userNric))
+            .filter(e -> !unanswered || !e.hasResponse())
+            .filter(e -> projectId == null || String.valueOf(e.getProjectId()).equals(projectId))
+            .map(ApiServer::enquiryToMap)
+            .collect(Collectors.toList());
+        return req.page(items);
+    }
+
+    private Object submitEnquiry(Request req) {
+        int id = enquiryService.submitEnquiry(req.session.getNric(), req.requireInt("projectId"), req.require("text"));
+        if (id < 0) {
+            throw new ApiException(400, "Enquiry could not be submitted");
+        }
+        return Map.of("enquiryId", id);
+    }
+
+    /**
+     * Returns the projects a staff request works on: the {@code projectId} parameter if
+     * given, otherwise the officer's assigned projects or the manager's projects. A
+     * {@code projectId} the caller does not work on is refused with 403.
+     */
+    private List<Integer> staffProjectIds(Request req) {
+        if (req.param("projectId") != null) {
+            int projectId = req.intParam("projectId");
+            checkStaffOf(req, projectId);
+            return List.of(projectId);
+        }
+        List<Project> projects = "HDBOfficer".equals(req.session.getRole())
+            ? OfficerAssignments.getProjects(req.session.getNric())
+            : ManagerAssignments.getProjects(req.session.getNric());
+        return projects.stream().map(Project::getProjectId).collect(Collectors.toList());
+    }
+
+    /**
+     * Checks whether the caller works on a project: an officer assigned to it, or the
+     * manager in charge of it.
+     */
+    private static boolean isStaffOf(Request req, int projectId) {
+        return "HDBOfficer".equals(req.session.getRole())
+            ? OfficerAssignments.isAssigned(req.session.getNric(), projectId)
+            : ManagerAssignments.isManaging(req.session.getNric(), projectId);
+    }
+
+    private static void checkStaffOf(Request req, int projectId) {
+        if (!isStaffOf(req, projectId)) {
+            throw new ApiException(403, "Not assigned to project " + projectId);
+        }
+    }
+
+    private static BitSet staffProjectIdSet(Request req) {
+        return "HDBOfficer".equals(req.session.getRole())
+            ? OfficerAssignments.getProjectIds(req.session.getNric())
+            : ManagerAssignments.getProjectIds(req.session.getNric());
+    }
+
+    private Object claimEnquiry(Request req) {
+        EnquiryLease lease = enquiryService.claimNextEnquiry(req.session.getNric(), staffProjectIds(req))
+            .orElseThrow(() -> new ApiException(404, "No unclaimed enquiries"));
+        Map<String, Object> m = new LinkedHashMap<>();
+        enquiryService.getEnquiryById(lease.getEnquiryId()).ifPresent(e -> m.putAll(enquiryToMap(EnquiryView.of(e))));
+        m.put("enquiryId", lease.getEnquiryId());
+        m.put("claimExpiresAt", lease.getExpiresAt().toString());
+        return m;
+    }
+
+    private Object releaseEnquiry(Request req) {
+        int id = req.intPathParam(1);
+        if (!enquiryService.releaseEnquiry(id, req.session.getNric())) {
+            throw new ApiException(404, "No claim on this enquiry");
+        }
+        return Map.of("enquiryId", id, "released", true);
+    }
+
+    private Object respondToEnquiry(Request req) {
+        int id = req.intPathParam(1);
+        if (!enquiryService.respondToEnquiry(id, req.session.getNric(), req.require("response"))) {
+            boolean notOwnProject = enquiryService.getEnquiryById(id)
+                .filter(e -> !isStaffOf(req, e.getProjectId()))
+                .isPresent();
+            if (notOwnProject) {
+                throw new ApiException(403, "Enquiry belongs to another project");
+            }
+            boolean claimedByOther = enquiryService.getEnquiryClaim(id)
+                .filter(l -> !l.getOfficerNric().equalsIgnoreCase(req.session.getNric()))
+                .isPresent();
+            if (claimedByOther) {
+                throw new ApiException(409, "Enquiry is claimed by another officer");
+            }
+            throw new ApiException(404, "Enquiry not found, already answered or could not be updated");
+        }
+        return enquiryService.getEnquiryById(id).map(e -> enquiryToMap(EnquiryView.of(e))).orElse(Map.of("enquiryId", id));
+    }
+
+    private Object receipt(Request req) {
+        String nric = req.pathParam(1);
+        ApplicationView view = ApplicationCatalog.findByNric(nric)
+            .orElseThrow(() -> new ApiException(404, "Applicant not found"));
+        checkStaffOf(req, view.getAppliedProjectId());
+        return Map.of("receipt", reportService.generateReceipt(nric));
+    }
+
+    private Object applicantReport(Request req) {
+        String report;
+        if (req.param("status") != null) {
+            report = reportService.generateApplicantReportByStatus(req.param("status"));
+        } else if (req.param("maritalStatus") != null) {
+            report = reportService.generateApplicantReportByMaritalStatus(req.param("maritalStatus"));
+        } else if (req.param("flatType") != null) {
+            report = reportService.generateApplicantReportByFlatType(req.param("flatType"));
+        } else if (req.param("projectId") != null) {
+            report = reportService.generateApplicantReportByProject(req.intParam("projectId"));
+        } else if (req.param("minAge") != null && req.param("maxAge") != null) {
+            report = reportService.generateApplicantReportByAgeRange(req.intParam("minAge"), req.intParam("maxAge"));
+        } else {
+            report = reportService.generateApplicantReport(userService.getAllApplicants());
+        }
+        return Map.of("report", report);
+    }
+
+    private Applicant currentApplicant(Request req) {
+        return userService.getApplicantByNric(req.session.getNric())
+            .orElseThrow(() -> new ApiException(404, "Applicant record not found"));
+    }
+
+    private static ApplicationStatus parseStatus(String status) {
+        try {
+            return ApplicationStatus.valueOf(status.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ApiException(400, "Unknown application status: " + status);
+        }
+    }
+
+    // ---- Entity mapping ----
+
+    private static Map<String, Object> projectToMap(ProjectView p) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("projectId", p.getProjectId());
+        m.put("projectName", p.getProjectName());
+        m.put("neighborhood", p.getNeighborhood());
+        m.put("type1", p.getType1Desc());
+        m.put("type1Units", p.getType1Units());
+        m.put("type1Price", p.getType1Price());
+        m.put("type2", p.getType2Desc());
+        m.put("type2Units", p.getType2Units());
+        m.put("type2Price", p.getType2Price());
+        m.put("openingDate", String.valueOf(p.getApplicationOpeningDate()));
+        m.put("closingDate", String.valueOf(p.getApplicationClosingDate()));
+        m.put("manager", p.getManager());
+        m.put("officerSlots", p.getOfficerSlots());
+        m.put("officers", p.getOfficers());
+        m.put("visible", p.isVisible());
+        return m;
+    }
+
+    private static Map<String, Object> applicantToMap(Applicant a) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("nric", a.getNric());
+        m.put("name", a.getName());
+        m.put("age", a.getAge());
+        m.put("maritalStatus", a.getMaritalStatus());
+        m.put("appliedProjectId", a.getAppliedProjectId());
+        m.put("status", a.getApplicationStatus().name());
+        m.put("flatType", a.getAppliedFlatType());
+        return m;
+    }
+
+    private static Map<String, Object> applicationToMap(ApplicationView a) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("nric", a.getNric());
+        m.put("name", a.getName());
+        m.put("age", a.getAge());
+        m.put("maritalStatus", a.getMaritalStatus());
+        m.put("appliedProjectId", a.getAppliedProjectId());
+        m.put("status", a.getStatus().name());
+        m.put("flatType", a.getFlatType());
+        return m;
+    }
+
+    private static Map<String, Object> enquiryToMap(EnquiryView e) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enquiryId", e.getEnquiryId());
+        m.put("userNric", e.getUserNric());
+        m.put("projectId", e.getProjectId());
+        m.put("text", e.getEnquiryText());
+        m.put("response", e.hasResponse() ? e.getResponse() : null);
+        return m;
+    }
+
+    private static Map<String, Object> decisionToMap(IApplicationService.DecisionResult r) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("nric", r.getApplicantNric());
+        m.put("status", r.getStatus() == null ? null : r.getStatus().name());
+        m.put("success", r.isSuccess());
+        m.put("message", r.getMessage());
+        return m;
+    }
+
+    // ---- Dispatch ----
+
+    private void route(String method, String path, Access access, boolean writes, Handler handler) {
+        routes.add(new Route(method, Pattern.compile(path), access, writes, handler));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String routeName = method + " (unmatched)";
+        int status;
+        Object body;
+
+        try {
+            Route route = null;
+            Matcher matcher = null;
+            boolean pathMatched = false;
+            for (Route r : routes) {
+                Matcher m = r.pattern.matcher(path);
+                if (m.matches()) {
+                    pathMatched = true;
+                    if (r.method.equals(method)) {
+                        route = r;
+                        matcher = m;
+                        break;
+                    }
+                }
+            }
+            if (route == null) {
+                throw new ApiException(pathMatched ? 405 : 404, pathMatched ? "Method not allowed" : "Not found");
+            }
+            routeName = route.method + " " + route.pattern.pattern();
+
+            Request req = new Request(exchange, matcher);
+            req.session = sessions.get(bearerToken(exchange));
+            route.access.check(req.session);
+
+            Lock lock = route.writes ? dataLock.writeLock() : dataLock.readLock();
+            lock.lock();
+            MetricsRegistry.Action action = MetricsRegistry.getDefault().action(routeName);
+            try {
+                body = route.handler.handle(req);
+            } finally {
+                action.close();
+                lock.unlock();
+            }
+            status = 200;
+        } catch (ApiException e) {
+            status = e.status;
+            body = Map.of("error", e.getMessage());
+        } catch (RuntimeException e) {
+            status = 500;
+            body = Map.of("error", "Internal error: " + e.getMessage());
+        }
+
+        byte[] bytes = Json.write(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+        metrics.record(routeName, status, System.nanoTime() - start);
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header != null && header.regionMatches(true, 0, "Bearer ", 0, 7)) {
+            return header.substring(7).trim();
+        }
+        return null;
+    }
+
+    /**
+     * Who may call a route.
+     */
+    private enum Access {
+        PUBLIC, USER, APPLICANT, STAFF, MANAGER;
+
+        void check(SessionManager.Session session) {
+            if (this == PUBLIC) {
+                return;
+            }
+            if (session == null) {
+                throw new ApiException(401, "Login required");
+            }
+            boolean allowed;
+            switch (this) {
+                case APPLICANT: allowed = "Applicant".equals(session.getRole()); break;
+                case STAFF: allowed = session.isStaff(); break;
+                case MANAGER: allowed = "HDBManager".equals(session.getRole()); break;
+                default: allowed = true;
+            }
+            if (!allowed) {
+                throw new ApiException(403, "Not allowed for role " + session.getRole());
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(Request req);
+    }
+
+    @FunctionalInterface
+    private interface PageSource<T> {
+        IRepository.Page<T> find(Predicate<T> filter, String pageToken, int pageSize);
+    }
+
+    private static class Route {
+        private final String method;
+        private final Pattern pattern;
+        private final Access access;
+        private final boolean writes;
+        private final Handler handler;
+
+        Route(String method, Pattern pattern, Access access, boolean writes, Handler handler) {
+            this.method = method;
+            this.pattern = pattern;
+            this.access = access;
+            this.writes = writes;
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * An error that is returned to the client with the given HTTP status.
+     */
+    private static class ApiException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    /**
+     * Parsed view of one HTTP request.
+     */
+    private static class Request {
+        private final Matcher pathMatch;
+        private final Map<String, String> query;
+        private final Map<String, String> body;
+        private SessionManager.Session session;
+
+        Request(HttpExchange exchange, Matcher pathMatch) throws IOException {
+            this.pathMatch = pathMatch;
+            this.query = parseQuery(exchange.getRequestURI().getRawQuery());
+            this.body = parseBody(exchange);
+        }
+
+        String param(String name) {
+            String value = body.get(name);
+            return value != null ? value : query.get(name);
+        }
+
+        String require(String name) {
+            String value = param(name);
+            if (value == null || value.isBlank()) {
+                throw new ApiException(400, "Missing field: " + name);
+            }
+            return value.trim();
+        }
+
+        int intParam(String name) {
+            return toInt(name, param(name));
+        }
+
+        int requireInt(String name) {
+            return toInt(name, require(name));
+        }
+
+        String pathParam(int group) {
+            return pathMatch.group(group);
+        }
+
+        int intPathParam(int group) {
+            return toInt("id", pathMatch.group(group));
+        }
+
+        Map<String, Object> page(List<?> items) {
+            int page = query.containsKey("page") ? Math.max(1, intParam("page")) : 1;
+            int size = query.containsKey("size") ? intParam("size") : DEFAULT_PAGE_SIZE;
+            size = Math.max(1, Math.min(MAX_PAGE_SIZE, size));
+            int from = Math.min(items.size(), (page - 1) * size);
+            int to = Math.min(items.size(), from + size);
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("items", items.subList(from, to));
+            result.put("page", page);
+            result.put("size", size);
+            result.put("total", items.size());
+            result.put("totalPages", (items.size() + size - 1) / size);
+            return result;
+        }
+
+        private static int toInt(String name, String value) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException | NullPointerException e) {
+                throw new ApiException(400, "Invalid number for " + name);
+            }
+        }
+
+        private static Map<String, String> parseQuery(String raw) {
+            Map<String, String> params = new LinkedHashMap<>();
+            if (raw == null || raw.isEmpty()) {
+                return params;
+            }
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                String key = eq < 0 ? pair : pair.substring(0, eq);
+                String value = eq < 0 ? "" : pair.substring(eq + 1);
+                params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+            return params;
+        }
+
+        private static Map<String, String> parseBody(HttpExchange exchange) throws IOException {
+            try (InputStream in = exchange.getRequestBody()) {
+                String text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                // Accept form-encoded fields as well as a JSON object
+                if (!text.isBlank() && !text.trim().startsWith("{")) {
+                    return parseQuery(text.trim());
+                }
+                try {
+                    return Json.parseObject(text);
+                } catch (IllegalArgumentException e) {
+                    throw new ApiException(400, "Invalid JSON body: " + e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.SC2002.bto.boundary.api;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests, errors and latency per API route.
+ * Counters are lock-free so recording does not slow down concurrent requests.
+ */
+public class RequestMetrics {
+
+    private final Map<String, RouteStats> routes = new ConcurrentHashMap<>();
+    private final long startedAt = System.currentTimeMillis();
+
+    /**
+     * Records one completed request.
+     *
+     * @param route the route that handled the request, e.g. "GET /api/projects"
+     * @param status the HTTP status code returned
+     * @param nanos how long the request took, in nanoseconds
+     */
+    public void record(String route, int status, long nanos) {
+        RouteStats stats = routes.computeIfAbsent(route, r -> new RouteStats());
+        stats.count.increment();
+        if (status >= 400) {
+            stats.errors.increment();
+        }
+        stats.totalNanos.add(nanos);
+        stats.maxNanos.accumulate(nanos);
+    }
+
+    /**
+     * Returns a snapshot of all counters, suitable for serializing to JSON.
+     *
+     * @param activeSessions the number of active sessions to include
+     * @return the metrics snapshot
+     */
+    public Map<String, Object> snapshot(int activeSessions) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("uptimeSeconds", (System.currentTimeMillis() - startedAt) / 1000);
+        result.put("activeSessions", activeSessions);
+
+        Map<String, Object> byRoute = new TreeMap<>();
+        for (Map.Entry<String, RouteStats> entry : routes.entrySet()) {
+            RouteStats stats = entry.getValue();
+            long count = stats.count.sum();
+            Map<String, Object> r = new LinkedHashMap<>();
+            r.put("count", count);
+            r.put("errors", stats.errors.sum());
+            r.put("avgMillis", count == 0 ? 0.0 : stats.totalNanos.sum() / 1_000_000.0 / count);
+            r.put("maxMillis", stats.maxNanos.get() / 1_000_000.0);
+            byRoute.put(entry.getKey(), r);
+        }
+        result.put("routes", byRoute);
+        return result;
+    }
+
+    private static class RouteStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+    }
+}
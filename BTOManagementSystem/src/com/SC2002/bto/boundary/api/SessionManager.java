@@ -0,0 +1,132 @@
+package com.SC2002.bto.boundary.api;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues and validates session tokens for the HTTP API.
+ * Tokens are random, held only in memory and expire after a period of inactivity.
+ */
+public class SessionManager {
+
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final long idleTimeoutMillis;
+
+    /**
+     * Constructs a SessionManager.
+     *
+     * @param idleTimeoutMillis how long a session stays valid without being used
+     */
+    public SessionManager(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    /**
+     * Creates a session for a user who has just logged in.
+     *
+     * @param nric the user's NRIC
+     * @param role the role the user logged in as
+     * @param name the user's name
+     * @return the new session
+     */
+    public Session create(String nric, String role, String name) {
+        byte[] bytes = new byte[32];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, nric, role, name);
+        sessions.put(token, session);
+        return session;
+    }
+
+    /**
+     * Looks up a session by token and refreshes its last-used time.
+     *
+     * @param token the session token
+     * @return the session, or null if the token is unknown or has expired
+     */
+    public Session get(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (now - session.lastUsed > idleTimeoutMillis) {
+            sessions.remove(token);
+            return null;
+        }
+        session.lastUsed = now;
+        return session;
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param token the session token
+     */
+    public void remove(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    /**
+     * Removes every session that has been idle for longer than the timeout.
+     */
+    public void removeExpired() {
+        long now = System.currentTimeMillis();
+        sessions.values().removeIf(s -> now - s.lastUsed > idleTimeoutMillis);
+    }
+
+    /**
+     * Returns the number of active sessions.
+     *
+     * @return the session count
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * A logged-in user of the HTTP API.
+     */
+    public static class Session {
+        private final String token;
+        private final String nric;
+        private final String role;
+        private final String name;
+        private volatile long lastUsed = System.currentTimeMillis();
+
+        public Session(String token, String nric, String role, String name) {
+            this.token = token;
+            this.nric = nric;
+            this.role = role;
+            this.name = name;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        public String getNric() {
+            return nric;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isStaff() {
+            return "HDBOfficer".equals(role) || "HDBManager".equals(role);
+        }
+    }
+}
@@ -2,9 +2,14 @@ package com.SC2002.bto.control;
 
 import com.SC2002.bto.di.ServiceLocator;
 import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.ApplicationLease;
 import com.SC2002.bto.entities.ApplicationStatus;
 import com.SC2002.bto.service.IApplicationService;
 import com.SC2002.bto.utils.InputValidator;
+import com.SC2002.bto.utils.OperationTimer;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * Handles applicant actions: apply and withdraw.
@@ -35,73 +40,77 @@ public class ApplicationController {
      * sets status to PENDING, and persists the applicant.
      */
     public boolean applyForProject(Applicant applicant, int projectId, String flatType) {
-        // Check if the user is an HDBManager (by class type)
-        if (!(applicant instanceof Applicant)) {
-            System.out.println("HDB Managers are not allowed to apply for BTO projects.");
-            return false;
-        }
+        try (OperationTimer.Operation operation = OperationTimer.start("ApplicationController.applyForProject", applicant, projectId, flatType)) {
+            operation.stage("validate");
+            // Check if the user is an HDBManager (by class type)
+            if (!(applicant instanceof Applicant)) {
+                System.out.println("HDB Managers are not allowed to apply for BTO projects.");
+                return false;
+            }
         
-        // Special handling for officers acting as applicants
-        if (applicant instanceof com.SC2002.bto.entities.OfficerAsApplicant) {
-            com.SC2002.bto.entities.OfficerAsApplicant officerApplicant = 
-                (com.SC2002.bto.entities.OfficerAsApplicant) applicant;
+            // Special handling for officers acting as applicants
+            if (applicant instanceof com.SC2002.bto.entities.OfficerAsApplicant) {
+                com.SC2002.bto.entities.OfficerAsApplicant officerApplicant = 
+                    (com.SC2002.bto.entities.OfficerAsApplicant) applicant;
                 
-            // Check if the officer can apply for this project
-            if (!officerApplicant.canApplyForProject(projectId)) {
-                System.out.println("You cannot apply for this project as you are assigned to it as an officer or have a pending registration.");
-                return false;
+                // Check if the officer can apply for this project
+                if (!officerApplicant.canApplyForProject(projectId)) {
+                    System.out.println("You cannot apply for this project as you are assigned to it as an officer or have a pending registration.");
+                    return false;
+                }
             }
-        }
         
-        ApplicationStatus status = applicant.getApplicationStatus();
+            ApplicationStatus status = applicant.getApplicationStatus();
 
-        if (status == ApplicationStatus.SUCCESSFUL || status == ApplicationStatus.BOOKED) {
-            System.out.println("You already have an approved or booked application.");
-            return false;
-        }
+            if (status == ApplicationStatus.SUCCESSFUL || status == ApplicationStatus.BOOKED) {
+                System.out.println("You already have an approved or booked application.");
+                return false;
+            }
 
-        if (status == ApplicationStatus.UNSUCCESSFUL) {
-            applicant.setAppliedProjectId(-1);
-            applicant.setApplicationStatus(ApplicationStatus.NOT_APPLIED);
-            applicant.setAppliedFlatType("");
-        }
+            if (status == ApplicationStatus.UNSUCCESSFUL) {
+                applicant.setAppliedProjectId(-1);
+                applicant.setApplicationStatus(ApplicationStatus.NOT_APPLIED);
+                applicant.setAppliedFlatType("");
+            }
 
-        if (applicant.getAppliedProjectId() != -1 &&
-            applicant.getApplicationStatus() != ApplicationStatus.NOT_APPLIED) {
-            System.out.println("You have a pending application.");
-            return false;
-        }
+            if (applicant.getAppliedProjectId() != -1 &&
+                applicant.getApplicationStatus() != ApplicationStatus.NOT_APPLIED) {
+                System.out.println("You have a pending application.");
+                return false;
+            }
 
-        // Eligibility check using InputValidator
-        String maritalStatus = applicant.getMaritalStatus();
-        int age = applicant.getAge();
+            // Eligibility check using InputValidator
+            String maritalStatus = applicant.getMaritalStatus();
+            int age = applicant.getAge();
 
-        if (!InputValidator.validateMaritalStatus(maritalStatus)) {
-            System.out.println("Invalid marital status: " + maritalStatus);
-            return false;
-        }
+            if (!InputValidator.validateMaritalStatus(maritalStatus)) {
+                System.out.println("Invalid marital status: " + maritalStatus);
+                return false;
+            }
+
+            if (!InputValidator.validateFlatTypeEligibility(flatType, maritalStatus)) {
+                if ("Single".equalsIgnoreCase(maritalStatus)) {
+                    System.out.println("Singles can only apply for 2-Room flats.");
+                } else {
+                    System.out.println("Married applicants can only apply for 2-Room or 3-Room flats.");
+                }
+                return false;
+            }
 
-        if (!InputValidator.validateFlatTypeEligibility(flatType, maritalStatus)) {
-            if ("Single".equalsIgnoreCase(maritalStatus)) {
-                System.out.println("Singles can only apply for 2-Room flats.");
-            } else {
-                System.out.println("Married applicants can only apply for 2-Room or 3-Room flats.");
+            if ("Single".equalsIgnoreCase(maritalStatus) && !InputValidator.validateSingleApplicantAge(age, maritalStatus)) {
+                System.out.println("Singles must be 35 years or older to apply.");
+                return false;
             }
-            return false;
-        }
 
-        if ("Single".equalsIgnoreCase(maritalStatus) && !InputValidator.validateSingleApplicantAge(age, maritalStatus)) {
-            System.out.println("Singles must be 35 years or older to apply.");
-            return false;
-        }
+            if ("Married".equalsIgnoreCase(maritalStatus) && !InputValidator.validateMarriedApplicantAge(age, maritalStatus)) {
+                System.out.println("Married applicants must be 21 years or older to apply.");
+                return false;
+            }
 
-        if ("Married".equalsIgnoreCase(maritalStatus) && !InputValidator.validateMarriedApplicantAge(age, maritalStatus)) {
-            System.out.println("Married applicants must be 21 years or older to apply.");
-            return false;
+            // Use the application service to apply for the project
+            operation.stage("apply");
+            return applicationService.applyForProject(applicant, projectId, flatType);
         }
-
-        // Use the application service to apply for the project
-        return applicationService.applyForProject(applicant, projectId, flatType);
     }
 
     /**
@@ -109,20 +118,27 @@ public class ApplicationController {
      * HDBManager will need to approve or reject the withdrawal request.
      */
     public boolean requestWithdrawal(Applicant applicant) {
-        ApplicationStatus status = applicant.getApplicationStatus();
+        try (OperationTimer.Operation operation = OperationTimer.start("ApplicationController.requestWithdrawal", applicant)) {
+            ApplicationStatus status = applicant.getApplicationStatus();
 
-        if (!(status == ApplicationStatus.PENDING
-              || status == ApplicationStatus.SUCCESSFUL
-              || status == ApplicationStatus.BOOKED)) {
-            System.out.println("No active application to withdraw.");
-            return false;
-        }
+            if (!(status == ApplicationStatus.PENDING
+                  || status == ApplicationStatus.SUCCESSFUL
+                  || status == ApplicationStatus.BOOKED)) {
+                System.out.println("No active application to withdraw.");
+                return operation.result(false);
+            }
 
-        // Set to pending withdrawal instead of immediately processing
-        applicant.setApplicationStatus(ApplicationStatus.PENDING_WITHDRAWAL);
-        
-        // Use the application service to update the application status
-        return applicationService.processApplication(applicant.getNric(), ApplicationStatus.PENDING_WITHDRAWAL);
+            // Set to pending withdrawal instead of immediately processing;
+            // refused while a staff member has claimed the application
+            IApplicationService.DecisionResult result = applicationService.processApplications(applicant.getNric(),
+                List.of(new IApplicationService.Decision(applicant.getNric(), ApplicationStatus.PENDING_WITHDRAWAL))).get(0);
+            if (!result.isSuccess()) {
+                System.out.println("Withdrawal request failed: " + result.getMessage());
+                return operation.result(false);
+            }
+            applicant.setApplicationStatus(ApplicationStatus.PENDING_WITHDRAWAL);
+            return operation.result(true);
+        }
     }
     
     /**
@@ -130,30 +146,114 @@ public class ApplicationController {
      * Inventory restoration—if needed—happens in the HDB Officer's booking flow.
      */
     public boolean approveWithdrawal(Applicant applicant) {
-        ApplicationStatus status = applicant.getApplicationStatus();
+        try (OperationTimer.Operation operation = OperationTimer.start("ApplicationController.approveWithdrawal", applicant)) {
+            ApplicationStatus status = applicant.getApplicationStatus();
 
-        if (status != ApplicationStatus.PENDING_WITHDRAWAL) {
-            System.out.println("No pending withdrawal request to approve.");
-            return false;
-        }
+            if (status != ApplicationStatus.PENDING_WITHDRAWAL) {
+                System.out.println("No pending withdrawal request to approve.");
+                return operation.result(false);
+            }
 
-        // Use the application service to withdraw the application
-        return applicationService.withdrawApplication(applicant);
+            // Use the application service to withdraw the application
+            return operation.result(applicationService.withdrawApplication(applicant));
+        }
     }
     
     /**
      * Rejects a withdrawal request, reverting the status to the previous status.
      */
     public boolean rejectWithdrawal(Applicant applicant) {
-        ApplicationStatus status = applicant.getApplicationStatus();
+        try (OperationTimer.Operation operation = OperationTimer.start("ApplicationController.rejectWithdrawal", applicant)) {
+            ApplicationStatus status = applicant.getApplicationStatus();
 
-        if (status != ApplicationStatus.PENDING_WITHDRAWAL) {
-            System.out.println("No pending withdrawal request to reject.");
-            return false;
-        }
+            if (status != ApplicationStatus.PENDING_WITHDRAWAL) {
+                System.out.println("No pending withdrawal request to reject.");
+                return operation.result(false);
+            }
 
-        // Revert to PENDING status (simplification - in a real system we would store the previous status)
-        return applicationService.processApplication(applicant.getNric(), ApplicationStatus.PENDING);
+            // Revert to PENDING status (simplification - in a real system we would store the previous status)
+            return operation.result(applicationService.processApplication(applicant.getNric(), ApplicationStatus.PENDING));
+        }
+    }
+    
+    /**
+     * Applies a batch of approve/reject/withdrawal decisions in one persistence pass.
+     * Each decision is validated on its own; invalid ones are reported and skipped.
+     * 
+     * @param decisions The decisions collected from the officer or manager
+     * @return The result of each decision, in the order they were given
+     */
+    public List<IApplicationService.DecisionResult> processDecisions(List<IApplicationService.Decision> decisions) {
+        try (OperationTimer.Operation operation = OperationTimer.start("ApplicationController.processDecisions", decisions)) {
+            return operation.result(applicationService.processApplications(decisions));
+        }
+    }
+    
+    /**
+     * Applies a batch of decisions made by a staff member. Decisions on applications
+     * another staff member has claimed are reported and skipped.
+     * 
+     * @param staffNric The NRIC of the officer or manager deciding
+     * @param decisions The decisions collected from the officer or manager
+     * @return The result of each decision, in the order they were given
+     */
+    public List<IApplicationService.DecisionResult> processDecisions(String staffNric, List<IApplicationService.Decision> decisions) {
+        try (OperationTimer.Operation operation = OperationTimer.start("ApplicationController.processDecisions", decisions)) {
+            return operation.result(applicationService.processApplications(staffNric, decisions));
+        }
+    }
+    
+    /**
+     * Claims the next page of applications waiting for a decision in some projects.
+     * 
+     * @param staffNric The NRIC of the officer or manager
+     * @param status PENDING for applications, PENDING_WITHDRAWAL for withdrawal requests
+     * @param projectIds The projects to take work from
+     * @param limit The maximum number of applications to claim
+     * @return The claims, oldest application first
+     */
+    public List<ApplicationLease> claimApplications(String staffNric, ApplicationStatus status, Collection<Integer> projectIds, int limit) {
+        try (OperationTimer.Operation operation = OperationTimer.start("ApplicationController.claimApplications", staffNric, status)) {
+            return operation.result(applicationService.claimApplications(staffNric, status, projectIds, limit));
+        }
+    }
+    
+    /**
+     * Releases a staff member's claim on an application.
+     * 
+     * @param applicantNric The NRIC of the applicant
+     * @param staffNric The NRIC of the officer or manager
+     * @return true if the staff member held the claim, false otherwise
+     */
+    public boolean releaseApplication(String applicantNric, String staffNric) {
+        return applicationService.releaseApplication(applicantNric, staffNric);
+    }
+    
+    /**
+     * Puts an applicant whose booking failed for lack of units on the waitlist.
+     * 
+     * @param applicantNric The NRIC of the applicant
+     * @param projectId The ID of the project
+     * @param flatType The flat type applied for
+     * @return true if the applicant was added to the waitlist, false otherwise
+     */
+    public boolean joinWaitlist(String applicantNric, int projectId, String flatType) {
+        try (OperationTimer.Operation operation = OperationTimer.start("ApplicationController.joinWaitlist", applicantNric, projectId, flatType)) {
+            return operation.result(applicationService.joinWaitlist(applicantNric, projectId, flatType));
+        }
+    }
+    
+    /**
+     * Offers units released by withdrawals to the next applicants on the waitlist.
+     * 
+     * @param projectId The ID of the project
+     * @param flatType The flat type released
+     * @return The number of applicants offered a unit
+     */
+    public int offerReleasedUnits(int projectId, String flatType) {
+        try (OperationTimer.Operation operation = OperationTimer.start("ApplicationController.offerReleasedUnits", projectId, flatType)) {
+            return operation.result(applicationService.offerReleasedUnits(projectId, flatType));
+        }
     }
     
     /**
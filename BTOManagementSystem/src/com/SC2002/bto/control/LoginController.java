@@ -4,6 +4,7 @@ package com.SC2002.bto.control;
 import com.SC2002.bto.di.ServiceLocator;
 import com.SC2002.bto.entities.User;
 import com.SC2002.bto.service.IUserService;
+import com.SC2002.bto.utils.OperationTimer;
 
 import java.util.Optional;
 import java.util.Scanner;
@@ -41,22 +42,26 @@ public class LoginController {
      * @return the authenticated User object if login is successful; otherwise, returns null.
      */
     public User authenticate(String role, String nric, String password) {
-        if (!userService.validateNric(nric)) {
-            System.out.println("Invalid NRIC format. It should start with S or T followed by 7 digits and a letter.");
-            return null;
-        }
-        if (!userService.validatePassword(password)) {
-            System.out.println("Password must be at least 8 characters.");
-            return null;
-        }
+        try (OperationTimer.Operation operation = OperationTimer.start("LoginController.authenticate", role, nric)) {
+            operation.stage("validate");
+            if (!userService.validateNric(nric)) {
+                System.out.println("Invalid NRIC format. It should start with S or T followed by 7 digits and a letter.");
+                return null;
+            }
+            if (!userService.validatePassword(password)) {
+                System.out.println("Password must be at least 8 characters.");
+                return null;
+            }
 
-        Optional<User> userOpt = userService.authenticate(role, nric, password);
+            operation.stage("authenticate");
+            Optional<User> userOpt = userService.authenticate(role, nric, password);
         
-        if (userOpt.isPresent()) {
-            return userOpt.get();
-        } else {
-            System.out.println("Incorrect credentials for NRIC: " + nric);
-            return null;
+            if (userOpt.isPresent()) {
+                return userOpt.get();
+            } else {
+                System.out.println("Incorrect credentials for NRIC: " + nric);
+                return null;
+            }
         }
     }
 
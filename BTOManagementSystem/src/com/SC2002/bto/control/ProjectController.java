@@ -6,7 +6,9 @@ import java.util.List;
 
 import com.SC2002.bto.di.ServiceLocator;
 import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.repository.ProjectQuery;
 import com.SC2002.bto.service.IProjectService;
+import com.SC2002.bto.utils.OperationTimer;
 
 /**
 * ProjectController handles operations related to project management such as
@@ -41,7 +43,9 @@ public class ProjectController {
      * @return true if a unit was successfully booked, false otherwise
      */
 	public boolean bookFlatUnit(int projectId, String flatType) {
-        return projectService.bookUnit(projectId, flatType);
+        try (OperationTimer.Operation operation = OperationTimer.start("ProjectController.bookFlatUnit", projectId, flatType)) {
+            return operation.result(projectService.bookUnit(projectId, flatType));
+        }
     }
 	
     /**
@@ -50,7 +54,9 @@ public class ProjectController {
      * @return a list of projects.
      */
 	public List<Project> getAvailableProjects() {
-	    return projectService.getVisibleProjects();
+	    try (OperationTimer.Operation operation = OperationTimer.start("ProjectController.getAvailableProjects")) {
+	        return operation.result(projectService.getVisibleProjects());
+	    }
 	}
 
     /**
@@ -61,7 +67,9 @@ public class ProjectController {
      * @return true if the operation was successful, false otherwise.
      */
 	public boolean toggleProjectVisibility(int projectId, boolean isVisible) {
-	    return projectService.updateVisibility(projectId, isVisible);
+	    try (OperationTimer.Operation operation = OperationTimer.start("ProjectController.toggleProjectVisibility", projectId, isVisible)) {
+	        return operation.result(projectService.updateVisibility(projectId, isVisible));
+	    }
 	}
 
     /**
@@ -71,7 +79,9 @@ public class ProjectController {
      * @return a filtered list of projects.
      */
 	public List<Project> filterProjects(String keyword) {
-	    return ((com.SC2002.bto.service.impl.ProjectService) projectService).findByKeyword(keyword);
+	    try (OperationTimer.Operation operation = OperationTimer.start("ProjectController.filterProjects", keyword)) {
+	        return operation.result(((com.SC2002.bto.service.impl.ProjectService) projectService).findByKeyword(keyword));
+	    }
 	}
 	
     /**
@@ -81,7 +91,48 @@ public class ProjectController {
      * @return a complete list of all projects regardless of visibility status.
      */
 	public List<Project> getAllProjects() {
-	    return projectService.getAllProjects();
+	    try (OperationTimer.Operation operation = OperationTimer.start("ProjectController.getAllProjects")) {
+	        return operation.result(projectService.getAllProjects());
+	    }
+	}
+	
+    /**
+     * Retrieves the projects that match a query, regardless of visibility unless the
+     * query asks for it.
+     *
+     * @param query the criteria, order and limit.
+     * @return a list of the matching projects.
+     */
+	public List<Project> findProjects(ProjectQuery query) {
+	    try (OperationTimer.Operation operation = OperationTimer.start("ProjectController.findProjects", query)) {
+	        return operation.result(projectService.findProjects(query));
+	    }
+	}
+	
+    /**
+     * Retrieves the projects a manager is in charge of, regardless of visibility.
+     *
+     * @param managerNric the NRIC of the manager.
+     * @return copies of the manager's projects, in file order.
+     */
+	public List<Project> getManagedProjects(String managerNric) {
+	    try (OperationTimer.Operation operation = OperationTimer.start("ProjectController.getManagedProjects")) {
+	        return operation.result(projectService.getProjectsByManager(managerNric));
+	    }
+	}
+	
+    /**
+     * Retrieves the cheapest visible projects that are open for application and still
+     * have units of a flat type left.
+     *
+     * @param flatType the flat type, or null for either.
+     * @param limit the maximum number of projects.
+     * @return the projects, cheapest first.
+     */
+	public List<Project> getCheapestAvailableProjects(String flatType, int limit) {
+	    try (OperationTimer.Operation operation = OperationTimer.start("ProjectController.getCheapestAvailableProjects", flatType, limit)) {
+	        return operation.result(projectService.getCheapestAvailableProjects(flatType, limit));
+	    }
 	}
 	
     /**
@@ -92,6 +143,8 @@ public class ProjectController {
      * @return a list of currently open and visible projects.
      */
 	public List<Project> getCurrentlyOpenProjects() {
-	    return ((com.SC2002.bto.service.impl.ProjectService) projectService).getCurrentlyOpenProjects();
+	    try (OperationTimer.Operation operation = OperationTimer.start("ProjectController.getCurrentlyOpenProjects")) {
+	        return operation.result(((com.SC2002.bto.service.impl.ProjectService) projectService).getCurrentlyOpenProjects());
+	    }
 	}
 }
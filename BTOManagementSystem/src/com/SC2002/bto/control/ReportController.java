@@ -9,6 +9,7 @@ import com.SC2002.bto.entities.Project;
 import com.SC2002.bto.entities.User;
 import com.SC2002.bto.service.IApplicationService;
 import com.SC2002.bto.service.IProjectService;
+import com.SC2002.bto.utils.OperationTimer;
 
 /**
  * ReportController handles the generation of reports for the BTO Management System.
@@ -45,39 +46,43 @@ public class ReportController {
      * @return a formatted string containing the applicant report.
      */
     public String generateApplicantReport(List<User> users) {
-        StringBuilder report = new StringBuilder("=== Applicant Report ===\n");
+        try (OperationTimer.Operation operation = OperationTimer.start("ReportController.generateApplicantReport", users)) {
+            StringBuilder report = new StringBuilder("=== Applicant Report ===\n");
 
-        int total = 0, pending = 0, success = 0, booked = 0, rejected = 0;
+            int total = 0, pending = 0, success = 0, booked = 0, rejected = 0;
 
-        for (User user : users) {
-            if (!(user instanceof Applicant)) continue;
-            Applicant a = (Applicant) user;
-            total++;
+            operation.stage("rows");
+            for (User user : users) {
+                if (!(user instanceof Applicant)) continue;
+                Applicant a = (Applicant) user;
+                total++;
 
-            report.append("NRIC: ").append(a.getNric())
-                  .append(" | Name: ").append(a.getName())
-                  .append(" | Status: ").append(a.getApplicationStatus())
-                  .append(" | Project ID: ").append(a.getAppliedProjectId())
-                  .append(" | Flat Type: ").append(a.getAppliedFlatType())
-                  .append("\n");
+                report.append("NRIC: ").append(a.getNric())
+                      .append(" | Name: ").append(a.getName())
+                      .append(" | Status: ").append(a.getApplicationStatus())
+                      .append(" | Project ID: ").append(a.getAppliedProjectId())
+                      .append(" | Flat Type: ").append(a.getAppliedFlatType())
+                      .append("\n");
 
-            switch (a.getApplicationStatus()) {
-                case PENDING -> pending++;
-                case SUCCESSFUL -> success++;
-                case BOOKED -> booked++;
-                case UNSUCCESSFUL -> rejected++;
+                switch (a.getApplicationStatus()) {
+                    case PENDING -> pending++;
+                    case SUCCESSFUL -> success++;
+                    case BOOKED -> booked++;
+                    case UNSUCCESSFUL -> rejected++;
+                }
             }
-        }
 
-        report.append("\nSummary:\n")
-              .append("Total Applicants: ").append(total).append("\n")
-              .append("Pending: ").append(pending).append("\n")
-              .append("Successful: ").append(success).append("\n")
-              .append("Booked: ").append(booked).append("\n")
-              .append("Rejected: ").append(rejected).append("\n");
+            operation.stage("summary");
+            report.append("\nSummary:\n")
+                  .append("Total Applicants: ").append(total).append("\n")
+                  .append("Pending: ").append(pending).append("\n")
+                  .append("Successful: ").append(success).append("\n")
+                  .append("Booked: ").append(booked).append("\n")
+                  .append("Rejected: ").append(rejected).append("\n");
 
-        System.out.println("Applicant report generated.");
-        return report.toString();
+            System.out.println("Applicant report generated.");
+            return report.toString();
+        }
     }
 
     /**
@@ -87,24 +92,27 @@ public class ReportController {
      * @return a formatted string containing the flat booking report.
      */
     public String generateFlatBookingReport(List<Project> projects) {
-        StringBuilder report = new StringBuilder("=== Flat Booking Report ===\n");
+        try (OperationTimer.Operation operation = OperationTimer.start("ReportController.generateFlatBookingReport", projects)) {
+            StringBuilder report = new StringBuilder("=== Flat Booking Report ===\n");
 
-        for (Project p : projects) {
-            int booked2 = projectService.getBookedUnits(p.getProjectId(), "2-Room");
-            int booked3 = projectService.getBookedUnits(p.getProjectId(), "3-Room");
-            int original2 = p.getType1Units() + booked2;
-            int original3 = p.getType2Units() + booked3;
+            operation.stage("rows");
+            for (Project p : projects) {
+                int booked2 = projectService.getBookedUnits(p.getProjectId(), "2-Room");
+                int booked3 = projectService.getBookedUnits(p.getProjectId(), "3-Room");
+                int original2 = p.getType1Units() + booked2;
+                int original3 = p.getType2Units() + booked3;
 
-            report.append("Project: ").append(p.getProjectName()).append(" @ ").append(p.getNeighborhood()).append("\n")
-                  .append("2-Room: ").append(p.getType1Units()).append(" left / ").append(booked2).append(" booked out of ").append(original2).append("\n")
-                  .append("3-Room: ").append(p.getType2Units()).append(" left / ").append(booked3).append(" booked out of ").append(original3).append("\n")
-                  .append("Visible: ").append(p.isVisible()).append("\n")
-                  .append("Application Period: ").append(p.getApplicationOpeningDate())
-                  .append(" to ").append(p.getApplicationClosingDate()).append("\n")
-                  .append("------------------------------------------------\n");
-        }
+                report.append("Project: ").append(p.getProjectName()).append(" @ ").append(p.getNeighborhood()).append("\n")
+                      .append("2-Room: ").append(p.getType1Units()).append(" left / ").append(booked2).append(" booked out of ").append(original2).append("\n")
+                      .append("3-Room: ").append(p.getType2Units()).append(" left / ").append(booked3).append(" booked out of ").append(original3).append("\n")
+                      .append("Visible: ").append(p.isVisible()).append("\n")
+                      .append("Application Period: ").append(p.getApplicationOpeningDate())
+                      .append(" to ").append(p.getApplicationClosingDate()).append("\n")
+                      .append("------------------------------------------------\n");
+            }
 
-        System.out.println("Flat booking report generated.");
-        return report.toString();
+            System.out.println("Flat booking report generated.");
+            return report.toString();
+        }
     }
 }
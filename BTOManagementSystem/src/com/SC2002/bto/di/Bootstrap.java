@@ -0,0 +1,216 @@
+package com.SC2002.bto.di;
+
+import com.SC2002.bto.repository.IApplicationRepository;
+import com.SC2002.bto.repository.IEnquiryRepository;
+import com.SC2002.bto.repository.IOfficerRegistrationRepository;
+import com.SC2002.bto.repository.IProjectRepository;
+import com.SC2002.bto.repository.IUserRepository;
+import com.SC2002.bto.repository.RepositoryFactory;
+import com.SC2002.bto.service.IApplicationService;
+import com.SC2002.bto.service.IBallotService;
+import com.SC2002.bto.service.IEnquiryService;
+import com.SC2002.bto.service.IImportService;
+import com.SC2002.bto.service.IOfficerRegistrationService;
+import com.SC2002.bto.service.IProjectService;
+import com.SC2002.bto.service.IReportService;
+import com.SC2002.bto.service.IUserService;
+import com.SC2002.bto.service.IValidationService;
+import com.SC2002.bto.service.impl.ApplicationService;
+import com.SC2002.bto.service.impl.BallotService;
+import com.SC2002.bto.service.impl.EnquiryService;
+import com.SC2002.bto.service.impl.ImportService;
+import com.SC2002.bto.service.impl.OfficerRegistrationService;
+import com.SC2002.bto.service.impl.ProjectService;
+import com.SC2002.bto.service.impl.ReportService;
+import com.SC2002.bto.service.impl.UserService;
+import com.SC2002.bto.service.impl.ValidationService;
+import com.SC2002.bto.utils.ApplicationCatalog;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.CredentialIndex;
+import com.SC2002.bto.utils.EnquiryCatalog;
+import com.SC2002.bto.utils.MetricsRegistry;
+import com.SC2002.bto.utils.ProjectCatalog;
+import com.SC2002.bto.utils.WriteBehindBuffer;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wires the repositories and services together and registers them in the {@link ServiceLocator}.
+ * Used by the application's entry point and by headless tools that drive the services directly.
+ * Every repository and service is wrapped so that its calls are counted in the {@link MetricsRegistry}.
+ * <p>
+ * No data is read while wiring. The tables needed by almost every session can be loaded
+ * in parallel in the background with {@link #preloadInBackground()}; the rest are loaded
+ * on first use. Each startup phase is timed, and the timings are recorded as
+ * {@code startup.<phase>} in the metrics registry.
+ */
+public final class Bootstrap {
+    
+    /** Metric name prefixes of repository and service calls */
+    private static final String REPOSITORY = "repository";
+    private static final String SERVICE = "service";
+    /** Metric name prefix of the startup phase timings */
+    private static final String STARTUP = "startup.";
+    
+    /** Durations of the startup phases in nanoseconds, in the order they finished */
+    private static final Map<String, Long> phases = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static ExecutorService background;
+    
+    private Bootstrap() {
+        // Private constructor to prevent instantiation
+    }
+    
+    /**
+     * Creates the repositories and services and registers them in the ServiceLocator.
+     */
+    public static void registerServices() {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        long began = System.nanoTime();
+        
+        // Get repositories from the factory, counting and timing every call
+        IProjectRepository projectRepository = metrics.instrument(IProjectRepository.class,
+            RepositoryFactory.getProjectRepository(), REPOSITORY);
+        IEnquiryRepository enquiryRepository = metrics.instrument(IEnquiryRepository.class,
+            RepositoryFactory.getEnquiryRepository(), REPOSITORY);
+        IApplicationRepository applicationRepository = metrics.instrument(IApplicationRepository.class,
+            RepositoryFactory.getApplicationRepository(), REPOSITORY);
+        IOfficerRegistrationRepository officerRegistrationRepository = metrics.instrument(IOfficerRegistrationRepository.class,
+            RepositoryFactory.getOfficerRegistrationRepository(), REPOSITORY);
+        IUserRepository userRepository = metrics.instrument(IUserRepository.class,
+            RepositoryFactory.getUserRepository(), REPOSITORY);
+        
+        began = recordPhase("repositories", began);
+        
+        // Initialize services, counting and timing every call
+        IProjectService projectService = metrics.instrument(IProjectService.class,
+            new ProjectService(projectRepository), SERVICE);
+        IEnquiryService enquiryService = metrics.instrument(IEnquiryService.class,
+            new EnquiryService(enquiryRepository), SERVICE);
+        IApplicationService applicationService = metrics.instrument(IApplicationService.class,
+            new ApplicationService(applicationRepository, projectRepository), SERVICE);
+        IBallotService ballotService = metrics.instrument(IBallotService.class,
+            new BallotService(applicationRepository, projectRepository), SERVICE);
+        IOfficerRegistrationService officerRegistrationService = metrics.instrument(IOfficerRegistrationService.class,
+            new OfficerRegistrationService(officerRegistrationRepository, projectRepository), SERVICE);
+        IReportService reportService = metrics.instrument(IReportService.class,
+            new ReportService(projectRepository, applicationRepository, userRepository), SERVICE);
+        IUserService userService = metrics.instrument(IUserService.class,
+            new UserService(userRepository), SERVICE);
+        IValidationService validationService = metrics.instrument(IValidationService.class,
+            new ValidationService(), SERVICE);
+        IImportService importService = metrics.instrument(IImportService.class,
+            new ImportService(validationService), SERVICE);
+        
+        began = recordPhase("services", began);
+        
+        // Gauges read when the metrics are dumped or viewed over JMX
+        metrics.gauge("jvm.heap.used.bytes", () -> ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        metrics.gauge("writebehind.pending.files", WriteBehindBuffer::getPendingFileCount);
+        ServiceLocator.register(MetricsRegistry.class, metrics);
+        
+        // Register repositories in the ServiceLocator
+        ServiceLocator.register(IProjectRepository.class, projectRepository);
+        ServiceLocator.register(IEnquiryRepository.class, enquiryRepository);
+        ServiceLocator.register(IApplicationRepository.class, applicationRepository);
+        ServiceLocator.register(IOfficerRegistrationRepository.class, officerRegistrationRepository);
+        ServiceLocator.register(IUserRepository.class, userRepository);
+        
+        // Register services in the ServiceLocator
+        ServiceLocator.register(IProjectService.class, projectService);
+        ServiceLocator.register(IEnquiryService.class, enquiryService);
+        ServiceLocator.register(IApplicationService.class, applicationService);
+        ServiceLocator.register(IBallotService.class, ballotService);
+        ServiceLocator.register(IOfficerRegistrationService.class, officerRegistrationService);
+        ServiceLocator.register(IReportService.class, reportService);
+        ServiceLocator.register(IUserService.class, userService);
+        ServiceLocator.register(IValidationService.class, validationService);
+        ServiceLocator.register(IImportService.class, importService);
+        recordPhase("register", began);
+        
+        // Starting the platform MBean server takes longer than the wiring, so export in the background
+        runInBackground("jmx", metrics::exportToJmx);
+    }
+    
+    /**
+     * Starts loading the projects, applications, enquiries and user lists in parallel in the
+     * background, so they are ready by the time the user has logged in. Officer registrations,
+     * assignments and waitlists are left to load on first use. A lookup made before its table
+     * has finished loading waits for it.
+     */
+    public static void preloadInBackground() {
+        runInBackground("preload.projects", ProjectCatalog::snapshot);
+        runInBackground("preload.applications", ApplicationCatalog::getAll);
+        runInBackground("preload.enquiries", EnquiryCatalog::getAll);
+        runInBackground("preload.applicants", () -> CredentialIndex.preload(Constants.USER_TYPE_APPLICANT));
+        runInBackground("preload.officers", () -> CredentialIndex.preload(Constants.USER_TYPE_OFFICER));
+        runInBackground("preload.managers", () -> CredentialIndex.preload(Constants.USER_TYPE_MANAGER));
+    }
+    
+    /**
+     * Records how long a startup phase took.
+     * 
+     * @param phase the phase name, e.g. "recover"
+     * @param beganNanos when the phase began, from {@link System#nanoTime()}
+     * @return the time the phase ended, to begin the next phase with
+     */
+    public static long recordPhase(String phase, long beganNanos) {
+        long now = System.nanoTime();
+        phases.put(phase, now - beganNanos);
+        MetricsRegistry.getDefault().histogram(STARTUP + phase).record(now - beganNanos);
+        return now;
+    }
+    
+    /**
+     * Returns the durations of the startup phases recorded so far.
+     * 
+     * @return the durations in nanoseconds, in the order the phases finished
+     */
+    public static Map<String, Long> getPhaseTimings() {
+        synchronized (phases) {
+            return new LinkedHashMap<>(phases);
+        }
+    }
+    
+    /**
+     * Formats the durations of the startup phases recorded so far.
+     * 
+     * @return one line per phase
+     */
+    public static String formatPhaseTimings() {
+        StringBuilder sb = new StringBuilder();
+        getPhaseTimings().forEach((phase, nanos) ->
+            sb.append(String.format(Locale.ROOT, "%-30s %10.3f ms%n", phase, nanos / 1e6)));
+        return sb.toString();
+    }
+    
+    /**
+     * Runs a startup phase on a background daemon thread and records how long it took.
+     */
+    private static synchronized void runInBackground(String phase, Runnable task) {
+        if (background == null) {
+            AtomicInteger threads = new AtomicInteger();
+            background = Executors.newCachedThreadPool(r -> {
+                Thread t = new Thread(r, "bootstrap-" + threads.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        background.execute(() -> {
+            long began = System.nanoTime();
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                System.out.println("Warning: Startup phase " + phase + " failed: " + e.getMessage());
+                return;
+            }
+            recordPhase(phase, began);
+        });
+    }
+}
@@ -2,9 +2,9 @@
 package com.SC2002.bto.entities;
 
 import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.EligibilityMatrix;
 import com.SC2002.bto.utils.FileManager;
 import com.SC2002.bto.utils.InputValidator;
-import com.SC2002.bto.utils.ProjectRepository;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -108,46 +108,27 @@ public class Applicant extends BTOSystemUser {
      */
     @Override
     public List<Project> getViewableProjects() {
-        List<Project> allProjects = getAllProjects();
-        if (allProjects.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        List<Project> viewableProjects = new ArrayList<>();
         String ms = getMaritalStatus();
-        int age = getAge();
         
         // Validate marital status
         if (!InputValidator.validateMaritalStatus(ms)) {
             return new ArrayList<>();
         }
         
+        // Visible, open projects matching the applicant's marital status and age band
+        List<Project> eligibleProjects = EligibilityMatrix.getViewableProjects(ms, getAge());
+        
         // Include the project the applicant has already applied for, if any
-        if (appliedProjectId != -1) {
-            allProjects.stream()
-                .filter(p -> p.getProjectId() == appliedProjectId)
-                .findFirst()
-                .ifPresent(viewableProjects::add);
+        if (appliedProjectId == -1) {
+            return eligibleProjects;
         }
-        
-        // Filter projects by visibility and application period
-        List<Project> visibleProjects = filterByVisibilityAndPeriod(allProjects);
-        
-        // Apply eligibility criteria based on marital status and age
-        for (Project p : visibleProjects) {
-            if ("Single".equalsIgnoreCase(ms)) {
-                if (!InputValidator.validateSingleApplicantAge(age, ms)) {
-                    continue;
-                }
-                boolean has2Room = "2-Room".equalsIgnoreCase(p.getType1Desc()) || 
-                                  "2-Room".equalsIgnoreCase(p.getType2Desc());
-                if (has2Room) {
-                    viewableProjects.add(p);
-                }
-            } else if ("Married".equalsIgnoreCase(ms)) {
-                if (!InputValidator.validateMarriedApplicantAge(age, ms)) {
-                    continue;
-                }
+        List<Project> viewableProjects = new ArrayList<>();
+        Project applied = EligibilityMatrix.findProject(appliedProjectId);
+        if (applied != null) {
+            viewableProjects.add(applied);
+        }
+        for (Project p : eligibleProjects) {
+            if (p.getProjectId() != appliedProjectId) {
                 viewableProjects.add(p);
             }
         }
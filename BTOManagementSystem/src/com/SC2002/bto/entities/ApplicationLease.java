@@ -0,0 +1,58 @@
+package com.SC2002.bto.entities;
+
+import java.time.Instant;
+
+/**
+ * A staff member's claim on a pending application or withdrawal request, held until
+ * the application is decided or released or the lease expires. Leases are immutable.
+ */
+public final class ApplicationLease {
+    private final String applicantNric;
+    private final int projectId;
+    private final ApplicationStatus status;
+    private final String staffNric;
+    private final long expiresAtMillis;
+
+    /**
+     * Constructs an ApplicationLease.
+     *
+     * @param applicantNric The NRIC of the applicant
+     * @param projectId The ID of the project applied for
+     * @param status The status the application is waiting in (PENDING or PENDING_WITHDRAWAL)
+     * @param staffNric The NRIC of the officer or manager holding the claim
+     * @param expiresAtMillis When the claim lapses, in epoch milliseconds
+     */
+    public ApplicationLease(String applicantNric, int projectId, ApplicationStatus status,
+                            String staffNric, long expiresAtMillis) {
+        this.applicantNric = applicantNric;
+        this.projectId = projectId;
+        this.status = status;
+        this.staffNric = staffNric;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public String getApplicantNric() { return applicantNric; }
+
+    public int getProjectId() { return projectId; }
+
+    public ApplicationStatus getStatus() { return status; }
+
+    public String getStaffNric() { return staffNric; }
+
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+
+    /**
+     * @return When the claim lapses
+     */
+    public Instant getExpiresAt() {
+        return Instant.ofEpochMilli(expiresAtMillis);
+    }
+
+    /**
+     * @param nowMillis The current time, in epoch milliseconds
+     * @return true if the claim has lapsed
+     */
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
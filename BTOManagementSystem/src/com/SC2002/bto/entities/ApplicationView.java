@@ -0,0 +1,50 @@
+package com.SC2002.bto.entities;
+
+/**
+ * Immutable read model of an applicant's application.
+ * Views are shared between threads and callers without copying. Applications are
+ * changed only through the application service commands (apply, withdraw, process, book).
+ */
+public final class ApplicationView {
+    private final String nric;
+    private final String name;
+    private final int age;
+    private final String maritalStatus;
+    private final int appliedProjectId;
+    private final ApplicationStatus status;
+    private final String flatType;
+
+    private ApplicationView(Applicant applicant) {
+        this.nric = applicant.getNric();
+        this.name = applicant.getName();
+        this.age = applicant.getAge();
+        this.maritalStatus = applicant.getMaritalStatus();
+        this.appliedProjectId = applicant.getAppliedProjectId();
+        this.status = applicant.getApplicationStatus();
+        this.flatType = applicant.getAppliedFlatType();
+    }
+
+    /**
+     * Creates a view of the current application state of an applicant.
+     *
+     * @param applicant The applicant
+     * @return The view
+     */
+    public static ApplicationView of(Applicant applicant) {
+        return new ApplicationView(applicant);
+    }
+
+    public String getNric() { return nric; }
+
+    public String getName() { return name; }
+
+    public int getAge() { return age; }
+
+    public String getMaritalStatus() { return maritalStatus; }
+
+    public int getAppliedProjectId() { return appliedProjectId; }
+
+    public ApplicationStatus getStatus() { return status; }
+
+    public String getFlatType() { return flatType; }
+}
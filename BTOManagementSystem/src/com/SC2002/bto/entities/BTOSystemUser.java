@@ -3,7 +3,7 @@ package com.SC2002.bto.entities;
 import com.SC2002.bto.utils.Constants;
 import com.SC2002.bto.utils.FileManager;
 import com.SC2002.bto.utils.InputValidator;
-import com.SC2002.bto.utils.ProjectRepository;
+import com.SC2002.bto.utils.ProjectCatalog;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -68,14 +68,12 @@ public abstract class BTOSystemUser extends User implements ProjectInteractor {
     protected abstract String getUserCsvPath();
     
     /**
-     * Gets the list of all projects from the repository.
+     * Gets the list of all projects from the shared project catalog.
      * 
-     * @return the list of all projects
+     * @return an unmodifiable list of all projects
      */
     protected List<Project> getAllProjects() {
-        // Refresh the project repository to ensure we have the latest data
-        ProjectRepository.refresh();
-        return ProjectRepository.getAll();
+        return ProjectCatalog.getAll();
     }
     
     /**
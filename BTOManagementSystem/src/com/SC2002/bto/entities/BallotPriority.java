@@ -0,0 +1,43 @@
+package com.SC2002.bto.entities;
+
+import java.util.Comparator;
+
+/**
+ * Priority rules that can be applied when balloting applications.
+ * Applicants ranked higher by a rule are drawn before the rest; applicants a rule
+ * ranks equally are ordered by the next rule, and finally by the random draw.
+ */
+public enum BallotPriority {
+    /**
+     * Married applicants are drawn before single applicants.
+     */
+    MARRIED_FIRST(Comparator.comparingInt(a -> "Married".equalsIgnoreCase(a.getMaritalStatus()) ? 0 : 1)),
+    
+    /**
+     * Single applicants are drawn before married applicants.
+     */
+    SINGLE_FIRST(Comparator.comparingInt(a -> "Single".equalsIgnoreCase(a.getMaritalStatus()) ? 0 : 1)),
+    
+    /**
+     * Older applicants are drawn before younger applicants.
+     */
+    OLDER_FIRST(Comparator.comparingInt((ApplicationView a) -> a.getAge()).reversed()),
+    
+    /**
+     * Younger applicants are drawn before older applicants.
+     */
+    YOUNGER_FIRST(Comparator.comparingInt(ApplicationView::getAge));
+    
+    private final Comparator<ApplicationView> comparator;
+    
+    BallotPriority(Comparator<ApplicationView> comparator) {
+        this.comparator = comparator;
+    }
+    
+    /**
+     * @return A comparator that orders applications with the higher priority first
+     */
+    public Comparator<ApplicationView> comparator() {
+        return comparator;
+    }
+}
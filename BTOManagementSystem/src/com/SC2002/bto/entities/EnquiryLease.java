@@ -0,0 +1,52 @@
+package com.SC2002.bto.entities;
+
+import java.time.Instant;
+
+/**
+ * An officer's claim on an unanswered enquiry, held until the officer answers or
+ * releases it or the lease expires. Leases are immutable; renewing a claim replaces it.
+ */
+public final class EnquiryLease {
+    private final int enquiryId;
+    private final int projectId;
+    private final String officerNric;
+    private final long expiresAtMillis;
+
+    /**
+     * Constructs an EnquiryLease.
+     *
+     * @param enquiryId The ID of the claimed enquiry
+     * @param projectId The ID of the project the enquiry is about
+     * @param officerNric The NRIC of the officer holding the claim
+     * @param expiresAtMillis When the claim lapses, in epoch milliseconds
+     */
+    public EnquiryLease(int enquiryId, int projectId, String officerNric, long expiresAtMillis) {
+        this.enquiryId = enquiryId;
+        this.projectId = projectId;
+        this.officerNric = officerNric;
+        this.expiresAtMillis = expiresAtMillis;
+    }
+
+    public int getEnquiryId() { return enquiryId; }
+
+    public int getProjectId() { return projectId; }
+
+    public String getOfficerNric() { return officerNric; }
+
+    public long getExpiresAtMillis() { return expiresAtMillis; }
+
+    /**
+     * @return When the claim lapses
+     */
+    public Instant getExpiresAt() {
+        return Instant.ofEpochMilli(expiresAtMillis);
+    }
+
+    /**
+     * @param nowMillis The current time, in epoch milliseconds
+     * @return true if the claim has lapsed
+     */
+    public boolean isExpired(long nowMillis) {
+        return nowMillis >= expiresAtMillis;
+    }
+}
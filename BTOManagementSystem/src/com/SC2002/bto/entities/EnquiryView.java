@@ -0,0 +1,79 @@
+package com.SC2002.bto.entities;
+
+/**
+ * Immutable read model of an {@link Enquiry}.
+ * Views are shared between threads and callers without copying. A changed enquiry is a
+ * new view, derived with {@link #withResponse(String)} or {@link #withText(String)} and
+ * saved through the enquiry repository.
+ */
+public final class EnquiryView {
+    private final int enquiryId;
+    private final String userNric;
+    private final String enquiryText;
+    private final String response;
+    private final int projectId;
+
+    private EnquiryView(int enquiryId, String userNric, String enquiryText, String response, int projectId) {
+        this.enquiryId = enquiryId;
+        this.userNric = userNric;
+        this.enquiryText = enquiryText;
+        this.response = response == null ? "" : response;
+        this.projectId = projectId;
+    }
+
+    /**
+     * Creates a view of the current state of an enquiry.
+     *
+     * @param enquiry The enquiry
+     * @return The view
+     */
+    public static EnquiryView of(Enquiry enquiry) {
+        return new EnquiryView(enquiry.getEnquiryId(), enquiry.getUserNric(),
+            enquiry.getEnquiryText(), enquiry.getResponse(), enquiry.getProjectId());
+    }
+
+    /**
+     * Creates a mutable enquiry with the state of this view, for code that still works on
+     * {@link Enquiry} entities.
+     *
+     * @return A new enquiry
+     */
+    public Enquiry toEnquiry() {
+        Enquiry enquiry = new Enquiry(enquiryId, userNric, enquiryText, projectId);
+        enquiry.setResponse(response);
+        return enquiry;
+    }
+
+    /**
+     * @param newResponse The response
+     * @return A copy of this view with the given response
+     */
+    public EnquiryView withResponse(String newResponse) {
+        return new EnquiryView(enquiryId, userNric, enquiryText, newResponse, projectId);
+    }
+
+    /**
+     * @param newText The enquiry text
+     * @return A copy of this view with the given enquiry text
+     */
+    public EnquiryView withText(String newText) {
+        return new EnquiryView(enquiryId, userNric, newText, response, projectId);
+    }
+
+    public int getEnquiryId() { return enquiryId; }
+
+    public String getUserNric() { return userNric; }
+
+    public String getEnquiryText() { return enquiryText; }
+
+    public String getResponse() { return response; }
+
+    public int getProjectId() { return projectId; }
+
+    /**
+     * @return true if the enquiry has been responded to, false otherwise
+     */
+    public boolean hasResponse() {
+        return !response.trim().isEmpty();
+    }
+}
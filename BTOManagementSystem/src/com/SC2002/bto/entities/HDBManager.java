@@ -2,8 +2,8 @@
 package com.SC2002.bto.entities;
 
 import com.SC2002.bto.utils.Constants;
-import com.SC2002.bto.utils.FileManager;
-import com.SC2002.bto.utils.ProjectRepository;
+import com.SC2002.bto.utils.EnquiryCatalog;
+import com.SC2002.bto.utils.ManagerAssignments;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -89,21 +89,10 @@ public class HDBManager extends BTOSystemUser {
      */
     @Override
     public List<Enquiry> getRelevantEnquiries() {
-        // For managers, relevant enquiries are those for projects they manage
-        List<Project> managedProjects = getAllProjects().stream()
-            .filter(p -> p.getManager().equalsIgnoreCase(getName()))
-            .collect(Collectors.toList());
-            
-        if (managedProjects.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        List<Integer> managedProjectIds = managedProjects.stream()
-            .map(Project::getProjectId)
-            .collect(Collectors.toList());
-            
-        return FileManager.loadAllEnquiries(Constants.ENQUIRY_CSV).stream()
-            .filter(e -> managedProjectIds.contains(e.getProjectId()))
+        // For managers, relevant enquiries are those for projects they manage,
+        // joined through the projects' resolved manager NRICs rather than by name
+        return EnquiryCatalog.getByProjects(ManagerAssignments.getProjectIds(getNric())).stream()
+            .map(EnquiryView::toEnquiry)
             .collect(Collectors.toList());
     }
     
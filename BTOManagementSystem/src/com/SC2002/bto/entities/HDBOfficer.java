@@ -2,12 +2,11 @@
 package com.SC2002.bto.entities;
 
 import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.EnquiryCatalog;
 import com.SC2002.bto.utils.FileManager;
-import com.SC2002.bto.utils.ProjectRepository;
+import com.SC2002.bto.utils.OfficerAssignments;
+import com.SC2002.bto.utils.OfficerRegistrations;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -67,9 +66,7 @@ public class HDBOfficer extends BTOSystemUser {
         List<Project> allProjects = getAllProjects();
         
         // Officers can view all projects they're assigned to, regardless of visibility
-        List<Project> assignedProjects = allProjects.stream()
-            .filter(p -> p.isOfficerAssigned(getNric()) || p.isOfficerAssigned(getName()))
-            .collect(Collectors.toList());
+        List<Project> assignedProjects = OfficerAssignments.getProjects(getNric());
             
         // For registration purposes, officers can also view visible projects with available slots
         List<Project> availableProjects = filterByVisibilityAndPeriod(allProjects).stream()
@@ -107,23 +104,9 @@ public class HDBOfficer extends BTOSystemUser {
      */
     @Override
     public List<Enquiry> getRelevantEnquiries() {
-        // Get the list of projects the officer is assigned to
-        List<Project> assignedProjects = getAllProjects().stream()
-            .filter(p -> p.isOfficerAssigned(getNric()) || p.isOfficerAssigned(getName()))
-            .collect(Collectors.toList());
-            
-        if (assignedProjects.isEmpty()) {
-            return new ArrayList<>();
-        }
-        
-        // Get the project IDs the officer is assigned to
-        List<Integer> assignedProjectIds = assignedProjects.stream()
-            .map(Project::getProjectId)
-            .collect(Collectors.toList());
-            
-        // Load all enquiries and filter to only those for the officer's assigned projects
-        return FileManager.loadAllEnquiries(Constants.ENQUIRY_CSV).stream()
-            .filter(e -> assignedProjectIds.contains(e.getProjectId()))
+        // Join the officer's assigned projects against the enquiries grouped by project
+        return EnquiryCatalog.getByProjects(OfficerAssignments.getProjectIds(getNric())).stream()
+            .map(EnquiryView::toEnquiry)
             .collect(Collectors.toList());
     }
     
@@ -133,24 +116,7 @@ public class HDBOfficer extends BTOSystemUser {
      * @return the list of pending project IDs
      */
     public List<Integer> getPendingRegistrations() {
-        List<Integer> pendingProjectIds = new ArrayList<>();
-        try (BufferedReader br = new BufferedReader(new FileReader(Constants.REGISTRATION_CSV))) {
-            br.readLine(); // Skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] tokens = line.split(",");
-                if (tokens.length < 2) continue;
-                
-                String nric = tokens[0].trim();
-                if (nric.equalsIgnoreCase(getNric())) {
-                    int projectId = Integer.parseInt(tokens[1].trim());
-                    pendingProjectIds.add(projectId);
-                }
-            }
-        } catch (IOException e) {
-            System.out.println("Error reading registration file: " + e.getMessage());
-        }
-        return pendingProjectIds;
+        return new ArrayList<>(OfficerRegistrations.getPendingByOfficer(getNric()));
     }
     
     /**
@@ -168,9 +134,7 @@ public class HDBOfficer extends BTOSystemUser {
         }
         
         // Check if officer is already assigned to another project in the same period
-        List<Project> assignedProjects = getAllProjects().stream()
-            .filter(p -> p.isOfficerAssigned(getNric()) || p.isOfficerAssigned(getName()))
-            .collect(Collectors.toList());
+        List<Project> assignedProjects = OfficerAssignments.getProjects(getNric());
             
         Project targetProject = getAllProjects().stream()
             .filter(p -> p.getProjectId() == projectId)
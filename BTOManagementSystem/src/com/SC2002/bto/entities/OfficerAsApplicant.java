@@ -1,7 +1,9 @@
 package com.SC2002.bto.entities;
 
 import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.CredentialIndex;
 import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.OfficerAssignments;
 
 import java.util.List;
 
@@ -41,22 +43,13 @@ public class OfficerAsApplicant extends Applicant {
     }
     
     /**
-     * Loads application data for this officer from the ApplicantList.csv file.
+     * Loads application data for this officer from the credential index of ApplicantList.csv.
      * This ensures that if an officer has previously applied for a project,
-     * that information is loaded correctly.
+     * that information is loaded correctly without re-reading the file.
      */
     private void loadApplicationData() {
-        List<User> applicants = FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, "Applicant");
-        
-        for (User user : applicants) {
-            if (user instanceof Applicant && user.getNric().equals(getNric())) {
-                Applicant applicant = (Applicant) user;
-                setAppliedProjectId(applicant.getAppliedProjectId());
-                setApplicationStatus(applicant.getApplicationStatus());
-                setAppliedFlatType(applicant.getAppliedFlatType());
-                break;
-            }
-        }
+        // Officers without an applicant record keep the default NOT_APPLIED state
+        CredentialIndex.copyApplicationState(this);
     }
     
     /**
@@ -97,7 +90,7 @@ public class OfficerAsApplicant extends Applicant {
     public boolean canApplyForProject(int projectId) {
         // Check if the officer is assigned to this project
         List<Project> assignedProjects = officer.getViewableProjects().stream()
-            .filter(p -> p.isOfficerAssigned(officer.getNric()) || p.isOfficerAssigned(officer.getName()))
+            .filter(p -> OfficerAssignments.isAssigned(officer.getNric(), p.getProjectId()))
             .toList();
             
         for (Project p : assignedProjects) {
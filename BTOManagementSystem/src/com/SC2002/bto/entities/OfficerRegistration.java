@@ -0,0 +1,38 @@
+package com.SC2002.bto.entities;
+
+/**
+ * An officer's registration to handle a project, with its current status.
+ * Registrations are immutable; a status change is recorded as a new registration.
+ */
+public final class OfficerRegistration {
+    private final String officerNric;
+    private final int projectId;
+    private final RegistrationStatus status;
+
+    /**
+     * Constructs an OfficerRegistration.
+     *
+     * @param officerNric The NRIC of the officer
+     * @param projectId The ID of the project
+     * @param status The status of the registration
+     */
+    public OfficerRegistration(String officerNric, int projectId, RegistrationStatus status) {
+        this.officerNric = officerNric;
+        this.projectId = projectId;
+        this.status = status;
+    }
+
+    public String getOfficerNric() { return officerNric; }
+
+    public int getProjectId() { return projectId; }
+
+    public RegistrationStatus getStatus() { return status; }
+
+    /**
+     * @param newStatus The new status
+     * @return A copy of this registration with the given status
+     */
+    public OfficerRegistration withStatus(RegistrationStatus newStatus) {
+        return new OfficerRegistration(officerNric, projectId, newStatus);
+    }
+}
@@ -88,6 +88,32 @@ public class Project {
         this.originalType2Units = type2Units;
     }
 
+    /**
+     * Constructs a copy of another project, so that it can be changed without
+     * affecting the original.
+     *
+     * @param other The project to copy
+     */
+    public Project(Project other) {
+        this.projectId = other.projectId;
+        this.projectName = other.projectName;
+        this.neighborhood = other.neighborhood;
+        this.type1Desc = other.type1Desc;
+        this.type1Units = other.type1Units;
+        this.type1Price = other.type1Price;
+        this.type2Desc = other.type2Desc;
+        this.type2Units = other.type2Units;
+        this.type2Price = other.type2Price;
+        this.applicationOpeningDate = other.applicationOpeningDate;
+        this.applicationClosingDate = other.applicationClosingDate;
+        this.manager = other.manager;
+        this.officerSlots = other.officerSlots;
+        this.officers = other.officers != null ? new ArrayList<>(other.officers) : new ArrayList<>();
+        this.visible = other.visible;
+        this.originalType1Units = other.originalType1Units;
+        this.originalType2Units = other.originalType2Units;
+    }
+
     // Getters
     /**
      * @return The unique identifier for the project
@@ -246,17 +272,17 @@ public class Project {
     public void setOfficers(List<String> officers) { this.officers = officers; }
 
     /**
-     * Checks if an officer is assigned to this project.
-     * The method performs a case-insensitive partial match on the officer's name or NRIC.
+     * Checks if an officer is listed on this project.
+     * The method performs a case-insensitive exact match against the listed names or NRICs.
+     * To look up an officer by NRIC regardless of how they are listed, use
+     * {@link com.SC2002.bto.utils.OfficerAssignments#isAssigned(String, int)}.
      *
      * @param nameOrNric The name or NRIC of the officer to check
-     * @return True if the officer is assigned to this project, false otherwise
+     * @return True if the officer is listed on this project, false otherwise
      */
     public boolean isOfficerAssigned(String nameOrNric) {
-        return officers.stream().anyMatch(o -> {
-            String norm = o.trim().toLowerCase();
-            return nameOrNric.toLowerCase().contains(norm) || norm.contains(nameOrNric.toLowerCase());
-        });
+        String needle = nameOrNric.trim();
+        return officers.stream().anyMatch(o -> o.trim().equalsIgnoreCase(needle));
     }
 
     /**
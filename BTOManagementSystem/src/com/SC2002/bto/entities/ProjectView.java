@@ -0,0 +1,244 @@
+package com.SC2002.bto.entities;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable read model of a {@link Project}.
+ * Views are shared between threads and callers without copying. To change a project,
+ * derive a new view with {@link #toBuilder()} and save it through the project repository.
+ */
+public final class ProjectView {
+    private final int projectId;
+    private final String projectName;
+    private final String neighborhood;
+    private final String type1Desc;
+    private final int type1Units;
+    private final int type1Price;
+    private final String type2Desc;
+    private final int type2Units;
+    private final int type2Price;
+    private final LocalDate applicationOpeningDate;
+    private final LocalDate applicationClosingDate;
+    private final String manager;
+    private final int officerSlots;
+    private final List<String> officers;
+    private final boolean visible;
+    private final int originalType1Units;
+    private final int originalType2Units;
+
+    private ProjectView(Builder b) {
+        this.projectId = b.projectId;
+        this.projectName = b.projectName;
+        this.neighborhood = b.neighborhood;
+        this.type1Desc = b.type1Desc;
+        this.type1Units = b.type1Units;
+        this.type1Price = b.type1Price;
+        this.type2Desc = b.type2Desc;
+        this.type2Units = b.type2Units;
+        this.type2Price = b.type2Price;
+        this.applicationOpeningDate = b.applicationOpeningDate;
+        this.applicationClosingDate = b.applicationClosingDate;
+        this.manager = b.manager;
+        this.officerSlots = b.officerSlots;
+        this.officers = Collections.unmodifiableList(new ArrayList<>(b.officers));
+        this.visible = b.visible;
+        this.originalType1Units = b.originalType1Units;
+        this.originalType2Units = b.originalType2Units;
+    }
+
+    /**
+     * Creates a view of the current state of a project.
+     *
+     * @param project The project
+     * @return The view
+     */
+    public static ProjectView of(Project project) {
+        Builder b = new Builder();
+        b.projectId = project.getProjectId();
+        b.projectName = project.getProjectName();
+        b.neighborhood = project.getNeighborhood();
+        b.type1Desc = project.getType1Desc();
+        b.type1Units = project.getType1Units();
+        b.type1Price = project.getType1Price();
+        b.type2Desc = project.getType2Desc();
+        b.type2Units = project.getType2Units();
+        b.type2Price = project.getType2Price();
+        b.applicationOpeningDate = project.getApplicationOpeningDate();
+        b.applicationClosingDate = project.getApplicationClosingDate();
+        b.manager = project.getManager();
+        b.officerSlots = project.getOfficerSlots();
+        b.officers = project.getOfficers() != null ? project.getOfficers() : Collections.emptyList();
+        b.visible = project.isVisible();
+        b.originalType1Units = project.getOriginalType1Units();
+        b.originalType2Units = project.getOriginalType2Units();
+        return new ProjectView(b);
+    }
+
+    /**
+     * Creates a mutable project with the state of this view, for code that still works on
+     * {@link Project} entities.
+     *
+     * @return A new project
+     */
+    public Project toProject() {
+        Project project = new Project(projectId, projectName, neighborhood,
+            type1Desc, originalType1Units, type1Price,
+            type2Desc, originalType2Units, type2Price,
+            applicationOpeningDate, applicationClosingDate,
+            manager, officerSlots, new ArrayList<>(officers));
+        project.setType1Units(type1Units);
+        project.setType2Units(type2Units);
+        project.setVisible(visible);
+        return project;
+    }
+
+    /**
+     * @return A builder initialised with the state of this view
+     */
+    public Builder toBuilder() {
+        Builder b = new Builder();
+        b.projectId = projectId;
+        b.projectName = projectName;
+        b.neighborhood = neighborhood;
+        b.type1Desc = type1Desc;
+        b.type1Units = type1Units;
+        b.type1Price = type1Price;
+        b.type2Desc = type2Desc;
+        b.type2Units = type2Units;
+        b.type2Price = type2Price;
+        b.applicationOpeningDate = applicationOpeningDate;
+        b.applicationClosingDate = applicationClosingDate;
+        b.manager = manager;
+        b.officerSlots = officerSlots;
+        b.officers = officers;
+        b.visible = visible;
+        b.originalType1Units = originalType1Units;
+        b.originalType2Units = originalType2Units;
+        return b;
+    }
+
+    public int getProjectId() { return projectId; }
+
+    public String getProjectName() { return projectName; }
+
+    public String getNeighborhood() { return neighborhood; }
+
+    public String getType1Desc() { return type1Desc; }
+
+    public int getType1Units() { return type1Units; }
+
+    public int getType1Price() { return type1Price; }
+
+    public String getType2Desc() { return type2Desc; }
+
+    public int getType2Units() { return type2Units; }
+
+    public int getType2Price() { return type2Price; }
+
+    public LocalDate getApplicationOpeningDate() { return applicationOpeningDate; }
+
+    public LocalDate getApplicationClosingDate() { return applicationClosingDate; }
+
+    public String getManager() { return manager; }
+
+    public int getOfficerSlots() { return officerSlots; }
+
+    /**
+     * @return An unmodifiable list of the assigned officers
+     */
+    public List<String> getOfficers() { return officers; }
+
+    public boolean isVisible() { return visible; }
+
+    public int getOriginalType1Units() { return originalType1Units; }
+
+    public int getOriginalType2Units() { return originalType2Units; }
+
+    /**
+     * Checks if an officer is listed on this project, by exact case-insensitive name or NRIC.
+     *
+     * @param nameOrNric The officer's name or NRIC
+     * @return true if the officer is listed, false otherwise
+     */
+    public boolean isOfficerAssigned(String nameOrNric) {
+        String needle = nameOrNric.trim();
+        return officers.stream().anyMatch(o -> o.trim().equalsIgnoreCase(needle));
+    }
+
+    /**
+     * Builds a changed copy of a {@link ProjectView}. Obtained from {@link #toBuilder()}.
+     */
+    public static final class Builder {
+        private int projectId;
+        private String projectName;
+        private String neighborhood;
+        private String type1Desc;
+        private int type1Units;
+        private int type1Price;
+        private String type2Desc;
+        private int type2Units;
+        private int type2Price;
+        private LocalDate applicationOpeningDate;
+        private LocalDate applicationClosingDate;
+        private String manager;
+        private int officerSlots;
+        private List<String> officers = Collections.emptyList();
+        private boolean visible = true;
+        private int originalType1Units;
+        private int originalType2Units;
+
+        private Builder() {
+        }
+
+        public Builder projectName(String projectName) { this.projectName = projectName; return this; }
+
+        public Builder neighborhood(String neighborhood) { this.neighborhood = neighborhood; return this; }
+
+        public Builder type1Units(int type1Units) { this.type1Units = type1Units; return this; }
+
+        public Builder type1Price(int type1Price) { this.type1Price = type1Price; return this; }
+
+        public Builder type2Units(int type2Units) { this.type2Units = type2Units; return this; }
+
+        public Builder type2Price(int type2Price) { this.type2Price = type2Price; return this; }
+
+        public Builder applicationOpeningDate(LocalDate date) { this.applicationOpeningDate = date; return this; }
+
+        public Builder applicationClosingDate(LocalDate date) { this.applicationClosingDate = date; return this; }
+
+        public Builder officerSlots(int officerSlots) { this.officerSlots = officerSlots; return this; }
+
+        public Builder officers(List<String> officers) { this.officers = officers; return this; }
+
+        public Builder visible(boolean visible) { this.visible = visible; return this; }
+
+        /**
+         * Sets the remaining units of a flat type.
+         *
+         * @param flatType "2-Room" or "3-Room"
+         * @param units The remaining units
+         * @return This builder
+         * @throws IllegalArgumentException if the flat type is unknown
+         */
+        public Builder units(String flatType, int units) {
+            if ("2-Room".equalsIgnoreCase(flatType)) {
+                this.type1Units = units;
+            } else if ("3-Room".equalsIgnoreCase(flatType)) {
+                this.type2Units = units;
+            } else {
+                throw new IllegalArgumentException("Unknown flat type: " + flatType);
+            }
+            return this;
+        }
+
+        /**
+         * @return The new view
+         */
+        public ProjectView build() {
+            return new ProjectView(this);
+        }
+    }
+}
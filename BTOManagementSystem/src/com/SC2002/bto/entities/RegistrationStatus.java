@@ -0,0 +1,21 @@
+package com.SC2002.bto.entities;
+
+/**
+ * Represents the possible statuses of an officer's registration to handle a project.
+ */
+public enum RegistrationStatus {
+    /**
+     * The registration has been submitted and is awaiting the manager's decision.
+     */
+    PENDING,
+    
+    /**
+     * The manager approved the registration and the officer was assigned to the project.
+     */
+    APPROVED,
+    
+    /**
+     * The manager rejected the registration.
+     */
+    REJECTED
+}
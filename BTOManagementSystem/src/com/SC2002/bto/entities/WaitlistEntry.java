@@ -0,0 +1,35 @@
+package com.SC2002.bto.entities;
+
+/**
+ * An applicant's place on the waitlist of a project and flat type.
+ * Entries are immutable; the waitlist is ordered by sequence number, lowest first.
+ */
+public final class WaitlistEntry {
+    private final long sequence;
+    private final String applicantNric;
+    private final int projectId;
+    private final String flatType;
+
+    /**
+     * Constructs a WaitlistEntry.
+     *
+     * @param sequence The order in which the applicant joined the waitlist
+     * @param applicantNric The NRIC of the applicant
+     * @param projectId The ID of the project
+     * @param flatType The flat type (e.g., "2-Room", "3-Room")
+     */
+    public WaitlistEntry(long sequence, String applicantNric, int projectId, String flatType) {
+        this.sequence = sequence;
+        this.applicantNric = applicantNric;
+        this.projectId = projectId;
+        this.flatType = flatType;
+    }
+
+    public long getSequence() { return sequence; }
+
+    public String getApplicantNric() { return applicantNric; }
+
+    public int getProjectId() { return projectId; }
+
+    public String getFlatType() { return flatType; }
+}
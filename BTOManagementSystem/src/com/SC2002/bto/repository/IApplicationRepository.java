@@ -2,7 +2,12 @@ package com.SC2002.bto.repository;
 
 import com.SC2002.bto.entities.Applicant;
 import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.ApplicationView;
+import com.SC2002.bto.entities.WaitlistEntry;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for managing applications.
@@ -11,6 +16,21 @@ import java.util.List;
  */
 public interface IApplicationRepository {
     
+    /**
+     * Finds the applications of all applicants as immutable views.
+     * The returned list is shared and must not be modified.
+     * 
+     * @return An unmodifiable list of all applications
+     */
+    List<ApplicationView> findAllViews();
+    
+    /**
+     * Finds all applicants, including those without an active application.
+     * 
+     * @return A list of all applicants
+     */
+    List<Applicant> findAll();
+    
     /**
      * Finds applications by their status.
      * 
@@ -35,6 +55,32 @@ public interface IApplicationRepository {
      */
     List<Applicant> findByFlatType(String flatType);
     
+    /**
+     * Streams the applicants that match a filter, in storage order. The filter is applied
+     * as each row is read, so the applicant list is never held in memory.
+     * The stream holds the applicant file open and must be closed.
+     * 
+     * @param filter The filter to apply
+     * @return A stream of the matching applicants
+     */
+    default Stream<Applicant> stream(Predicate<? super Applicant> filter) {
+        return findAll().stream().filter(filter);
+    }
+    
+    /**
+     * Finds one page of the applicants that match a filter, in storage order.
+     * 
+     * @param filter The filter to apply
+     * @param pageToken The token from the previous page, or null or empty for the first page
+     * @param pageSize The maximum number of applicants on the page
+     * @return The page
+     * @throws IllegalArgumentException if the token is invalid or the page size is not positive
+     */
+    default IRepository.Page<Applicant> findPage(Predicate<? super Applicant> filter, String pageToken, int pageSize) {
+        long firstRow = IRepository.Page.decodeToken(pageToken);
+        return IRepository.Page.read(findAll().stream().skip(firstRow), firstRow, filter, pageSize);
+    }
+    
     /**
      * Updates the status of an application.
      * 
@@ -44,6 +90,37 @@ public interface IApplicationRepository {
      */
     boolean updateStatus(String applicantNric, ApplicationStatus status);
     
+    /**
+     * Updates the status of several applications and persists them in a single write.
+     * Statuses that end an application (UNSUCCESSFUL, NOT_APPLIED) also clear
+     * the applied project and flat type.
+     * 
+     * @param statuses The new application status keyed by applicant NRIC
+     * @return The outcome of each update keyed by applicant NRIC
+     */
+    Map<String, Boolean> updateStatuses(Map<String, ApplicationStatus> statuses);
+    
+    /**
+     * Updates the status of several applications the caller has already loaded, so the
+     * applicant list is not read again, and persists them in a single write. The given
+     * applicants are changed in place.
+     * 
+     * @param applicants The applicants as loaded by {@link #findAll()}
+     * @param statuses The new application status keyed by applicant NRIC
+     * @return The outcome of each update keyed by applicant NRIC
+     */
+    Map<String, Boolean> updateStatuses(List<Applicant> applicants, Map<String, ApplicationStatus> statuses);
+    
+    /**
+     * Offers units to waitlisted applicants and persists them in a single write.
+     * Each applicant's application is set to the entry's project and flat type
+     * with the status SUCCESSFUL, so the unit can be booked.
+     * 
+     * @param entries The waitlist entries whose applicants are offered a unit
+     * @return The outcome of each offer keyed by applicant NRIC
+     */
+    Map<String, Boolean> offerUnits(List<WaitlistEntry> entries);
+    
     /**
      * Applies for a project.
      * 
@@ -1,6 +1,7 @@
 package com.SC2002.bto.repository;
 
 import com.SC2002.bto.entities.Enquiry;
+import com.SC2002.bto.entities.EnquiryView;
 import java.util.List;
 
 /**
@@ -10,6 +11,14 @@ import java.util.List;
  */
 public interface IEnquiryRepository extends IRepository<Enquiry, Integer> {
     
+    /**
+     * Finds all enquiries as immutable views.
+     * The returned list is shared and must not be modified.
+     * 
+     * @return An unmodifiable list of all enquiries
+     */
+    List<EnquiryView> findAllViews();
+    
     /**
      * Finds enquiries submitted by a specific user.
      * 
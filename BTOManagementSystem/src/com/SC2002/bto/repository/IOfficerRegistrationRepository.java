@@ -1,5 +1,6 @@
 package com.SC2002.bto.repository;
 
+import com.SC2002.bto.entities.OfficerRegistration;
 import java.util.List;
 
 /**
@@ -19,7 +20,9 @@ public interface IOfficerRegistrationRepository {
     boolean register(String officerNric, int projectId);
     
     /**
-     * Approves an officer registration.
+     * Approves a pending officer registration.
+     * Only the registration's status is recorded; assigning the officer to the
+     * project is up to the caller.
      * 
      * @param officerNric The NRIC of the officer
      * @param projectId The ID of the project
@@ -28,7 +31,7 @@ public interface IOfficerRegistrationRepository {
     boolean approve(String officerNric, int projectId);
     
     /**
-     * Rejects an officer registration.
+     * Rejects a pending officer registration.
      * 
      * @param officerNric The NRIC of the officer
      * @param projectId The ID of the project
@@ -52,6 +55,13 @@ public interface IOfficerRegistrationRepository {
      */
     List<String> findPendingByProject(int projectId);
     
+    /**
+     * Finds all pending registrations.
+     * 
+     * @return A list of pending registrations, in the order they were made
+     */
+    List<OfficerRegistration> findAllPending();
+    
     /**
      * Checks if an officer has a pending registration for a specific project.
      * 
@@ -1,8 +1,10 @@
 package com.SC2002.bto.repository;
 
 import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.ProjectView;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for Project entities.
@@ -11,6 +13,30 @@ import java.util.List;
  */
 public interface IProjectRepository extends IRepository<Project, Integer> {
     
+    /**
+     * Finds all projects as immutable views, regardless of visibility.
+     * The returned list is shared and must not be modified.
+     * 
+     * @return An unmodifiable list of all projects
+     */
+    List<ProjectView> findAllViews();
+    
+    /**
+     * Finds the view of a project by ID.
+     * 
+     * @param projectId The ID of the project
+     * @return The view of the project, or empty if it does not exist
+     */
+    Optional<ProjectView> findViewById(int projectId);
+    
+    /**
+     * Saves a changed project view, usually derived with {@link ProjectView#toBuilder()}.
+     * 
+     * @param view The changed view
+     * @return The saved view
+     */
+    ProjectView save(ProjectView view);
+    
     /**
      * Finds all visible projects.
      * 
@@ -58,6 +84,23 @@ public interface IProjectRepository extends IRepository<Project, Integer> {
      */
     List<Project> findByApplicationPeriod(LocalDate date);
     
+    /**
+     * Finds the projects that match a query, in the query's order and up to its limit.
+     * 
+     * @param query The criteria, order and limit
+     * @return A list of the matching projects
+     */
+    List<Project> findByQuery(ProjectQuery query);
+    
+    /**
+     * Finds the views of the projects that match a query, in the query's order and up
+     * to its limit. The views are shared and must not be modified.
+     * 
+     * @param query The criteria, order and limit
+     * @return A list of the views of the matching projects
+     */
+    List<ProjectView> findViewsByQuery(ProjectQuery query);
+    
     /**
      * Updates the visibility of a project.
      * 
@@ -1,7 +1,16 @@
 package com.SC2002.bto.repository;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Generic repository interface for CRUD operations.
@@ -57,4 +66,177 @@ public interface IRepository<T, ID> {
      * @return true if the entity exists, false otherwise
      */
     boolean existsById(ID id);
+    
+    /**
+     * Streams all entities in storage order. Implementations backed by a file read each
+     * row only as the stream is consumed, so the whole table is never held in memory.
+     * The stream may hold the file open and must be closed.
+     * 
+     * @return A stream of all entities
+     */
+    default Stream<T> stream() {
+        return findAll().stream();
+    }
+    
+    /**
+     * Streams the entities that match a filter, in storage order. The filter is applied
+     * as each row is read, so rows that do not match are never collected.
+     * The stream may hold the file open and must be closed.
+     * 
+     * @param filter The filter to apply
+     * @return A stream of the matching entities
+     */
+    default Stream<T> stream(Predicate<? super T> filter) {
+        return stream().filter(filter);
+    }
+    
+    /**
+     * Finds one page of all entities, in storage order.
+     * 
+     * @param pageToken The token from the previous page, or null or empty for the first page
+     * @param pageSize The maximum number of entities on the page
+     * @return The page
+     * @throws IllegalArgumentException if the token is invalid or the page size is not positive
+     */
+    default Page<T> findPage(String pageToken, int pageSize) {
+        return findPage(e -> true, pageToken, pageSize);
+    }
+    
+    /**
+     * Finds one page of the entities that match a filter, in storage order.
+     * 
+     * @param filter The filter to apply
+     * @param pageToken The token from the previous page, or null or empty for the first page
+     * @param pageSize The maximum number of entities on the page
+     * @return The page
+     * @throws IllegalArgumentException if the token is invalid or the page size is not positive
+     */
+    default Page<T> findPage(Predicate<? super T> filter, String pageToken, int pageSize) {
+        long firstRow = Page.decodeToken(pageToken);
+        try (Stream<T> rows = stream()) {
+            return Page.read(rows.skip(firstRow), firstRow, filter, pageSize);
+        }
+    }
+    
+    /**
+     * One page of a listing, with the token that continues it.
+     * <p>
+     * A token holds the position in storage of the row after the page, so the next page
+     * starts reading there instead of at the start. Rows added or removed before that
+     * position in the meantime shift the next page by as many rows.
+     * 
+     * @param <T> The entity type
+     */
+    final class Page<T> {
+        private final List<T> items;
+        private final String nextPageToken;
+        
+        /**
+         * Constructs a page.
+         * 
+         * @param items The entities on the page
+         * @param nextPageToken The token of the next page, or null if this is the last page
+         */
+        public Page(List<T> items, String nextPageToken) {
+            this.items = Collections.unmodifiableList(items);
+            this.nextPageToken = nextPageToken;
+        }
+        
+        /**
+         * Gets the entities on the page.
+         * 
+         * @return An unmodifiable list of the entities
+         */
+        public List<T> getItems() {
+            return items;
+        }
+        
+        /**
+         * Gets the token of the next page. A filtered listing can have a next page
+         * that turns out to be empty.
+         * 
+         * @return The token, or null if this is the last page
+         */
+        public String getNextPageToken() {
+            return nextPageToken;
+        }
+        
+        /**
+         * Checks if there is a next page.
+         * 
+         * @return true if there is a next page, false otherwise
+         */
+        public boolean hasNext() {
+            return nextPageToken != null;
+        }
+        
+        /**
+         * Converts the entities on the page, keeping the token.
+         * 
+         * @param <R> The converted type
+         * @param mapper The conversion
+         * @return The converted page
+         */
+        public <R> Page<R> map(Function<? super T, ? extends R> mapper) {
+            return new Page<>(items.stream().map(mapper).collect(Collectors.toList()), nextPageToken);
+        }
+        
+        /**
+         * Reads one page from a stream of rows. Null rows stand for rows that could not be
+         * read; they count towards the position but are left out of the page.
+         * 
+         * @param <T> The entity type
+         * @param rows The rows, starting at the given position
+         * @param firstRow The position of the first row
+         * @param filter The filter to apply
+         * @param pageSize The maximum number of entities on the page
+         * @return The page
+         * @throws IllegalArgumentException if the page size is not positive
+         */
+        public static <T> Page<T> read(Stream<T> rows, long firstRow, Predicate<? super T> filter, int pageSize) {
+            if (pageSize < 1) {
+                throw new IllegalArgumentException("Page size must be positive: " + pageSize);
+            }
+            List<T> items = new ArrayList<>();
+            long row = firstRow;
+            Iterator<T> it = rows.iterator();
+            while (items.size() < pageSize && it.hasNext()) {
+                T entity = it.next();
+                row++;
+                if (entity != null && filter.test(entity)) {
+                    items.add(entity);
+                }
+            }
+            return new Page<>(items, it.hasNext() ? encodeToken(row) : null);
+        }
+        
+        /**
+         * Decodes a page token into the position of the first row of the page.
+         * 
+         * @param pageToken The token, or null or empty for the first page
+         * @return The position
+         * @throws IllegalArgumentException if the token is invalid
+         */
+        public static long decodeToken(String pageToken) {
+            if (pageToken == null || pageToken.isEmpty()) {
+                return 0;
+            }
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.US_ASCII);
+                if (decoded.startsWith("row:")) {
+                    long row = Long.parseLong(decoded.substring("row:".length()));
+                    if (row >= 0) {
+                        return row;
+                    }
+                }
+            } catch (IllegalArgumentException e) {
+                // Not Base64 or not a number
+            }
+            throw new IllegalArgumentException("Invalid page token: " + pageToken);
+        }
+        
+        private static String encodeToken(long row) {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(("row:" + row).getBytes(StandardCharsets.US_ASCII));
+        }
+    }
 }
@@ -28,6 +28,16 @@ public interface IUserRepository extends IRepository<User, String> {
      */
     Optional<User> authenticate(String nric, String password);
     
+    /**
+     * Authenticates a user with the given credentials against one user list only.
+     * 
+     * @param role The role to authenticate as ("Applicant", "HDBOfficer" or "HDBManager")
+     * @param nric The user's NRIC
+     * @param password The user's password
+     * @return An Optional containing the authenticated user if successful, empty otherwise
+     */
+    Optional<User> authenticateAs(String role, String nric, String password);
+    
     /**
      * Updates a user's password.
      * 
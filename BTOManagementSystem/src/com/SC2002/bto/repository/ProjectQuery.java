@@ -0,0 +1,415 @@
+package com.SC2002.bto.repository;
+
+import com.SC2002.bto.entities.Project;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+
+/**
+ * A query over projects: the criteria a project must meet, the order to return the
+ * matches in, and how many of them to return.
+ * <p>
+ * Queries are built with {@link #builder()} and run with
+ * {@link IProjectRepository#findByQuery(ProjectQuery)}. Unset criteria match every
+ * project. The repository answers the neighborhood, flat type, manager and visibility
+ * criteria from its indexes, so only the projects that meet all of them are read;
+ * the application period is then checked on those. The price range and availability
+ * are answered from the sorted price index instead when they are the most selective,
+ * and a query for the cheapest projects walks that index in price order.
+ * <p>
+ * The flat type, price range and availability criteria apply to the same flat type:
+ * a project matches if one of its flat types is of the requested type, is priced
+ * within the range and, if only available flats are asked for, has units left.
+ */
+public final class ProjectQuery {
+
+    /**
+     * Where a project's application period lies relative to a date.
+     */
+    public enum Period {
+        /** Open on the date */
+        OPEN,
+        /** Opening after the date */
+        UPCOMING,
+        /** Closed before the date */
+        CLOSED
+    }
+
+    /**
+     * The orders that matching projects can be returned in.
+     */
+    public enum Sort {
+        /** By project ID, which is the file order */
+        ID(Comparator.comparingInt(Project::getProjectId)),
+        /** By project name, ignoring case */
+        NAME(Comparator.comparing(Project::getProjectName, String.CASE_INSENSITIVE_ORDER)),
+        /** By neighborhood, ignoring case */
+        NEIGHBORHOOD(Comparator.comparing(Project::getNeighborhood, String.CASE_INSENSITIVE_ORDER)),
+        /** By the lowest price of the flat types that the query matches */
+        LOWEST_PRICE(Comparator.comparingInt(p -> Math.min(p.getType1Price(), p.getType2Price()))),
+        /** By application opening date */
+        OPENING_DATE(Comparator.comparing(Project::getApplicationOpeningDate)),
+        /** By application closing date */
+        CLOSING_DATE(Comparator.comparing(Project::getApplicationClosingDate));
+
+        private final Comparator<Project> comparator;
+
+        Sort(Comparator<Project> comparator) {
+            this.comparator = comparator.thenComparingInt(Project::getProjectId);
+        }
+
+        /**
+         * @return The comparator of this order, with ties broken by project ID
+         */
+        public Comparator<Project> comparator() {
+            return comparator;
+        }
+    }
+
+    private final String neighborhood;
+    private final String flatType;
+    private final String manager;
+    private final Boolean visible;
+    private final int minPrice;
+    private final int maxPrice;
+    private final boolean availableOnly;
+    private final Period period;
+    private final LocalDate periodDate;
+    private final Sort sort;
+    private final boolean descending;
+    private final int limit;
+
+    private ProjectQuery(Builder builder) {
+        this.neighborhood = builder.neighborhood;
+        this.flatType = builder.flatType;
+        this.manager = builder.manager;
+        this.visible = builder.visible;
+        this.minPrice = builder.minPrice;
+        this.maxPrice = builder.maxPrice;
+        this.availableOnly = builder.availableOnly;
+        this.period = builder.period;
+        this.periodDate = builder.periodDate;
+        this.sort = builder.sort;
+        this.descending = builder.descending;
+        this.limit = builder.limit;
+    }
+
+    /**
+     * Creates a builder for a query that matches every project, in file order.
+     *
+     * @return A new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates a builder that starts with the criteria, order and limit of this query.
+     *
+     * @return A new builder
+     */
+    public Builder toBuilder() {
+        Builder builder = new Builder();
+        builder.neighborhood = neighborhood;
+        builder.flatType = flatType;
+        builder.manager = manager;
+        builder.visible = visible;
+        builder.minPrice = minPrice;
+        builder.maxPrice = maxPrice;
+        builder.availableOnly = availableOnly;
+        builder.period = period;
+        builder.periodDate = periodDate;
+        builder.sort = sort;
+        builder.descending = descending;
+        builder.limit = limit;
+        return builder;
+    }
+
+    /**
+     * Checks whether a project meets all the criteria of this query.
+     *
+     * @param project The project to check
+     * @return true if the project matches, false otherwise
+     */
+    public boolean matches(Project project) {
+        if (neighborhood != null && !same(project.getNeighborhood(), neighborhood)) {
+            return false;
+        }
+        if (manager != null && !same(project.getManager(), manager)) {
+            return false;
+        }
+        if (visible != null && project.isVisible() != visible) {
+            return false;
+        }
+        if (!flatTypeMatches(project.getType1Desc(), project.getType1Price(), project.getType1Units())
+                && !flatTypeMatches(project.getType2Desc(), project.getType2Price(), project.getType2Units())) {
+            return false;
+        }
+        if (period != null) {
+            LocalDate date = periodDate != null ? periodDate : LocalDate.now();
+            switch (period) {
+                case OPEN:
+                    return !date.isBefore(project.getApplicationOpeningDate())
+                        && !date.isAfter(project.getApplicationClosingDate());
+                case UPCOMING:
+                    return date.isBefore(project.getApplicationOpeningDate());
+                case CLOSED:
+                    return date.isAfter(project.getApplicationClosingDate());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the lowest price of the flat types of a project that meet the flat type,
+     * price range and availability criteria. This is the price that
+     * {@link Sort#LOWEST_PRICE} orders by.
+     *
+     * @param project The project
+     * @return The price, or {@link Integer#MAX_VALUE} if no flat type meets them
+     */
+    public int lowestMatchingPrice(Project project) {
+        int price = Integer.MAX_VALUE;
+        if (flatTypeMatches(project.getType1Desc(), project.getType1Price(), project.getType1Units())) {
+            price = project.getType1Price();
+        }
+        if (flatTypeMatches(project.getType2Desc(), project.getType2Price(), project.getType2Units())) {
+            price = Math.min(price, project.getType2Price());
+        }
+        return price;
+    }
+
+    private boolean flatTypeMatches(String desc, int price, int units) {
+        return (flatType == null || same(desc, flatType))
+            && price >= minPrice && price <= maxPrice
+            && (!availableOnly || units > 0);
+    }
+
+    private static boolean same(String value, String wanted) {
+        return value != null && value.trim().equalsIgnoreCase(wanted.trim());
+    }
+
+    /**
+     * @return true if the query limits the flat price
+     */
+    public boolean hasPriceRange() {
+        return minPrice > 0 || maxPrice < Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return The neighborhood projects must be in, or null for any
+     */
+    public String getNeighborhood() {
+        return neighborhood;
+    }
+
+    /**
+     * @return The flat type projects must offer, or null for any
+     */
+    public String getFlatType() {
+        return flatType;
+    }
+
+    /**
+     * @return The manager projects must be managed by, or null for any
+     */
+    public String getManager() {
+        return manager;
+    }
+
+    /**
+     * @return The visibility projects must have, or null for either
+     */
+    public Boolean getVisible() {
+        return visible;
+    }
+
+    /**
+     * @return The lowest flat price allowed, 0 if unset
+     */
+    public int getMinPrice() {
+        return minPrice;
+    }
+
+    /**
+     * @return The highest flat price allowed, {@link Integer#MAX_VALUE} if unset
+     */
+    public int getMaxPrice() {
+        return maxPrice;
+    }
+
+    /**
+     * @return true if a matching flat type must have units left
+     */
+    public boolean isAvailableOnly() {
+        return availableOnly;
+    }
+
+    /**
+     * @return true if the price index can answer the query: it limits the price or
+     *         availability, or orders by price
+     */
+    public boolean usesPrices() {
+        return hasPriceRange() || availableOnly || sort == Sort.LOWEST_PRICE;
+    }
+
+    /**
+     * @return Where the application period must lie, or null for anywhere
+     */
+    public Period getPeriod() {
+        return period;
+    }
+
+    /**
+     * @return The order of the matches, or null for file order
+     */
+    public Sort getSort() {
+        return sort;
+    }
+
+    /**
+     * @return true if the matches are returned in descending order
+     */
+    public boolean isDescending() {
+        return descending;
+    }
+
+    /**
+     * @return The comparator of the requested order, or null for file order
+     */
+    public Comparator<Project> comparator() {
+        if (sort == null) {
+            return null;
+        }
+        if (sort == Sort.LOWEST_PRICE) {
+            // The price depends on which flat types the query matches
+            Comparator<Project> byPrice = Comparator.<Project>comparingInt(this::lowestMatchingPrice)
+                .thenComparingInt(Project::getProjectId);
+            return descending ? byPrice.reversed() : byPrice;
+        }
+        return descending ? sort.comparator().reversed() : sort.comparator();
+    }
+
+    /**
+     * @return The maximum number of matches to return, 0 for all of them
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("ProjectQuery[");
+        if (neighborhood != null) sb.append("neighborhood=").append(neighborhood).append(' ');
+        if (flatType != null) sb.append("flatType=").append(flatType).append(' ');
+        if (manager != null) sb.append("manager=").append(manager).append(' ');
+        if (visible != null) sb.append("visible=").append(visible).append(' ');
+        if (hasPriceRange()) sb.append("price=").append(minPrice).append("..").append(maxPrice).append(' ');
+        if (availableOnly) sb.append("availableOnly ");
+        if (period != null) sb.append("period=").append(period).append(' ');
+        if (sort != null) sb.append("sort=").append(sort).append(descending ? " desc " : " ");
+        if (limit > 0) sb.append("limit=").append(limit);
+        return sb.toString().trim() + "]";
+    }
+
+    /**
+     * Builds a {@link ProjectQuery}. Obtained from {@link ProjectQuery#builder()}.
+     */
+    public static final class Builder {
+        private String neighborhood;
+        private String flatType;
+        private String manager;
+        private Boolean visible;
+        private int minPrice = 0;
+        private int maxPrice = Integer.MAX_VALUE;
+        private boolean availableOnly;
+        private Period period;
+        private LocalDate periodDate;
+        private Sort sort;
+        private boolean descending;
+        private int limit;
+
+        private Builder() {
+        }
+
+        public Builder neighborhood(String neighborhood) { this.neighborhood = neighborhood; return this; }
+
+        public Builder flatType(String flatType) { this.flatType = flatType; return this; }
+
+        public Builder manager(String manager) { this.manager = manager; return this; }
+
+        public Builder visible(Boolean visible) { this.visible = visible; return this; }
+
+        /**
+         * Limits the flat price. If a flat type is also set, the price of that flat type
+         * must be in the range; otherwise the price of either flat type.
+         *
+         * @param minPrice The lowest price allowed
+         * @param maxPrice The highest price allowed
+         * @return This builder
+         */
+        public Builder priceRange(int minPrice, int maxPrice) {
+            this.minPrice = minPrice;
+            this.maxPrice = maxPrice;
+            return this;
+        }
+
+        /**
+         * Limits the projects to those with units left of a matching flat type.
+         *
+         * @param availableOnly true to leave out flat types that are sold out
+         * @return This builder
+         */
+        public Builder availableOnly(boolean availableOnly) {
+            this.availableOnly = availableOnly;
+            return this;
+        }
+
+        /**
+         * Limits where the application period lies relative to today.
+         *
+         * @param period The period, or null for anywhere
+         * @return This builder
+         */
+        public Builder period(Period period) {
+            return period(period, null);
+        }
+
+        /**
+         * Limits where the application period lies relative to a date.
+         *
+         * @param period The period, or null for anywhere
+         * @param date The date, or null for today
+         * @return This builder
+         */
+        public Builder period(Period period, LocalDate date) {
+            this.period = period;
+            this.periodDate = date;
+            return this;
+        }
+
+        public Builder sort(Sort sort) { this.sort = sort; this.descending = false; return this; }
+
+        public Builder sortDescending(Sort sort) { this.sort = sort; this.descending = true; return this; }
+
+        /**
+         * @param limit The maximum number of matches to return, 0 for all of them
+         * @return This builder
+         * @throws IllegalArgumentException if the limit is negative
+         */
+        public Builder limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit cannot be negative: " + limit);
+            }
+            this.limit = limit;
+            return this;
+        }
+
+        /**
+         * @return The query
+         */
+        public ProjectQuery build() {
+            return new ProjectQuery(this);
+        }
+    }
+}
@@ -5,26 +5,29 @@ import com.SC2002.bto.repository.csv.CSVEnquiryRepository;
 import com.SC2002.bto.repository.csv.CSVOfficerRegistrationRepository;
 import com.SC2002.bto.repository.csv.CSVProjectRepository;
 import com.SC2002.bto.repository.csv.CSVUserRepository;
-import com.SC2002.bto.utils.Constants;
 
 /**
  * Factory for creating repository instances.
  * Follows the Factory Pattern for object creation.
+ * Each repository is created on first request, so loading this class reads no data.
  */
 public class RepositoryFactory {
     
-    private static final IProjectRepository projectRepository = new CSVProjectRepository(Constants.PROJECT_CSV);
-    private static final IEnquiryRepository enquiryRepository = new CSVEnquiryRepository(Constants.ENQUIRY_CSV);
-    private static final IApplicationRepository applicationRepository = new CSVApplicationRepository();
-    private static final IOfficerRegistrationRepository officerRegistrationRepository = new CSVOfficerRegistrationRepository(Constants.REGISTRATION_CSV);
-    private static final IUserRepository userRepository = new CSVUserRepository();
+    private static IProjectRepository projectRepository;
+    private static IEnquiryRepository enquiryRepository;
+    private static IApplicationRepository applicationRepository;
+    private static IOfficerRegistrationRepository officerRegistrationRepository;
+    private static IUserRepository userRepository;
     
     /**
      * Gets a project repository instance.
      * 
      * @return The project repository
      */
-    public static IProjectRepository getProjectRepository() {
+    public static synchronized IProjectRepository getProjectRepository() {
+        if (projectRepository == null) {
+            projectRepository = new CSVProjectRepository();
+        }
         return projectRepository;
     }
     
@@ -33,7 +36,10 @@ public class RepositoryFactory {
      * 
      * @return The enquiry repository
      */
-    public static IEnquiryRepository getEnquiryRepository() {
+    public static synchronized IEnquiryRepository getEnquiryRepository() {
+        if (enquiryRepository == null) {
+            enquiryRepository = new CSVEnquiryRepository();
+        }
         return enquiryRepository;
     }
     
@@ -42,7 +48,10 @@ public class RepositoryFactory {
      * 
      * @return The application repository
      */
-    public static IApplicationRepository getApplicationRepository() {
+    public static synchronized IApplicationRepository getApplicationRepository() {
+        if (applicationRepository == null) {
+            applicationRepository = new CSVApplicationRepository();
+        }
         return applicationRepository;
     }
     
@@ -51,7 +60,10 @@ public class RepositoryFactory {
      * 
      * @return The officer registration repository
      */
-    public static IOfficerRegistrationRepository getOfficerRegistrationRepository() {
+    public static synchronized IOfficerRegistrationRepository getOfficerRegistrationRepository() {
+        if (officerRegistrationRepository == null) {
+            officerRegistrationRepository = new CSVOfficerRegistrationRepository();
+        }
         return officerRegistrationRepository;
     }
     
@@ -60,7 +72,10 @@ public class RepositoryFactory {
      * 
      * @return The user repository
      */
-    public static IUserRepository getUserRepository() {
+    public static synchronized IUserRepository getUserRepository() {
+        if (userRepository == null) {
+            userRepository = new CSVUserRepository();
+        }
         return userRepository;
     }
     
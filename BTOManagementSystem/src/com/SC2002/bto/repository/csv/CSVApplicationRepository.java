@@ -2,12 +2,23 @@ package com.SC2002.bto.repository.csv;
 
 import com.SC2002.bto.entities.Applicant;
 import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.ApplicationView;
+import com.SC2002.bto.entities.WaitlistEntry;
 import com.SC2002.bto.repository.IApplicationRepository;
+import com.SC2002.bto.repository.IRepository;
+import com.SC2002.bto.utils.ApplicationCatalog;
 import com.SC2002.bto.utils.Constants;
 import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.FlightEvents;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * CSV-based implementation of the application repository.
@@ -15,6 +26,27 @@ import java.util.stream.Collectors;
  */
 public class CSVApplicationRepository implements IApplicationRepository {
     
+    /**
+     * Finds the applications of all applicants as the shared views of the
+     * {@link ApplicationCatalog}.
+     * 
+     * @return An unmodifiable list of all applications
+     */
+    @Override
+    public List<ApplicationView> findAllViews() {
+        return ApplicationCatalog.getAll();
+    }
+    
+    /**
+     * Finds all applicants, including those without an active application.
+     * 
+     * @return A list of all applicants
+     */
+    @Override
+    public List<Applicant> findAll() {
+        return query("CSVApplicationRepository.findAll", a -> true);
+    }
+    
     /**
      * Finds applications by their status.
      * 
@@ -23,10 +55,7 @@ public class CSVApplicationRepository implements IApplicationRepository {
      */
     @Override
     public List<Applicant> findByStatus(ApplicationStatus status) {
-        List<Applicant> applicants = loadApplicants();
-        return applicants.stream()
-            .filter(a -> a.getApplicationStatus() == status)
-            .collect(Collectors.toList());
+        return query("CSVApplicationRepository.findByStatus", a -> a.getApplicationStatus() == status);
     }
     
     /**
@@ -37,10 +66,7 @@ public class CSVApplicationRepository implements IApplicationRepository {
      */
     @Override
     public List<Applicant> findByProject(int projectId) {
-        List<Applicant> applicants = loadApplicants();
-        return applicants.stream()
-            .filter(a -> a.getAppliedProjectId() == projectId)
-            .collect(Collectors.toList());
+        return query("CSVApplicationRepository.findByProject", a -> a.getAppliedProjectId() == projectId);
     }
     
     /**
@@ -51,10 +77,45 @@ public class CSVApplicationRepository implements IApplicationRepository {
      */
     @Override
     public List<Applicant> findByFlatType(String flatType) {
-        List<Applicant> applicants = loadApplicants();
-        return applicants.stream()
-            .filter(a -> a.getAppliedFlatType().equalsIgnoreCase(flatType))
-            .collect(Collectors.toList());
+        return query("CSVApplicationRepository.findByFlatType", a -> a.getAppliedFlatType().equalsIgnoreCase(flatType));
+    }
+    
+    /**
+     * Streams the applicants that match a filter from the applicant file rather than the
+     * catalog, reading each row only as the stream is consumed.
+     * 
+     * @param filter The filter to apply
+     * @return A stream of the matching applicants
+     */
+    @Override
+    public Stream<Applicant> stream(Predicate<? super Applicant> filter) {
+        return rows(0).filter(a -> a != null && filter.test(a));
+    }
+    
+    /**
+     * Finds a page of the applicants that match a filter from the applicant file.
+     * Rows before the page are skipped without being parsed.
+     * 
+     * @param filter The filter to apply
+     * @param pageToken The token from the previous page, or null or empty for the first page
+     * @param pageSize The maximum number of applicants on the page
+     * @return The page
+     */
+    @Override
+    public IRepository.Page<Applicant> findPage(Predicate<? super Applicant> filter, String pageToken, int pageSize) {
+        long firstRow = IRepository.Page.decodeToken(pageToken);
+        try (Stream<Applicant> rows = rows(firstRow)) {
+            return IRepository.Page.read(rows, firstRow, filter, pageSize);
+        }
+    }
+    
+    /**
+     * Reads the applicant file lazily from the given row, with null for invalid rows.
+     */
+    private Stream<Applicant> rows(long fromRow) {
+        return FileManager.streamRows(Constants.APPLICANT_CSV, fromRow)
+            .map(line -> FileManager.parseUserRow(line, Constants.USER_TYPE_APPLICANT))
+            .map(user -> user instanceof Applicant ? (Applicant) user : null);
     }
     
     /**
@@ -76,6 +137,103 @@ public class CSVApplicationRepository implements IApplicationRepository {
         return false;
     }
     
+    /**
+     * Updates the status of several applications and persists them in a single write.
+     * 
+     * @param statuses The new application status keyed by applicant NRIC
+     * @return The outcome of each update keyed by applicant NRIC
+     */
+    @Override
+    public Map<String, Boolean> updateStatuses(Map<String, ApplicationStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        return updateStatuses(loadApplicants(), statuses);
+    }
+    
+    /**
+     * Updates the status of several applications the caller has already loaded and
+     * persists them in a single write.
+     * 
+     * @param applicants The applicants as loaded by {@link #findAll()}
+     * @param statuses The new application status keyed by applicant NRIC
+     * @return The outcome of each update keyed by applicant NRIC
+     */
+    @Override
+    public Map<String, Boolean> updateStatuses(List<Applicant> applicants, Map<String, ApplicationStatus> statuses) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (statuses == null || statuses.isEmpty()) {
+            return results;
+        }
+        
+        Map<String, Applicant> byNric = new HashMap<>();
+        for (Applicant applicant : applicants) {
+            byNric.put(applicant.getNric().toUpperCase(), applicant);
+        }
+        
+        List<Applicant> changed = new ArrayList<>();
+        for (Map.Entry<String, ApplicationStatus> entry : statuses.entrySet()) {
+            Applicant applicant = byNric.get(entry.getKey().toUpperCase());
+            if (applicant == null) {
+                results.put(entry.getKey(), false);
+                continue;
+            }
+            
+            ApplicationStatus status = entry.getValue();
+            applicant.setApplicationStatus(status);
+            if (status == ApplicationStatus.UNSUCCESSFUL || status == ApplicationStatus.NOT_APPLIED) {
+                applicant.setAppliedProjectId(-1);
+                applicant.setAppliedFlatType("");
+            }
+            changed.add(applicant);
+            results.put(entry.getKey(), true);
+        }
+        
+        // One rewrite for the whole batch; if it fails, nothing was persisted
+        if (!changed.isEmpty() && !FileManager.updateApplicantApplications(changed)) {
+            results.replaceAll((nric, ok) -> false);
+        }
+        return results;
+    }
+    
+    /**
+     * Offers units to waitlisted applicants and persists them in a single write.
+     * 
+     * @param entries The waitlist entries whose applicants are offered a unit
+     * @return The outcome of each offer keyed by applicant NRIC
+     */
+    @Override
+    public Map<String, Boolean> offerUnits(List<WaitlistEntry> entries) {
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        if (entries == null || entries.isEmpty()) {
+            return results;
+        }
+        
+        Map<String, Applicant> byNric = new HashMap<>();
+        for (Applicant applicant : loadApplicants()) {
+            byNric.put(applicant.getNric().toUpperCase(), applicant);
+        }
+        
+        List<Applicant> changed = new ArrayList<>();
+        for (WaitlistEntry entry : entries) {
+            Applicant applicant = byNric.get(entry.getApplicantNric().toUpperCase());
+            if (applicant == null) {
+                results.put(entry.getApplicantNric(), false);
+                continue;
+            }
+            applicant.setAppliedProjectId(entry.getProjectId());
+            applicant.setAppliedFlatType(entry.getFlatType());
+            applicant.setApplicationStatus(ApplicationStatus.SUCCESSFUL);
+            changed.add(applicant);
+            results.put(entry.getApplicantNric(), true);
+        }
+        
+        if (!changed.isEmpty() && !FileManager.updateApplicantApplications(changed)) {
+            results.replaceAll((nric, ok) -> false);
+        }
+        return results;
+    }
+    
     /**
      * Applies for a project.
      * 
@@ -148,6 +306,21 @@ public class CSVApplicationRepository implements IApplicationRepository {
         return false;
     }
     
+    /**
+     * Loads all applicants and returns those matching a filter, recording the query as
+     * a flight recorder event.
+     * 
+     * @param method The repository method, for the event
+     * @param filter The condition the returned applicants meet
+     * @return A list of the matching applicants
+     */
+    private List<Applicant> query(String method, Predicate<Applicant> filter) {
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
+        List<Applicant> applicants = loadApplicants();
+        return FlightEvents.endQuery(event, method, applicants.size(),
+            applicants.stream().filter(filter).collect(Collectors.toList()));
+    }
+    
     /**
      * Loads all applicants from the CSV file.
      * 
@@ -1,72 +1,98 @@
 package com.SC2002.bto.repository.csv;
 
 import com.SC2002.bto.entities.Enquiry;
+import com.SC2002.bto.entities.EnquiryView;
 import com.SC2002.bto.repository.IEnquiryRepository;
 import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.EnquiryCatalog;
+import com.SC2002.bto.utils.EnquiryQueue;
 import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.FlightEvents;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * CSV-based implementation of the enquiry repository.
  * Follows the Single Responsibility Principle by focusing only on enquiry data access.
+ * Reads are served from the shared {@link EnquiryCatalog}. {@link #findAllViews()} returns
+ * the shared views as they are; the other finders return new {@link Enquiry} objects
+ * so callers can change and save them.
  */
 public class CSVEnquiryRepository implements IEnquiryRepository {
     
-    private final String filePath;
-    private List<Enquiry> enquiries;
-    
     /**
-     * Constructs a CSVEnquiryRepository with the default file path.
+     * Constructs a CSVEnquiryRepository over the enquiry catalog of {@link Constants#ENQUIRY_CSV}.
      */
     public CSVEnquiryRepository() {
-        this(Constants.ENQUIRY_CSV);
     }
     
     /**
-     * Constructs a CSVEnquiryRepository with the specified file path.
-     * 
-     * @param filePath The path of the CSV file
+     * Discards the cached enquiries so the CSV file is read again on the next lookup.
      */
-    public CSVEnquiryRepository(String filePath) {
-        this.filePath = filePath;
-        this.enquiries = FileManager.loadAllEnquiries(filePath);
+    public void refresh() {
+        EnquiryCatalog.invalidate();
+    }
+    
+    @Override
+    public List<EnquiryView> findAllViews() {
+        return EnquiryCatalog.getAll();
+    }
+    
+    @Override
+    public List<Enquiry> findAll() {
+        return query("CSVEnquiryRepository.findAll", e -> true);
     }
     
     /**
-     * Refreshes the enquiries from the CSV file.
+     * Streams the enquiries from the enquiry file rather than the catalog, reading each row
+     * only as the stream is consumed.
      */
-    public void refresh() {
-        this.enquiries = FileManager.loadAllEnquiries(filePath);
+    @Override
+    public Stream<Enquiry> stream() {
+        return FileManager.streamRows(Constants.ENQUIRY_CSV, 0)
+            .map(FileManager::parseEnquiryRow)
+            .filter(Objects::nonNull);
     }
     
+    /**
+     * Finds a page of enquiries from the enquiry file. Rows before the page are skipped
+     * without being parsed.
+     */
     @Override
-    public List<Enquiry> findAll() {
-        return new ArrayList<>(enquiries);
+    public Page<Enquiry> findPage(Predicate<? super Enquiry> filter, String pageToken, int pageSize) {
+        long firstRow = Page.decodeToken(pageToken);
+        try (Stream<Enquiry> rows = FileManager.streamRows(Constants.ENQUIRY_CSV, firstRow).map(FileManager::parseEnquiryRow)) {
+            return Page.read(rows, firstRow, filter, pageSize);
+        }
     }
     
     @Override
     public Optional<Enquiry> findById(Integer id) {
-        return enquiries.stream()
-            .filter(e -> e.getEnquiryId() == id)
-            .findFirst();
+        return EnquiryCatalog.findById(id).map(EnquiryView::toEnquiry);
     }
     
     @Override
-    public Enquiry save(Enquiry enquiry) {
-        // Check if enquiry already exists
-        Optional<Enquiry> existingEnquiry = findById(enquiry.getEnquiryId());
-        
-        if (existingEnquiry.isPresent()) {
-            // Update existing enquiry
-            enquiries.remove(existingEnquiry.get());
+    public synchronized Enquiry save(Enquiry enquiry) {
+        if (!existsById(enquiry.getEnquiryId())) {
+            // A new enquiry is added to the end of the file rather than rewriting it
+            FileManager.appendEnquiry(enquiry);
+            return enquiry;
         }
+        List<Enquiry> enquiries = findAll();
         
-        // Add new enquiry
-        enquiries.add(enquiry);
+        // Replace the existing enquiry in place
+        for (int i = 0; i < enquiries.size(); i++) {
+            if (enquiries.get(i).getEnquiryId() == enquiry.getEnquiryId()) {
+                enquiries.set(i, enquiry);
+                break;
+            }
+        }
         
         // Save all enquiries
         FileManager.saveAllEnquiries(enquiries);
@@ -75,74 +101,91 @@ public class CSVEnquiryRepository implements IEnquiryRepository {
     }
     
     @Override
-    public List<Enquiry> saveAll(List<Enquiry> entities) {
+    public synchronized List<Enquiry> saveAll(List<Enquiry> entities) {
         // Replace all enquiries
-        this.enquiries = new ArrayList<>(entities);
-        
-        // Save all enquiries
-        FileManager.saveAllEnquiries(enquiries);
+        FileManager.saveAllEnquiries(new ArrayList<>(entities));
         
         return entities;
     }
     
     @Override
-    public void delete(Enquiry enquiry) {
+    public synchronized void delete(Enquiry enquiry) {
+        List<Enquiry> enquiries = findAll();
         enquiries.removeIf(e -> e.getEnquiryId() == enquiry.getEnquiryId());
         FileManager.saveAllEnquiries(enquiries);
     }
     
     @Override
     public boolean existsById(Integer id) {
-        return enquiries.stream().anyMatch(e -> e.getEnquiryId() == id);
+        return EnquiryCatalog.findById(id).isPresent();
     }
     
     @Override
     public List<Enquiry> findByUser(String userNric) {
-        return enquiries.stream()
-            .filter(e -> e.getUserNric().equalsIgnoreCase(userNric))
-            .collect(Collectors.toList());
+        return query("CSVEnquiryRepository.findByUser", e -> e.getUserNric().equalsIgnoreCase(userNric));
     }
     
     @Override
     public List<Enquiry> findByProject(int projectId) {
-        return enquiries.stream()
-            .filter(e -> e.getProjectId() == projectId)
-            .collect(Collectors.toList());
+        return query("CSVEnquiryRepository.findByProject", e -> e.getProjectId() == projectId);
     }
     
     @Override
     public List<Enquiry> findWithResponses() {
-        return enquiries.stream()
-            .filter(Enquiry::hasResponse)
-            .collect(Collectors.toList());
+        return query("CSVEnquiryRepository.findWithResponses", EnquiryView::hasResponse);
     }
     
+    /**
+     * Finds the unanswered enquiries from the {@link EnquiryQueue}, oldest first, without
+     * scanning the answered ones.
+     */
     @Override
     public List<Enquiry> findWithoutResponses() {
-        return enquiries.stream()
-            .filter(e -> !e.hasResponse())
-            .collect(Collectors.toList());
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
+        List<Integer> ids = EnquiryQueue.getAllUnanswered();
+        return FlightEvents.endQuery(event, "CSVEnquiryRepository.findWithoutResponses", ids.size(),
+            enquiries(ids.stream().map(EnquiryCatalog::findById).flatMap(Optional::stream)));
     }
     
     @Override
-    public boolean updateResponse(int enquiryId, String response) {
-        Optional<Enquiry> enquiryOpt = findById(enquiryId);
-        if (enquiryOpt.isPresent()) {
-            Enquiry enquiry = enquiryOpt.get();
-            enquiry.setResponse(response);
-            return FileManager.updateEnquiryResponse(enquiry);
+    public synchronized boolean updateResponse(int enquiryId, String response) {
+        Optional<EnquiryView> viewOpt = EnquiryCatalog.findById(enquiryId);
+        if (viewOpt.isPresent()) {
+            return FileManager.updateEnquiryResponse(viewOpt.get().withResponse(response).toEnquiry());
         }
         return false;
     }
     
     @Override
-    public boolean updateEnquiryText(int enquiryId, String enquiryText) {
-        Optional<Enquiry> enquiryOpt = findById(enquiryId);
-        if (enquiryOpt.isPresent()) {
-            Enquiry enquiry = enquiryOpt.get();
-            enquiry.setEnquiryText(enquiryText);
-            return FileManager.updateEnquiryResponse(enquiry);
+    public synchronized boolean updateEnquiryText(int enquiryId, String enquiryText) {
+        Optional<EnquiryView> viewOpt = EnquiryCatalog.findById(enquiryId);
+        if (viewOpt.isPresent()) {
+            return FileManager.updateEnquiryResponse(viewOpt.get().withText(enquiryText).toEnquiry());
         }
         return false;
     }
+    
+    /**
+     * Filters the catalog's enquiries and creates enquiries from the matches, recording
+     * the query as a flight recorder event.
+     * 
+     * @param method The repository method, for the event
+     * @param filter The condition the returned enquiries meet
+     * @return A list of new enquiries
+     */
+    private List<Enquiry> query(String method, Predicate<EnquiryView> filter) {
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
+        List<EnquiryView> candidates = EnquiryCatalog.getAll();
+        return FlightEvents.endQuery(event, method, candidates.size(), enquiries(candidates.stream().filter(filter)));
+    }
+    
+    /**
+     * Creates enquiries from the views of a catalog query so that callers may change them.
+     * 
+     * @param views The matching views from the catalog
+     * @return A list of new enquiries
+     */
+    private List<Enquiry> enquiries(Stream<EnquiryView> views) {
+        return views.map(EnquiryView::toEnquiry).collect(Collectors.toList());
+    }
 }
@@ -1,77 +1,98 @@
 package com.SC2002.bto.repository.csv;
 
 import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.ProjectView;
 import com.SC2002.bto.repository.IProjectRepository;
+import com.SC2002.bto.repository.ProjectQuery;
 import com.SC2002.bto.utils.Constants;
 import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.FlightEvents;
+import com.SC2002.bto.utils.ManagerAssignments;
+import com.SC2002.bto.utils.OfficerAssignments;
+import com.SC2002.bto.utils.ProjectCatalog;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * CSV-based implementation of the project repository.
  * Follows the Single Responsibility Principle by focusing only on project data access.
+ * Reads are served from the shared {@link ProjectCatalog} instead of parsing the file.
+ * The view finders return the shared immutable views as they are; the other finders
+ * return copies so callers can change and save them.
+ * <p>
+ * Queries are answered from the catalog's indexes: the index lookups of the query's
+ * criteria are intersected, smallest first, and only the projects left are read.
+ * Queries for the cheapest projects walk the catalog's price indexes instead.
  */
 public class CSVProjectRepository implements IProjectRepository {
     
-    private final String filePath;
-    private List<Project> projects;
-    
     /**
-     * Constructs a CSVProjectRepository with the default file path.
+     * Constructs a CSVProjectRepository over the project catalog of {@link Constants#PROJECT_CSV}.
      */
     public CSVProjectRepository() {
-        this(Constants.PROJECT_CSV);
     }
     
     /**
-     * Constructs a CSVProjectRepository with the specified file path.
-     * 
-     * @param filePath The path of the CSV file
+     * Discards the cached projects so the CSV file is read again on the next lookup.
      */
-    public CSVProjectRepository(String filePath) {
-        this.filePath = filePath;
-        this.projects = FileManager.loadProjectsFromCSV(filePath);
+    public void refresh() {
+        ProjectCatalog.invalidate();
     }
     
-    /**
-     * Refreshes the projects from the CSV file.
-     */
-    public void refresh() {
-        this.projects = FileManager.loadProjectsFromCSV(filePath);
+    @Override
+    public List<ProjectView> findAllViews() {
+        return ProjectCatalog.snapshot().getViews();
+    }
+    
+    @Override
+    public Optional<ProjectView> findViewById(int projectId) {
+        return Optional.ofNullable(ProjectCatalog.snapshot().getView(projectId));
+    }
+    
+    @Override
+    public ProjectView save(ProjectView view) {
+        save(view.toProject());
+        return view;
     }
     
     @Override
     public List<Project> findAll() {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return new ArrayList<>(projects);
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
+        List<Project> projects = ProjectCatalog.copyAll();
+        return FlightEvents.endQuery(event, "CSVProjectRepository.findAll", projects.size(), projects);
     }
     
     @Override
     public Optional<Project> findById(Integer id) {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return projects.stream()
-            .filter(p -> p.getProjectId() == id)
-            .findFirst();
+        return ProjectCatalog.findById(id).map(Project::new);
     }
     
     @Override
-    public Project save(Project project) {
-        // Check if project already exists
-        Optional<Project> existingProject = findById(project.getProjectId());
+    public synchronized Project save(Project project) {
+        List<Project> projects = ProjectCatalog.copyAll();
         
-        if (existingProject.isPresent()) {
-            // Update existing project
-            projects.remove(existingProject.get());
+        // Replace the existing project in place, since IDs follow the row order of the file
+        boolean replaced = false;
+        for (int i = 0; i < projects.size(); i++) {
+            if (projects.get(i).getProjectId() == project.getProjectId()) {
+                projects.set(i, project);
+                replaced = true;
+                break;
+            }
+        }
+        if (!replaced) {
+            projects.add(project);
         }
-        
-        // Add new project
-        projects.add(project);
         
         // Save all projects
         FileManager.saveProjects(projects);
@@ -82,130 +103,98 @@ public class CSVProjectRepository implements IProjectRepository {
     @Override
     public List<Project> saveAll(List<Project> entities) {
         // Replace all projects
-        this.projects = new ArrayList<>(entities);
-        
-        // Save all projects
-        FileManager.saveProjects(projects);
+        FileManager.saveProjects(entities);
         
         return entities;
     }
     
     @Override
-    public void delete(Project project) {
+    public synchronized void delete(Project project) {
+        List<Project> projects = ProjectCatalog.copyAll();
         projects.removeIf(p -> p.getProjectId() == project.getProjectId());
         FileManager.saveProjects(projects);
     }
     
     @Override
     public boolean existsById(Integer id) {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return projects.stream().anyMatch(p -> p.getProjectId() == id);
+        return ProjectCatalog.findById(id).isPresent();
     }
     
     @Override
     public List<Project> findAllVisible() {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return projects.stream()
-            .filter(Project::isVisible)
-            .collect(Collectors.toList());
+        return query("CSVProjectRepository.findAllVisible", ProjectCatalog.getVisible(), p -> true);
     }
     
     @Override
     public List<Project> findByNeighborhood(String neighborhood) {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return projects.stream()
-            .filter(p -> p.getNeighborhood().equalsIgnoreCase(neighborhood))
-            .collect(Collectors.toList());
+        return copies(select("CSVProjectRepository.findByNeighborhood",
+            ProjectQuery.builder().neighborhood(neighborhood).build()).stream());
     }
     
     @Override
     public List<Project> findByFlatType(String flatType) {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return projects.stream()
-            .filter(p -> p.getType1Desc().equalsIgnoreCase(flatType) || 
-                         p.getType2Desc().equalsIgnoreCase(flatType))
-            .collect(Collectors.toList());
+        return copies(select("CSVProjectRepository.findByFlatType",
+            ProjectQuery.builder().flatType(flatType).build()).stream());
     }
     
     @Override
     public List<Project> findByManager(String managerNric) {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return projects.stream()
-            .filter(p -> p.getManager().equalsIgnoreCase(managerNric))
+        return query("CSVProjectRepository.findByManager", ManagerAssignments.getProjects(managerNric), p -> true);
+    }
+    
+    @Override
+    public List<Project> findByQuery(ProjectQuery query) {
+        return copies(select("CSVProjectRepository.findByQuery", query).stream());
+    }
+    
+    @Override
+    public List<ProjectView> findViewsByQuery(ProjectQuery query) {
+        ProjectCatalog.Snapshot snapshot = ProjectCatalog.snapshot();
+        return select(snapshot, "CSVProjectRepository.findViewsByQuery", query).stream()
+            .map(p -> snapshot.getView(p.getProjectId()))
             .collect(Collectors.toList());
     }
     
     @Override
     public List<Project> findByOfficer(String officerNric) {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return projects.stream()
-            .filter(p -> p.getOfficers().stream()
-                .anyMatch(o -> o.equalsIgnoreCase(officerNric)))
-            .collect(Collectors.toList());
+        return query("CSVProjectRepository.findByOfficer", OfficerAssignments.getProjects(officerNric), p -> true);
     }
     
     @Override
     public List<Project> findByApplicationPeriod(LocalDate date) {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return projects.stream()
-            .filter(p -> !date.isBefore(p.getApplicationOpeningDate()) && 
-                         !date.isAfter(p.getApplicationClosingDate()))
-            .collect(Collectors.toList());
+        return query("CSVProjectRepository.findByApplicationPeriod", ProjectCatalog.getAll(),
+            p -> !date.isBefore(p.getApplicationOpeningDate()) && 
+                 !date.isAfter(p.getApplicationClosingDate()));
     }
     
     @Override
-    public boolean updateVisibility(int projectId, boolean isVisible) {
-        Optional<Project> projectOpt = findById(projectId);
-        if (projectOpt.isPresent()) {
-            Project project = projectOpt.get();
-            project.setVisible(isVisible);
-            save(project);
+    public synchronized boolean updateVisibility(int projectId, boolean isVisible) {
+        Optional<ProjectView> viewOpt = findViewById(projectId);
+        if (viewOpt.isPresent()) {
+            save(viewOpt.get().toBuilder().visible(isVisible).build());
             return true;
         }
         return false;
     }
     
     @Override
-    public boolean updateAvailableUnits(int projectId, String flatType, int units) {
-        Optional<Project> projectOpt = findById(projectId);
-        if (projectOpt.isPresent()) {
-            Project project = projectOpt.get();
-            if ("2-Room".equalsIgnoreCase(flatType)) {
-                project.setType1Units(units);
-                save(project);
-                return true;
-            } else if ("3-Room".equalsIgnoreCase(flatType)) {
-                project.setType2Units(units);
-                save(project);
-                return true;
-            }
+    public synchronized boolean updateAvailableUnits(int projectId, String flatType, int units) {
+        Optional<ProjectView> viewOpt = findViewById(projectId);
+        if (viewOpt.isPresent() && unitsOf(viewOpt.get(), flatType) >= 0) {
+            save(viewOpt.get().toBuilder().units(flatType, units).build());
+            return true;
         }
         return false;
     }
     
     @Override
-    public boolean bookUnit(int projectId, String flatType) {
-        Optional<Project> projectOpt = findById(projectId);
-        if (projectOpt.isPresent()) {
-            Project project = projectOpt.get();
-            if ("2-Room".equalsIgnoreCase(flatType)) {
-                if (project.getType1Units() <= 0) return false;
-                project.setType1Units(project.getType1Units() - 1);
-                save(project);
-                return true;
-            } else if ("3-Room".equalsIgnoreCase(flatType)) {
-                if (project.getType2Units() <= 0) return false;
-                project.setType2Units(project.getType2Units() - 1);
-                save(project);
-                return true;
-            }
+    public synchronized boolean bookUnit(int projectId, String flatType) {
+        Optional<ProjectView> viewOpt = findViewById(projectId);
+        if (viewOpt.isPresent()) {
+            int units = unitsOf(viewOpt.get(), flatType);
+            if (units <= 0) return false;
+            save(viewOpt.get().toBuilder().units(flatType, units - 1).build());
+            return true;
         }
         return false;
     }
@@ -216,14 +205,10 @@ public class CSVProjectRepository implements IProjectRepository {
      * @return A list of projects that are currently open for application
      */
     public List<Project> findCurrentlyOpen() {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
         LocalDate today = LocalDate.now();
-        return projects.stream()
-            .filter(Project::isVisible)
-            .filter(p -> !today.isBefore(p.getApplicationOpeningDate()) && 
-                         !today.isAfter(p.getApplicationClosingDate()))
-            .collect(Collectors.toList());
+        return query("CSVProjectRepository.findCurrentlyOpen", ProjectCatalog.getVisible(),
+            p -> !today.isBefore(p.getApplicationOpeningDate()) && 
+                 !today.isAfter(p.getApplicationClosingDate()));
     }
     
     /**
@@ -233,11 +218,283 @@ public class CSVProjectRepository implements IProjectRepository {
      * @return A list of projects matching the keyword
      */
     public List<Project> findByKeyword(String keyword) {
-        // Always refresh from file to ensure we have the latest data
-        refresh();
-        return projects.stream()
-            .filter(p -> p.getProjectName().toLowerCase().contains(keyword.toLowerCase()) || 
-                         p.getNeighborhood().toLowerCase().contains(keyword.toLowerCase()))
-            .collect(Collectors.toList());
+        return query("CSVProjectRepository.findByKeyword", ProjectCatalog.getAll(),
+            p -> p.getProjectName().toLowerCase().contains(keyword.toLowerCase()) || 
+                 p.getNeighborhood().toLowerCase().contains(keyword.toLowerCase()));
+    }
+    
+    /**
+     * Returns the remaining units of a flat type in a project.
+     * 
+     * @param view The project
+     * @param flatType The flat type ("2-Room" or "3-Room")
+     * @return The remaining units, or -1 if the flat type is unknown
+     */
+    private int unitsOf(ProjectView view, String flatType) {
+        if ("2-Room".equalsIgnoreCase(flatType)) {
+            return view.getType1Units();
+        } else if ("3-Room".equalsIgnoreCase(flatType)) {
+            return view.getType2Units();
+        }
+        return -1;
+    }
+    
+    /**
+     * Filters catalog projects and copies the matches, recording the query as a flight
+     * recorder event.
+     * 
+     * @param method The repository method, for the event
+     * @param candidates The projects to scan
+     * @param filter The condition the returned projects meet
+     * @return A list of copies of the matching projects
+     */
+    private List<Project> query(String method, List<Project> candidates, Predicate<Project> filter) {
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
+        return FlightEvents.endQuery(event, method, candidates.size(), copies(candidates.stream().filter(filter)));
+    }
+    
+    /**
+     * Runs a query against the current catalog snapshot.
+     * 
+     * @see #select(ProjectCatalog.Snapshot, String, ProjectQuery)
+     */
+    private List<Project> select(String method, ProjectQuery query) {
+        return select(ProjectCatalog.snapshot(), method, query);
+    }
+    
+    /**
+     * Runs a query against a catalog snapshot, recording it as a flight recorder event.
+     * The projects that the indexes leave are checked against the whole query, so
+     * criteria without an index (the application period) still apply.
+     * <p>
+     * A query for the cheapest projects with a limit walks the price index in price
+     * order and stops at the limit, unless the other indexed criteria are selective
+     * enough that reading and sorting their matches is expected to be cheaper.
+     * 
+     * @param snapshot The snapshot to query
+     * @param method The repository method, for the event
+     * @param query The criteria, order and limit
+     * @return The matching catalog projects, which must not be changed
+     */
+    private List<Project> select(ProjectCatalog.Snapshot snapshot, String method, ProjectQuery query) {
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
+        List<Project> projects = snapshot.getProjects();
+        List<int[]> lookups = indexLookups(snapshot, query);
+        int smallest = lookups.isEmpty() ? projects.size() : lookups.get(0).length;
+        
+        List<ProjectCatalog.PriceIndex> priceIndexes = query.usesPrices() ? priceIndexes(snapshot, query) : null;
+        if (priceIndexes != null && walksPriceOrder(query, projects.size(), smallest)) {
+            long[] scanned = new long[1];
+            List<Project> matches = walkPriceOrder(projects, priceIndexes, query, scanned);
+            return FlightEvents.endQuery(event, method, scanned[0], matches);
+        }
+        if (priceIndexes != null && (query.hasPriceRange() || query.isAvailableOnly())) {
+            long priced = 0;
+            for (ProjectCatalog.PriceIndex index : priceIndexes) {
+                priced += index.count(query.getMinPrice(), query.getMaxPrice());
+            }
+            // Use the price range as a lookup only if it is the most selective
+            if (priced < smallest) {
+                lookups.add(0, priceRangeRows(priceIndexes, query));
+            }
+        }
+        
+        int[] rows = intersectAll(lookups);
+        int scanned = rows == null ? projects.size() : rows.length;
+        
+        Comparator<Project> order = query.comparator();
+        // Without an order the matches are in file order, so the scan can stop at the limit
+        int stopAt = order == null && query.getLimit() > 0 ? query.getLimit() : Integer.MAX_VALUE;
+        List<Project> matches = new ArrayList<>();
+        for (int i = 0; i < scanned && matches.size() < stopAt; i++) {
+            Project p = projects.get(rows == null ? i : rows[i]);
+            if (query.matches(p)) {
+                matches.add(p);
+            }
+        }
+        
+        if (order != null) {
+            matches.sort(order);
+            if (query.getLimit() > 0 && matches.size() > query.getLimit()) {
+                matches = new ArrayList<>(matches.subList(0, query.getLimit()));
+            }
+        }
+        return FlightEvents.endQuery(event, method, scanned, matches);
+    }
+    
+    /**
+     * Looks up a query's indexed criteria.
+     * 
+     * @param snapshot The snapshot whose indexes to use
+     * @param query The query
+     * @return The ascending positions of the projects that meet each criterion, smallest first
+     */
+    private List<int[]> indexLookups(ProjectCatalog.Snapshot snapshot, ProjectQuery query) {
+        List<int[]> lookups = new ArrayList<>();
+        if (query.getNeighborhood() != null) {
+            lookups.add(snapshot.getRowsByNeighborhood(query.getNeighborhood()));
+        }
+        if (query.getManager() != null) {
+            lookups.add(snapshot.getRowsByManager(query.getManager()));
+        }
+        if (query.getFlatType() != null) {
+            lookups.add(snapshot.getRowsByFlatType(query.getFlatType()));
+        }
+        if (query.getVisible() != null) {
+            lookups.add(snapshot.getRowsByVisibility(query.getVisible()));
+        }
+        lookups.sort(Comparator.comparingInt(rows -> rows.length));
+        return lookups;
+    }
+    
+    /**
+     * Intersects index lookups from the smallest up, so the most selective criterion
+     * bounds the work and an empty lookup ends the plan at once.
+     * 
+     * @param lookups The lookups, smallest first
+     * @return The ascending positions of the projects in every lookup, or null if there
+     *         are no lookups and every project must be scanned
+     */
+    private int[] intersectAll(List<int[]> lookups) {
+        if (lookups.isEmpty()) {
+            return null;
+        }
+        int[] rows = lookups.get(0);
+        for (int i = 1; i < lookups.size() && rows.length > 0; i++) {
+            int[] other = lookups.get(i);
+            rows = rows.length <= other.length ? intersect(rows, other) : intersect(other, rows);
+        }
+        return rows;
+    }
+    
+    /**
+     * Returns the price indexes of the flat types a query matches.
+     */
+    private List<ProjectCatalog.PriceIndex> priceIndexes(ProjectCatalog.Snapshot snapshot, ProjectQuery query) {
+        if (query.getFlatType() != null) {
+            return List.of(snapshot.getPriceIndex(query.getFlatType(), query.isAvailableOnly()));
+        }
+        return snapshot.getPriceIndexes(query.isAvailableOnly());
+    }
+    
+    /**
+     * Decides whether to answer a query by walking the price index in price order.
+     * Each entry walked matches the other criteria with a probability of about the
+     * smallest lookup's share of all projects, so about {@code limit * size / smallest}
+     * entries are walked to fill the limit; the alternative reads {@code smallest} projects.
+     */
+    private boolean walksPriceOrder(ProjectQuery query, int size, int smallest) {
+        if (query.getSort() != ProjectQuery.Sort.LOWEST_PRICE || query.isDescending() || query.getLimit() == 0) {
+            return false;
+        }
+        return (long) query.getLimit() * size <= (long) smallest * smallest;
+    }
+    
+    /**
+     * Walks the price indexes from the query's lowest price up, merging the flat types,
+     * and keeps the projects that match until the limit is reached. A project is met
+     * first at its lowest matching price, which is the order the query asks for.
+     * 
+     * @param projects The projects of the snapshot
+     * @param priceIndexes The price indexes of the flat types the query matches
+     * @param query The query, ordered by lowest price with a limit
+     * @param scanned Receives the number of index entries walked
+     * @return The matching projects, cheapest first
+     */
+    private List<Project> walkPriceOrder(List<Project> projects, List<ProjectCatalog.PriceIndex> priceIndexes,
+            ProjectQuery query, long[] scanned) {
+        int n = priceIndexes.size();
+        int[] next = new int[n];
+        int[] end = new int[n];
+        for (int i = 0; i < n; i++) {
+            next[i] = priceIndexes.get(i).lowerBound(query.getMinPrice());
+            end[i] = priceIndexes.get(i).upperBound(query.getMaxPrice());
+        }
+        
+        List<Project> matches = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        while (matches.size() < query.getLimit()) {
+            // The index whose next entry is cheapest, with equal prices in project ID order
+            int best = -1;
+            for (int i = 0; i < n; i++) {
+                if (next[i] < end[i] && (best < 0 || cheaper(priceIndexes.get(i), next[i], priceIndexes.get(best), next[best]))) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                break;
+            }
+            int row = priceIndexes.get(best).rowAt(next[best]++);
+            scanned[0]++;
+            if (seen.add(row) && query.matches(projects.get(row))) {
+                matches.add(projects.get(row));
+            }
+        }
+        return matches;
+    }
+    
+    private static boolean cheaper(ProjectCatalog.PriceIndex a, int i, ProjectCatalog.PriceIndex b, int j) {
+        if (a.priceAt(i) != b.priceAt(j)) {
+            return a.priceAt(i) < b.priceAt(j);
+        }
+        return a.projectIdAt(i) < b.projectIdAt(j);
+    }
+    
+    /**
+     * Returns the ascending positions of the projects with a matching flat type priced
+     * within the query's range.
+     */
+    private int[] priceRangeRows(List<ProjectCatalog.PriceIndex> priceIndexes, ProjectQuery query) {
+        int[] rows = new int[0];
+        for (ProjectCatalog.PriceIndex index : priceIndexes) {
+            int[] inRange = index.rowsInRange(query.getMinPrice(), query.getMaxPrice());
+            int[] merged = Arrays.copyOf(rows, rows.length + inRange.length);
+            System.arraycopy(inRange, 0, merged, rows.length, inRange.length);
+            rows = merged;
+        }
+        Arrays.sort(rows);
+        return Arrays.stream(rows).distinct().toArray();
+    }
+    
+    /**
+     * Intersects two ascending position arrays, the first no longer than the second.
+     * A much shorter first array is probed into the second by binary search rather
+     * than merged with it.
+     */
+    private static int[] intersect(int[] smaller, int[] larger) {
+        int[] result = new int[smaller.length];
+        int n = 0;
+        if (smaller.length * 32L < larger.length) {
+            for (int row : smaller) {
+                if (Arrays.binarySearch(larger, row) >= 0) {
+                    result[n++] = row;
+                }
+            }
+        } else {
+            int i = 0;
+            int j = 0;
+            while (i < smaller.length && j < larger.length) {
+                if (smaller[i] < larger[j]) {
+                    i++;
+                } else if (smaller[i] > larger[j]) {
+                    j++;
+                } else {
+                    result[n++] = smaller[i];
+                    i++;
+                    j++;
+                }
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+    
+    /**
+     * Copies the projects of a catalog query so that callers may change them.
+     * 
+     * @param projects The matching projects from the catalog
+     * @return A list of project copies
+     */
+    private List<Project> copies(Stream<Project> projects) {
+        return projects.map(Project::new).collect(Collectors.toList());
     }
 }
@@ -1,6 +1,8 @@
 package com.SC2002.bto.repository.csv;
 
 import com.SC2002.bto.repository.IRepository;
+import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.FlightEvents;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
@@ -39,7 +41,7 @@ public abstract class CSVRepository<T, ID> implements IRepository<T, ID> {
      */
     protected List<String> readAllLines() {
         List<String> lines = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = FileManager.openReader(filePath)) {
             String line;
             while ((line = reader.readLine()) != null) {
                 lines.add(line);
@@ -57,7 +59,7 @@ public abstract class CSVRepository<T, ID> implements IRepository<T, ID> {
      * @return true if the write was successful, false otherwise
      */
     protected boolean writeAllLines(List<String> lines) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filePath))) {
+        try (BufferedWriter writer = FileManager.openWriter(filePath, false)) {
             for (String line : lines) {
                 writer.write(line);
                 writer.newLine();
@@ -99,6 +101,16 @@ public abstract class CSVRepository<T, ID> implements IRepository<T, ID> {
         return tokens;
     }
     
+    /**
+     * Returns the name of a query of this repository, for flight recorder events.
+     * 
+     * @param method The method name
+     * @return The repository class and method, e.g. "CSVProjectRepository.findAll"
+     */
+    private String queryName(String method) {
+        return getClass().getSimpleName() + "." + method;
+    }
+    
     /**
      * Finds an entity by its ID.
      * 
@@ -108,6 +120,7 @@ public abstract class CSVRepository<T, ID> implements IRepository<T, ID> {
      * @return An Optional containing the entity if found, empty otherwise
      */
     protected Optional<T> findById(ID id, Function<String, ID> idExtractor, Function<String, T> lineToEntity) {
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
         List<String> lines = readAllLines();
         
         // Skip header
@@ -115,14 +128,16 @@ public abstract class CSVRepository<T, ID> implements IRepository<T, ID> {
             lines.remove(0);
         }
         
+        long scanned = 0;
         for (String line : lines) {
+            scanned++;
             ID lineId = idExtractor.apply(line);
             if (lineId.equals(id)) {
-                return Optional.of(lineToEntity.apply(line));
+                return FlightEvents.endQuery(event, queryName("findById"), scanned, Optional.of(lineToEntity.apply(line)));
             }
         }
         
-        return Optional.empty();
+        return FlightEvents.endQuery(event, queryName("findById"), scanned, Optional.empty());
     }
     
     /**
@@ -132,6 +147,7 @@ public abstract class CSVRepository<T, ID> implements IRepository<T, ID> {
      * @return A list of all entities
      */
     protected List<T> findAll(Function<String, T> lineToEntity) {
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
         List<String> lines = readAllLines();
         List<T> entities = new ArrayList<>();
         
@@ -144,7 +160,7 @@ public abstract class CSVRepository<T, ID> implements IRepository<T, ID> {
             entities.add(lineToEntity.apply(line));
         }
         
-        return entities;
+        return FlightEvents.endQuery(event, queryName("findAll"), lines.size(), entities);
     }
     
     /**
@@ -6,12 +6,16 @@ import com.SC2002.bto.entities.HDBOfficer;
 import com.SC2002.bto.entities.User;
 import com.SC2002.bto.repository.IUserRepository;
 import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.CredentialIndex;
 import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.FlightEvents;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * CSV-based implementation of the user repository.
@@ -21,6 +25,7 @@ public class CSVUserRepository implements IUserRepository {
     
     @Override
     public List<User> findAll() {
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
         List<User> users = new ArrayList<>();
         
         // Load applicants
@@ -32,7 +37,22 @@ public class CSVUserRepository implements IUserRepository {
         // Load managers
         users.addAll(FileManager.loadUsersFromCSV(Constants.MANAGER_CSV, "HDBManager"));
         
-        return users;
+        return FlightEvents.endQuery(event, "CSVUserRepository.findAll", users.size(), users);
+    }
+    
+    /**
+     * Streams the applicants, officers and managers from their files, reading each row
+     * only as the stream is consumed.
+     */
+    @Override
+    public Stream<User> stream() {
+        // Each file is opened only when the stream reaches it, and closed once it has been read
+        return Stream.of(
+                new String[] {Constants.APPLICANT_CSV, Constants.USER_TYPE_APPLICANT},
+                new String[] {Constants.OFFICER_CSV, Constants.USER_TYPE_OFFICER},
+                new String[] {Constants.MANAGER_CSV, Constants.USER_TYPE_MANAGER})
+            .flatMap(list -> FileManager.streamRows(list[0], 0).map(line -> FileManager.parseUserRow(line, list[1])))
+            .filter(Objects::nonNull);
     }
     
     @Override
@@ -42,29 +62,35 @@ public class CSVUserRepository implements IUserRepository {
     
     @Override
     public Optional<User> findByNric(String nric) {
+        FlightEvents.RepositoryQuery event = FlightEvents.beginQuery();
+        long scanned = 0;
+        
         // Try to find the user in each CSV file
         List<User> applicants = FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, "Applicant");
         for (User user : applicants) {
+            scanned++;
             if (user.getNric().equalsIgnoreCase(nric)) {
-                return Optional.of(user);
+                return FlightEvents.endQuery(event, "CSVUserRepository.findByNric", scanned, Optional.of(user));
             }
         }
         
         List<User> officers = FileManager.loadUsersFromCSV(Constants.OFFICER_CSV, "HDBOfficer");
         for (User user : officers) {
+            scanned++;
             if (user.getNric().equalsIgnoreCase(nric)) {
-                return Optional.of(user);
+                return FlightEvents.endQuery(event, "CSVUserRepository.findByNric", scanned, Optional.of(user));
             }
         }
         
         List<User> managers = FileManager.loadUsersFromCSV(Constants.MANAGER_CSV, "HDBManager");
         for (User user : managers) {
+            scanned++;
             if (user.getNric().equalsIgnoreCase(nric)) {
-                return Optional.of(user);
+                return FlightEvents.endQuery(event, "CSVUserRepository.findByNric", scanned, Optional.of(user));
             }
         }
         
-        return Optional.empty();
+        return FlightEvents.endQuery(event, "CSVUserRepository.findByNric", scanned, Optional.empty());
     }
     
     @Override
@@ -135,17 +161,42 @@ public class CSVUserRepository implements IUserRepository {
     
     @Override
     public Optional<User> authenticate(String nric, String password) {
-        // Try to find the user in each CSV file
-        Optional<User> userOpt = findByNric(nric);
+        FlightEvents.Authentication event = new FlightEvents.Authentication();
+        event.begin();
         
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            if (user.getPassword().equals(password)) {
-                return Optional.of(user);
-            }
+        // Check each user list in the same order as findByNric, using the in-memory index
+        Optional<User> userOpt = CredentialIndex.authenticate("Applicant", nric, password);
+        if (userOpt.isEmpty()) {
+            userOpt = CredentialIndex.authenticate("HDBOfficer", nric, password);
         }
-        
-        return Optional.empty();
+        if (userOpt.isEmpty()) {
+            userOpt = CredentialIndex.authenticate("HDBManager", nric, password);
+        }
+        return authenticated(event, "", userOpt);
+    }
+    
+    @Override
+    public Optional<User> authenticateAs(String role, String nric, String password) {
+        FlightEvents.Authentication event = new FlightEvents.Authentication();
+        event.begin();
+        return authenticated(event, role, CredentialIndex.authenticate(role, nric, password));
+    }
+    
+    /**
+     * Commits the flight recorder event of a login attempt, if it is recorded.
+     * 
+     * @param event The event, begun before the attempt
+     * @param role The role asked for, or empty if any role was allowed
+     * @param user The authenticated user, or empty if the login failed
+     * @return The user, so the call can wrap a return statement
+     */
+    private Optional<User> authenticated(FlightEvents.Authentication event, String role, Optional<User> user) {
+        if (event.shouldCommit()) {
+            event.role = role;
+            event.success = user.isPresent();
+            event.commit();
+        }
+        return user;
     }
     
     @Override
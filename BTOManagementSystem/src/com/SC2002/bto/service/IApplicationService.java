@@ -1,8 +1,15 @@
 package com.SC2002.bto.service;
 
 import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.ApplicationLease;
 import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.ApplicationView;
+import com.SC2002.bto.entities.WaitlistEntry;
+import com.SC2002.bto.repository.IRepository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * Service interface for application-related operations.
@@ -37,14 +44,111 @@ public interface IApplicationService {
      */
     boolean processApplication(String applicantNric, ApplicationStatus status);
     
+    /**
+     * Processes a batch of application decisions.
+     * Every decision is validated against the applicant's current status and the
+     * valid ones are persisted together in a single write. Decisions on applications
+     * that a staff member has claimed are rejected.
+     * 
+     * @param decisions The decisions to apply
+     * @return The result of each decision, in the order they were given
+     */
+    List<DecisionResult> processApplications(List<Decision> decisions);
+    
+    /**
+     * Processes a batch of application decisions made by a staff member, or by an
+     * applicant on their own application. Decisions on applications that someone else
+     * has claimed are rejected; otherwise this is the same as
+     * {@link #processApplications(List)}.
+     * 
+     * @param staffNric The NRIC of the officer, manager or applicant deciding
+     * @param decisions The decisions to apply
+     * @return The result of each decision, in the order they were given
+     */
+    List<DecisionResult> processApplications(String staffNric, List<Decision> decisions);
+    
+    /**
+     * Claims the next page of applications waiting for a decision in some projects,
+     * oldest first. Applications claimed by anyone, including the caller, are skipped,
+     * so calling this again returns the following page and staff working at the same
+     * time get different applications.
+     * 
+     * @param staffNric The NRIC of the officer or manager
+     * @param status PENDING for applications, PENDING_WITHDRAWAL for withdrawal requests
+     * @param projectIds The projects to take work from
+     * @param limit The maximum number of applications to claim
+     * @return The claims, oldest application first
+     */
+    List<ApplicationLease> claimApplications(String staffNric, ApplicationStatus status, Collection<Integer> projectIds, int limit);
+    
+    /**
+     * Releases a staff member's claim on an application so that others can decide it.
+     * 
+     * @param applicantNric The NRIC of the applicant
+     * @param staffNric The NRIC of the officer or manager
+     * @return true if the staff member held the claim, false otherwise
+     */
+    boolean releaseApplication(String applicantNric, String staffNric);
+    
+    /**
+     * Gets the current claim on an application.
+     * 
+     * @param applicantNric The NRIC of the applicant
+     * @return The claim, or empty if the application is not claimed
+     */
+    Optional<ApplicationLease> getApplicationClaim(String applicantNric);
+    
+    /**
+     * Gets the applications of a project that are waiting for a decision, oldest first.
+     * 
+     * @param status PENDING or PENDING_WITHDRAWAL
+     * @param projectId The ID of the project
+     * @return The applications as immutable views
+     */
+    List<ApplicationView> getQueuedApplications(ApplicationStatus status, int projectId);
+    
     /**
      * Books a flat for an applicant.
+     * The unit is taken from the project and the application is marked as booked
+     * in a single unit of work, so either both changes are saved or neither is.
      * 
      * @param applicantNric The NRIC of the applicant
      * @return true if the booking was successful, false otherwise
      */
     boolean bookFlat(String applicantNric);
     
+    /**
+     * Puts an applicant on the waitlist of a project and flat type, e.g. after their
+     * booking failed because no units were left.
+     * 
+     * @param applicantNric The NRIC of the applicant
+     * @param projectId The ID of the project
+     * @param flatType The flat type (e.g., "2-Room", "3-Room")
+     * @return true if the applicant was added to the waitlist, false otherwise
+     */
+    boolean joinWaitlist(String applicantNric, int projectId, String flatType);
+    
+    /**
+     * Offers the free units of a project and flat type to the applicants at the head of
+     * its waitlist. A unit is free if it is neither booked nor held by a successful
+     * application. Applicants who have since applied elsewhere are dropped from the
+     * waitlist. The offers and the waitlist changes are saved together.
+     * 
+     * @param projectId The ID of the project
+     * @param flatType The flat type (e.g., "2-Room", "3-Room")
+     * @return The number of applicants offered a unit
+     */
+    int offerReleasedUnits(int projectId, String flatType);
+    
+    /**
+     * Gets the waitlist of a project and flat type.
+     * 
+     * @param projectId The ID of the project
+     * @param flatType The flat type (e.g., "2-Room", "3-Room")
+     * @return The waitlisted applicants, first in line first
+     */
+    List<WaitlistEntry> getWaitlist(int projectId, String flatType);
+    
     /**
      * Gets applications by their status.
      * 
@@ -53,6 +157,25 @@ public interface IApplicationService {
      */
     List<Applicant> getApplicationsByStatus(ApplicationStatus status);
     
+    /**
+     * Gets the applications of all applicants as immutable views.
+     * The returned list is shared and must not be modified.
+     * 
+     * @return An unmodifiable list of all applications
+     */
+    List<ApplicationView> getApplicationViews();
+    
+    /**
+     * Gets one page of the applicants that match a filter, read from storage a page at a time.
+     * 
+     * @param filter The filter to apply
+     * @param pageToken The token from the previous page, or null or empty for the first page
+     * @param pageSize The maximum number of applicants on the page
+     * @return The page
+     * @throws IllegalArgumentException if the token is invalid or the page size is not positive
+     */
+    IRepository.Page<Applicant> getApplicationPage(Predicate<? super Applicant> filter, String pageToken, int pageSize);
+    
     /**
      * Gets applications for a specific project.
      * 
@@ -71,19 +194,21 @@ public interface IApplicationService {
     
     /**
      * Gets applications for projects managed by a specific HDB manager.
+     * The applications are views, without the applicants' passwords.
      * 
      * @param managerNric The NRIC of the manager
-     * @return A list of applicants who have applied for projects managed by the specified manager
+     * @return The applications for the manager's projects, by project ID and then in file order
      */
-    List<Applicant> getApplicationsByManager(String managerNric);
+    List<ApplicationView> getApplicationsByManager(String managerNric);
     
     /**
      * Gets applications for projects that a specific HDB officer is assigned to.
+     * The applications are views, without the applicants' passwords.
      * 
      * @param officerNric The NRIC of the officer
-     * @return A list of applicants who have applied for projects the officer is assigned to
+     * @return The applications for the officer's projects, by project ID and then in file order
      */
-    List<Applicant> getApplicationsByOfficer(String officerNric);
+    List<ApplicationView> getApplicationsByOfficer(String officerNric);
     
     /**
      * Checks if an applicant is eligible to apply for a project.
@@ -103,4 +228,58 @@ public interface IApplicationService {
      * @return true if the flat type is eligible for the marital status, false otherwise
      */
     boolean validateFlatTypeEligibility(String flatType, String maritalStatus);
+    
+    /**
+     * A simple class to represent a decision on an applicant's application.
+     */
+    class Decision {
+        private final String applicantNric;
+        private final ApplicationStatus status;
+        
+        public Decision(String applicantNric, ApplicationStatus status) {
+            this.applicantNric = applicantNric;
+            this.status = status;
+        }
+        
+        public String getApplicantNric() {
+            return applicantNric;
+        }
+        
+        public ApplicationStatus getStatus() {
+            return status;
+        }
+    }
+    
+    /**
+     * A simple class to represent the outcome of a single decision in a batch.
+     */
+    class DecisionResult {
+        private final String applicantNric;
+        private final ApplicationStatus status;
+        private final boolean success;
+        private final String message;
+        
+        public DecisionResult(String applicantNric, ApplicationStatus status, boolean success, String message) {
+            this.applicantNric = applicantNric;
+            this.status = status;
+            this.success = success;
+            this.message = message;
+        }
+        
+        public String getApplicantNric() {
+            return applicantNric;
+        }
+        
+        public ApplicationStatus getStatus() {
+            return status;
+        }
+        
+        public boolean isSuccess() {
+            return success;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package com.SC2002.bto.service;
+
+import com.SC2002.bto.entities.BallotPriority;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service interface for balloting pending applications.
+ * Follows Interface Segregation Principle by providing a focused contract.
+ */
+public interface IBallotService {
+    
+    /**
+     * Runs a ballot over the pending applications of the given projects.
+     * <p>
+     * The applications of each project and flat type are ranked by the priority rules,
+     * then by a random draw derived from the seed, and the remaining units of the flat
+     * type go to the best-ranked applicants. Winners are marked SUCCESSFUL and the rest
+     * UNSUCCESSFUL and put on the waitlist in the order drawn. All the decisions are saved
+     * together with the draw order, so running the same ballot again on the same
+     * applications gives the same result.
+     * 
+     * @param projectIds The IDs of the projects to ballot
+     * @param seed The seed of the random draw
+     * @param priorities The priority rules, most important first
+     * @return The outcome of the ballot
+     */
+    BallotResult runBallot(Collection<Integer> projectIds, long seed, List<BallotPriority> priorities);
+    
+    /**
+     * A simple class to represent the outcome of the ballot for one project and flat type.
+     */
+    class GroupResult {
+        private final int projectId;
+        private final String flatType;
+        private final int applicants;
+        private final int unitsOffered;
+        private final int successful;
+        private final String message;
+        
+        public GroupResult(int projectId, String flatType, int applicants, int unitsOffered, int successful, String message) {
+            this.projectId = projectId;
+            this.flatType = flatType;
+            this.applicants = applicants;
+            this.unitsOffered = unitsOffered;
+            this.successful = successful;
+            this.message = message;
+        }
+        
+        public int getProjectId() {
+            return projectId;
+        }
+        
+        public String getFlatType() {
+            return flatType;
+        }
+        
+        public int getApplicants() {
+            return applicants;
+        }
+        
+        public int getUnitsOffered() {
+            return unitsOffered;
+        }
+        
+        public int getSuccessful() {
+            return successful;
+        }
+        
+        public String getMessage() {
+            return message;
+        }
+    }
+    
+    /**
+     * A simple class to represent the outcome of a whole ballot.
+     */
+    class BallotResult {
+        private final long ballotId;
+        private final long seed;
+        private final List<GroupResult> groups;
+        private final boolean committed;
+        
+        public BallotResult(long ballotId, long seed, List<GroupResult> groups, boolean committed) {
+            this.ballotId = ballotId;
+            this.seed = seed;
+            this.groups = groups;
+            this.committed = committed;
+        }
+        
+        public long getBallotId() {
+            return ballotId;
+        }
+        
+        public long getSeed() {
+            return seed;
+        }
+        
+        public List<GroupResult> getGroups() {
+            return groups;
+        }
+        
+        public boolean isCommitted() {
+            return committed;
+        }
+    }
+}
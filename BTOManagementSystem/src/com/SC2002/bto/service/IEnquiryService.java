@@ -1,8 +1,13 @@
 package com.SC2002.bto.service;
 
 import com.SC2002.bto.entities.Enquiry;
+import com.SC2002.bto.entities.EnquiryLease;
+import com.SC2002.bto.entities.EnquiryView;
+import com.SC2002.bto.repository.IRepository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
 
 /**
  * Service interface for enquiry-related operations.
@@ -17,6 +22,25 @@ public interface IEnquiryService {
      */
     List<Enquiry> getAllEnquiries();
     
+    /**
+     * Gets all enquiries as immutable views.
+     * The returned list is shared and must not be modified.
+     * 
+     * @return An unmodifiable list of all enquiries
+     */
+    List<EnquiryView> getEnquiryViews();
+    
+    /**
+     * Gets one page of the enquiries that match a filter, read from storage a page at a time.
+     * 
+     * @param filter The filter to apply
+     * @param pageToken The token from the previous page, or null or empty for the first page
+     * @param pageSize The maximum number of enquiries on the page
+     * @return The page
+     * @throws IllegalArgumentException if the token is invalid or the page size is not positive
+     */
+    IRepository.Page<Enquiry> getEnquiryPage(Predicate<? super Enquiry> filter, String pageToken, int pageSize);
+    
     /**
      * Gets an enquiry by its ID.
      * 
@@ -45,7 +69,7 @@ public interface IEnquiryService {
      * Gets enquiries for projects that a specific HDB officer is assigned to.
      * 
      * @param officerNric The NRIC of the officer
-     * @return A list of enquiries for projects the officer is assigned to
+     * @return The enquiries for the officer's projects, by project ID and then in file order
      */
     List<Enquiry> getEnquiriesByOfficer(String officerNric);
     
@@ -53,7 +77,7 @@ public interface IEnquiryService {
      * Gets enquiries for projects managed by a specific HDB manager.
      * 
      * @param managerNric The NRIC of the manager
-     * @return A list of enquiries for projects managed by the specified manager
+     * @return The enquiries for the manager's projects, by project ID and then in file order
      */
     List<Enquiry> getEnquiriesByManager(String managerNric);
     
@@ -92,7 +116,9 @@ public interface IEnquiryService {
     boolean updateEnquiryText(int enquiryId, String userNric, String newText);
     
     /**
-     * Responds to an enquiry.
+     * Responds to an unanswered enquiry. Only an officer assigned to the enquiry's project,
+     * or its manager, may respond. The officer's claim on the enquiry is taken or renewed
+     * first, so an enquiry claimed by another officer, or already answered, is left unchanged.
      * 
      * @param enquiryId The ID of the enquiry
      * @param officerNric The NRIC of the officer responding to the enquiry
@@ -101,6 +127,51 @@ public interface IEnquiryService {
      */
     boolean respondToEnquiry(int enquiryId, String officerNric, String response);
     
+    /**
+     * Gets the unanswered enquiries of a project, oldest first.
+     * 
+     * @param projectId The ID of the project
+     * @return The unanswered enquiries as immutable views
+     */
+    List<EnquiryView> getUnansweredEnquiries(int projectId);
+    
+    /**
+     * Claims the oldest unanswered enquiry of some projects that no other officer has
+     * claimed, so the officer can answer it without others answering it too.
+     * 
+     * @param officerNric The NRIC of the officer
+     * @param projectIds The projects the officer handles
+     * @return The claim, or empty if there is no unclaimed enquiry
+     */
+    Optional<EnquiryLease> claimNextEnquiry(String officerNric, Collection<Integer> projectIds);
+    
+    /**
+     * Claims a specific unanswered enquiry, or renews the officer's claim on it.
+     * 
+     * @param enquiryId The ID of the enquiry
+     * @param officerNric The NRIC of the officer
+     * @return The claim, or empty if the enquiry is answered, not found, or claimed by
+     *         another officer
+     */
+    Optional<EnquiryLease> claimEnquiry(int enquiryId, String officerNric);
+    
+    /**
+     * Releases an officer's claim on an enquiry so that other officers can answer it.
+     * 
+     * @param enquiryId The ID of the enquiry
+     * @param officerNric The NRIC of the officer
+     * @return true if the officer held the claim, false otherwise
+     */
+    boolean releaseEnquiry(int enquiryId, String officerNric);
+    
+    /**
+     * Gets the current claim on an enquiry.
+     * 
+     * @param enquiryId The ID of the enquiry
+     * @return The claim, or empty if the enquiry is not claimed
+     */
+    Optional<EnquiryLease> getEnquiryClaim(int enquiryId);
+    
     /**
      * Deletes an enquiry.
      * 
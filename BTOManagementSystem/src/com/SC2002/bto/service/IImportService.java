@@ -0,0 +1,109 @@
+package com.SC2002.bto.service;
+
+/**
+ * Service interface for bulk importing user lists.
+ * Follows Interface Segregation Principle by providing a focused contract.
+ */
+public interface IImportService {
+
+    /**
+     * Imports applicants from a CSV file into the applicant list.
+     * The source uses the same column layout as ApplicantList.csv; application
+     * columns, if present, are ignored and every imported applicant starts as NOT_APPLIED.
+     *
+     * @param sourcePath The path of the CSV file to import
+     * @return A report describing the outcome of the import
+     */
+    ImportReport importApplicants(String sourcePath);
+
+    /**
+     * Imports HDB officers from a CSV file into the officer list.
+     *
+     * @param sourcePath The path of the CSV file to import
+     * @return A report describing the outcome of the import
+     */
+    ImportReport importOfficers(String sourcePath);
+
+    /**
+     * Imports HDB managers from a CSV file into the manager list.
+     *
+     * @param sourcePath The path of the CSV file to import
+     * @return A report describing the outcome of the import
+     */
+    ImportReport importManagers(String sourcePath);
+
+    /**
+     * A simple class to represent the outcome of a bulk import.
+     */
+    class ImportReport {
+        private final String sourcePath;
+        private final boolean completed;
+        private final long resumedFromLine;
+        private final long rowsRead;
+        private final long imported;
+        private final long duplicates;
+        private final long invalid;
+        private final String errorReportPath;
+
+        public ImportReport(String sourcePath, boolean completed, long resumedFromLine, long rowsRead,
+                            long imported, long duplicates, long invalid, String errorReportPath) {
+            this.sourcePath = sourcePath;
+            this.completed = completed;
+            this.resumedFromLine = resumedFromLine;
+            this.rowsRead = rowsRead;
+            this.imported = imported;
+            this.duplicates = duplicates;
+            this.invalid = invalid;
+            this.errorReportPath = errorReportPath;
+        }
+
+        public String getSourcePath() {
+            return sourcePath;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        public long getResumedFromLine() {
+            return resumedFromLine;
+        }
+
+        public long getRowsRead() {
+            return rowsRead;
+        }
+
+        public long getImported() {
+            return imported;
+        }
+
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        public long getInvalid() {
+            return invalid;
+        }
+
+        public String getErrorReportPath() {
+            return errorReportPath;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("Import of ").append(sourcePath).append(completed ? " completed" : " stopped early").append("\n");
+            if (resumedFromLine > 0) {
+                sb.append("  Resumed after line: ").append(resumedFromLine).append("\n");
+            }
+            sb.append("  Rows read : ").append(rowsRead).append("\n");
+            sb.append("  Imported  : ").append(imported).append("\n");
+            sb.append("  Duplicates: ").append(duplicates).append("\n");
+            sb.append("  Invalid   : ").append(invalid).append("\n");
+            if (duplicates + invalid > 0) {
+                sb.append("  Error report: ").append(errorReportPath).append("\n");
+            }
+            return sb.toString();
+        }
+    }
+}
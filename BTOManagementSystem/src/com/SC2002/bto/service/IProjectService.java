@@ -1,6 +1,8 @@
 package com.SC2002.bto.service;
 
 import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.ProjectView;
+import com.SC2002.bto.repository.ProjectQuery;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -33,6 +35,22 @@ public interface IProjectService {
      */
     Optional<Project> getProjectById(int projectId);
     
+    /**
+     * Gets all projects as immutable views, regardless of visibility.
+     * The returned list is shared and must not be modified.
+     * 
+     * @return An unmodifiable list of all projects
+     */
+    List<ProjectView> getProjectViews();
+    
+    /**
+     * Gets the view of a project by its ID.
+     * 
+     * @param projectId The ID of the project
+     * @return An Optional containing the view if found, empty otherwise
+     */
+    Optional<ProjectView> getProjectView(int projectId);
+    
     /**
      * Gets projects by neighborhood.
      * 
@@ -57,6 +75,33 @@ public interface IProjectService {
      */
     List<Project> getProjectsByManager(String managerNric);
     
+    /**
+     * Finds the projects that match a query, in the query's order and up to its limit.
+     * 
+     * @param query The criteria, order and limit
+     * @return A list of the matching projects
+     */
+    List<Project> findProjects(ProjectQuery query);
+    
+    /**
+     * Finds the views of the projects that match a query. The views are shared and
+     * must not be modified.
+     * 
+     * @param query The criteria, order and limit
+     * @return A list of the views of the matching projects
+     */
+    List<ProjectView> findProjectViews(ProjectQuery query);
+    
+    /**
+     * Gets the cheapest visible projects that are open for application and still have
+     * units of a flat type left.
+     * 
+     * @param flatType The flat type (e.g., "2-Room", "3-Room"), or null for either
+     * @param limit The maximum number of projects
+     * @return The projects, cheapest first by the price of the flat type
+     */
+    List<Project> getCheapestAvailableProjects(String flatType, int limit);
+    
     /**
      * Gets projects that a specific HDB officer is assigned to.
      * 
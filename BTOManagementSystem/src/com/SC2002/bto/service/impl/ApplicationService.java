@@ -1,13 +1,35 @@
 package com.SC2002.bto.service.impl;
 
 import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.ApplicationLease;
 import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.ApplicationView;
+import com.SC2002.bto.entities.ProjectView;
+import com.SC2002.bto.entities.WaitlistEntry;
 import com.SC2002.bto.repository.IApplicationRepository;
 import com.SC2002.bto.repository.IProjectRepository;
+import com.SC2002.bto.repository.IRepository;
 import com.SC2002.bto.service.IApplicationService;
+import com.SC2002.bto.utils.ApplicationCatalog;
+import com.SC2002.bto.utils.ApplicationQueue;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.EligibilityMatrix;
 import com.SC2002.bto.utils.InputValidator;
+import com.SC2002.bto.utils.ManagerAssignments;
+import com.SC2002.bto.utils.OfficerAssignments;
+import com.SC2002.bto.utils.UnitOfWork;
+import com.SC2002.bto.utils.Waitlists;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
 
 /**
  * Implementation of the application service.
@@ -70,10 +92,211 @@ public class ApplicationService implements IApplicationService {
         return applicationRepository.updateStatus(applicantNric, status);
     }
     
+    @Override
+    public List<DecisionResult> processApplications(List<Decision> decisions) {
+        return processApplications(null, decisions);
+    }
+    
+    @Override
+    public List<DecisionResult> processApplications(String staffNric, List<Decision> decisions) {
+        List<DecisionResult> results = new ArrayList<>();
+        if (decisions == null || decisions.isEmpty()) {
+            return results;
+        }
+        
+        // Load current statuses once for the whole batch; the same rows are then updated
+        List<Applicant> applicants = applicationRepository.findAll();
+        Map<String, ApplicationStatus> current = new HashMap<>();
+        for (Applicant applicant : applicants) {
+            current.put(applicant.getNric().toUpperCase(), applicant.getApplicationStatus());
+        }
+        
+        // Validate every decision; null means the decision is accepted
+        Map<String, ApplicationStatus> accepted = new LinkedHashMap<>();
+        List<String> errors = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (Decision decision : decisions) {
+            String key = decision.getApplicantNric() == null ? "" : decision.getApplicantNric().toUpperCase();
+            String error;
+            if (!seen.add(key)) {
+                error = "Duplicate decision in batch";
+            } else if (!current.containsKey(key)) {
+                error = "Applicant not found";
+            } else if (isClaimedByOther(key, staffNric)) {
+                error = "Claimed by another staff member";
+            } else {
+                error = validateTransition(current.get(key), decision.getStatus());
+            }
+            if (error == null) {
+                accepted.put(key, decision.getStatus());
+            }
+            errors.add(error);
+        }
+        
+        Map<String, Boolean> persisted = applicationRepository.updateStatuses(applicants, accepted);
+        
+        for (int i = 0; i < decisions.size(); i++) {
+            Decision decision = decisions.get(i);
+            String error = errors.get(i);
+            if (error == null && !Boolean.TRUE.equals(persisted.get(decision.getApplicantNric().toUpperCase()))) {
+                error = "Failed to save";
+            }
+            results.add(new DecisionResult(decision.getApplicantNric(), decision.getStatus(),
+                error == null, error == null ? "OK" : error));
+        }
+        return results;
+    }
+    
+    private static boolean isClaimedByOther(String applicantNric, String staffNric) {
+        // Without a caller every claim belongs to someone else
+        return ApplicationQueue.getLease(applicantNric)
+            .filter(lease -> staffNric == null || !lease.getStaffNric().equalsIgnoreCase(staffNric))
+            .isPresent();
+    }
+    
+    @Override
+    public List<ApplicationLease> claimApplications(String staffNric, ApplicationStatus status, Collection<Integer> projectIds, int limit) {
+        if (!ApplicationQueue.isQueued(status)) {
+            return List.of();
+        }
+        return ApplicationQueue.claim(staffNric, status, projectIds, limit);
+    }
+    
+    @Override
+    public boolean releaseApplication(String applicantNric, String staffNric) {
+        return ApplicationQueue.release(applicantNric, staffNric);
+    }
+    
+    @Override
+    public Optional<ApplicationLease> getApplicationClaim(String applicantNric) {
+        return ApplicationQueue.getLease(applicantNric);
+    }
+    
+    @Override
+    public List<ApplicationView> getQueuedApplications(ApplicationStatus status, int projectId) {
+        if (!ApplicationQueue.isQueued(status)) {
+            return List.of();
+        }
+        List<ApplicationView> views = new ArrayList<>();
+        for (String nric : ApplicationQueue.getQueued(status, projectId)) {
+            ApplicationCatalog.findByNric(nric).ifPresent(views::add);
+        }
+        return views;
+    }
+    
+    /**
+     * Checks whether an application may move from its current status to the target status.
+     * 
+     * @param from The current application status
+     * @param to The target application status
+     * @return null if the transition is allowed, otherwise the reason it is not
+     */
+    private String validateTransition(ApplicationStatus from, ApplicationStatus to) {
+        if (to == null) {
+            return "No status given";
+        }
+        switch (to) {
+            case SUCCESSFUL:
+            case UNSUCCESSFUL:
+                return from == ApplicationStatus.PENDING ? null : "Application is not pending";
+            case BOOKED:
+                return from == ApplicationStatus.PENDING || from == ApplicationStatus.SUCCESSFUL
+                    ? null : "Application is not pending or successful";
+            case PENDING_WITHDRAWAL:
+                return from == ApplicationStatus.PENDING || from == ApplicationStatus.SUCCESSFUL
+                    || from == ApplicationStatus.BOOKED ? null : "No active application to withdraw";
+            case NOT_APPLIED:
+            case PENDING:
+                // Approving or rejecting a withdrawal request
+                return from == ApplicationStatus.PENDING_WITHDRAWAL ? null : "No pending withdrawal request";
+            default:
+                return "Unsupported status";
+        }
+    }
+    
     @Override
     public boolean bookFlat(String applicantNric) {
-        // Book the flat
-        return applicationRepository.book(applicantNric);
+        Applicant applicant = applicationRepository.findAll().stream()
+            .filter(a -> a.getNric().equalsIgnoreCase(applicantNric))
+            .findFirst().orElse(null);
+        if (applicant == null || applicant.getAppliedProjectId() < 0) {
+            return false;
+        }
+        
+        // Take the unit and book the application together, or not at all
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            if (!projectRepository.bookUnit(applicant.getAppliedProjectId(), applicant.getAppliedFlatType())) {
+                return false;
+            }
+            if (!applicationRepository.book(applicantNric)) {
+                return false;
+            }
+            return uow.commit();
+        }
+    }
+    
+    @Override
+    public boolean joinWaitlist(String applicantNric, int projectId, String flatType) {
+        if (!projectRepository.findViewById(projectId).isPresent()) {
+            return false;
+        }
+        return Waitlists.enqueue(applicantNric, projectId, flatType);
+    }
+    
+    @Override
+    public synchronized int offerReleasedUnits(int projectId, String flatType) {
+        Optional<ProjectView> project = projectRepository.findViewById(projectId);
+        if (!project.isPresent() || Waitlists.size(projectId, flatType) == 0) {
+            return 0;
+        }
+        int units = Constants.FLAT_TYPE_2_ROOM.equalsIgnoreCase(flatType) ? project.get().getType1Units()
+            : Constants.FLAT_TYPE_3_ROOM.equalsIgnoreCase(flatType) ? project.get().getType2Units() : 0;
+        
+        // Units held by successful applications that have not been booked yet are not free
+        Map<String, ApplicationView> byNric = new HashMap<>();
+        int held = 0;
+        for (ApplicationView a : applicationRepository.findAllViews()) {
+            byNric.put(a.getNric().toUpperCase(), a);
+            if (a.getStatus() == ApplicationStatus.SUCCESSFUL && a.getAppliedProjectId() == projectId
+                && flatType.equalsIgnoreCase(a.getFlatType())) {
+                held++;
+            }
+        }
+        int free = units - held;
+        if (free <= 0) {
+            return 0;
+        }
+        
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            List<WaitlistEntry> offers = new ArrayList<>();
+            Optional<WaitlistEntry> next;
+            while (offers.size() < free && (next = Waitlists.peek(projectId, flatType)).isPresent()) {
+                WaitlistEntry entry = next.get();
+                ApplicationView a = byNric.get(entry.getApplicantNric());
+                boolean eligible = a != null && (a.getStatus() == ApplicationStatus.NOT_APPLIED
+                    || a.getStatus() == ApplicationStatus.UNSUCCESSFUL);
+                // Otherwise the applicant has another application or no longer exists
+                boolean taken = eligible ? Waitlists.markOffered(entry.getApplicantNric())
+                    : Waitlists.remove(entry.getApplicantNric());
+                if (!taken) {
+                    // The waitlist could not be saved; the same entry would come back forever
+                    System.out.println("Error: Could not update the waitlist. No units were offered.");
+                    return 0;
+                }
+                if (eligible) {
+                    offers.add(entry);
+                }
+            }
+            if (applicationRepository.offerUnits(offers).containsValue(false) || !uow.commit()) {
+                return 0;
+            }
+            return offers.size();
+        }
+    }
+    
+    @Override
+    public List<WaitlistEntry> getWaitlist(int projectId, String flatType) {
+        return Waitlists.getWaitlist(projectId, flatType);
     }
     
     @Override
@@ -81,6 +304,16 @@ public class ApplicationService implements IApplicationService {
         return applicationRepository.findByStatus(status);
     }
     
+    @Override
+    public List<ApplicationView> getApplicationViews() {
+        return applicationRepository.findAllViews();
+    }
+    
+    @Override
+    public IRepository.Page<Applicant> getApplicationPage(Predicate<? super Applicant> filter, String pageToken, int pageSize) {
+        return applicationRepository.findPage(filter, pageToken, pageSize);
+    }
+    
     @Override
     public List<Applicant> getApplicationsByProject(int projectId) {
         return applicationRepository.findByProject(projectId);
@@ -92,19 +325,14 @@ public class ApplicationService implements IApplicationService {
     }
     
     @Override
-    public List<Applicant> getApplicationsByManager(String managerNric) {
-        // This would require a more complex implementation that checks which projects
-        // the manager is managing and then finds applications for those projects
-        // For now, we'll return an empty list
-        return List.of();
+    public List<ApplicationView> getApplicationsByManager(String managerNric) {
+        // Join the manager's projects against the applications grouped by project
+        return ApplicationCatalog.getByProjects(ManagerAssignments.getProjectIds(managerNric));
     }
     
     @Override
-    public List<Applicant> getApplicationsByOfficer(String officerNric) {
-        // This would require a more complex implementation that checks which projects
-        // the officer is assigned to and then finds applications for those projects
-        // For now, we'll return an empty list
-        return List.of();
+    public List<ApplicationView> getApplicationsByOfficer(String officerNric) {
+        return ApplicationCatalog.getByProjects(OfficerAssignments.getProjectIds(officerNric));
     }
     
     @Override
@@ -116,36 +344,8 @@ public class ApplicationService implements IApplicationService {
             return false;
         }
         
-        // Check if the applicant is eligible for the flat type
-        if (!validateFlatTypeEligibility(flatType, applicant.getMaritalStatus())) {
-            return false;
-        }
-        
-        // Check if the applicant meets the age requirement
-        if ("Single".equalsIgnoreCase(applicant.getMaritalStatus())) {
-            if (!InputValidator.validateSingleApplicantAge(applicant.getAge(), applicant.getMaritalStatus())) {
-                return false;
-            }
-        } else if ("Married".equalsIgnoreCase(applicant.getMaritalStatus())) {
-            if (!InputValidator.validateMarriedApplicantAge(applicant.getAge(), applicant.getMaritalStatus())) {
-                return false;
-            }
-        } else {
-            return false; // Invalid marital status
-        }
-        
-        // Check if the project exists and has available units
-        return projectRepository.findById(projectId)
-            .map(project -> {
-                if ("2-Room".equalsIgnoreCase(flatType)) {
-                    return project.getType1Units() > 0;
-                } else if ("3-Room".equalsIgnoreCase(flatType)) {
-                    return project.getType2Units() > 0;
-                } else {
-                    return false; // Invalid flat type
-                }
-            })
-            .orElse(false);
+        // Check the flat type, age requirement and remaining units against the precomputed matrix
+        return EligibilityMatrix.isEligible(applicant.getMaritalStatus(), applicant.getAge(), projectId, flatType);
     }
     
     @Override
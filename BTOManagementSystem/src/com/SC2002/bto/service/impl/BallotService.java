@@ -0,0 +1,275 @@
+package com.SC2002.bto.service.impl;
+
+import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.ApplicationView;
+import com.SC2002.bto.entities.BallotPriority;
+import com.SC2002.bto.entities.ProjectView;
+import com.SC2002.bto.entities.WaitlistEntry;
+import com.SC2002.bto.repository.IApplicationRepository;
+import com.SC2002.bto.repository.IProjectRepository;
+import com.SC2002.bto.service.IBallotService;
+import com.SC2002.bto.utils.ApplicationQueue;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.UnitOfWork;
+import com.SC2002.bto.utils.Waitlists;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the ballot service.
+ * <p>
+ * Each project and flat type is drawn independently, from its own random sequence
+ * derived from the seed, the project ID and the flat type, over its applications in
+ * NRIC order. The outcome therefore depends only on the seed, the rules and the
+ * applications, not on file order or on how the draws are spread over threads, which
+ * is what lets the draws run in parallel.
+ * <p>
+ * Pending applications that a staff member has claimed are being decided by that staff
+ * member, so they are left out of the draw and stay pending.
+ */
+public class BallotService implements IBallotService {
+
+    private static final String LOG_HEADER = "BallotID,Seed,Priorities,ProjectID,FlatType,Rank,NRIC,Outcome";
+
+    private final IApplicationRepository applicationRepository;
+    private final IProjectRepository projectRepository;
+
+    /**
+     * Constructs a BallotService with the specified repositories.
+     *
+     * @param applicationRepository The application repository
+     * @param projectRepository The project repository
+     */
+    public BallotService(IApplicationRepository applicationRepository, IProjectRepository projectRepository) {
+        this.applicationRepository = applicationRepository;
+        this.projectRepository = projectRepository;
+    }
+
+    @Override
+    public synchronized BallotResult runBallot(Collection<Integer> projectIds, long seed, List<BallotPriority> priorities) {
+        long ballotId = System.currentTimeMillis();
+        while (logFile(ballotId).exists()) {
+            ballotId++;
+        }
+        Set<Integer> selected = new HashSet<>(projectIds);
+        Comparator<ApplicationView> ranking = ranking(priorities);
+
+        // Group the applications of the selected projects by project and flat type
+        Map<String, Group> groups = new TreeMap<>();
+        for (ApplicationView a : applicationRepository.findAllViews()) {
+            if (!selected.contains(a.getAppliedProjectId())) {
+                continue;
+            }
+            if (a.getStatus() != ApplicationStatus.PENDING && a.getStatus() != ApplicationStatus.SUCCESSFUL) {
+                continue;
+            }
+            if (a.getStatus() == ApplicationStatus.PENDING && ApplicationQueue.getLease(a.getNric()).isPresent()) {
+                continue;
+            }
+            String flatType = a.getFlatType() == null ? "" : a.getFlatType().trim();
+            String key = String.format("%010d|%s", a.getAppliedProjectId(), flatType.toLowerCase());
+            groups.computeIfAbsent(key, k -> new Group(a.getAppliedProjectId(), flatType)).add(a);
+        }
+
+        // Draw every group; the groups are independent, so they can run side by side
+        List<Draw> draws = groups.values().parallelStream()
+            .filter(g -> !g.pending.isEmpty())
+            .map(g -> draw(g, seed, ranking))
+            .collect(Collectors.toList());
+
+        Map<String, ApplicationStatus> decisions = new LinkedHashMap<>();
+        List<GroupResult> results = new ArrayList<>();
+        for (Draw d : draws) {
+            for (int i = 0; i < d.ranked.size(); i++) {
+                decisions.put(d.ranked.get(i).getNric().toUpperCase(),
+                    i < d.winners ? ApplicationStatus.SUCCESSFUL : ApplicationStatus.UNSUCCESSFUL);
+            }
+            results.add(d.result);
+        }
+
+        if (decisions.isEmpty()) {
+            return new BallotResult(ballotId, seed, results, false);
+        }
+
+        // Unsuccessful applicants join the waitlist in the order they were drawn
+        List<WaitlistEntry> waitlisted = new ArrayList<>();
+        for (Draw d : draws) {
+            for (int i = d.winners; i < d.ranked.size(); i++) {
+                waitlisted.add(new WaitlistEntry(0, d.ranked.get(i).getNric(), d.result.getProjectId(), d.result.getFlatType()));
+            }
+        }
+
+        // The decisions, the waitlists and the draw order are saved together, or not at all
+        boolean committed;
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            Map<String, Boolean> persisted = applicationRepository.updateStatuses(decisions);
+            committed = !persisted.containsValue(false)
+                && Waitlists.enqueueAll(waitlisted)
+                && writeLog(ballotId, seed, priorities, draws)
+                && uow.commit();
+        }
+        return new BallotResult(ballotId, seed, results, committed);
+    }
+
+    /**
+     * Ranks and allocates the pending applications of one project and flat type.
+     */
+    private Draw draw(Group group, long seed, Comparator<ApplicationView> ranking) {
+        Optional<ProjectView> project = projectRepository.findViewById(group.projectId);
+        int units = project.map(p -> unitsOf(p, group.flatType)).orElse(-1);
+        if (units < 0) {
+            String reason = project.isPresent() ? "Unknown flat type" : "Project not found";
+            return new Draw(new ArrayList<>(), 0,
+                new GroupResult(group.projectId, group.flatType, group.pending.size(), 0, 0, reason + ", left pending"));
+        }
+
+        // Applicants already successful but not yet booked keep their units
+        int offered = Math.max(0, units - group.held);
+
+        // Draw in NRIC order so the outcome does not depend on file order
+        List<ApplicationView> pending = new ArrayList<>(group.pending);
+        pending.sort(Comparator.comparing(a -> a.getNric().toUpperCase()));
+        SplittableRandom random = new SplittableRandom(mix(seed, group.projectId, group.flatType));
+        List<Ticket> tickets = new ArrayList<>(pending.size());
+        for (ApplicationView a : pending) {
+            tickets.add(new Ticket(a, random.nextLong()));
+        }
+        tickets.sort(Comparator.comparing((Ticket t) -> t.application, ranking)
+            .thenComparingLong(t -> t.draw));
+
+        List<ApplicationView> ranked = new ArrayList<>(tickets.size());
+        for (Ticket t : tickets) {
+            ranked.add(t.application);
+        }
+        int winners = Math.min(offered, ranked.size());
+        return new Draw(ranked, winners,
+            new GroupResult(group.projectId, group.flatType, ranked.size(), offered, winners, "OK"));
+    }
+
+    /**
+     * Writes the draw order and outcome of every application to the ballot's own log file.
+     * Only the new file is staged in the unit of work, so the cost of saving a ballot does
+     * not grow with the number of earlier ballots.
+     */
+    private boolean writeLog(long ballotId, long seed, List<BallotPriority> priorities, List<Draw> draws) {
+        String rules = priorities.stream().map(Enum::name).collect(Collectors.joining("|"));
+        File file = logFile(ballotId);
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            System.out.println("Error saving ballot log: Could not create " + file.getParent());
+            return false;
+        }
+        try (BufferedWriter bw = FileManager.openWriter(file.getPath(), false)) {
+            bw.write(LOG_HEADER);
+            bw.newLine();
+            for (Draw d : draws) {
+                for (int i = 0; i < d.ranked.size(); i++) {
+                    bw.write(ballotId + "," + seed + "," + rules + "," + d.result.getProjectId() + ","
+                        + d.result.getFlatType() + "," + (i + 1) + "," + d.ranked.get(i).getNric() + ","
+                        + (i < d.winners ? ApplicationStatus.SUCCESSFUL : ApplicationStatus.UNSUCCESSFUL).name());
+                    bw.newLine();
+                }
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error saving ballot log: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static File logFile(long ballotId) {
+        return new File(Constants.BALLOT_LOG_DIR, "Ballot-" + ballotId + ".csv");
+    }
+
+    private static Comparator<ApplicationView> ranking(List<BallotPriority> priorities) {
+        Comparator<ApplicationView> ranking = (a, b) -> 0;
+        for (BallotPriority priority : priorities) {
+            ranking = ranking.thenComparing(priority.comparator());
+        }
+        return ranking;
+    }
+
+    private static int unitsOf(ProjectView project, String flatType) {
+        if (Constants.FLAT_TYPE_2_ROOM.equalsIgnoreCase(flatType)) {
+            return project.getType1Units();
+        } else if (Constants.FLAT_TYPE_3_ROOM.equalsIgnoreCase(flatType)) {
+            return project.getType2Units();
+        }
+        return -1;
+    }
+
+    /**
+     * Derives the seed of one project and flat type's draw from the ballot seed.
+     */
+    private static long mix(long seed, int projectId, String flatType) {
+        long h = seed;
+        h = h * 0x9E3779B97F4A7C15L + projectId;
+        h = h * 0x9E3779B97F4A7C15L + flatType.toLowerCase().hashCode();
+        return h;
+    }
+
+    /**
+     * The applications of one project and flat type that take part in the ballot.
+     */
+    private static final class Group {
+        private final int projectId;
+        private final String flatType;
+        private final List<ApplicationView> pending = new ArrayList<>();
+        private int held;
+
+        Group(int projectId, String flatType) {
+            this.projectId = projectId;
+            this.flatType = flatType;
+        }
+
+        void add(ApplicationView application) {
+            if (application.getStatus() == ApplicationStatus.PENDING) {
+                pending.add(application);
+            } else {
+                held++;
+            }
+        }
+    }
+
+    /**
+     * An application together with its random draw.
+     */
+    private static final class Ticket {
+        private final ApplicationView application;
+        private final long draw;
+
+        Ticket(ApplicationView application, long draw) {
+            this.application = application;
+            this.draw = draw;
+        }
+    }
+
+    /**
+     * The ranked applications of one group and how many of them were allocated a unit.
+     */
+    private static final class Draw {
+        private final List<ApplicationView> ranked;
+        private final int winners;
+        private final GroupResult result;
+
+        Draw(List<ApplicationView> ranked, int winners, GroupResult result) {
+            this.ranked = ranked;
+            this.winners = winners;
+            this.result = result;
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.SC2002.bto.service.impl;
 
 import com.SC2002.bto.entities.Enquiry;
+import com.SC2002.bto.entities.EnquiryLease;
+import com.SC2002.bto.entities.EnquiryView;
 import com.SC2002.bto.repository.IEnquiryRepository;
+import com.SC2002.bto.repository.IRepository;
 import com.SC2002.bto.service.IEnquiryService;
+import com.SC2002.bto.utils.EnquiryCatalog;
+import com.SC2002.bto.utils.EnquiryQueue;
+import com.SC2002.bto.utils.ManagerAssignments;
+import com.SC2002.bto.utils.OfficerAssignments;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the enquiry service.
@@ -29,6 +39,11 @@ public class EnquiryService implements IEnquiryService {
         return enquiryRepository.findAll();
     }
     
+    @Override
+    public List<EnquiryView> getEnquiryViews() {
+        return enquiryRepository.findAllViews();
+    }
+    
     @Override
     public Optional<Enquiry> getEnquiryById(int enquiryId) {
         return enquiryRepository.findById(enquiryId);
@@ -46,18 +61,17 @@ public class EnquiryService implements IEnquiryService {
     
     @Override
     public List<Enquiry> getEnquiriesByOfficer(String officerNric) {
-        // This would require a more complex implementation that checks which projects
-        // the officer is assigned to and then finds enquiries for those projects
-        // For now, we'll return an empty list
-        return List.of();
+        // Join the officer's projects against the enquiries grouped by project
+        return toEnquiries(EnquiryCatalog.getByProjects(OfficerAssignments.getProjectIds(officerNric)));
     }
     
     @Override
     public List<Enquiry> getEnquiriesByManager(String managerNric) {
-        // This would require a more complex implementation that checks which projects
-        // the manager is managing and then finds enquiries for those projects
-        // For now, we'll return an empty list
-        return List.of();
+        return toEnquiries(EnquiryCatalog.getByProjects(ManagerAssignments.getProjectIds(managerNric)));
+    }
+    
+    private static List<Enquiry> toEnquiries(List<EnquiryView> views) {
+        return views.stream().map(EnquiryView::toEnquiry).collect(Collectors.toList());
     }
     
     @Override
@@ -65,13 +79,18 @@ public class EnquiryService implements IEnquiryService {
         return enquiryRepository.findWithResponses();
     }
     
+    @Override
+    public IRepository.Page<Enquiry> getEnquiryPage(Predicate<? super Enquiry> filter, String pageToken, int pageSize) {
+        return enquiryRepository.findPage(filter, pageToken, pageSize);
+    }
+    
     @Override
     public List<Enquiry> getEnquiriesWithoutResponses() {
         return enquiryRepository.findWithoutResponses();
     }
     
     @Override
-    public int submitEnquiry(String userNric, int projectId, String enquiryText) {
+    public synchronized int submitEnquiry(String userNric, int projectId, String enquiryText) {
         // Generate a new enquiry ID
         int newId = generateNewEnquiryId();
         
@@ -102,11 +121,47 @@ public class EnquiryService implements IEnquiryService {
     
     @Override
     public boolean respondToEnquiry(int enquiryId, String officerNric, String response) {
-        // In a more complex implementation, we would check if the officer is assigned to the project
-        // For now, we'll just update the response
+        // Only staff of the enquiry's project may answer it
+        Optional<EnquiryView> enquiry = EnquiryCatalog.findById(enquiryId);
+        if (enquiry.isEmpty() || !(OfficerAssignments.isAssigned(officerNric, enquiry.get().getProjectId())
+                || ManagerAssignments.isManaging(officerNric, enquiry.get().getProjectId()))) {
+            return false;
+        }
+        // Claiming first keeps two officers from answering the same enquiry
+        if (EnquiryQueue.claim(enquiryId, officerNric).isEmpty()) {
+            return false;
+        }
         return enquiryRepository.updateResponse(enquiryId, response);
     }
     
+    @Override
+    public List<EnquiryView> getUnansweredEnquiries(int projectId) {
+        return EnquiryQueue.getUnanswered(projectId).stream()
+            .map(EnquiryCatalog::findById)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList());
+    }
+    
+    @Override
+    public Optional<EnquiryLease> claimNextEnquiry(String officerNric, Collection<Integer> projectIds) {
+        return EnquiryQueue.claimNext(officerNric, projectIds);
+    }
+    
+    @Override
+    public Optional<EnquiryLease> claimEnquiry(int enquiryId, String officerNric) {
+        return EnquiryQueue.claim(enquiryId, officerNric);
+    }
+    
+    @Override
+    public boolean releaseEnquiry(int enquiryId, String officerNric) {
+        return EnquiryQueue.release(enquiryId, officerNric);
+    }
+    
+    @Override
+    public Optional<EnquiryLease> getEnquiryClaim(int enquiryId) {
+        return EnquiryQueue.getLease(enquiryId);
+    }
+    
     @Override
     public boolean deleteEnquiry(int enquiryId, String userNric) {
         Optional<Enquiry> enquiryOpt = enquiryRepository.findById(enquiryId);
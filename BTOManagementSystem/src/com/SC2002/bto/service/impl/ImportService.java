@@ -0,0 +1,340 @@
+package com.SC2002.bto.service.impl;
+
+import com.SC2002.bto.service.IImportService;
+import com.SC2002.bto.service.IValidationService;
+import com.SC2002.bto.utils.ApplicationQueue;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.CredentialIndex;
+import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.UnitOfWork;
+import com.SC2002.bto.utils.WriteBehindBuffer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of the bulk import service.
+ * Streams the source file in fixed-size batches, validates each batch in parallel,
+ * removes duplicate NRICs and appends the accepted rows to the target list in one
+ * sequential write per batch. A checkpoint is written after every batch so that
+ * a failed import can be resumed from where it stopped. The checkpoint is written
+ * through {@link FileManager} like the rows themselves, so inside a unit of work it
+ * only reaches disk when the batch it describes is committed.
+ * Follows the Single Responsibility Principle by focusing only on importing user lists.
+ */
+public class ImportService implements IImportService {
+
+    private static final int DEFAULT_BATCH_SIZE = 5000;
+    private static final String CHECKPOINT_SUFFIX = ".import";
+    private static final String ERROR_REPORT_SUFFIX = ".errors.csv";
+
+    private final IValidationService validationService;
+    private final int batchSize;
+
+    /**
+     * Constructs an ImportService with the specified validation service.
+     *
+     * @param validationService The validation service used to check each row
+     */
+    public ImportService(IValidationService validationService) {
+        this(validationService, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs an ImportService with the specified validation service and batch size.
+     *
+     * @param validationService The validation service used to check each row
+     * @param batchSize The number of rows read, validated and written together
+     */
+    public ImportService(IValidationService validationService, int batchSize) {
+        this.validationService = validationService;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public ImportReport importApplicants(String sourcePath) {
+        return importUsers(sourcePath, Constants.APPLICANT_CSV,
+            "Name,NRIC,Age,MaritalStatus,Password,AppliedID,Status,FlatType", ",-1,NOT_APPLIED,");
+    }
+
+    @Override
+    public ImportReport importOfficers(String sourcePath) {
+        return importUsers(sourcePath, Constants.OFFICER_CSV, "Name,NRIC,Age,MaritalStatus,Password", "");
+    }
+
+    @Override
+    public ImportReport importManagers(String sourcePath) {
+        return importUsers(sourcePath, Constants.MANAGER_CSV, "Name,NRIC,Age,MaritalStatus,Password", "");
+    }
+
+    /**
+     * Runs the import pipeline for one user list.
+     *
+     * @param sourcePath The path of the CSV file to import
+     * @param targetPath The user list the rows are appended to
+     * @param header The header written if the target list does not exist yet
+     * @param suffix Extra columns appended to every imported row
+     * @return A report describing the outcome of the import
+     */
+    private ImportReport importUsers(String sourcePath, String targetPath, String header, String suffix) {
+        String checkpointPath = targetPath + CHECKPOINT_SUFFIX;
+        String errorReportPath = sourcePath + ERROR_REPORT_SUFFIX;
+
+        File source = new File(sourcePath);
+        if (!source.exists()) {
+            System.out.println("Error: Import file not found (" + sourcePath + ").");
+            return new ImportReport(sourcePath, false, 0, 0, 0, 0, 0, errorReportPath);
+        }
+
+        long resumeFrom = readCheckpoint(checkpointPath, source);
+        long rowsRead = 0;
+        long imported = 0;
+        long duplicates = 0;
+        long invalid = 0;
+        long lineNo = 0;
+
+        try {
+            ensureTargetReady(targetPath, header);
+            Set<String> seen = loadExistingNrics(targetPath);
+
+            try (BufferedReader br = new BufferedReader(new FileReader(source));
+                 BufferedWriter errors = new BufferedWriter(new FileWriter(errorReportPath, resumeFrom > 0))) {
+                if (resumeFrom == 0) {
+                    errors.write("Line,NRIC,Reason");
+                    errors.newLine();
+                }
+
+                List<String> lines = new ArrayList<>(batchSize);
+                List<Long> lineNumbers = new ArrayList<>(batchSize);
+                String line;
+                while (true) {
+                    line = br.readLine();
+                    if (line != null) {
+                        lineNo++;
+                        if (lineNo <= resumeFrom || line.trim().isEmpty() || isHeader(lineNo, line)) {
+                            continue;
+                        }
+                        lines.add(line);
+                        lineNumbers.add(lineNo);
+                        if (lines.size() < batchSize) {
+                            continue;
+                        }
+                    }
+                    if (lines.isEmpty()) {
+                        break;
+                    }
+
+                    // Validate the batch in parallel; results keep the input order
+                    List<String> reasons = lines.parallelStream()
+                        .map(this::validateRow)
+                        .collect(Collectors.toList());
+
+                    // Deduplicate sequentially so the first occurrence of an NRIC wins
+                    List<String> accepted = new ArrayList<>(lines.size());
+                    for (int i = 0; i < lines.size(); i++) {
+                        String[] tokens = lines.get(i).split(",");
+                        String nric = tokens.length > 1 ? tokens[1].trim().toUpperCase() : "";
+                        String reason = reasons.get(i);
+                        if (reason != null) {
+                            invalid++;
+                        } else if (!seen.add(nric)) {
+                            reason = "Duplicate NRIC";
+                            duplicates++;
+                        } else {
+                            accepted.add(formatRow(tokens, suffix));
+                            continue;
+                        }
+                        errors.write(lineNumbers.get(i) + "," + nric + "," + reason);
+                        errors.newLine();
+                    }
+
+                    appendRows(targetPath, accepted);
+                    errors.flush();
+                    imported += accepted.size();
+                    rowsRead += lines.size();
+                    writeCheckpoint(checkpointPath, source, lineNo);
+                    lines.clear();
+                    lineNumbers.clear();
+
+                    if (line == null) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error importing " + sourcePath + ": " + e.getMessage());
+            return new ImportReport(sourcePath, false, resumeFrom, rowsRead, imported, duplicates, invalid, errorReportPath);
+        }
+
+        try {
+            clearCheckpoint(checkpointPath);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not clear import checkpoint: " + e.getMessage());
+        }
+        return new ImportReport(sourcePath, true, resumeFrom, rowsRead, imported, duplicates, invalid, errorReportPath);
+    }
+
+    /**
+     * Validates a single source row.
+     *
+     * @param line The raw CSV line
+     * @return null if the row is valid, otherwise the reason it was rejected
+     */
+    private String validateRow(String line) {
+        String[] tokens = line.split(",");
+        if (tokens.length < 5) {
+            return "Expected at least 5 columns";
+        }
+        if (tokens[0].trim().isEmpty()) {
+            return "Missing name";
+        }
+        if (!validationService.validateNric(tokens[1].trim().toUpperCase())) {
+            return "Invalid NRIC";
+        }
+        int age;
+        try {
+            age = Integer.parseInt(tokens[2].trim());
+        } catch (NumberFormatException e) {
+            return "Invalid age";
+        }
+        if (age <= 0 || age > 150) {
+            return "Invalid age";
+        }
+        if (!validationService.validateMaritalStatus(tokens[3].trim())) {
+            return "Invalid marital status";
+        }
+        if (!validationService.validatePassword(tokens[4].trim())) {
+            return "Invalid password";
+        }
+        return null;
+    }
+
+    /**
+     * Formats an accepted row in the layout of the target list.
+     */
+    private String formatRow(String[] tokens, String suffix) {
+        return tokens[0].trim() + "," + tokens[1].trim().toUpperCase() + "," + tokens[2].trim() + ","
+            + tokens[3].trim() + "," + tokens[4].trim() + suffix;
+    }
+
+    /**
+     * Checks whether a line is the header row of the source file.
+     */
+    private boolean isHeader(long lineNo, String line) {
+        return lineNo == 1 && line.replace("\uFEFF", "").trim().toLowerCase().startsWith("name,");
+    }
+
+    /**
+     * Appends a batch of rows to the target list in a single sequential write.
+     * The write goes through {@link FileManager#openWriter}, so inside a unit of work it
+     * is staged and journaled, and in write-behind mode it is added to the pending content
+     * of the list instead of being overwritten when that content is flushed.
+     */
+    private void appendRows(String targetPath, List<String> rows) throws IOException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try (BufferedWriter bw = FileManager.openWriter(targetPath, true)) {
+            for (String row : rows) {
+                bw.write(row);
+                bw.newLine();
+            }
+        }
+        CredentialIndex.markStale(targetPath);
+        ApplicationQueue.markStale(targetPath);
+    }
+
+    /**
+     * Creates the target list with a header if it does not exist, and makes sure
+     * it ends with a line break so appended rows start on a new line.
+     */
+    private void ensureTargetReady(String targetPath, String header) throws IOException {
+        String last = FileManager.lastCharacter(targetPath);
+        if (last.isEmpty()) {
+            try (BufferedWriter bw = FileManager.openWriter(targetPath, false)) {
+                bw.write(header);
+                bw.newLine();
+            }
+        } else if (!last.equals("\n")) {
+            try (BufferedWriter bw = FileManager.openWriter(targetPath, true)) {
+                bw.newLine();
+            }
+        }
+    }
+
+    /**
+     * Loads the NRICs already present in the target list.
+     */
+    private Set<String> loadExistingNrics(String targetPath) throws IOException {
+        Set<String> nrics = new HashSet<>();
+        try (BufferedReader br = FileManager.openReader(targetPath)) {
+            br.readLine(); // Skip header
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] tokens = line.split(",");
+                if (tokens.length > 1) {
+                    nrics.add(tokens[1].trim().toUpperCase());
+                }
+            }
+        }
+        return nrics;
+    }
+
+    /**
+     * Reads the number of source lines already processed by a previous run.
+     * The checkpoint is only honoured if it was written for the same source file.
+     * A missing or cleared checkpoint means the import starts from the beginning.
+     *
+     * @return the last processed line number, or 0 to start from the beginning
+     */
+    private long readCheckpoint(String checkpointPath, File source) {
+        try {
+            if (FileManager.lastCharacter(checkpointPath).isEmpty()) {
+                return 0;
+            }
+        } catch (IOException e) {
+            System.out.println("Warning: Ignoring unreadable import checkpoint: " + e.getMessage());
+            return 0;
+        }
+        try (BufferedReader br = FileManager.openReader(checkpointPath)) {
+            String[] tokens = br.readLine().split(",");
+            if (tokens.length == 2 && tokens[0].equals(source.getAbsolutePath())) {
+                return Long.parseLong(tokens[1].trim());
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("Warning: Ignoring unreadable import checkpoint: " + e.getMessage());
+        }
+        return 0;
+    }
+
+    /**
+     * Records the last source line whose batch has been written to the target list.
+     */
+    private void writeCheckpoint(String checkpointPath, File source, long lineNo) throws IOException {
+        try (BufferedWriter bw = FileManager.openWriter(checkpointPath, false)) {
+            bw.write(source.getAbsolutePath() + "," + lineNo);
+        }
+    }
+
+    /**
+     * Removes the checkpoint once the import has finished. While writes are being staged
+     * or buffered the checkpoint is emptied instead, so the staged checkpoint is replaced
+     * in the same commit rather than written back after the file has been deleted.
+     */
+    private void clearCheckpoint(String checkpointPath) throws IOException {
+        if (UnitOfWork.isActive() || WriteBehindBuffer.isEnabled()) {
+            FileManager.openWriter(checkpointPath, false).close();
+        } else {
+            new File(checkpointPath).delete();
+        }
+    }
+}
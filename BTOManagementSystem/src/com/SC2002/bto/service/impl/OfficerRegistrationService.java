@@ -1,11 +1,17 @@
 package com.SC2002.bto.service.impl;
 
+import com.SC2002.bto.entities.ProjectView;
 import com.SC2002.bto.repository.IOfficerRegistrationRepository;
 import com.SC2002.bto.repository.IProjectRepository;
 import com.SC2002.bto.service.IOfficerRegistrationService;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.OfficerAssignments;
+import com.SC2002.bto.utils.UnitOfWork;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 /**
  * Implementation of the officer registration service.
@@ -39,14 +45,39 @@ public class OfficerRegistrationService implements IOfficerRegistrationService {
     }
     
     @Override
-    public boolean approveRegistration(String officerNric, int projectId) {
+    public synchronized boolean approveRegistration(String officerNric, int projectId) {
         // Check if the registration exists
         if (!hasPendingRegistration(officerNric, projectId)) {
             return false;
         }
         
-        // Approve the registration
-        return officerRegistrationRepository.approve(officerNric, projectId);
+        Optional<ProjectView> projectOpt = projectRepository.findViewById(projectId);
+        Optional<String> officerName = OfficerAssignments.getOfficerName(officerNric);
+        if (!projectOpt.isPresent() || !officerName.isPresent()) {
+            return false;
+        }
+        ProjectView project = projectOpt.get();
+        boolean alreadyAssigned = OfficerAssignments.isAssigned(officerNric, projectId);
+        if (!alreadyAssigned && project.getOfficerSlots() <= 0) {
+            System.out.println("No officer slots remaining for this project.");
+            return false;
+        }
+        
+        // Record the approval and assign the officer together, or not at all
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            if (!officerRegistrationRepository.approve(officerNric, projectId)) {
+                return false;
+            }
+            if (!alreadyAssigned) {
+                List<String> officers = new ArrayList<>(project.getOfficers());
+                officers.add(officerName.get());
+                projectRepository.save(project.toBuilder()
+                    .officers(officers)
+                    .officerSlots(project.getOfficerSlots() - 1)
+                    .build());
+            }
+            return uow.commit();
+        }
     }
     
     @Override
@@ -72,22 +103,9 @@ public class OfficerRegistrationService implements IOfficerRegistrationService {
     
     @Override
     public List<OfficerProjectPair> getAllPendingRegistrations() {
-        List<OfficerProjectPair> result = new ArrayList<>();
-        
-        // Get all projects
-        projectRepository.findAll().forEach(project -> {
-            int projectId = project.getProjectId();
-            
-            // Get all pending registrations for this project
-            List<String> officerNrics = officerRegistrationRepository.findPendingByProject(projectId);
-            
-            // Create OfficerProjectPair objects
-            officerNrics.forEach(officerNric -> {
-                result.add(new OfficerProjectPair(officerNric, projectId));
-            });
-        });
-        
-        return result;
+        return officerRegistrationRepository.findAllPending().stream()
+            .map(r -> new OfficerProjectPair(r.getOfficerNric(), r.getProjectId()))
+            .collect(Collectors.toList());
     }
     
     @Override
@@ -119,13 +137,13 @@ public class OfficerRegistrationService implements IOfficerRegistrationService {
     @Override
     public boolean hasReachedRegistrationLimit(int projectId) {
         // Check if the project exists
-        return projectRepository.findById(projectId)
+        return projectRepository.findViewById(projectId)
             .map(project -> {
                 // Get the number of pending registrations
                 int pendingCount = getPendingRegistrationCount(projectId);
                 
-                // Get the number of officer slots
-                int officerSlots = project.getOfficerSlots();
+                // Get the number of remaining officer slots
+                int officerSlots = Math.min(project.getOfficerSlots(), Constants.MAX_PENDING_REGISTRATIONS);
                 
                 // Check if the number of pending registrations has reached the limit
                 return pendingCount >= officerSlots;
@@ -1,10 +1,12 @@
 package com.SC2002.bto.service.impl;
 
 import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.ProjectView;
 import com.SC2002.bto.repository.IProjectRepository;
+import com.SC2002.bto.repository.ProjectQuery;
 import com.SC2002.bto.service.IProjectService;
+import com.SC2002.bto.utils.EligibilityMatrix;
 import com.SC2002.bto.utils.FileManager;
-import com.SC2002.bto.utils.InputValidator;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -43,6 +45,16 @@ public class ProjectService implements IProjectService {
         return projectRepository.findById(projectId);
     }
     
+    @Override
+    public List<ProjectView> getProjectViews() {
+        return projectRepository.findAllViews();
+    }
+    
+    @Override
+    public Optional<ProjectView> getProjectView(int projectId) {
+        return projectRepository.findViewById(projectId);
+    }
+    
     @Override
     public List<Project> getProjectsByNeighborhood(String neighborhood) {
         return projectRepository.findByNeighborhood(neighborhood);
@@ -58,6 +70,28 @@ public class ProjectService implements IProjectService {
         return projectRepository.findByManager(managerNric);
     }
     
+    @Override
+    public List<Project> findProjects(ProjectQuery query) {
+        return projectRepository.findByQuery(query);
+    }
+    
+    @Override
+    public List<ProjectView> findProjectViews(ProjectQuery query) {
+        return projectRepository.findViewsByQuery(query);
+    }
+    
+    @Override
+    public List<Project> getCheapestAvailableProjects(String flatType, int limit) {
+        return projectRepository.findByQuery(ProjectQuery.builder()
+            .visible(true)
+            .flatType(flatType)
+            .availableOnly(true)
+            .period(ProjectQuery.Period.OPEN)
+            .sort(ProjectQuery.Sort.LOWEST_PRICE)
+            .limit(limit)
+            .build());
+    }
+    
     @Override
     public List<Project> getProjectsByOfficer(String officerNric) {
         return projectRepository.findByOfficer(officerNric);
@@ -85,28 +119,9 @@ public class ProjectService implements IProjectService {
     
     @Override
     public List<Project> getEligibleProjects(int age, String maritalStatus) {
-        // Filter projects based on eligibility criteria
-        return getVisibleProjects().stream()
-            .filter(project -> {
-                // Check if the applicant is eligible for any flat type in this project
-                boolean eligible2Room = InputValidator.validateFlatTypeEligibility("2-Room", maritalStatus);
-                boolean eligible3Room = InputValidator.validateFlatTypeEligibility("3-Room", maritalStatus);
-                
-                // Check age eligibility
-                boolean ageEligible = false;
-                if ("Single".equalsIgnoreCase(maritalStatus)) {
-                    ageEligible = InputValidator.validateSingleApplicantAge(age, maritalStatus);
-                } else if ("Married".equalsIgnoreCase(maritalStatus)) {
-                    ageEligible = InputValidator.validateMarriedApplicantAge(age, maritalStatus);
-                }
-                
-                // Check if there are available units of eligible flat types
-                boolean hasEligibleUnits = (eligible2Room && project.getType1Units() > 0) || 
-                                          (eligible3Room && project.getType2Units() > 0);
-                
-                return ageEligible && hasEligibleUnits;
-            })
-            .collect(Collectors.toList());
+        // Visible projects with units of a flat type the applicant is eligible for,
+        // precomputed per marital status and age band
+        return EligibilityMatrix.getEligibleProjects(maritalStatus, age);
     }
     
     @Override
@@ -8,6 +8,7 @@ import com.SC2002.bto.repository.IApplicationRepository;
 import com.SC2002.bto.repository.IProjectRepository;
 import com.SC2002.bto.repository.IUserRepository;
 import com.SC2002.bto.service.IReportService;
+import com.SC2002.bto.utils.FlightEvents;
 
 import java.io.BufferedWriter;
 import java.io.FileWriter;
@@ -43,6 +44,8 @@ public class ReportService implements IReportService {
     
     @Override
     public String generateApplicantReport(List<Applicant> applicants) {
+        FlightEvents.ReportGenerated event = new FlightEvents.ReportGenerated();
+        event.begin();
         StringBuilder report = new StringBuilder("=== Applicant Report ===\n");
 
         int total = 0, pending = 0, success = 0, booked = 0, rejected = 0;
@@ -72,11 +75,13 @@ public class ReportService implements IReportService {
               .append("Booked: ").append(booked).append("\n")
               .append("Rejected: ").append(rejected).append("\n");
 
-        return report.toString();
+        return reported(event, "Applicant", applicants.size(), report.toString());
     }
     
     @Override
     public String generateFlatBookingReport(List<Project> projects) {
+        FlightEvents.ReportGenerated event = new FlightEvents.ReportGenerated();
+        event.begin();
         StringBuilder report = new StringBuilder("=== Flat Booking Report ===\n");
 
         for (Project p : projects) {
@@ -97,11 +102,13 @@ public class ReportService implements IReportService {
                   .append("------------------------------------------------\n");
         }
 
-        return report.toString();
+        return reported(event, "FlatBooking", projects.size(), report.toString());
     }
     
     @Override
     public String generateProjectReport(List<Project> projects) {
+        FlightEvents.ReportGenerated event = new FlightEvents.ReportGenerated();
+        event.begin();
         StringBuilder report = new StringBuilder("=== Project Report ===\n");
         
         for (Project p : projects) {
@@ -122,11 +129,13 @@ public class ReportService implements IReportService {
                   .append("------------------------------------------------\n");
         }
         
-        return report.toString();
+        return reported(event, "Project", projects.size(), report.toString());
     }
     
     @Override
     public String generateApplicantReportByMaritalStatus(String maritalStatus) {
+        FlightEvents.ReportGenerated event = new FlightEvents.ReportGenerated();
+        event.begin();
         // Get all applicants
         List<User> users = userRepository.findByUserType("Applicant");
         
@@ -140,11 +149,14 @@ public class ReportService implements IReportService {
         StringBuilder report = new StringBuilder("=== Applicant Report by Marital Status: " + maritalStatus + " ===\n");
         report.append("Total Applicants: ").append(filteredApplicants.size()).append("\n\n");
         
-        return report.toString() + generateApplicantReport(filteredApplicants);
+        return reported(event, "ApplicantByMaritalStatus", filteredApplicants.size(),
+            report.toString() + generateApplicantReport(filteredApplicants));
     }
     
     @Override
     public String generateApplicantReportByAgeRange(int minAge, int maxAge) {
+        FlightEvents.ReportGenerated event = new FlightEvents.ReportGenerated();
+        event.begin();
         // Get all applicants
         List<User> users = userRepository.findByUserType("Applicant");
         
@@ -158,21 +170,27 @@ public class ReportService implements IReportService {
         StringBuilder report = new StringBuilder("=== Applicant Report by Age Range: " + minAge + " to " + maxAge + " ===\n");
         report.append("Total Applicants: ").append(filteredApplicants.size()).append("\n\n");
         
-        return report.toString() + generateApplicantReport(filteredApplicants);
+        return reported(event, "ApplicantByAgeRange", filteredApplicants.size(),
+            report.toString() + generateApplicantReport(filteredApplicants));
     }
     
     @Override
     public String generateApplicantReportByFlatType(String flatType) {
+        FlightEvents.ReportGenerated event = new FlightEvents.ReportGenerated();
+        event.begin();
         List<Applicant> filteredApplicants = applicationRepository.findByFlatType(flatType);
         
         StringBuilder report = new StringBuilder("=== Applicant Report by Flat Type: " + flatType + " ===\n");
         report.append("Total Applicants: ").append(filteredApplicants.size()).append("\n\n");
         
-        return report.toString() + generateApplicantReport(filteredApplicants);
+        return reported(event, "ApplicantByFlatType", filteredApplicants.size(),
+            report.toString() + generateApplicantReport(filteredApplicants));
     }
     
     @Override
     public String generateApplicantReportByStatus(String status) {
+        FlightEvents.ReportGenerated event = new FlightEvents.ReportGenerated();
+        event.begin();
         ApplicationStatus applicationStatus;
         try {
             applicationStatus = ApplicationStatus.valueOf(status.toUpperCase());
@@ -185,11 +203,14 @@ public class ReportService implements IReportService {
         StringBuilder report = new StringBuilder("=== Applicant Report by Status: " + status + " ===\n");
         report.append("Total Applicants: ").append(filteredApplicants.size()).append("\n\n");
         
-        return report.toString() + generateApplicantReport(filteredApplicants);
+        return reported(event, "ApplicantByStatus", filteredApplicants.size(),
+            report.toString() + generateApplicantReport(filteredApplicants));
     }
     
     @Override
     public String generateApplicantReportByProject(int projectId) {
+        FlightEvents.ReportGenerated event = new FlightEvents.ReportGenerated();
+        event.begin();
         List<Applicant> filteredApplicants = applicationRepository.findByProject(projectId);
         
         // Get project name
@@ -200,7 +221,8 @@ public class ReportService implements IReportService {
         StringBuilder report = new StringBuilder("=== Applicant Report by Project: " + projectName + " (ID: " + projectId + ") ===\n");
         report.append("Total Applicants: ").append(filteredApplicants.size()).append("\n\n");
         
-        return report.toString() + generateApplicantReport(filteredApplicants);
+        return reported(event, "ApplicantByProject", filteredApplicants.size(),
+            report.toString() + generateApplicantReport(filteredApplicants));
     }
     
     @Override
@@ -267,6 +289,25 @@ public class ReportService implements IReportService {
         }
     }
     
+    /**
+     * Commits the flight recorder event of a generated report, if it is recorded.
+     * 
+     * @param event The event, begun before the report was generated
+     * @param reportType The kind of report
+     * @param rows The applicants or projects the report covers
+     * @param report The report
+     * @return The report, so the call can wrap a return statement
+     */
+    private String reported(FlightEvents.ReportGenerated event, String reportType, int rows, String report) {
+        if (event.shouldCommit()) {
+            event.reportType = reportType;
+            event.rows = rows;
+            event.length = report.length();
+            event.commit();
+        }
+        return report;
+    }
+    
     /**
      * Gets the count of booked units for a specific project and flat type.
      * 
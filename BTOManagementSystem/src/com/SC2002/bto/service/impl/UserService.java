@@ -36,40 +36,9 @@ public class UserService implements IUserService {
             return Optional.empty();
         }
         
-        // For officers, check specifically in the officer repository first
-        if ("HDBOfficer".equalsIgnoreCase(role)) {
-            // Check if the user exists in the officer list
-            List<User> officers = userRepository.findByUserType("HDBOfficer");
-            for (User officer : officers) {
-                if (officer.getNric().equalsIgnoreCase(nric) && officer.getPassword().equals(password)) {
-                    return Optional.of(officer);
-                }
-            }
-            return Optional.empty();
-        }
-        
-        // For other roles, use the standard authentication
-        Optional<User> userOpt = userRepository.authenticate(nric, password);
-        
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            
-            // Check if the user's role matches the requested role
-            boolean roleMatches = false;
-            if ("Applicant".equalsIgnoreCase(role) && user instanceof Applicant) {
-                roleMatches = true;
-            } else if ("HDBManager".equalsIgnoreCase(role) && user instanceof HDBManager) {
-                roleMatches = true;
-            }
-            
-            if (!roleMatches) {
-                return Optional.empty();
-            }
-            
-            return Optional.of(user);
-        }
-        
-        return Optional.empty();
+        // Only the user list of the requested role is checked, so an officer
+        // who also has an applicant record logs in with the officer record
+        return userRepository.authenticateAs(role, nric, password);
     }
     
     @Override
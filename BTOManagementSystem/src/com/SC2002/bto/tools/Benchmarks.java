@@ -0,0 +1,398 @@
+package com.SC2002.bto.tools;
+
+import com.SC2002.bto.di.Bootstrap;
+import com.SC2002.bto.di.ServiceLocator;
+import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.User;
+import com.SC2002.bto.repository.IProjectRepository;
+import com.SC2002.bto.repository.IUserRepository;
+import com.SC2002.bto.repository.csv.CSVRepository;
+import com.SC2002.bto.service.IApplicationService;
+import com.SC2002.bto.service.IReportService;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.FileManager;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.IntFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Microbenchmarks of the persistence and service hot paths, at several dataset sizes.
+ * <p>
+ * Usage, from any directory (datasets are generated in a temporary directory):
+ * <pre>
+ * java -cp &lt;classes&gt; com.SC2002.bto.tools.Benchmarks [--sizes=1000,10000,100000] [--include=regex]
+ *     [--warmup=3] [--iterations=5] [--time=1] [--out=benchmarks.csv] [--baseline=old.csv] [--keep]
+ * </pre>
+ * For each size a dataset is made with {@link DataGenerator} and the benchmarks run in a
+ * fresh JVM started in that directory, so sizes do not share caches or JIT profiles. Each
+ * benchmark runs {@code --warmup} untimed and {@code --iterations} timed iterations of
+ * {@code --time} seconds, and reports the mean time per operation with its 99.9% confidence
+ * interval, and the bytes allocated per operation by the benchmark thread.
+ * <p>
+ * Results are written as CSV, one row per benchmark and size. Given the CSV of an earlier
+ * run as {@code --baseline}, each result is also printed with its change from the baseline.
+ */
+public final class Benchmarks {
+
+    private static final String CSV_HEADER = "Benchmark,Size,Samples,Score,Error,Unit,AllocBytesPerOp";
+
+    /** Student's t at 99.9% confidence, for 1 to 10 degrees of freedom; about 3.29 beyond that */
+    private static final double[] T_999 = {636.62, 31.60, 12.92, 8.61, 6.87, 5.96, 5.41, 5.04, 4.78, 4.59};
+
+    /** Batches are sized to run at least this long, so the clock is read rarely */
+    private static final long BATCH_NANOS = 10_000_000L;
+
+    /** Results of benchmarked calls are folded into this, so they cannot be optimized away */
+    private static volatile int sink;
+
+    private Benchmarks() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (DataGenerator.hasFlag(args, "fork")) {
+            runFork(args);
+            return;
+        }
+
+        List<Integer> sizes = new ArrayList<>();
+        for (String size : DataGenerator.option(args, "sizes", "1000,10000,100000").split(",")) {
+            sizes.add(Integer.parseInt(size.trim()));
+        }
+        Path out = Paths.get(DataGenerator.option(args, "out", "benchmarks.csv")).toAbsolutePath();
+        String baselineFile = DataGenerator.option(args, "baseline", null);
+        Map<String, Double> baseline = baselineFile == null ? new HashMap<>() : readBaseline(Paths.get(baselineFile));
+
+        List<String> rows = new ArrayList<>();
+        for (int size : sizes) {
+            Path work = Files.createTempDirectory("bto-bench-" + size + "-");
+            try {
+                System.out.println("# Generating dataset of " + size + " applicants in " + work);
+                DataGenerator.main(new String[] {"--out=" + work.resolve(Constants.DATA_DIR), "--scale=" + size, "--seed=1"});
+                Path result = work.resolve("result.csv");
+                if (!fork(work, result, size, args)) {
+                    System.out.println("Error: The benchmarks for size " + size + " did not complete.");
+                    continue;
+                }
+                rows.addAll(Files.readAllLines(result, StandardCharsets.UTF_8));
+            } finally {
+                if (!DataGenerator.hasFlag(args, "keep")) {
+                    delete(work);
+                }
+            }
+        }
+
+        try (BufferedWriter bw = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+            bw.write(CSV_HEADER);
+            bw.newLine();
+            for (String row : rows) {
+                bw.write(row);
+                bw.newLine();
+            }
+        }
+        printSummary(rows, baseline);
+        System.out.println("# Results written to " + out);
+    }
+
+    /**
+     * Runs the benchmarks for one size in a new JVM started in the dataset's directory.
+     */
+    private static boolean fork(Path work, Path result, int size, String[] args) throws IOException, InterruptedException {
+        StringBuilder classPath = new StringBuilder();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            if (classPath.length() > 0) {
+                classPath.append(File.pathSeparator);
+            }
+            classPath.append(new File(entry).getAbsolutePath());
+        }
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-cp");
+        command.add(classPath.toString());
+        command.add(Benchmarks.class.getName());
+        command.add("--fork");
+        command.add("--size=" + size);
+        command.add("--result=" + result);
+        for (String name : new String[] {"include", "warmup", "iterations", "time"}) {
+            String value = DataGenerator.option(args, name, null);
+            if (value != null) {
+                command.add("--" + name + "=" + value);
+            }
+        }
+        Process process = new ProcessBuilder(command).directory(work.toFile()).inheritIO().start();
+        return process.waitFor() == 0 && Files.exists(result);
+    }
+
+    /**
+     * Runs every selected benchmark against the dataset in the working directory.
+     */
+    private static void runFork(String[] args) throws IOException {
+        int size = Integer.parseInt(DataGenerator.option(args, "size", "0"));
+        Pattern include = Pattern.compile(DataGenerator.option(args, "include", ".*"));
+        int warmup = Integer.parseInt(DataGenerator.option(args, "warmup", "3"));
+        int iterations = Integer.parseInt(DataGenerator.option(args, "iterations", "5"));
+        long iterationNanos = (long) (Double.parseDouble(DataGenerator.option(args, "time", "1")) * 1e9);
+        Path result = Paths.get(DataGenerator.option(args, "result", "result.csv"));
+
+        Bootstrap.registerServices();
+        Map<String, IntFunction<Object>> benchmarks = benchmarks();
+
+        try (BufferedWriter bw = Files.newBufferedWriter(result, StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, IntFunction<Object>> benchmark : benchmarks.entrySet()) {
+                if (!include.matcher(benchmark.getKey()).find()) {
+                    continue;
+                }
+                System.out.printf("# %s, size %d%n", benchmark.getKey(), size);
+                Measurement m = measure(benchmark.getValue(), warmup, iterations, iterationNanos);
+                System.out.printf("  %s ns/op, %d B/op%n", format(m.mean, m.error), Math.round(m.allocPerOp));
+                bw.write(String.format(Locale.ROOT, "%s,%d,%d,%.3f,%.3f,ns/op,%.1f",
+                    benchmark.getKey(), size, iterations, m.mean, m.error, m.allocPerOp));
+                bw.newLine();
+            }
+        }
+    }
+
+    /**
+     * Sets up the benchmarks. Each takes an operation counter, which it uses to cycle
+     * through its inputs, and returns a value for the sink.
+     */
+    private static Map<String, IntFunction<Object>> benchmarks() throws IOException {
+        IUserRepository userRepository = ServiceLocator.get(IUserRepository.class);
+        IProjectRepository projectRepository = ServiceLocator.get(IProjectRepository.class);
+        IReportService reportService = ServiceLocator.get(IReportService.class);
+        IApplicationService applicationService = ServiceLocator.get(IApplicationService.class);
+
+        List<Applicant> applicants = new ArrayList<>();
+        for (User user : FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, "Applicant")) {
+            applicants.add((Applicant) user);
+        }
+        List<Project> projects = projectRepository.findAll();
+        List<String> nrics = new ArrayList<>();
+        for (Applicant applicant : applicants) {
+            nrics.add(applicant.getNric());
+        }
+        List<String> lines = new ArrayList<>();
+        for (String file : new String[] {Constants.PROJECT_CSV, Constants.ENQUIRY_CSV, Constants.APPLICANT_CSV}) {
+            try (BufferedReader br = FileManager.openReader(file)) {
+                br.readLine(); // Skip header
+                String line;
+                while ((line = br.readLine()) != null && lines.size() < 3000) {
+                    lines.add(line);
+                }
+            }
+        }
+        if (applicants.isEmpty() || projects.isEmpty()) {
+            throw new IllegalStateException("The dataset needs at least one applicant and one project");
+        }
+        LineParser parser = new LineParser();
+        String[] flatTypes = {Constants.FLAT_TYPE_2_ROOM, Constants.FLAT_TYPE_3_ROOM};
+
+        Map<String, IntFunction<Object>> benchmarks = new LinkedHashMap<>();
+        benchmarks.put("FileManager.loadUsersFromCSV", i -> FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, "Applicant"));
+        benchmarks.put("FileManager.loadProjectsFromCSV", i -> FileManager.loadProjectsFromCSV(Constants.PROJECT_CSV));
+        benchmarks.put("FileManager.loadAllEnquiries", i -> FileManager.loadAllEnquiries(Constants.ENQUIRY_CSV));
+        benchmarks.put("FileManager.updateApplicantApplication",
+            i -> FileManager.updateApplicantApplication(applicants.get(i % applicants.size())));
+        benchmarks.put("CSVRepository.parseCSVLine", i -> parser.parse(lines.get(i % lines.size())));
+        benchmarks.put("CSVUserRepository.findByNric", i -> userRepository.findByNric(nrics.get(i % nrics.size())));
+        benchmarks.put("ReportService.generateProjectReport", i -> reportService.generateProjectReport(projects));
+        benchmarks.put("ApplicationService.isEligible", i -> applicationService.isEligible(
+            applicants.get(i % applicants.size()), projects.get(i % projects.size()).getProjectId(), flatTypes[i & 1]));
+        return benchmarks;
+    }
+
+    /**
+     * Times a benchmark in batches, sized during warm-up so that each takes at least
+     * {@link #BATCH_NANOS}, and counts the bytes the thread allocates while it runs.
+     */
+    private static Measurement measure(IntFunction<Object> benchmark, int warmup, int iterations, long iterationNanos) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        int counter = 0;
+        int batch = 1;
+
+        for (int w = 0; w < warmup; w++) {
+            long end = System.nanoTime() + iterationNanos;
+            while (System.nanoTime() < end) {
+                long began = System.nanoTime();
+                counter = runBatch(benchmark, counter, batch);
+                if (System.nanoTime() - began < BATCH_NANOS && batch < (1 << 24)) {
+                    batch *= 2;
+                }
+            }
+        }
+
+        double[] samples = new double[iterations];
+        long allocated = 0;
+        long ops = 0;
+        for (int it = 0; it < iterations; it++) {
+            long iterationOps = 0;
+            long before = threads.getThreadAllocatedBytes(threadId);
+            long began = System.nanoTime();
+            long end = began + iterationNanos;
+            long now;
+            do {
+                counter = runBatch(benchmark, counter, batch);
+                iterationOps += batch;
+                now = System.nanoTime();
+            } while (now < end);
+            allocated += threads.getThreadAllocatedBytes(threadId) - before;
+            ops += iterationOps;
+            samples[it] = (double) (now - began) / iterationOps;
+        }
+
+        double mean = 0;
+        for (double s : samples) {
+            mean += s;
+        }
+        mean /= iterations;
+        double error = 0;
+        if (iterations > 1) {
+            double variance = 0;
+            for (double s : samples) {
+                variance += (s - mean) * (s - mean);
+            }
+            variance /= iterations - 1;
+            double t = iterations - 1 <= T_999.length ? T_999[iterations - 2] : 3.29;
+            error = t * Math.sqrt(variance / iterations);
+        }
+        return new Measurement(mean, error, (double) allocated / ops);
+    }
+
+    private static int runBatch(IntFunction<Object> benchmark, int counter, int batch) {
+        int hash = 0;
+        for (int i = 0; i < batch; i++) {
+            Object result = benchmark.apply(counter++ & Integer.MAX_VALUE);
+            hash += result == null ? 0 : System.identityHashCode(result);
+        }
+        sink += hash;
+        return counter;
+    }
+
+    /**
+     * Prints the results as a table, with the change from the baseline where there is one.
+     */
+    private static void printSummary(List<String> rows, Map<String, Double> baseline) {
+        System.out.printf("%n%-42s %9s %22s %14s %10s%n", "Benchmark", "Size", "Score (ns/op)", "Alloc (B/op)", "Change");
+        for (String row : rows) {
+            String[] f = row.split(",");
+            double score = Double.parseDouble(f[3]);
+            Double before = baseline.get(f[0] + "," + f[1]);
+            String change = before == null || before == 0 ? "" : String.format(Locale.ROOT, "%+.1f%%", (score / before - 1) * 100);
+            System.out.printf("%-42s %9s %22s %14s %10s%n", f[0], f[1],
+                format(score, Double.parseDouble(f[4])), Math.round(Double.parseDouble(f[6])), change);
+        }
+    }
+
+    private static Map<String, Double> readBaseline(Path file) throws IOException {
+        Map<String, Double> scores = new HashMap<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (String line : lines.subList(Math.min(1, lines.size()), lines.size())) {
+            String[] f = line.split(",");
+            if (f.length >= 4) {
+                scores.put(f[0] + "," + f[1], Double.parseDouble(f[3]));
+            }
+        }
+        return scores;
+    }
+
+    private static String format(double score, double error) {
+        return String.format(Locale.ROOT, "%.1f +- %.1f", score, error);
+    }
+
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+
+    /**
+     * Mean time per operation, its confidence interval, and bytes allocated per operation.
+     */
+    private static final class Measurement {
+        private final double mean;
+        private final double error;
+        private final double allocPerOp;
+
+        Measurement(double mean, double error, double allocPerOp) {
+            this.mean = mean;
+            this.error = error;
+            this.allocPerOp = allocPerOp;
+        }
+    }
+
+    /**
+     * Exposes the CSV line parser that the CSV repositories share.
+     */
+    private static final class LineParser extends CSVRepository<String, String> {
+
+        LineParser() {
+            super(Constants.PROJECT_CSV);
+        }
+
+        List<String> parse(String line) {
+            return parseCSVLine(line);
+        }
+
+        @Override
+        public List<String> findAll() {
+            return readAllLines();
+        }
+
+        @Override
+        public Optional<String> findById(String id) {
+            return Optional.empty();
+        }
+
+        @Override
+        public String save(String entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<String> saveAll(List<String> entities) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void delete(String entity) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean existsById(String id) {
+            return false;
+        }
+
+        @Override
+        protected String lineToEntity(String line) {
+            return line;
+        }
+
+        @Override
+        protected String entityToLine(String entity) {
+            return entity;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.SC2002.bto.tools;
+
+import com.SC2002.bto.entities.ApplicationStatus;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates a synthetic dataset of any size in the format of the data files.
+ * <p>
+ * Usage:
+ * <pre>
+ * java com.SC2002.bto.tools.DataGenerator --out=data --scale=100000 [--seed=1] [--force]
+ *     [--applicants=N] [--projects=N] [--officers=N] [--managers=N] [--enquiries=N] [--registrations=N]
+ * </pre>
+ * {@code --scale} is the number of applicants; the other counts default to proportions of
+ * it and can be set individually. Rows are written as they are generated, so datasets of
+ * millions of rows need little memory. The same seed always gives the same dataset,
+ * apart from the application dates, which are set around the current date.
+ * Existing data files are only replaced with {@code --force}.
+ */
+public final class DataGenerator {
+
+    /** NRICs have a one-letter prefix and seven digits, so each prefix numbers this many users */
+    private static final int NRICS_PER_PREFIX = 10_000_000;
+
+    private static final String[] FIRST_NAMES = {
+        "John", "Sarah", "Grace", "James", "Rachel", "Daniel", "Emily", "Michael", "Jessica", "David",
+        "Wei Ling", "Jun Hao", "Siti", "Ahmad", "Priya", "Arjun", "Mei Ling", "Kumar", "Nur", "Ethan"
+    };
+    private static final String[] SURNAMES = {
+        "Tan", "Lim", "Lee", "Ng", "Ong", "Wong", "Goh", "Chua", "Koh", "Teo",
+        "Rahman", "Ismail", "Singh", "Pillai", "Chan", "Yeo", "Low", "Sim", "Ho", "Foo"
+    };
+    private static final String[] NEIGHBORHOODS = {
+        "Yishun", "Boon Lay", "Tampines", "Punggol", "Sengkang", "Woodlands", "Bedok", "Jurong West",
+        "Ang Mo Kio", "Bukit Batok", "Choa Chu Kang", "Hougang", "Pasir Ris", "Queenstown", "Tengah", "Bidadari"
+    };
+    private static final String[] PROJECT_WORDS = {
+        "Breeze", "Grove", "Vista", "Residences", "Heights", "Gardens", "Court", "Crest", "Meadows", "Edge"
+    };
+    private static final String[] ENQUIRY_TEXTS = {
+        "When will the keys be ready?",
+        "Is there a shopping mall nearby?",
+        "How far is the nearest MRT station?",
+        "Can I change my flat type after applying?",
+        "What is the expected completion date?",
+        "Are there childcare centres in the estate?",
+        "Is the price inclusive of renovation?",
+        "How many units are left for my flat type?"
+    };
+    private static final String[] RESPONSES = {
+        "The expected completion date is in 2028.",
+        "There is a mall within 10 minutes walk.",
+        "The nearest MRT station is 500m away.",
+        "Please contact the HDB branch for changes to your application.",
+        "Thank you for your enquiry. Details are on the project brochure."
+    };
+
+    private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("d/M/yy");
+
+    private final SplittableRandom random;
+    private final int applicants;
+    private final int projects;
+    private final int officers;
+    private final int managers;
+    private final int enquiries;
+    private final int registrations;
+
+    /** Next user number, shared by all roles so that every NRIC is unique */
+    private long nextUser;
+
+    private DataGenerator(long seed, int applicants, int projects, int officers, int managers,
+                          int enquiries, int registrations) {
+        this.random = new SplittableRandom(seed);
+        this.applicants = applicants;
+        this.projects = projects;
+        this.officers = officers;
+        this.managers = managers;
+        this.enquiries = enquiries;
+        this.registrations = registrations;
+    }
+
+    public static void main(String[] args) {
+        String out = option(args, "out", "data");
+        int scale = Integer.parseInt(option(args, "scale", "1000"));
+        long seed = Long.parseLong(option(args, "seed", "1"));
+        int applicants = Integer.parseInt(option(args, "applicants", String.valueOf(scale)));
+        int projects = Integer.parseInt(option(args, "projects", String.valueOf(Math.max(1, scale / 1000))));
+        int officers = Integer.parseInt(option(args, "officers", String.valueOf(Math.max(2, scale / 200))));
+        int managers = Integer.parseInt(option(args, "managers", String.valueOf(Math.max(1, scale / 5000))));
+        int enquiries = Integer.parseInt(option(args, "enquiries", String.valueOf(scale / 10)));
+        int registrations = Integer.parseInt(option(args, "registrations", String.valueOf(officers)));
+
+        if ((long) applicants + officers + managers > 2L * NRICS_PER_PREFIX) {
+            System.out.println("Error: At most " + 2L * NRICS_PER_PREFIX + " users can be given distinct NRICs.");
+            return;
+        }
+
+        File dir = new File(out);
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            System.out.println("Error: Could not create " + dir.getPath());
+            return;
+        }
+        if (new File(dir, "ApplicantList.csv").exists() && !hasFlag(args, "force")) {
+            System.out.println("Error: " + dir.getPath() + " already contains data. Use --force to replace it.");
+            return;
+        }
+
+        DataGenerator generator = new DataGenerator(seed, applicants, projects, officers, managers, enquiries, registrations);
+        long start = System.nanoTime();
+        try {
+            generator.generate(dir);
+        } catch (IOException e) {
+            System.out.println("Error writing dataset: " + e.getMessage());
+            return;
+        }
+        System.out.printf("Generated %d applicants, %d officers, %d managers, %d projects, %d enquiries and %d registrations in %d ms%n",
+            applicants, officers, managers, projects, enquiries, registrations, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void generate(File dir) throws IOException {
+        List<String> managerNames = writeStaff(new File(dir, "ManagerList.csv"), managers, "Manager");
+        List<String> officerNames = writeStaff(new File(dir, "OfficerList.csv"), officers, "Officer");
+        List<String> officerNrics = new ArrayList<>(officerNames.size());
+        for (int i = 0; i < officers; i++) {
+            officerNrics.add(nric(managers + i));
+        }
+        writeProjects(new File(dir, "ProjectList.csv"), managerNames, officerNames);
+        writeApplicants(new File(dir, "ApplicantList.csv"));
+        writeEnquiries(new File(dir, "EnquiryList.csv"));
+        writeRegistrations(new File(dir, "RegistrationList.csv"), officerNrics);
+    }
+
+    /**
+     * Writes a manager or officer list. Staff names are made unique, as projects refer to
+     * their manager and officers by name.
+     *
+     * @return the names, in file order
+     */
+    private List<String> writeStaff(File file, int count, String role) throws IOException {
+        List<String> names = new ArrayList<>(count);
+        try (BufferedWriter w = writer(file)) {
+            w.write("Name,NRIC,Age,MaritalStatus,Password");
+            w.newLine();
+            for (int i = 0; i < count; i++) {
+                String name = pick(FIRST_NAMES) + " " + pick(SURNAMES) + " " + role.charAt(0) + i;
+                names.add(name);
+                w.write(name + "," + nric(nextUser++) + "," + (25 + random.nextInt(40)) + ","
+                    + (random.nextInt(100) < 60 ? "Married" : "Single") + ",password");
+                w.newLine();
+            }
+        }
+        return names;
+    }
+
+    private void writeProjects(File file, List<String> managerNames, List<String> officerNames) throws IOException {
+        LocalDate today = LocalDate.now();
+        try (BufferedWriter w = writer(file)) {
+            w.write("Project Name,Neighborhood,Type 1,Number of units for Type1,Selling price for Type1,"
+                + "Type 2,Number of units for Type2,Selling price for Type2,Application opening date,"
+                + "Application closing date,Manager,Officer Slot,Officer,Visible");
+            w.newLine();
+            for (int p = 0; p < projects; p++) {
+                String neighborhood = pick(NEIGHBORHOODS);
+                LocalDate opening = today.minusDays(random.nextInt(120));
+                LocalDate closing = opening.plusDays(30 + random.nextInt(90));
+
+                // Up to 10 officers per project, with the rest of the slots still open
+                int assigned = Math.min(officerNames.size(), random.nextInt(4));
+                List<String> names = new ArrayList<>(assigned);
+                int first = random.nextInt(officerNames.size());
+                for (int k = 0; k < assigned; k++) {
+                    names.add(officerNames.get((first + k) % officerNames.size()));
+                }
+
+                w.write(neighborhood + " " + pick(PROJECT_WORDS) + " " + (p + 1) + "," + neighborhood
+                    + ",2-Room," + (50 + random.nextInt(450)) + "," + (150_000 + 1_000 * random.nextInt(200))
+                    + ",3-Room," + (50 + random.nextInt(750)) + "," + (250_000 + 1_000 * random.nextInt(300))
+                    + "," + opening.format(DATE_FMT) + "," + closing.format(DATE_FMT)
+                    + "," + managerNames.get(p % managerNames.size())
+                    + "," + (10 - assigned) + ",\"" + String.join(",", names) + "\","
+                    + (random.nextInt(100) < 90 ? "TRUE" : "FALSE"));
+                w.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes the applicant list with a realistic spread of application states.
+     * Singles are at least 35 and apply for 2-Room flats only, as the eligibility rules require.
+     */
+    private void writeApplicants(File file) throws IOException {
+        try (BufferedWriter w = writer(file)) {
+            w.write("Name,NRIC,Age,MaritalStatus,Password,AppliedID,Status,FlatType");
+            w.newLine();
+            StringBuilder sb = new StringBuilder(96);
+            for (int i = 0; i < applicants; i++) {
+                boolean married = random.nextInt(100) < 55;
+                int age = married ? 21 + random.nextInt(55) : 35 + random.nextInt(40);
+
+                int roll = random.nextInt(100);
+                ApplicationStatus status = roll < 55 ? ApplicationStatus.NOT_APPLIED
+                    : roll < 75 ? ApplicationStatus.PENDING
+                    : roll < 83 ? ApplicationStatus.SUCCESSFUL
+                    : roll < 90 ? ApplicationStatus.BOOKED
+                    : roll < 97 ? ApplicationStatus.UNSUCCESSFUL
+                    : ApplicationStatus.PENDING_WITHDRAWAL;
+                boolean active = status != ApplicationStatus.NOT_APPLIED && status != ApplicationStatus.UNSUCCESSFUL;
+                int projectId = active ? 1 + random.nextInt(projects) : -1;
+                String flatType = !active ? "" : (married && random.nextBoolean() ? "3-Room" : "2-Room");
+
+                sb.setLength(0);
+                sb.append(pick(FIRST_NAMES)).append(' ').append(pick(SURNAMES)).append(',')
+                    .append(nric(nextUser++)).append(',').append(age).append(',')
+                    .append(married ? "Married" : "Single").append(",password,")
+                    .append(projectId).append(',').append(status.name()).append(',').append(flatType);
+                w.write(sb.toString());
+                w.newLine();
+            }
+        }
+    }
+
+    private void writeEnquiries(File file) throws IOException {
+        long firstApplicant = managers + officers;
+        try (BufferedWriter w = writer(file)) {
+            w.write("ID,UserNRIC,ProjectID,EnquiryText,Response");
+            w.newLine();
+            for (int i = 0; i < enquiries; i++) {
+                String response = random.nextInt(100) < 40 ? pick(RESPONSES) : "";
+                w.write((i + 1) + "," + nric(firstApplicant + random.nextInt(Math.max(1, applicants))) + ","
+                    + (1 + random.nextInt(projects)) + "," + pick(ENQUIRY_TEXTS) + "," + response);
+                w.newLine();
+            }
+        }
+    }
+
+    /**
+     * Writes the registration log. Each registration is for a different officer and
+     * project pair, so every line is the current status of its registration.
+     */
+    private void writeRegistrations(File file, List<String> officerNrics) throws IOException {
+        long pairs = (long) officerNrics.size() * projects;
+        try (BufferedWriter w = writer(file)) {
+            w.write("OfficerNRIC,ProjectID,Status");
+            w.newLine();
+            for (long i = 0; i < Math.min(registrations, pairs); i++) {
+                int roll = random.nextInt(100);
+                String status = roll < 50 ? "PENDING" : roll < 80 ? "APPROVED" : "REJECTED";
+                w.write(officerNrics.get((int) (i % officerNrics.size())) + "," + (1 + i / officerNrics.size()) + "," + status);
+                w.newLine();
+            }
+        }
+    }
+
+    /**
+     * Returns a valid, unique NRIC for the n-th generated user.
+     */
+    private static String nric(long n) {
+        char prefix = n < NRICS_PER_PREFIX ? 'S' : 'T';
+        return String.format("%c%07d%c", prefix, n % NRICS_PER_PREFIX, (char) ('A' + n % 26));
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static BufferedWriter writer(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    static String option(String[] args, String name, String defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return arg.substring(prefix.length());
+            }
+        }
+        return defaultValue;
+    }
+
+    static boolean hasFlag(String[] args, String name) {
+        for (String arg : args) {
+            if (arg.equals("--" + name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
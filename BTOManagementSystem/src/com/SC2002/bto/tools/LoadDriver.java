@@ -0,0 +1,314 @@
+package com.SC2002.bto.tools;
+
+import com.SC2002.bto.di.Bootstrap;
+import com.SC2002.bto.di.ServiceLocator;
+import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.ApplicationView;
+import com.SC2002.bto.entities.ProjectView;
+import com.SC2002.bto.service.IApplicationService;
+import com.SC2002.bto.service.IEnquiryService;
+import com.SC2002.bto.service.IProjectService;
+import com.SC2002.bto.service.IReportService;
+import com.SC2002.bto.service.IUserService;
+import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.UnitOfWork;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replays a mix of applicant, officer and manager operations through the service
+ * interfaces on several threads, and reports throughput and latency percentiles.
+ * <p>
+ * Usage, from a directory whose {@code data} folder holds the dataset to load
+ * (e.g. one made by {@link DataGenerator}; it is modified by the run):
+ * <pre>
+ * java com.SC2002.bto.tools.LoadDriver [--threads=8] [--ops=10000] [--seed=1]
+ *     [--mix=apply:30,approve:20,book:10,enquire:30,report:10]
+ * </pre>
+ * Each operation picks a random applicant in the state it needs (e.g. a pending
+ * application to approve). An operation that finds none is counted as skipped; one that
+ * returns false or throws is counted as failed. Latencies include failed operations.
+ */
+public final class LoadDriver {
+
+    /** How many random applicants an operation tries before it is skipped */
+    private static final int PROBES = 32;
+
+    /**
+     * The operations the driver can run.
+     */
+    enum Operation {
+        APPLY, APPROVE, BOOK, ENQUIRE, REPORT
+    }
+
+    /** Outcome of one operation */
+    private enum Outcome {
+        OK, FAILED, SKIPPED
+    }
+
+    private final IApplicationService applicationService;
+    private final IEnquiryService enquiryService;
+    private final IProjectService projectService;
+    private final IReportService reportService;
+    private final IUserService userService;
+
+    private LoadDriver() {
+        this.applicationService = ServiceLocator.get(IApplicationService.class);
+        this.enquiryService = ServiceLocator.get(IEnquiryService.class);
+        this.projectService = ServiceLocator.get(IProjectService.class);
+        this.reportService = ServiceLocator.get(IReportService.class);
+        this.userService = ServiceLocator.get(IUserService.class);
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Integer.parseInt(DataGenerator.option(args, "threads", "8"));
+        long ops = Long.parseLong(DataGenerator.option(args, "ops", "10000"));
+        long seed = Long.parseLong(DataGenerator.option(args, "seed", "1"));
+        int[] weights;
+        try {
+            weights = parseMix(DataGenerator.option(args, "mix", "apply:30,approve:20,book:10,enquire:30,report:10"));
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
+            return;
+        }
+
+        if (!FileManager.ensureDataDirectoryExists()) {
+            System.out.println("Error: Could not find or create the data directory.");
+            return;
+        }
+        UnitOfWork.recover();
+        Bootstrap.registerServices();
+        LoadDriver driver = new LoadDriver();
+        if (driver.projectService.getProjectViews().isEmpty() || driver.applicationService.getApplicationViews().isEmpty()) {
+            System.out.println("Error: The dataset needs at least one project and one applicant.");
+            return;
+        }
+
+        System.out.printf("Running %d operations on %d threads (mix %s)%n", ops, threads, Arrays.toString(weights));
+        Recorder[] recorders = new Recorder[threads];
+        AtomicLong remaining = new AtomicLong(ops);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Recorder recorder = new Recorder();
+            recorders[t] = recorder;
+            SplittableRandom random = new SplittableRandom(seed * 31 + t);
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (remaining.getAndDecrement() > 0) {
+                    Operation op = choose(weights, random);
+                    long began = System.nanoTime();
+                    Outcome outcome;
+                    try {
+                        outcome = driver.run(op, random);
+                    } catch (RuntimeException e) {
+                        outcome = Outcome.FAILED;
+                        recorder.recordError(op, e);
+                    }
+                    recorder.record(op, outcome, System.nanoTime() - began);
+                }
+            }, "load-" + t);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - began;
+        report(recorders, elapsed);
+    }
+
+    /**
+     * Runs one operation against a randomly chosen applicant or project.
+     */
+    private Outcome run(Operation op, SplittableRandom random) {
+        switch (op) {
+            case APPLY: {
+                Optional<ApplicationView> view = findApplication(random, ApplicationStatus.NOT_APPLIED, ApplicationStatus.UNSUCCESSFUL);
+                if (!view.isPresent()) {
+                    return Outcome.SKIPPED;
+                }
+                Optional<Applicant> applicant = userService.getApplicantByNric(view.get().getNric());
+                if (!applicant.isPresent()) {
+                    return Outcome.FAILED;
+                }
+                String flatType = "Married".equalsIgnoreCase(applicant.get().getMaritalStatus()) && random.nextBoolean()
+                    ? "3-Room" : "2-Room";
+                return outcome(applicationService.applyForProject(applicant.get(), randomProject(random), flatType));
+            }
+            case APPROVE: {
+                Optional<ApplicationView> view = findApplication(random, ApplicationStatus.PENDING);
+                if (!view.isPresent()) {
+                    return Outcome.SKIPPED;
+                }
+                ApplicationStatus decision = random.nextInt(4) == 0 ? ApplicationStatus.UNSUCCESSFUL : ApplicationStatus.SUCCESSFUL;
+                List<IApplicationService.DecisionResult> results = applicationService.processApplications(
+                    Collections.singletonList(new IApplicationService.Decision(view.get().getNric(), decision)));
+                return outcome(!results.isEmpty() && results.get(0).isSuccess());
+            }
+            case BOOK: {
+                Optional<ApplicationView> view = findApplication(random, ApplicationStatus.SUCCESSFUL);
+                if (!view.isPresent()) {
+                    return Outcome.SKIPPED;
+                }
+                return outcome(applicationService.bookFlat(view.get().getNric()));
+            }
+            case ENQUIRE: {
+                Optional<ApplicationView> view = findApplication(random);
+                if (!view.isPresent()) {
+                    return Outcome.SKIPPED;
+                }
+                return outcome(enquiryService.submitEnquiry(view.get().getNric(), randomProject(random),
+                    "How many units are left for my flat type?") > 0);
+            }
+            case REPORT:
+            default:
+                return outcome(reportService.generateApplicantReportByProject(randomProject(random)) != null);
+        }
+    }
+
+    /**
+     * Finds a random application in one of the given states, or any application if none are given.
+     */
+    private Optional<ApplicationView> findApplication(SplittableRandom random, ApplicationStatus... statuses) {
+        List<ApplicationView> views = applicationService.getApplicationViews();
+        for (int i = 0; i < PROBES && !views.isEmpty(); i++) {
+            ApplicationView view = views.get(random.nextInt(views.size()));
+            if (statuses.length == 0 || Arrays.asList(statuses).contains(view.getStatus())) {
+                return Optional.of(view);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private int randomProject(SplittableRandom random) {
+        List<ProjectView> projects = projectService.getProjectViews();
+        return projects.get(random.nextInt(projects.size())).getProjectId();
+    }
+
+    private static Outcome outcome(boolean success) {
+        return success ? Outcome.OK : Outcome.FAILED;
+    }
+
+    private static Operation choose(int[] weights, SplittableRandom random) {
+        int total = 0;
+        for (int w : weights) {
+            total += w;
+        }
+        int roll = random.nextInt(total);
+        for (Operation op : Operation.values()) {
+            roll -= weights[op.ordinal()];
+            if (roll < 0) {
+                return op;
+            }
+        }
+        return Operation.REPORT;
+    }
+
+    /**
+     * Parses a mix such as "apply:30,book:10" into a weight per operation.
+     */
+    static int[] parseMix(String mix) {
+        int[] weights = new int[Operation.values().length];
+        for (String part : mix.split(",")) {
+            String[] kv = part.split(":");
+            if (kv.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + part);
+            }
+            Operation op = Operation.valueOf(kv[0].trim().toUpperCase());
+            weights[op.ordinal()] = Integer.parseInt(kv[1].trim());
+        }
+        if (Arrays.stream(weights).sum() <= 0) {
+            throw new IllegalArgumentException("The mix must give at least one operation a positive weight");
+        }
+        return weights;
+    }
+
+    private static void report(Recorder[] recorders, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        long total = 0;
+        System.out.printf("%-8s %8s %8s %8s %10s %10s %10s %10s %10s%n",
+            "op", "ok", "failed", "skipped", "ops/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Operation op : Operation.values()) {
+            long ok = 0, failed = 0, skipped = 0;
+            List<long[]> parts = new ArrayList<>();
+            int count = 0;
+            for (Recorder r : recorders) {
+                ok += r.counts[op.ordinal()][Outcome.OK.ordinal()];
+                failed += r.counts[op.ordinal()][Outcome.FAILED.ordinal()];
+                skipped += r.counts[op.ordinal()][Outcome.SKIPPED.ordinal()];
+                parts.add(r.latencies[op.ordinal()]);
+                count += r.sizes[op.ordinal()];
+            }
+            if (count == 0) {
+                continue;
+            }
+            long[] all = new long[count];
+            int pos = 0;
+            for (int t = 0; t < recorders.length; t++) {
+                int n = recorders[t].sizes[op.ordinal()];
+                System.arraycopy(parts.get(t), 0, all, pos, n);
+                pos += n;
+            }
+            Arrays.sort(all);
+            total += count;
+            System.out.printf("%-8s %8d %8d %8d %10.1f %10.3f %10.3f %10.3f %10.3f%n",
+                op.name().toLowerCase(), ok, failed, skipped, count / seconds,
+                percentile(all, 50), percentile(all, 90), percentile(all, 99), all[all.length - 1] / 1e6);
+        }
+        System.out.printf("total    %d operations in %.2f s (%.1f ops/s)%n", total, seconds, total / seconds);
+        for (Operation op : Operation.values()) {
+            for (Recorder r : recorders) {
+                if (r.errors[op.ordinal()] != null) {
+                    System.out.println("First error in " + op.name().toLowerCase() + ": " + r.errors[op.ordinal()]);
+                    break;
+                }
+            }
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+    }
+
+    /**
+     * Latencies and outcome counts of one worker thread, merged after the run.
+     */
+    private static final class Recorder {
+        private final long[][] latencies = new long[Operation.values().length][1024];
+        private final int[] sizes = new int[Operation.values().length];
+        private final long[][] counts = new long[Operation.values().length][Outcome.values().length];
+        private final String[] errors = new String[Operation.values().length];
+
+        void record(Operation op, Outcome outcome, long nanos) {
+            int i = op.ordinal();
+            if (sizes[i] == latencies[i].length) {
+                latencies[i] = Arrays.copyOf(latencies[i], sizes[i] * 2);
+            }
+            latencies[i][sizes[i]++] = nanos;
+            counts[i][outcome.ordinal()]++;
+        }
+
+        void recordError(Operation op, RuntimeException e) {
+            if (errors[op.ordinal()] == null) {
+                errors[op.ordinal()] = e.toString();
+            }
+        }
+    }
+}
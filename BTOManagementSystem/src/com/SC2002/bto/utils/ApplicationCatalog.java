@@ -0,0 +1,106 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.ApplicationView;
+import com.SC2002.bto.entities.User;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shared, immutable views of the applications in the applicant list.
+ * <p>
+ * The views are built once from the applicant file and shared by all readers until
+ * the file is written again (see {@link FileBackedCache}). Each snapshot also groups the
+ * applications by project, so the applications of a manager's or officer's projects are
+ * found by joining their project IDs against it instead of scanning every applicant.
+ */
+public final class ApplicationCatalog {
+
+    private static final FileBackedCache<Snapshot> cache =
+        new FileBackedCache<>(Constants.APPLICANT_CSV, shared -> load());
+
+    private ApplicationCatalog() {
+    }
+
+    /**
+     * Returns the applications of all applicants, including those who have not applied.
+     *
+     * @return an unmodifiable list of views, in file order
+     */
+    public static List<ApplicationView> getAll() {
+        return cache.get().views;
+    }
+
+    /**
+     * Looks up the application of an applicant.
+     *
+     * @param nric the applicant's NRIC
+     * @return the view, or empty if there is no such applicant
+     */
+    public static Optional<ApplicationView> findByNric(String nric) {
+        return nric == null ? Optional.empty()
+            : Optional.ofNullable(cache.get().viewsByNric.get(nric.toUpperCase()));
+    }
+
+    /**
+     * Returns the applications made for a project.
+     *
+     * @param projectId the project ID
+     * @return an unmodifiable list of views, in file order
+     */
+    public static List<ApplicationView> getByProject(int projectId) {
+        return cache.get().viewsByProject.getOrDefault(projectId, Collections.emptyList());
+    }
+
+    /**
+     * Returns the applications made for any of a set of projects.
+     *
+     * @param projectIds the project IDs, e.g. from {@link ManagerAssignments#getProjectIds}
+     * @return the views, by project ID and then in file order
+     */
+    public static List<ApplicationView> getByProjects(BitSet projectIds) {
+        Map<Integer, List<ApplicationView>> byProject = cache.get().viewsByProject;
+        List<ApplicationView> result = new ArrayList<>();
+        for (int id = projectIds.nextSetBit(0); id >= 0; id = projectIds.nextSetBit(id + 1)) {
+            result.addAll(byProject.getOrDefault(id, Collections.emptyList()));
+        }
+        return result;
+    }
+
+    private static Snapshot load() {
+        List<ApplicationView> views = new ArrayList<>();
+        Map<String, ApplicationView> byNric = new HashMap<>();
+        Map<Integer, List<ApplicationView>> byProject = new HashMap<>();
+        for (User user : FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, Constants.USER_TYPE_APPLICANT)) {
+            if (user instanceof Applicant) {
+                ApplicationView view = ApplicationView.of((Applicant) user);
+                views.add(view);
+                byNric.put(view.getNric().toUpperCase(), view);
+                if (view.getAppliedProjectId() >= 0) {
+                    byProject.computeIfAbsent(view.getAppliedProjectId(), k -> new ArrayList<>()).add(view);
+                }
+            }
+        }
+        byProject.replaceAll((id, applications) -> Collections.unmodifiableList(applications));
+        return new Snapshot(Collections.unmodifiableList(views), byNric, byProject);
+    }
+
+    private static final class Snapshot {
+        private final List<ApplicationView> views;
+        private final Map<String, ApplicationView> viewsByNric;
+        private final Map<Integer, List<ApplicationView>> viewsByProject;
+
+        Snapshot(List<ApplicationView> views, Map<String, ApplicationView> viewsByNric,
+                 Map<Integer, List<ApplicationView>> viewsByProject) {
+            this.views = views;
+            this.viewsByNric = viewsByNric;
+            this.viewsByProject = viewsByProject;
+        }
+    }
+}
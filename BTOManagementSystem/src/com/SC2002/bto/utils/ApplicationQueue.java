@@ -0,0 +1,267 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.ApplicationLease;
+import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.ApplicationView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Work queues of applications waiting for a staff decision: one queue of PENDING
+ * applications and one of PENDING_WITHDRAWAL requests per project.
+ * <p>
+ * An application joins the end of a queue when it enters one of these statuses and
+ * leaves it when its status changes, so each queue is in the order the applications
+ * arrived. The queues are built from the {@link ApplicationCatalog} on first use, in file
+ * order. Like {@link CredentialIndex}, they are kept current by {@link FileManager} as
+ * applications are written; bulk imports and rolled-back units of work mark them for
+ * rebuilding. Edits made directly to the file are picked up on restart.
+ * <p>
+ * Staff claim applications a page at a time. A claim is a lease: the application is
+ * skipped by other staff until it is decided or released, or until the lease expires
+ * after {@link Constants#APPLICATION_LEASE_MINUTES} minutes, so several officers and
+ * managers can work through the same projects at once without deciding an application
+ * twice. Leases are held in memory only and end with the application.
+ */
+public final class ApplicationQueue {
+
+    private static Index index;
+    private static boolean stale = true;
+    private static final Map<String, ApplicationLease> leases = new HashMap<>();
+    private static final long LEASE_MILLIS = Constants.APPLICATION_LEASE_MINUTES * 60_000L;
+
+    private ApplicationQueue() {
+    }
+
+    /**
+     * Checks whether applications with a status wait in a queue.
+     *
+     * @param status the application status
+     * @return true for PENDING and PENDING_WITHDRAWAL
+     */
+    public static boolean isQueued(ApplicationStatus status) {
+        return status == ApplicationStatus.PENDING || status == ApplicationStatus.PENDING_WITHDRAWAL;
+    }
+
+    /**
+     * Claims the oldest applications with a status in some projects that nobody has
+     * claimed, including the caller. Calling it again therefore returns the next page.
+     *
+     * @param staffNric the NRIC of the officer or manager
+     * @param status PENDING or PENDING_WITHDRAWAL
+     * @param projectIds the projects to take work from
+     * @param limit the maximum number of applications to claim
+     * @return the leases, oldest application first; empty if there is no unclaimed work
+     */
+    public static synchronized List<ApplicationLease> claim(String staffNric, ApplicationStatus status,
+                                                            Collection<Integer> projectIds, int limit) {
+        List<ApplicationLease> claimed = new ArrayList<>();
+        Map<Integer, TreeMap<Long, String>> queues = current().queues.get(status);
+        if (queues == null || limit <= 0) {
+            return claimed;
+        }
+        long now = System.currentTimeMillis();
+        // Up to a page of unclaimed applications from each project, merged by age
+        List<Map.Entry<Long, String>> candidates = new ArrayList<>();
+        for (Integer projectId : projectIds) {
+            TreeMap<Long, String> queue = queues.get(projectId);
+            if (queue == null) {
+                continue;
+            }
+            int taken = 0;
+            for (Map.Entry<Long, String> entry : queue.entrySet()) {
+                if (taken == limit) {
+                    break;
+                }
+                if (isFree(entry.getValue(), now)) {
+                    candidates.add(entry);
+                    taken++;
+                }
+            }
+        }
+        candidates.sort(Map.Entry.comparingByKey());
+        for (Map.Entry<Long, String> entry : candidates.subList(0, Math.min(limit, candidates.size()))) {
+            Slot slot = index.byNric.get(entry.getValue());
+            ApplicationLease lease = new ApplicationLease(entry.getValue(), slot.projectId, status, staffNric, now + LEASE_MILLIS);
+            leases.put(entry.getValue(), lease);
+            claimed.add(lease);
+        }
+        return claimed;
+    }
+
+    /**
+     * Gives up a staff member's claim on an application so that others can take it.
+     *
+     * @param applicantNric the NRIC of the applicant
+     * @param staffNric the NRIC of the officer or manager
+     * @return true if the staff member held the claim
+     */
+    public static synchronized boolean release(String applicantNric, String staffNric) {
+        String key = applicantNric.toUpperCase();
+        ApplicationLease lease = leases.get(key);
+        if (lease == null || !lease.getStaffNric().equalsIgnoreCase(staffNric)) {
+            return false;
+        }
+        leases.remove(key);
+        return true;
+    }
+
+    /**
+     * Returns the current claim on an application.
+     *
+     * @param applicantNric the NRIC of the applicant
+     * @return the lease, or empty if the application is not claimed or the claim has lapsed
+     */
+    public static synchronized Optional<ApplicationLease> getLease(String applicantNric) {
+        String key = applicantNric.toUpperCase();
+        ApplicationLease lease = leases.get(key);
+        if (lease != null && lease.isExpired(System.currentTimeMillis())) {
+            leases.remove(key);
+            lease = null;
+        }
+        return Optional.ofNullable(lease);
+    }
+
+    /**
+     * Returns the applications waiting with a status in a project.
+     *
+     * @param status PENDING or PENDING_WITHDRAWAL
+     * @param projectId the project ID
+     * @return the applicant NRICs, oldest first
+     */
+    public static synchronized List<String> getQueued(ApplicationStatus status, int projectId) {
+        Map<Integer, TreeMap<Long, String>> queues = current().queues.get(status);
+        TreeMap<Long, String> queue = queues == null ? null : queues.get(projectId);
+        return queue == null ? new ArrayList<>() : new ArrayList<>(queue.values());
+    }
+
+    /**
+     * Returns the number of applications waiting with a status in a project.
+     *
+     * @param status PENDING or PENDING_WITHDRAWAL
+     * @param projectId the project ID
+     * @return the queue length
+     */
+    public static synchronized int size(ApplicationStatus status, int projectId) {
+        Map<Integer, TreeMap<Long, String>> queues = current().queues.get(status);
+        TreeMap<Long, String> queue = queues == null ? null : queues.get(projectId);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Called by {@link FileManager} after an application has been written. An application
+     * whose status or project changed leaves its queue and its claim ends; if it is now
+     * waiting for a decision, it joins the end of the matching queue.
+     *
+     * @param applicant the applicant as written
+     */
+    static synchronized void onApplicationChanged(Applicant applicant) {
+        if (stale || index == null) {
+            return;
+        }
+        String key = applicant.getNric().toUpperCase();
+        ApplicationStatus status = applicant.getApplicationStatus();
+        int projectId = applicant.getAppliedProjectId();
+        Slot slot = index.byNric.get(key);
+        if (slot != null && slot.status == status && slot.projectId == projectId) {
+            return;
+        }
+        index.remove(key);
+        leases.remove(key);
+        if (isQueued(status) && projectId >= 0) {
+            index.add(key, status, projectId);
+        }
+    }
+
+    /**
+     * Marks the queues for rebuilding from the applicant file, e.g. after a bulk import
+     * or a rolled-back unit of work.
+     *
+     * @param filePath the file that changed
+     */
+    public static synchronized void markStale(String filePath) {
+        if (FileManager.normalizePath(filePath).equals(FileManager.normalizePath(Constants.APPLICANT_CSV))) {
+            stale = true;
+        }
+    }
+
+    private static boolean isFree(String applicantNric, long now) {
+        ApplicationLease lease = leases.get(applicantNric);
+        return lease == null || lease.isExpired(now);
+    }
+
+    private static Index current() {
+        if (stale || index == null) {
+            index = build();
+            stale = false;
+            // Claims on applications that were decided meanwhile are dropped
+            Iterator<Map.Entry<String, ApplicationLease>> claimed = leases.entrySet().iterator();
+            while (claimed.hasNext()) {
+                Map.Entry<String, ApplicationLease> entry = claimed.next();
+                Slot slot = index.byNric.get(entry.getKey());
+                if (slot == null || slot.status != entry.getValue().getStatus()) {
+                    claimed.remove();
+                }
+            }
+        }
+        return index;
+    }
+
+    private static Index build() {
+        Index i = new Index();
+        for (ApplicationView view : ApplicationCatalog.getAll()) {
+            if (isQueued(view.getStatus()) && view.getAppliedProjectId() >= 0) {
+                i.add(view.getNric().toUpperCase(), view.getStatus(), view.getAppliedProjectId());
+            }
+        }
+        return i;
+    }
+
+    private static final class Slot {
+        private final ApplicationStatus status;
+        private final int projectId;
+        private final long sequence;
+
+        Slot(ApplicationStatus status, int projectId, long sequence) {
+            this.status = status;
+            this.projectId = projectId;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Index {
+        private final Map<ApplicationStatus, Map<Integer, TreeMap<Long, String>>> queues =
+            new EnumMap<>(ApplicationStatus.class);
+        private final Map<String, Slot> byNric = new HashMap<>();
+        private long nextSequence;
+
+        void add(String nric, ApplicationStatus status, int projectId) {
+            long sequence = nextSequence++;
+            queues.computeIfAbsent(status, s -> new HashMap<>())
+                .computeIfAbsent(projectId, p -> new TreeMap<>())
+                .put(sequence, nric);
+            byNric.put(nric, new Slot(status, projectId, sequence));
+        }
+
+        void remove(String nric) {
+            Slot slot = byNric.remove(nric);
+            if (slot != null) {
+                Map<Integer, TreeMap<Long, String>> byProject = queues.get(slot.status);
+                TreeMap<Long, String> queue = byProject.get(slot.projectId);
+                queue.remove(slot.sequence);
+                if (queue.isEmpty()) {
+                    byProject.remove(slot.projectId);
+                }
+            }
+        }
+    }
+}
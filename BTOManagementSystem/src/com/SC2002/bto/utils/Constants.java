@@ -21,6 +21,54 @@ public class Constants {
     public static final String ENQUIRY_CSV = DATA_DIR + "/EnquiryList.csv";
     /** Path to the CSV file containing officer registration data */
     public static final String REGISTRATION_CSV = DATA_DIR + "/RegistrationList.csv";
+    /** Directory of the CSV files recording the draw order and outcome of each ballot, one file per ballot */
+    public static final String BALLOT_LOG_DIR = DATA_DIR + "/ballots";
+    /** Path to the CSV file logging changes to the flat waitlists */
+    public static final String WAITLIST_CSV = DATA_DIR + "/Waitlist.csv";
+    /** Path to the journal written while a unit of work is being committed */
+    public static final String JOURNAL_FILE = DATA_DIR + "/transaction.journal";
+    /** Path to the journal written while write-behind changes are being flushed */
+    public static final String WRITE_BEHIND_JOURNAL_FILE = DATA_DIR + "/write-behind.journal";
+    /** Path to the text file the metrics are dumped to */
+    public static final String METRICS_DUMP_FILE = DATA_DIR + "/metrics.txt";
+    /** Path to the log of controller actions slower than the slow-operation threshold */
+    public static final String SLOW_OPERATION_LOG = DATA_DIR + "/slow-operations.log";
+    
+    // Write-behind settings
+    /** How often buffered writes are flushed to disk, in milliseconds */
+    public static final long WRITE_BEHIND_FLUSH_INTERVAL_MS = 500;
+    /** Number of buffered writes that triggers an early flush */
+    public static final int WRITE_BEHIND_MAX_PENDING = 50;
+    
+    // Metrics settings
+    /** How often the metrics are dumped to a file when dumping is on, in seconds */
+    public static final int METRICS_DUMP_INTERVAL_SECONDS = 60;
+    /** Controller actions taking longer than this are logged as slow, in milliseconds */
+    public static final long SLOW_OPERATION_THRESHOLD_MS = 250;
+    
+    // Credential settings
+    /** Number of PBKDF2 iterations used when hashing passwords held in memory */
+    public static final int PASSWORD_HASH_ITERATIONS = 10000;
+    
+    // Listing settings
+    /** Number of rows shown at a time by menus that list a whole table */
+    public static final int LIST_PAGE_SIZE = 20;
+    /** Number of projects shown by the applicant's cheapest available flats listing */
+    public static final int CHEAPEST_FLATS_SHOWN = 5;
+    
+    // Work queue settings
+    /** Minutes an officer's claim on an enquiry lasts before others can take it */
+    public static final int ENQUIRY_LEASE_MINUTES = 15;
+    /** Minutes a staff member's claim on a pending application lasts before others can take it */
+    public static final int APPLICATION_LEASE_MINUTES = 15;
+    
+    // HTTP API settings
+    /** Port the local HTTP API listens on when no port is given */
+    public static final int API_DEFAULT_PORT = 8080;
+    /** Number of threads handling HTTP API requests */
+    public static final int API_WORKER_THREADS = 16;
+    /** How long an idle HTTP API session stays valid, in milliseconds */
+    public static final long API_SESSION_TIMEOUT_MS = 30 * 60 * 1000L;
     
     // Default values
     /** Default password for new users */
@@ -33,6 +81,8 @@ public class Constants {
     public static final int MIN_SINGLE_AGE = 35;
     /** Minimum age required for a married applicant to be eligible */
     public static final int MIN_MARRIED_AGE = 21;
+    /** Maximum number of officer registrations a project can have pending at once */
+    public static final int MAX_PENDING_REGISTRATIONS = 10;
     
     // Application status constants
     /** Status indicating an application is pending processing */
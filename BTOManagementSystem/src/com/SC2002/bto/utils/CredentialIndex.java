@@ -0,0 +1,418 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.Applicant;
+import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.entities.HDBManager;
+import com.SC2002.bto.entities.HDBOfficer;
+import com.SC2002.bto.entities.User;
+
+import javax.crypto.Mac;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory credential index keyed by role and NRIC.
+ * Each entry holds the user's profile, a salted PBKDF2 hash of the password and a
+ * pointer to the user's record (file and row), so a login needs no file I/O.
+ * <p>
+ * Each user list is loaded once and hashed in the background by a small pool of
+ * threads of its own, so the hashing does not hold up other parallel work. An entry
+ * that has not been hashed yet is verified directly and hashed on first use, after
+ * which the plain-text password is dropped from memory.
+ * <p>
+ * The index is kept current by {@link FileManager}: password changes re-hash the
+ * entry, application updates refresh the applicant's application fields, and rows
+ * appended to a user list mark that list for reloading on the next lookup. When a
+ * list is reloaded, each entry also keeps a keyed fingerprint of the password it was
+ * loaded with; entries whose password in the file no longer matches it are rebuilt.
+ * Passwords edited directly in the CSV files are picked up the next time the list is
+ * reloaded.
+ */
+public final class CredentialIndex {
+
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int KEY_BITS = 256;
+    private static final String FINGERPRINT_ALGORITHM = "HmacSHA256";
+    private static final int HASHER_THREADS = 2;
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final byte[] fingerprintKey = newFingerprintKey();
+    private static final ThreadLocal<Mac> fingerprints = ThreadLocal.withInitial(CredentialIndex::newFingerprintMac);
+    private static final ExecutorService hasher = newHasher();
+    private static final Map<String, Map<String, Entry>> byRole = new ConcurrentHashMap<>();
+    private static final Set<String> staleRoles = ConcurrentHashMap.newKeySet();
+    private static final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+
+    private CredentialIndex() {
+    }
+
+    /**
+     * Checks a user's credentials and returns the user on success.
+     *
+     * @param role the role to log in as ("Applicant", "HDBOfficer" or "HDBManager")
+     * @param nric the user's NRIC
+     * @param password the password entered
+     * @return the user with their current profile, or empty if the credentials are wrong
+     */
+    public static Optional<User> authenticate(String role, String nric, String password) {
+        if (nric == null || password == null) {
+            return Optional.empty();
+        }
+        Entry entry = entries(role).get(nric.toUpperCase());
+        if (entry == null || !entry.verify(password)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.toUser(role, password));
+    }
+
+    /**
+     * Copies the indexed application details of an applicant onto the given object.
+     *
+     * @param target the applicant to update
+     * @return true if the applicant was found in the index, false otherwise
+     */
+    public static boolean copyApplicationState(Applicant target) {
+        Entry entry = entries(Constants.USER_TYPE_APPLICANT).get(target.getNric().toUpperCase());
+        if (entry == null) {
+            return false;
+        }
+        synchronized (entry) {
+            target.setAppliedProjectId(entry.appliedProjectId);
+            target.setApplicationStatus(entry.status);
+            target.setAppliedFlatType(entry.flatType);
+        }
+        return true;
+    }
+
+    /**
+     * Returns the record pointer of a user: the user list file and the row in it.
+     *
+     * @param role the user's role
+     * @param nric the user's NRIC
+     * @return "path#row", or empty if the user is not indexed
+     */
+    public static Optional<String> getRecordPointer(String role, String nric) {
+        Entry entry = entries(role).get(nric.toUpperCase());
+        return entry == null ? Optional.empty() : Optional.of(pathFor(role) + "#" + entry.row);
+    }
+
+    /**
+     * Called by {@link FileManager} after a password has been written to a user list.
+     *
+     * @param filePath the user list that was updated
+     * @param nric the user's NRIC
+     * @param newPassword the new password
+     */
+    static void onPasswordChanged(String filePath, String nric, String newPassword) {
+        String role = roleFor(filePath);
+        Map<String, Entry> entries = role == null ? null : byRole.get(role);
+        Entry entry = entries == null ? null : entries.get(nric.toUpperCase());
+        if (entry != null) {
+            entry.setPassword(newPassword);
+        }
+    }
+
+    /**
+     * Called by {@link FileManager} after an applicant's application details have been written.
+     *
+     * @param applicant the applicant with the new application details
+     */
+    static void onApplicationChanged(Applicant applicant) {
+        Map<String, Entry> entries = byRole.get(Constants.USER_TYPE_APPLICANT);
+        if (entries == null) {
+            return;
+        }
+        Entry entry = entries.get(applicant.getNric().toUpperCase());
+        if (entry == null) {
+            // A new applicant row was added
+            staleRoles.add(Constants.USER_TYPE_APPLICANT);
+            return;
+        }
+        synchronized (entry) {
+            entry.appliedProjectId = applicant.getAppliedProjectId();
+            entry.status = applicant.getApplicationStatus();
+            entry.flatType = applicant.getAppliedFlatType();
+        }
+    }
+
+    /**
+     * Loads a user list into the index ahead of the first login with that role.
+     *
+     * @param role the role whose user list to load
+     */
+    public static void preload(String role) {
+        entries(role);
+    }
+
+    /**
+     * Marks a user list as changed outside the index, e.g. after a bulk import
+     * or a rolled-back unit of work. It is reloaded on the next lookup.
+     *
+     * @param filePath the user list that changed
+     */
+    public static void markStale(String filePath) {
+        String role = roleFor(filePath);
+        if (role != null) {
+            staleRoles.add(role);
+        }
+    }
+
+    /**
+     * Returns the entries for a role, loading or reloading the user list if needed.
+     */
+    private static Map<String, Entry> entries(String role) {
+        String key = normalizeRole(role);
+        if (key == null) {
+            return Map.of();
+        }
+        Map<String, Entry> entries = byRole.get(key);
+        if (entries == null || staleRoles.contains(key)) {
+            // Each role has its own lock, so the user lists can be loaded in parallel
+            synchronized (loadLocks.computeIfAbsent(key, k -> new Object())) {
+                entries = byRole.get(key);
+                if (entries == null || staleRoles.remove(key)) {
+                    entries = load(key, entries);
+                    byRole.put(key, entries);
+                }
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Loads a user list into index entries. Entries that already exist keep their
+     * password hash if the password in the file is still the one they were loaded
+     * with; only their profile and application details are refreshed. Otherwise
+     * a new entry is built from the file.
+     */
+    private static Map<String, Entry> load(String role, Map<String, Entry> previous) {
+        Map<String, Entry> entries = new ConcurrentHashMap<>();
+        List<Entry> toHash = new ArrayList<>();
+        List<User> users = FileManager.loadUsersFromCSV(pathFor(role), role);
+        for (int row = 0; row < users.size(); row++) {
+            User user = users.get(row);
+            String nric = user.getNric().toUpperCase();
+            byte[] fingerprint = fingerprint(user.getPassword());
+            Entry entry = previous == null ? null : previous.get(nric);
+            if (entry == null || !entry.isLoadedWith(fingerprint)) {
+                entry = new Entry(user.getPassword(), fingerprint);
+                toHash.add(entry);
+            }
+            entry.update(user, row);
+            entries.put(nric, entry);
+        }
+
+        // Each hasher thread takes every HASHER_THREADS-th entry
+        for (int t = 0; t < Math.min(HASHER_THREADS, toHash.size()); t++) {
+            int first = t;
+            hasher.execute(() -> {
+                for (int i = first; i < toHash.size(); i += HASHER_THREADS) {
+                    toHash.get(i).hashIfPending();
+                }
+            });
+        }
+        return entries;
+    }
+
+    private static ExecutorService newHasher() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(HASHER_THREADS, r -> {
+            Thread t = new Thread(r, "credential-hasher-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    private static String normalizeRole(String role) {
+        if (Constants.USER_TYPE_APPLICANT.equalsIgnoreCase(role)) {
+            return Constants.USER_TYPE_APPLICANT;
+        } else if (Constants.USER_TYPE_OFFICER.equalsIgnoreCase(role)) {
+            return Constants.USER_TYPE_OFFICER;
+        } else if (Constants.USER_TYPE_MANAGER.equalsIgnoreCase(role)) {
+            return Constants.USER_TYPE_MANAGER;
+        }
+        return null;
+    }
+
+    private static String pathFor(String role) {
+        if (Constants.USER_TYPE_OFFICER.equals(role)) {
+            return Constants.OFFICER_CSV;
+        } else if (Constants.USER_TYPE_MANAGER.equals(role)) {
+            return Constants.MANAGER_CSV;
+        }
+        return Constants.APPLICANT_CSV;
+    }
+
+    private static String roleFor(String filePath) {
+        String path = FileManager.normalizePath(filePath);
+        if (path.equals(FileManager.normalizePath(Constants.APPLICANT_CSV))) {
+            return Constants.USER_TYPE_APPLICANT;
+        } else if (path.equals(FileManager.normalizePath(Constants.OFFICER_CSV))) {
+            return Constants.USER_TYPE_OFFICER;
+        } else if (path.equals(FileManager.normalizePath(Constants.MANAGER_CSV))) {
+            return Constants.USER_TYPE_MANAGER;
+        }
+        return null;
+    }
+
+    /**
+     * Returns a keyed fingerprint of a password, used to notice passwords changed in the
+     * file. The key is random per run, so the fingerprint cannot be checked offline.
+     */
+    private static byte[] fingerprint(String password) {
+        return fingerprints.get().doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Mac newFingerprintMac() {
+        try {
+            Mac mac = Mac.getInstance(FINGERPRINT_ALGORITHM);
+            mac.init(new SecretKeySpec(fingerprintKey, FINGERPRINT_ALGORITHM));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Password fingerprints are not available", e);
+        }
+    }
+
+    private static byte[] newFingerprintKey() {
+        byte[] key = new byte[32];
+        random.nextBytes(key);
+        return key;
+    }
+
+    private static byte[] hash(String password, byte[] salt) {
+        try {
+            PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt,
+                Constants.PASSWORD_HASH_ITERATIONS, KEY_BITS);
+            try {
+                return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+            } finally {
+                spec.clearPassword();
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Password hashing is not available", e);
+        }
+    }
+
+    /**
+     * One indexed user. The password is held in plain text only until it is hashed.
+     */
+    private static final class Entry {
+        private String pendingPassword;
+        private byte[] salt;
+        private byte[] hash;
+        private byte[] fingerprint;
+
+        private String nric;
+        private String name;
+        private int age;
+        private String maritalStatus;
+        private int row;
+        private int appliedProjectId = -1;
+        private ApplicationStatus status = ApplicationStatus.NOT_APPLIED;
+        private String flatType = "";
+
+        Entry(String password, byte[] fingerprint) {
+            this.pendingPassword = password;
+            this.fingerprint = fingerprint;
+        }
+
+        synchronized boolean isLoadedWith(byte[] passwordFingerprint) {
+            return MessageDigest.isEqual(fingerprint, passwordFingerprint);
+        }
+
+        synchronized void update(User user, int row) {
+            this.nric = user.getNric();
+            this.name = user.getName();
+            this.age = user.getAge();
+            this.maritalStatus = user.getMaritalStatus();
+            this.row = row;
+            if (user instanceof Applicant) {
+                Applicant a = (Applicant) user;
+                this.appliedProjectId = a.getAppliedProjectId();
+                this.status = a.getApplicationStatus();
+                this.flatType = a.getAppliedFlatType();
+            }
+        }
+
+        void hashIfPending() {
+            String password;
+            synchronized (this) {
+                password = pendingPassword;
+            }
+            if (password != null) {
+                byte[] newSalt = new byte[SALT_BYTES];
+                random.nextBytes(newSalt);
+                byte[] newHash = hash(password, newSalt);
+                synchronized (this) {
+                    // Only store it if the password did not change in the meantime
+                    if (password.equals(pendingPassword)) {
+                        salt = newSalt;
+                        hash = newHash;
+                        pendingPassword = null;
+                    }
+                }
+            }
+        }
+
+        void setPassword(String password) {
+            byte[] newFingerprint = fingerprint(password);
+            synchronized (this) {
+                pendingPassword = password;
+                fingerprint = newFingerprint;
+                salt = null;
+                hash = null;
+            }
+            hashIfPending();
+        }
+
+        boolean verify(String password) {
+            byte[] currentSalt;
+            byte[] currentHash;
+            synchronized (this) {
+                if (pendingPassword != null) {
+                    boolean ok = MessageDigest.isEqual(pendingPassword.getBytes(StandardCharsets.UTF_8),
+                        password.getBytes(StandardCharsets.UTF_8));
+                    if (!ok) {
+                        return false;
+                    }
+                }
+                currentSalt = salt;
+                currentHash = hash;
+            }
+            if (currentHash == null) {
+                hashIfPending();
+                return true;
+            }
+            return MessageDigest.isEqual(currentHash, hash(password, currentSalt));
+        }
+
+        synchronized User toUser(String role, String password) {
+            String key = normalizeRole(role);
+            if (Constants.USER_TYPE_OFFICER.equals(key)) {
+                return new HDBOfficer(name, nric, password, age, maritalStatus);
+            } else if (Constants.USER_TYPE_MANAGER.equals(key)) {
+                return new HDBManager(name, nric, password, age, maritalStatus);
+            }
+            Applicant applicant = new Applicant(name, nric, password, age, maritalStatus);
+            applicant.setAppliedProjectId(appliedProjectId);
+            applicant.setApplicationStatus(status);
+            applicant.setAppliedFlatType(flatType);
+            return applicant;
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.Project;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Precomputed eligibility of applicants for projects and flat types.
+ * <p>
+ * Eligibility depends only on an applicant's marital status and which age band they
+ * fall into, where the bands are bounded by the minimum ages in {@link Constants}.
+ * For every (marital status, age band) bucket the matrix holds the eligible flat types,
+ * the projects the bucket may view and, per project, the eligible flat types that still
+ * have units. Buckets are computed in parallel from one read of the project list.
+ * <p>
+ * The matrix is built from a {@link ProjectCatalog} snapshot and rebuilt whenever the
+ * catalog publishes a new one, i.e. whenever projects or their inventory change, and when
+ * the date changes (application periods are date-based). Returned projects are shared
+ * and must be treated as read-only.
+ */
+public final class EligibilityMatrix {
+
+    private static final String[] MARITAL_STATUSES = {
+        Constants.MARITAL_STATUS_SINGLE, Constants.MARITAL_STATUS_MARRIED
+    };
+    private static final String[] FLAT_TYPES = {
+        Constants.FLAT_TYPE_2_ROOM, Constants.FLAT_TYPE_3_ROOM
+    };
+
+    private static volatile Matrix matrix;
+
+    private EligibilityMatrix() {
+    }
+
+    /**
+     * Returns the visible, open projects an applicant may view, i.e. those offering a flat
+     * type the applicant is eligible for.
+     *
+     * @param maritalStatus the applicant's marital status
+     * @param age the applicant's age
+     * @return the viewable projects, or an empty list if the applicant is not eligible
+     */
+    public static List<Project> getViewableProjects(String maritalStatus, int age) {
+        Bucket bucket = current().bucket(maritalStatus, age);
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.viewable);
+    }
+
+    /**
+     * Returns the visible projects that still have units of a flat type the applicant
+     * is eligible for.
+     *
+     * @param maritalStatus the applicant's marital status
+     * @param age the applicant's age
+     * @return the eligible projects, or an empty list if the applicant is not eligible
+     */
+    public static List<Project> getEligibleProjects(String maritalStatus, int age) {
+        Bucket bucket = current().bucket(maritalStatus, age);
+        return bucket == null ? new ArrayList<>() : new ArrayList<>(bucket.eligible);
+    }
+
+    /**
+     * Returns the flat types of a project the applicant is eligible for and that still have units.
+     *
+     * @param maritalStatus the applicant's marital status
+     * @param age the applicant's age
+     * @param projectId the project ID
+     * @return the flat types, or an empty set if there are none or the project does not exist
+     */
+    public static Set<String> getAvailableFlatTypes(String maritalStatus, int age, int projectId) {
+        Bucket bucket = current().bucket(maritalStatus, age);
+        if (bucket == null) {
+            return Collections.emptySet();
+        }
+        return bucket.availableByProject.getOrDefault(projectId, Collections.emptySet());
+    }
+
+    /**
+     * Checks whether an applicant may apply for a flat type in a project that still has units of it.
+     *
+     * @param maritalStatus the applicant's marital status
+     * @param age the applicant's age
+     * @param projectId the project ID
+     * @param flatType the flat type
+     * @return true if the applicant is eligible, false otherwise
+     */
+    public static boolean isEligible(String maritalStatus, int age, int projectId, String flatType) {
+        for (String type : getAvailableFlatTypes(maritalStatus, age, projectId)) {
+            if (type.equalsIgnoreCase(flatType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks up a project by ID in the current project list, regardless of visibility.
+     *
+     * @param projectId the project ID
+     * @return the project, or null if it does not exist
+     */
+    public static Project findProject(int projectId) {
+        return current().source.getProject(projectId);
+    }
+
+    /**
+     * Returns the matrix for the current project snapshot and date, rebuilding it if needed.
+     */
+    private static Matrix current() {
+        ProjectCatalog.Snapshot source = ProjectCatalog.snapshot();
+        LocalDate today = LocalDate.now();
+        Matrix m = matrix;
+        if (m != null && m.source == source && m.builtOn.equals(today)) {
+            return m;
+        }
+        if (!source.isPublished()) {
+            // Uncommitted changes of a unit of work are not shared with other threads
+            return build(source, today);
+        }
+        synchronized (EligibilityMatrix.class) {
+            m = matrix;
+            if (m == null || m.source != source || !m.builtOn.equals(today)) {
+                m = build(source, today);
+                matrix = m;
+            }
+            return m;
+        }
+    }
+
+    private static Matrix build(ProjectCatalog.Snapshot source, LocalDate today) {
+        List<Project> projects = source.getProjects();
+        int[] bounds = ageBounds();
+
+        List<String> keys = new ArrayList<>();
+        for (String ms : MARITAL_STATUSES) {
+            for (int band = 0; band <= bounds.length; band++) {
+                keys.add(key(ms, band));
+            }
+        }
+        Map<String, Bucket> buckets = keys.parallelStream()
+            .collect(Collectors.toConcurrentMap(Function.identity(),
+                key -> buildBucket(key, bounds, projects, today)));
+        return new Matrix(source, buckets, bounds, today);
+    }
+
+    /**
+     * Evaluates the eligibility rules for one bucket, using the lowest age in its band.
+     */
+    private static Bucket buildBucket(String key, int[] bounds, List<Project> projects, LocalDate today) {
+        int sep = key.indexOf('|');
+        String ms = key.substring(0, sep);
+        int band = Integer.parseInt(key.substring(sep + 1));
+        int age = band == 0 ? 0 : bounds[band - 1];
+
+        Set<String> flatTypes = new LinkedHashSet<>();
+        for (String type : FLAT_TYPES) {
+            if (InputValidator.validateApplicantEligibility(age, ms, type)) {
+                flatTypes.add(type);
+            }
+        }
+
+        List<Project> viewable = new ArrayList<>();
+        List<Project> eligible = new ArrayList<>();
+        Map<Integer, Set<String>> availableByProject = new HashMap<>();
+        if (flatTypes.isEmpty()) {
+            return new Bucket(viewable, eligible, availableByProject);
+        }
+
+        for (Project p : projects) {
+            Set<String> available = new LinkedHashSet<>();
+            boolean offered = false;
+            for (String type : flatTypes) {
+                if (type.equalsIgnoreCase(p.getType1Desc()) || type.equalsIgnoreCase(p.getType2Desc())) {
+                    offered = true;
+                }
+                if (unitsOf(p, type) > 0) {
+                    available.add(type);
+                }
+            }
+            if (!available.isEmpty()) {
+                availableByProject.put(p.getProjectId(), Collections.unmodifiableSet(available));
+            }
+            if (p.isVisible() && !available.isEmpty()) {
+                eligible.add(p);
+            }
+            if (p.isVisible() && offered && isOpen(p, today)) {
+                viewable.add(p);
+            }
+        }
+        return new Bucket(viewable, eligible, availableByProject);
+    }
+
+    /**
+     * Returns the remaining units of a flat type. 2-Room units are held in the first
+     * flat type of a project and 3-Room units in the second.
+     */
+    private static int unitsOf(Project project, String flatType) {
+        if (Constants.FLAT_TYPE_2_ROOM.equalsIgnoreCase(flatType)) {
+            return project.getType1Units();
+        } else if (Constants.FLAT_TYPE_3_ROOM.equalsIgnoreCase(flatType)) {
+            return project.getType2Units();
+        }
+        return 0;
+    }
+
+    private static boolean isOpen(Project project, LocalDate today) {
+        return !today.isBefore(project.getApplicationOpeningDate())
+            && !today.isAfter(project.getApplicationClosingDate());
+    }
+
+    /**
+     * Returns the ages at which an eligibility rule starts to apply, in ascending order.
+     */
+    private static int[] ageBounds() {
+        Set<Integer> bounds = new TreeSet<>();
+        bounds.add(Constants.MIN_MARRIED_AGE);
+        bounds.add(Constants.MIN_SINGLE_AGE);
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String key(String maritalStatus, int band) {
+        return maritalStatus + "|" + band;
+    }
+
+    /**
+     * The buckets computed from one project snapshot.
+     */
+    private static final class Matrix {
+        private final ProjectCatalog.Snapshot source;
+        private final Map<String, Bucket> buckets;
+        private final int[] bounds;
+        private final LocalDate builtOn;
+
+        Matrix(ProjectCatalog.Snapshot source, Map<String, Bucket> buckets, int[] bounds, LocalDate builtOn) {
+            this.source = source;
+            this.buckets = buckets;
+            this.bounds = bounds;
+            this.builtOn = builtOn;
+        }
+
+        Bucket bucket(String maritalStatus, int age) {
+            if (!InputValidator.validateMaritalStatus(maritalStatus)) {
+                return null;
+            }
+            int band = 0;
+            while (band < bounds.length && age >= bounds[band]) {
+                band++;
+            }
+            String ms = Constants.MARITAL_STATUS_SINGLE.equalsIgnoreCase(maritalStatus)
+                ? Constants.MARITAL_STATUS_SINGLE : Constants.MARITAL_STATUS_MARRIED;
+            return buckets.get(key(ms, band));
+        }
+    }
+
+    /**
+     * The precomputed projects and flat types of one (marital status, age band) bucket.
+     */
+    private static final class Bucket {
+        private final List<Project> viewable;
+        private final List<Project> eligible;
+        private final Map<Integer, Set<String>> availableByProject;
+
+        Bucket(List<Project> viewable, List<Project> eligible, Map<Integer, Set<String>> availableByProject) {
+            this.viewable = viewable;
+            this.eligible = eligible;
+            this.availableByProject = availableByProject;
+        }
+    }
+}
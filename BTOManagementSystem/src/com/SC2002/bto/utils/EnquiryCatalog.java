@@ -0,0 +1,108 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.Enquiry;
+import com.SC2002.bto.entities.EnquiryView;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Shared, immutable views of all enquiries.
+ * <p>
+ * The views are built once from the enquiry file and shared by all readers until
+ * the file is written again (see {@link FileBackedCache}), whether by the enquiry
+ * repository or directly through {@link FileManager}. Each snapshot also groups the
+ * enquiries by project, for the enquiries of a manager's or officer's projects.
+ */
+public final class EnquiryCatalog {
+
+    private static final FileBackedCache<Snapshot> cache =
+        new FileBackedCache<>(Constants.ENQUIRY_CSV, shared -> load());
+
+    private EnquiryCatalog() {
+    }
+
+    /**
+     * Returns all enquiries.
+     *
+     * @return an unmodifiable list of views, in file order
+     */
+    public static List<EnquiryView> getAll() {
+        return cache.get().views;
+    }
+
+    /**
+     * Looks up an enquiry by ID.
+     *
+     * @param enquiryId the enquiry ID
+     * @return the view, or empty if it does not exist
+     */
+    public static Optional<EnquiryView> findById(int enquiryId) {
+        return Optional.ofNullable(cache.get().viewsById.get(enquiryId));
+    }
+
+    /**
+     * Returns the enquiries about a project.
+     *
+     * @param projectId the project ID
+     * @return an unmodifiable list of views, in file order
+     */
+    public static List<EnquiryView> getByProject(int projectId) {
+        return cache.get().viewsByProject.getOrDefault(projectId, Collections.emptyList());
+    }
+
+    /**
+     * Returns the enquiries about any of a set of projects.
+     *
+     * @param projectIds the project IDs, e.g. from {@link ManagerAssignments#getProjectIds}
+     * @return the views, by project ID and then in file order
+     */
+    public static List<EnquiryView> getByProjects(BitSet projectIds) {
+        Map<Integer, List<EnquiryView>> byProject = cache.get().viewsByProject;
+        List<EnquiryView> result = new ArrayList<>();
+        for (int id = projectIds.nextSetBit(0); id >= 0; id = projectIds.nextSetBit(id + 1)) {
+            result.addAll(byProject.getOrDefault(id, Collections.emptyList()));
+        }
+        return result;
+    }
+
+    /**
+     * Discards the cached views so the enquiry file is read again on the next lookup.
+     * Writes through {@link FileManager} do this automatically.
+     */
+    public static void invalidate() {
+        cache.invalidate();
+    }
+
+    private static Snapshot load() {
+        List<EnquiryView> views = new ArrayList<>();
+        Map<Integer, EnquiryView> byId = new HashMap<>();
+        Map<Integer, List<EnquiryView>> byProject = new HashMap<>();
+        for (Enquiry enquiry : FileManager.loadAllEnquiries(Constants.ENQUIRY_CSV)) {
+            EnquiryView view = EnquiryView.of(enquiry);
+            views.add(view);
+            byId.put(view.getEnquiryId(), view);
+            byProject.computeIfAbsent(view.getProjectId(), k -> new ArrayList<>()).add(view);
+        }
+        byProject.replaceAll((id, enquiries) -> Collections.unmodifiableList(enquiries));
+        return new Snapshot(Collections.unmodifiableList(views), byId, byProject);
+    }
+
+    private static final class Snapshot {
+        private final List<EnquiryView> views;
+        private final Map<Integer, EnquiryView> viewsById;
+        private final Map<Integer, List<EnquiryView>> viewsByProject;
+
+        Snapshot(List<EnquiryView> views, Map<Integer, EnquiryView> viewsById,
+                 Map<Integer, List<EnquiryView>> viewsByProject) {
+            this.views = views;
+            this.viewsById = viewsById;
+            this.viewsByProject = viewsByProject;
+        }
+    }
+}
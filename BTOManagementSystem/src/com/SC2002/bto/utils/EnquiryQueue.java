@@ -0,0 +1,256 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.Enquiry;
+import com.SC2002.bto.entities.EnquiryLease;
+import com.SC2002.bto.entities.EnquiryView;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * Work queues of unanswered enquiries, one per project, oldest first.
+ * <p>
+ * Enquiry IDs are assigned in the order enquiries are submitted, so the oldest enquiry
+ * of a project is the one with the lowest ID. Each queue is a sorted set of IDs, and
+ * every queued enquiry is also indexed by ID, so submitting, answering and taking the
+ * oldest enquiry are O(log n). The queues are built from the {@link EnquiryCatalog} on
+ * first use. Like {@link CredentialIndex}, they are kept current by {@link FileManager}
+ * as enquiries are written; rewrites of the whole file and rolled-back units of work
+ * mark them for rebuilding. Edits made directly to the file are picked up on restart.
+ * <p>
+ * An officer claims an enquiry before answering it. The claim is a lease: no other
+ * officer can claim the enquiry until it is answered or released, or until the lease
+ * expires after {@link Constants#ENQUIRY_LEASE_MINUTES} minutes. Several officers can
+ * therefore pull work from the same projects without answering an enquiry twice.
+ * Leases are held in memory only and end with the application.
+ */
+public final class EnquiryQueue {
+
+    private static Index index;
+    private static boolean stale = true;
+    private static final Map<Integer, EnquiryLease> leases = new HashMap<>();
+    private static final long LEASE_MILLIS = Constants.ENQUIRY_LEASE_MINUTES * 60_000L;
+
+    private EnquiryQueue() {
+    }
+
+    /**
+     * Claims the oldest unanswered enquiry of some projects that no other officer holds.
+     * An enquiry the officer already holds is claimed again, renewing the lease.
+     *
+     * @param officerNric the NRIC of the officer
+     * @param projectIds the projects to take work from
+     * @return the lease, or empty if every unanswered enquiry is held by another officer
+     */
+    public static synchronized Optional<EnquiryLease> claimNext(String officerNric, Collection<Integer> projectIds) {
+        Index i = current();
+        long now = System.currentTimeMillis();
+        int oldest = Integer.MAX_VALUE;
+        for (Integer projectId : projectIds) {
+            TreeSet<Integer> queue = i.queues.get(projectId);
+            if (queue == null) {
+                continue;
+            }
+            // Leased enquiries are skipped; there are at most as many as there are officers at work
+            for (Integer enquiryId : queue) {
+                if (enquiryId >= oldest) {
+                    break;
+                }
+                if (isFree(enquiryId, officerNric, now)) {
+                    oldest = enquiryId;
+                    break;
+                }
+            }
+        }
+        if (oldest == Integer.MAX_VALUE) {
+            return Optional.empty();
+        }
+        return Optional.of(lease(oldest, i.projectOf.get(oldest), officerNric, now));
+    }
+
+    /**
+     * Claims a specific unanswered enquiry, or renews the officer's claim on it.
+     *
+     * @param enquiryId the ID of the enquiry
+     * @param officerNric the NRIC of the officer
+     * @return the lease, or empty if the enquiry is answered, does not exist, or is held
+     *         by another officer
+     */
+    public static synchronized Optional<EnquiryLease> claim(int enquiryId, String officerNric) {
+        Integer projectId = current().projectOf.get(enquiryId);
+        long now = System.currentTimeMillis();
+        if (projectId == null || !isFree(enquiryId, officerNric, now)) {
+            return Optional.empty();
+        }
+        return Optional.of(lease(enquiryId, projectId, officerNric, now));
+    }
+
+    /**
+     * Gives up an officer's claim on an enquiry so that others can take it.
+     *
+     * @param enquiryId the ID of the enquiry
+     * @param officerNric the NRIC of the officer
+     * @return true if the officer held the claim
+     */
+    public static synchronized boolean release(int enquiryId, String officerNric) {
+        EnquiryLease lease = leases.get(enquiryId);
+        if (lease == null || !lease.getOfficerNric().equalsIgnoreCase(officerNric)) {
+            return false;
+        }
+        leases.remove(enquiryId);
+        return true;
+    }
+
+    /**
+     * Returns the current claim on an enquiry.
+     *
+     * @param enquiryId the ID of the enquiry
+     * @return the lease, or empty if the enquiry is not claimed or the claim has lapsed
+     */
+    public static synchronized Optional<EnquiryLease> getLease(int enquiryId) {
+        EnquiryLease lease = leases.get(enquiryId);
+        if (lease != null && lease.isExpired(System.currentTimeMillis())) {
+            leases.remove(enquiryId);
+            lease = null;
+        }
+        return Optional.ofNullable(lease);
+    }
+
+    /**
+     * Checks whether an enquiry is waiting for an answer.
+     *
+     * @param enquiryId the ID of the enquiry
+     * @return true if the enquiry exists and is unanswered
+     */
+    public static synchronized boolean isQueued(int enquiryId) {
+        return current().projectOf.containsKey(enquiryId);
+    }
+
+    /**
+     * Returns the unanswered enquiries of a project.
+     *
+     * @param projectId the project ID
+     * @return the enquiry IDs, oldest first
+     */
+    public static synchronized List<Integer> getUnanswered(int projectId) {
+        TreeSet<Integer> queue = current().queues.get(projectId);
+        return queue == null ? new ArrayList<>() : new ArrayList<>(queue);
+    }
+
+    /**
+     * Returns the unanswered enquiries of all projects.
+     *
+     * @return the enquiry IDs, oldest first
+     */
+    public static synchronized List<Integer> getAllUnanswered() {
+        return new ArrayList<>(current().all);
+    }
+
+    /**
+     * Returns the number of unanswered enquiries of a project.
+     *
+     * @param projectId the project ID
+     * @return the queue length
+     */
+    public static synchronized int size(int projectId) {
+        TreeSet<Integer> queue = current().queues.get(projectId);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Called by {@link FileManager} after an enquiry has been added or changed. An
+     * answered enquiry leaves its queue and its claim ends; an unanswered one joins the
+     * queue of its project.
+     *
+     * @param enquiry the enquiry as written
+     */
+    static synchronized void onEnquiryWritten(Enquiry enquiry) {
+        if (stale || index == null) {
+            return;
+        }
+        index.remove(enquiry.getEnquiryId());
+        if (enquiry.hasResponse()) {
+            leases.remove(enquiry.getEnquiryId());
+        } else {
+            index.add(enquiry.getEnquiryId(), enquiry.getProjectId());
+        }
+    }
+
+    /**
+     * Marks the queues for rebuilding from the enquiry file, e.g. after the whole file
+     * was rewritten or a unit of work was rolled back.
+     *
+     * @param filePath the file that changed
+     */
+    public static synchronized void markStale(String filePath) {
+        if (FileManager.normalizePath(filePath).equals(FileManager.normalizePath(Constants.ENQUIRY_CSV))) {
+            stale = true;
+        }
+    }
+
+    private static boolean isFree(int enquiryId, String officerNric, long now) {
+        EnquiryLease lease = leases.get(enquiryId);
+        return lease == null || lease.isExpired(now) || lease.getOfficerNric().equalsIgnoreCase(officerNric);
+    }
+
+    private static EnquiryLease lease(int enquiryId, int projectId, String officerNric, long now) {
+        EnquiryLease lease = new EnquiryLease(enquiryId, projectId, officerNric, now + LEASE_MILLIS);
+        leases.put(enquiryId, lease);
+        return lease;
+    }
+
+    private static Index current() {
+        if (stale || index == null) {
+            index = build();
+            stale = false;
+            // Claims on enquiries that were answered or removed meanwhile are dropped
+            Iterator<Integer> claimed = leases.keySet().iterator();
+            while (claimed.hasNext()) {
+                if (!index.projectOf.containsKey(claimed.next())) {
+                    claimed.remove();
+                }
+            }
+        }
+        return index;
+    }
+
+    private static Index build() {
+        Index i = new Index();
+        for (EnquiryView view : EnquiryCatalog.getAll()) {
+            if (!view.hasResponse()) {
+                i.add(view.getEnquiryId(), view.getProjectId());
+            }
+        }
+        return i;
+    }
+
+    private static final class Index {
+        private final Map<Integer, TreeSet<Integer>> queues = new HashMap<>();
+        private final Map<Integer, Integer> projectOf = new HashMap<>();
+        private final TreeSet<Integer> all = new TreeSet<>();
+
+        void add(int enquiryId, int projectId) {
+            queues.computeIfAbsent(projectId, k -> new TreeSet<>()).add(enquiryId);
+            projectOf.put(enquiryId, projectId);
+            all.add(enquiryId);
+        }
+
+        void remove(int enquiryId) {
+            Integer projectId = projectOf.remove(enquiryId);
+            if (projectId != null) {
+                all.remove(enquiryId);
+                TreeSet<Integer> queue = queues.get(projectId);
+                queue.remove(enquiryId);
+                if (queue.isEmpty()) {
+                    queues.remove(projectId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.SC2002.bto.utils;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A value computed from one data file and shared by all threads until the file changes.
+ * <p>
+ * The value is swapped in with a single reference update, so readers never lock.
+ * It is discarded when {@link FileManager} finishes writing the file, and when the file
+ * is changed outside the application (checked about once a second). A thread with an
+ * active {@link UnitOfWork} that has staged changes to the file gets a private value
+ * computed from its staged content instead.
+ *
+ * @param <T> the type of the cached value
+ */
+final class FileBackedCache<T> {
+
+    /**
+     * Computes the cached value from the file.
+     *
+     * @param <T> the type of the value
+     */
+    interface Loader<T> {
+        /**
+         * @param shared true if the value will be shared by all threads, false if it is
+         *               the private view of a unit of work
+         * @return the value
+         */
+        T load(boolean shared);
+    }
+
+    /** How often the file is checked for outside changes, in milliseconds */
+    private static final long CHECK_INTERVAL_MS = 1000;
+
+    private static final List<FileBackedCache<?>> caches = new CopyOnWriteArrayList<>();
+
+    private final String path;
+    private final String normalizedPath;
+    private final Loader<T> loader;
+    private final AtomicReference<Entry> current = new AtomicReference<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Creates a cache for a data file and registers it for write notifications.
+     *
+     * @param path the data file
+     * @param loader computes the value from the file
+     */
+    FileBackedCache(String path, Loader<T> loader) {
+        this.path = path;
+        this.normalizedPath = FileManager.normalizePath(path);
+        this.loader = loader;
+        caches.add(this);
+    }
+
+    /**
+     * Returns the current value, computing it if needed.
+     *
+     * @return the value
+     */
+    T get() {
+        UnitOfWork uow = UnitOfWork.current();
+        if (uow != null && uow.getStaged(path) != null) {
+            return loader.load(false);
+        }
+
+        Entry e = current.get();
+        long now = System.currentTimeMillis();
+        if (e != null && now - e.checkedAt < CHECK_INTERVAL_MS) {
+            return e.value;
+        }
+        if (e != null && e.matchesFile()) {
+            e.checkedAt = now;
+            return e.value;
+        }
+        synchronized (this) {
+            e = current.get();
+            if (e == null || !e.matchesFile()) {
+                long gen = generation.get();
+                File file = new File(path);
+                e = new Entry(file.lastModified(), file.length(), loader.load(true));
+                // Do not publish a value that was invalidated while it was being computed
+                if (generation.get() == gen) {
+                    current.set(e);
+                }
+            }
+            return e.value;
+        }
+    }
+
+    /**
+     * Discards the value so it is computed again on the next lookup.
+     */
+    void invalidate() {
+        generation.incrementAndGet();
+        current.set(null);
+    }
+
+    /**
+     * Called by {@link FileManager} after a data file has been written.
+     *
+     * @param filePath the file that was written
+     */
+    static void fileWritten(String filePath) {
+        String normalized = FileManager.normalizePath(filePath);
+        for (FileBackedCache<?> cache : caches) {
+            if (cache.normalizedPath.equals(normalized)) {
+                cache.invalidate();
+            }
+        }
+    }
+
+    private final class Entry {
+        private final long lastModified;
+        private final long length;
+        private final T value;
+        private volatile long checkedAt = System.currentTimeMillis();
+
+        Entry(long lastModified, long length, T value) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.value = value;
+        }
+
+        boolean matchesFile() {
+            File file = new File(path);
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.SC2002.bto.entities.ApplicationStatus;
 import com.SC2002.bto.entities.Enquiry;
 import com.SC2002.bto.entities.HDBManager;
 import com.SC2002.bto.entities.HDBOfficer;
+import com.SC2002.bto.entities.OfficerAsApplicant;
 import com.SC2002.bto.entities.Project;
 import com.SC2002.bto.entities.User;
 
@@ -13,11 +14,15 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Utility class for file operations in the BTO Management System.
@@ -28,6 +33,301 @@ public class FileManager {
     /** Date formatter for parsing and formatting dates in CSV files */
     private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("d/M/yy");
     
+    /**
+     * Opens a file for reading. If a unit of work is active and has staged
+     * changes to the file, or write-behind mode has changes that are not flushed yet,
+     * that content is read instead of the file on disk. The read and the number of rows
+     * read are counted in the {@link MetricsRegistry}.
+     * 
+     * @param path the file path
+     * @return a reader over the current content of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedReader openReader(String path) throws IOException {
+        FlightEvents.CsvFileRead event = new FlightEvents.CsvFileRead();
+        event.begin();
+        String content = currentContent(path);
+        Reader source = content != null ? new StringReader(content) : new FileReader(path);
+        recordFileMetric("file.reads", path, 1);
+        if (event.isEnabled()) {
+            event.path = path;
+            event.staged = content != null;
+            event.bytes = content != null ? content.length() : new File(path).length();
+        }
+        return new CountingReader(source, path, event);
+    }
+    
+    /**
+     * Opens a file for reading. See {@link #openReader(String)}.
+     * 
+     * @param file the file
+     * @return a reader over the current content of the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedReader openReader(File file) throws IOException {
+        return openReader(file.getPath());
+    }
+    
+    /**
+     * Streams the data rows of a CSV file, reading each row only as the stream is consumed.
+     * The header is skipped, and the content is read as by {@link #openReader(String)}.
+     * The stream holds the file open and must be closed.
+     * 
+     * @param path the file path
+     * @param fromRow the number of data rows to skip; skipped rows are read but not returned
+     * @return the rows, or an empty stream if the file does not exist or cannot be read
+     */
+    public static Stream<String> streamRows(String path, long fromRow) {
+        if (currentContent(path) == null && !new File(path).exists()) {
+            return Stream.empty();
+        }
+        BufferedReader reader = null;
+        try {
+            reader = openReader(path);
+            reader.readLine(); // skip header
+            for (long i = 0; i < fromRow && reader.readLine() != null; i++) {
+                // Skipped rows are not parsed
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading CSV file (" + path + "): " + e.getMessage());
+            closeQuietly(reader);
+            return Stream.empty();
+        }
+        BufferedReader rows = reader;
+        return rows.lines().onClose(() -> closeQuietly(rows));
+    }
+    
+    private static void closeQuietly(Reader reader) {
+        if (reader != null) {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                System.out.println("Warning: Could not close reader: " + e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Opens a file for writing. If a unit of work is active, the written content
+     * is staged in the unit of work when the writer is closed. Otherwise, if write-behind
+     * mode is on, it is queued for the background flusher. In both cases nothing
+     * is written to disk when the writer is closed. Otherwise a replaced file is
+     * swapped in atomically when the writer is closed, so concurrent readers never see
+     * it half-written. Caches built from the file are discarded once the writer is closed,
+     * and the rewrite or append is counted in the {@link MetricsRegistry}.
+     * 
+     * @param path the file path
+     * @param append true to add to the end of the file, false to replace it
+     * @return a writer for the file
+     * @throws IOException if the file cannot be opened
+     */
+    public static BufferedWriter openWriter(String path, boolean append) throws IOException {
+        UnitOfWork uow = UnitOfWork.current();
+        if (uow == null && !WriteBehindBuffer.isEnabled()) {
+            if (!append) {
+                return new BufferedWriter(new StringWriter() {
+                    @Override
+                    public void close() throws IOException {
+                        replaceFile(path, toString(), false);
+                        recordFileMetric("file.rewrites", path, 1);
+                    }
+                });
+            }
+            File file = new File(path);
+            long before = file.length();
+            FlightEvents.CsvFileRewrite event = new FlightEvents.CsvFileRewrite();
+            event.begin();
+            return new BufferedWriter(new FileWriter(path, true)) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    FileBackedCache.fileWritten(path);
+                    long bytes = file.length() - before;
+                    recordFileMetric("file.appends", path, 1);
+                    recordFileMetric("file.bytes.written", path, bytes);
+                    commitRewrite(event, path, bytes, true, false);
+                }
+            };
+        }
+        
+        String prefix = "";
+        if (append) {
+            prefix = currentContent(path);
+            if (prefix == null) {
+                File file = new File(path);
+                prefix = file.exists() ? new String(Files.readAllBytes(file.toPath())) : "";
+            }
+        }
+        String initial = prefix;
+        return new BufferedWriter(new StringWriter() {
+            @Override
+            public void close() {
+                FlightEvents.CsvFileRewrite event = new FlightEvents.CsvFileRewrite();
+                event.begin();
+                if (uow != null) {
+                    uow.stage(path, initial + toString());
+                } else {
+                    WriteBehindBuffer.write(path, initial + toString());
+                }
+                FileBackedCache.fileWritten(path);
+                recordFileMetric(append ? "file.appends" : "file.rewrites", path, 1);
+                commitRewrite(event, path, initial.length() + getBuffer().length(), append, true);
+            }
+        });
+    }
+    
+    /**
+     * Returns the content of a file that has been written but not saved to disk yet.
+     * 
+     * @param path the file path
+     * @return the staged or pending content, or null if the file on disk is current
+     */
+    private static String currentContent(String path) {
+        UnitOfWork uow = UnitOfWork.current();
+        String staged = uow == null ? null : uow.getStaged(path);
+        return staged != null ? staged : WriteBehindBuffer.getPending(path);
+    }
+    
+    /**
+     * Returns the last character of a file, taking unsaved content into account.
+     * Used to decide whether rows appended to the file need a line break first.
+     * 
+     * @param path the file path
+     * @return the last character, or an empty string if the file is empty or missing
+     * @throws IOException if the file cannot be read
+     */
+    public static String lastCharacter(String path) throws IOException {
+        String content = currentContent(path);
+        if (content != null) {
+            return content.isEmpty() ? "" : content.substring(content.length() - 1);
+        }
+        File file = new File(path);
+        if (!file.exists() || file.length() == 0) {
+            return "";
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            raf.seek(file.length() - 1);
+            return String.valueOf((char) raf.read());
+        }
+    }
+    
+    /**
+     * Normalizes a file path so that different spellings of the same file match.
+     * 
+     * @param path the file path
+     * @return the absolute, normalized path
+     */
+    static String normalizePath(String path) {
+        return new File(path).getAbsoluteFile().toPath().normalize().toString();
+    }
+    
+    /**
+     * Replaces a file atomically by writing a temporary file and moving it into place.
+     * 
+     * @param path the file path
+     * @param content the new file content
+     * @param sync true to sync the temporary file to disk before moving it
+     * @throws IOException if the file cannot be written
+     */
+    static void replaceFile(String path, String content, boolean sync) throws IOException {
+        FlightEvents.CsvFileRewrite event = new FlightEvents.CsvFileRewrite();
+        event.begin();
+        File target = new File(path).getAbsoluteFile();
+        // Each writer gets its own temporary file, so concurrent replacements cannot mix
+        File temp = Files.createTempFile(target.getParentFile().toPath(), target.getName(), ".tmp").toFile();
+        try {
+            try (FileOutputStream out = new FileOutputStream(temp)) {
+                Writer writer = new OutputStreamWriter(out);
+                writer.write(content);
+                writer.flush();
+                if (sync) {
+                    out.getFD().sync();
+                }
+            }
+            long bytes = temp.length();
+            Files.move(temp.toPath(), target.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            recordFileMetric("file.bytes.written", path, bytes);
+            commitRewrite(event, path, bytes, false, false);
+        } catch (IOException e) {
+            temp.delete();
+            throw e;
+        }
+        FileBackedCache.fileWritten(path);
+    }
+    
+    /**
+     * Adds to a file metric, both in total and for the file.
+     * 
+     * @param name the metric name
+     * @param path the file path
+     * @param delta the amount to add
+     */
+    private static void recordFileMetric(String name, String path, long delta) {
+        MetricsRegistry metrics = MetricsRegistry.getDefault();
+        metrics.record(name, delta);
+        metrics.record(name + "[" + new File(path).getName() + "]", delta);
+    }
+    
+    /**
+     * Commits a flight recorder event for a file write, if it is recorded.
+     * 
+     * @param event the event, begun before the write
+     * @param path the file path
+     * @param bytes the size written
+     * @param append true if the file was appended to
+     * @param staged true if the content was staged rather than written to disk
+     */
+    private static void commitRewrite(FlightEvents.CsvFileRewrite event, String path, long bytes,
+                                      boolean append, boolean staged) {
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.bytes = bytes;
+            event.append = append;
+            event.staged = staged;
+            event.commit();
+        }
+    }
+    
+    /**
+     * A reader that counts the rows read from a file and records them, in the metrics
+     * and as a flight recorder event, when it is closed.
+     */
+    private static final class CountingReader extends BufferedReader {
+        private final String path;
+        private final FlightEvents.CsvFileRead event;
+        private long rows;
+        private boolean closed;
+        
+        CountingReader(Reader in, String path, FlightEvents.CsvFileRead event) {
+            super(in);
+            this.path = path;
+            this.event = event;
+        }
+        
+        @Override
+        public String readLine() throws IOException {
+            String line = super.readLine();
+            if (line != null) {
+                rows++;
+            }
+            return line;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            super.close();
+            if (!closed) {
+                closed = true;
+                recordFileMetric("file.rows.read", path, rows);
+                if (event.shouldCommit()) {
+                    event.rows = rows;
+                    event.commit();
+                }
+            }
+        }
+    }
+    
     /**
      * Ensures that the data directory exists, creating it if necessary.
      * This method should be called before any file operations.
@@ -66,7 +366,7 @@ public class FileManager {
             return users;
         }
         
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader br = openReader(file)) {
             String header = br.readLine();  // skip header
             if (header == null) {
                 System.out.println("Warning: User file is empty (" + filePath + ").");
@@ -75,68 +375,9 @@ public class FileManager {
             
             String line;
             while ((line = br.readLine()) != null) {
-                try {
-                    String[] tokens = line.split(",");
-                    if (tokens.length < 5) {
-                        System.out.println("Warning: Skipping invalid user record (insufficient fields): " + line);
-                        continue;
-                    }
-                    
-                    String name = tokens[0].trim();
-                    String nric = tokens[1].trim();
-                    int age;
-                    try {
-                        age = Integer.parseInt(tokens[2].trim());
-                    } catch (NumberFormatException e) {
-                        System.out.println("Warning: Invalid age format in user record: " + line);
-                        continue;
-                    }
-                    
-                    String ms = tokens[3].trim();
-                    String pwd = tokens[4].trim();
-
-                    User user = createUser(role, name, nric, pwd, age, ms);
-
-                    if (user instanceof Applicant) {
-                        Applicant a = (Applicant) user;
-                        int appliedId = -1;
-                        ApplicationStatus status = ApplicationStatus.NOT_APPLIED;
-                        String flatType = "";
-
-                        if (tokens.length >= 7) {
-                            try { 
-                                appliedId = Integer.parseInt(tokens[5].trim()); 
-                            } catch (NumberFormatException e) {
-                                System.out.println("Warning: Invalid project ID format in applicant record: " + line);
-                                appliedId = -1;
-                            }
-                            
-                            try { 
-                                String statusStr = tokens[6].trim();
-                                // Handle "Not Applied" case specifically
-                                if ("Not Applied".equalsIgnoreCase(statusStr)) {
-                                    status = ApplicationStatus.NOT_APPLIED;
-                                } else {
-                                    status = ApplicationStatus.valueOf(statusStr.toUpperCase()); 
-                                }
-                            } catch (IllegalArgumentException e) {
-                                System.out.println("Warning: Invalid application status in applicant record: " + line);
-                                status = ApplicationStatus.NOT_APPLIED;
-                            }
-                        }
-                        
-                        if (tokens.length >= 8) {
-                            flatType = tokens[7].trim();
-                        }
-
-                        a.setAppliedProjectId(appliedId);
-                        a.setApplicationStatus(status);
-                        a.setAppliedFlatType(flatType);
-                    }
-
+                User user = parseUserRow(line, role);
+                if (user != null) {
                     users.add(user);
-                } catch (Exception e) {
-                    System.out.println("Warning: Error processing user record: " + line + " - " + e.getMessage());
                 }
             }
         } catch (IOException e) {
@@ -146,6 +387,80 @@ public class FileManager {
         return users;
     }
 
+    /**
+     * Parses one row of a user list.
+     * 
+     * @param line the CSV row
+     * @param role the role of the users in the list
+     * @return the user, or null if the row is invalid (a warning is printed)
+     */
+    public static User parseUserRow(String line, String role) {
+        try {
+            String[] tokens = line.split(",");
+            if (tokens.length < 5) {
+                System.out.println("Warning: Skipping invalid user record (insufficient fields): " + line);
+                return null;
+            }
+            
+            String name = tokens[0].trim();
+            String nric = tokens[1].trim();
+            int age;
+            try {
+                age = Integer.parseInt(tokens[2].trim());
+            } catch (NumberFormatException e) {
+                System.out.println("Warning: Invalid age format in user record: " + line);
+                return null;
+            }
+            
+            String ms = tokens[3].trim();
+            String pwd = tokens[4].trim();
+
+            User user = createUser(role, name, nric, pwd, age, ms);
+
+            if (user instanceof Applicant) {
+                Applicant a = (Applicant) user;
+                int appliedId = -1;
+                ApplicationStatus status = ApplicationStatus.NOT_APPLIED;
+                String flatType = "";
+
+                if (tokens.length >= 7) {
+                    try { 
+                        appliedId = Integer.parseInt(tokens[5].trim()); 
+                    } catch (NumberFormatException e) {
+                        System.out.println("Warning: Invalid project ID format in applicant record: " + line);
+                        appliedId = -1;
+                    }
+                    
+                    try { 
+                        String statusStr = tokens[6].trim();
+                        // Handle "Not Applied" case specifically
+                        if ("Not Applied".equalsIgnoreCase(statusStr)) {
+                            status = ApplicationStatus.NOT_APPLIED;
+                        } else {
+                            status = ApplicationStatus.valueOf(statusStr.toUpperCase()); 
+                        }
+                    } catch (IllegalArgumentException e) {
+                        System.out.println("Warning: Invalid application status in applicant record: " + line);
+                        status = ApplicationStatus.NOT_APPLIED;
+                    }
+                }
+                
+                if (tokens.length >= 8) {
+                    flatType = tokens[7].trim();
+                }
+
+                a.setAppliedProjectId(appliedId);
+                a.setApplicationStatus(status);
+                a.setAppliedFlatType(flatType);
+            }
+
+            return user;
+        } catch (Exception e) {
+            System.out.println("Warning: Error processing user record: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Creates a user object of the specified role with the given details.
      * 
@@ -181,7 +496,7 @@ public class FileManager {
             return projects;
         }
         
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader br = openReader(file)) {
             String header = br.readLine(); // skip header
             if (header == null) {
                 System.out.println("Warning: Project file is empty (" + filePath + ").");
@@ -360,7 +675,7 @@ public class FileManager {
         }
         
         String filePath = Constants.PROJECT_CSV;
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+        try (BufferedWriter bw = openWriter(filePath, false)) {
             bw.write("Project Name,Neighborhood,Type 1,Number of units for Type1,"
                    + "Selling price for Type1,Type 2,Number of units for Type2,"
                    + "Selling price for Type2,Application opening date,Application closing date,"
@@ -415,7 +730,6 @@ public class FileManager {
                     System.out.println("Warning: Error processing project: " + p.getProjectId() + " - " + ex.getMessage());
                 }
             }
-            
             return true;
         } catch (IOException e) {
             System.out.println("Error saving projects: " + e.getMessage());
@@ -424,49 +738,14 @@ public class FileManager {
     }
 
     /**
-     * Adds an officer registration for a project.
+     * Adds an officer registration for a project. See {@link OfficerRegistrations#register}.
      * 
      * @param officerNric the NRIC of the officer
      * @param projectId the ID of the project
      * @return true if the registration was added successfully, false otherwise
      */
     public static boolean addOfficerRegistration(String officerNric, int projectId) {
-        String path = Constants.REGISTRATION_CSV;
-        File file = new File(path);
-        boolean headerNeeded = !file.exists();
-
-        // Load existing registrations
-        int currentCount = 0;
-        try (BufferedReader br = new BufferedReader(new FileReader(path))) {
-            if (!headerNeeded) br.readLine(); // skip header
-            String line;
-            while ((line = br.readLine()) != null) {
-                String[] tokens = line.split(",");
-                if (tokens.length < 2) continue;
-                int pid = Integer.parseInt(tokens[1].trim());
-                if (pid == projectId) currentCount++;
-            }
-        } catch (IOException e) {
-            // If file doesn't exist yet, that's fine — no registrations yet
-        }
-
-        if (currentCount >= 10) {
-            System.out.println("❌ Registration limit reached: 10 officers already registered.");
-            return false;
-        }
-
-        // Append new registration
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(path, true))) {
-            if (headerNeeded) {
-                bw.write("OfficerNRIC,ProjectID"); bw.newLine();
-            }
-            bw.write(officerNric + "," + projectId);
-            bw.newLine();
-            return true;
-        } catch (IOException e) {
-            System.out.println("Error saving officer registration: " + e.getMessage());
-            return false;
-        }
+        return OfficerRegistrations.register(officerNric, projectId);
     }
 
     /**
@@ -485,7 +764,7 @@ public class FileManager {
             return list;
         }
         
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader br = openReader(file)) {
             String header = br.readLine();
             if (header == null) {
                 System.out.println("Warning: Enquiry file is empty (" + filePath + ").");
@@ -494,39 +773,9 @@ public class FileManager {
             
             String line;
             while ((line = br.readLine()) != null) {
-                try {
-                    String[] t = line.split(",", 5);
-                    if (t.length < 4) {
-                        System.out.println("Warning: Skipping invalid enquiry record (insufficient fields): " + line);
-                        continue;
-                    }
-                    
-                    int id;
-                    try {
-                        id = Integer.parseInt(t[0].trim());
-                    } catch (NumberFormatException e) {
-                        System.out.println("Warning: Invalid enquiry ID format in record: " + line);
-                        continue;
-                    }
-                    
-                    String user = t[1].trim();
-                    
-                    int pid;
-                    try {
-                        pid = Integer.parseInt(t[2].trim());
-                    } catch (NumberFormatException e) {
-                        System.out.println("Warning: Invalid project ID format in enquiry record: " + line);
-                        continue;
-                    }
-                    
-                    String txt = t[3].trim();
-                    String resp = t.length > 4 ? t[4].trim() : "";
-                    
-                    Enquiry e = new Enquiry(id, user, txt, pid);
-                    e.setResponse(resp);
-                    list.add(e);
-                } catch (Exception e) {
-                    System.out.println("Warning: Error processing enquiry record: " + line + " - " + e.getMessage());
+                Enquiry enquiry = parseEnquiryRow(line);
+                if (enquiry != null) {
+                    list.add(enquiry);
                 }
             }
         } catch (IOException e) {
@@ -536,6 +785,50 @@ public class FileManager {
         return list;
     }
 
+    /**
+     * Parses one row of the enquiry list.
+     * 
+     * @param line the CSV row
+     * @return the enquiry, or null if the row is invalid (a warning is printed)
+     */
+    public static Enquiry parseEnquiryRow(String line) {
+        try {
+            String[] t = line.split(",", 5);
+            if (t.length < 4) {
+                System.out.println("Warning: Skipping invalid enquiry record (insufficient fields): " + line);
+                return null;
+            }
+            
+            int id;
+            try {
+                id = Integer.parseInt(t[0].trim());
+            } catch (NumberFormatException e) {
+                System.out.println("Warning: Invalid enquiry ID format in record: " + line);
+                return null;
+            }
+            
+            String user = t[1].trim();
+            
+            int pid;
+            try {
+                pid = Integer.parseInt(t[2].trim());
+            } catch (NumberFormatException e) {
+                System.out.println("Warning: Invalid project ID format in enquiry record: " + line);
+                return null;
+            }
+            
+            String txt = t[3].trim();
+            String resp = t.length > 4 ? t[4].trim() : "";
+            
+            Enquiry e = new Enquiry(id, user, txt, pid);
+            e.setResponse(resp);
+            return e;
+        } catch (Exception e) {
+            System.out.println("Warning: Error processing enquiry record: " + line + " - " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Updates the response for an enquiry in the CSV file.
      * 
@@ -555,7 +848,7 @@ public class FileManager {
         List<String> lines = new ArrayList<>();
         boolean found = false;
         
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader br = openReader(file)) {
             String header = br.readLine();
             if (header == null) {
                 System.out.println("Warning: Enquiry file is empty (" + path + ").");
@@ -610,10 +903,11 @@ public class FileManager {
             return false;
         }
         
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(path))) {
+        try (BufferedWriter bw = openWriter(path, false)) {
             for (String l : lines) {
                 bw.write(l); bw.newLine();
             }
+            EnquiryQueue.onEnquiryWritten(enquiry);
             return true;
         } catch (IOException e) {
             System.out.println("Error writing enquiries: " + e.getMessage());
@@ -641,7 +935,7 @@ public class FileManager {
         List<String> lines = new ArrayList<>();
         boolean found = false;
         
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
+        try (BufferedReader br = openReader(file)) {
             String header = br.readLine();
             if (header == null) {
                 System.out.println("Warning: User file is empty (" + filePath + ").");
@@ -688,11 +982,12 @@ public class FileManager {
             return false;
         }
         
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+        try (BufferedWriter bw = openWriter(filePath, false)) {
             for (String outputLine : lines) {
                 bw.write(outputLine);
                 bw.newLine();
             }
+            CredentialIndex.onPasswordChanged(filePath, nric, newPassword);
             return true;
         } catch (IOException e) {
             System.out.println("Error writing CSV file (" + filePath + "): " + e.getMessage());
@@ -731,7 +1026,7 @@ public class FileManager {
             // Create the file with header
             try {
                 ensureDataDirectoryExists();
-                try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+                try (BufferedWriter bw = openWriter(filePath, false)) {
                     bw.write("Name,NRIC,Age,MaritalStatus,Password,AppliedID,Status,FlatType");
                     bw.newLine();
                 }
@@ -742,7 +1037,7 @@ public class FileManager {
         }
         
         // Check if the applicant is an OfficerAsApplicant
-        boolean isOfficerAsApplicant = applicant instanceof com.SC2002.bto.entities.OfficerAsApplicant;
+        boolean isOfficerAsApplicant = applicant instanceof OfficerAsApplicant;
         
         // Check if the applicant already exists in the CSV
         boolean applicantExists = applicantNricExists(applicant.getNric());
@@ -755,7 +1050,7 @@ public class FileManager {
         List<String> lines = new ArrayList<>();
         boolean found = false;
 
-        try (BufferedReader br = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader br = openReader(filePath)) {
             String header = br.readLine();
             if (header == null) {
                 System.out.println("Warning: Applicant file is empty (" + filePath + ").");
@@ -825,11 +1120,13 @@ public class FileManager {
             }
         }
 
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath))) {
+        try (BufferedWriter bw = openWriter(filePath, false)) {
             for (String out : lines) {
                 bw.write(out);
                 bw.newLine();
             }
+            CredentialIndex.onApplicationChanged(applicant);
+            ApplicationQueue.onApplicationChanged(applicant);
             return true;
         } catch (IOException e) {
             System.out.println("Error writing ApplicantList.csv: " + e.getMessage());
@@ -837,6 +1134,96 @@ public class FileManager {
         }
     }
     
+    /**
+     * Updates the application details of several applicants in a single rewrite of the CSV file.
+     * Rows are matched by NRIC; applicants that are not found in the file are skipped,
+     * except for officers acting as applicants, whose records are appended.
+     *
+     * @param applicants the applicants with the updated application details
+     * @return true if the file was rewritten successfully, false otherwise
+     */
+    public static boolean updateApplicantApplications(List<? extends Applicant> applicants) {
+        if (applicants == null || applicants.isEmpty()) {
+            return true;
+        }
+
+        String filePath = Constants.APPLICANT_CSV;
+        File file = new File(filePath);
+        if (!file.exists()) {
+            System.out.println("Warning: Applicant file not found (" + filePath + ").");
+            return false;
+        }
+
+        // Index the batch by NRIC so each row is matched in constant time
+        Map<String, Applicant> pending = new LinkedHashMap<>();
+        for (Applicant a : applicants) {
+            pending.put(a.getNric().toUpperCase(), a);
+        }
+
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader br = openReader(file)) {
+            String header = br.readLine();
+            if (header == null) {
+                header = "Name,NRIC,Age,MaritalStatus,Password,AppliedID,Status,FlatType";
+            }
+            lines.add(header);
+
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] tokens = line.split(",");
+                if (tokens.length < 5) {
+                    lines.add(line);
+                    continue;
+                }
+
+                Applicant applicant = pending.remove(tokens[1].trim().toUpperCase());
+                if (applicant == null) {
+                    lines.add(line);
+                    continue;
+                }
+
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < 5; i++) {
+                    sb.append(tokens[i].trim()).append(",");
+                }
+                sb.append(applicant.getAppliedProjectId()).append(",");
+                sb.append(applicant.getApplicationStatus().name()).append(",");
+                sb.append(applicant.getAppliedFlatType());
+                lines.add(sb.toString());
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading ApplicantList.csv: " + e.getMessage());
+            return false;
+        }
+
+        // Officers applying for the first time do not have an applicant row yet
+        for (Applicant applicant : pending.values()) {
+            if (applicant instanceof OfficerAsApplicant) {
+                lines.add(applicant.getName() + "," + applicant.getNric() + "," + applicant.getAge() + ","
+                        + applicant.getMaritalStatus() + "," + applicant.getPassword() + ","
+                        + applicant.getAppliedProjectId() + "," + applicant.getApplicationStatus().name() + ","
+                        + applicant.getAppliedFlatType());
+            } else {
+                System.out.println("Applicant NRIC not found: " + applicant.getNric());
+            }
+        }
+
+        try (BufferedWriter bw = openWriter(filePath, false)) {
+            for (String out : lines) {
+                bw.write(out);
+                bw.newLine();
+            }
+            for (Applicant applicant : applicants) {
+                CredentialIndex.onApplicationChanged(applicant);
+                ApplicationQueue.onApplicationChanged(applicant);
+            }
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error writing ApplicantList.csv: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Creates a new applicant record for an officer in the ApplicantList.csv file.
      * This is used when an officer applies for a project as an applicant for the first time.
@@ -847,7 +1234,7 @@ public class FileManager {
     private static boolean createApplicantRecordForOfficer(Applicant applicant) {
         String filePath = Constants.APPLICANT_CSV;
         
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(filePath, true))) {
+        try (BufferedWriter bw = openWriter(filePath, true)) {
             StringBuilder sb = new StringBuilder();
             sb.append(applicant.getName()).append(",");
             sb.append(applicant.getNric()).append(",");
@@ -864,6 +1251,8 @@ public class FileManager {
             
             bw.write(sb.toString());
             bw.newLine();
+            CredentialIndex.markStale(filePath);
+            ApplicationQueue.onApplicationChanged(applicant);
             return true;
         } catch (IOException e) {
             System.out.println("Error creating applicant record for officer: " + e.getMessage());
@@ -871,6 +1260,48 @@ public class FileManager {
         }
     }
     
+    /**
+     * Appends a new enquiry to the enquiry CSV file without rewriting the existing ones.
+     * 
+     * @param enquiry the enquiry to add
+     * @return true if the enquiry was added successfully, false otherwise
+     */
+    public static boolean appendEnquiry(Enquiry enquiry) {
+        if (enquiry == null || enquiry.getEnquiryId() <= 0) {
+            System.out.println("Warning: Invalid enquiry provided.");
+            return false;
+        }
+        
+        String path = Constants.ENQUIRY_CSV;
+        String tail;
+        try {
+            tail = lastCharacter(path);
+        } catch (IOException e) {
+            System.out.println("Error reading enquiries: " + e.getMessage());
+            return false;
+        }
+        try (BufferedWriter bw = openWriter(path, true)) {
+            if (tail.isEmpty()) {
+                bw.write("ID,UserNRIC,ProjectID,EnquiryText,Response");
+                bw.newLine();
+            } else if (!tail.equals("\n")) {
+                // The last row may have been saved without a line break
+                bw.newLine();
+            }
+            bw.write(enquiry.getEnquiryId() + "," +
+                     enquiry.getUserNric() + "," +
+                     enquiry.getProjectId() + "," +
+                     enquiry.getEnquiryText().replace(",", ";") + "," +
+                     enquiry.getResponse().replace(",", ";"));
+            bw.newLine();
+            EnquiryQueue.onEnquiryWritten(enquiry);
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error adding enquiry: " + e.getMessage());
+            return false;
+        }
+    }
+    
     /**
      * Saves a list of enquiries to the enquiry CSV file.
      * 
@@ -884,7 +1315,7 @@ public class FileManager {
         }
         
         String path = Constants.ENQUIRY_CSV;
-        try (BufferedWriter bw = new BufferedWriter(new FileWriter(path))) {
+        try (BufferedWriter bw = openWriter(path, false)) {
             bw.write("ID,UserNRIC,ProjectID,EnquiryText,Response");
             bw.newLine();
             
@@ -918,6 +1349,7 @@ public class FileManager {
                 }
             }
             
+            EnquiryQueue.markStale(path);
             return true;
         } catch (IOException e) {
             System.out.println("Error saving enquiries: " + e.getMessage());
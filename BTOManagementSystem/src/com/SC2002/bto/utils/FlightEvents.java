@@ -0,0 +1,181 @@
+package com.SC2002.bto.utils;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * Custom JDK Flight Recorder events of the system's file I/O, repository queries,
+ * reports and logins, so that application activity can be seen in a recording next
+ * to the JVM's own events.
+ * <p>
+ * The events are recorded whenever a flight recording is running, e.g. one started with
+ * {@code -XX:StartFlightRecording} or {@code jcmd <pid> JFR.start}, and can be turned off by
+ * name under {@code com.SC2002.bto} in the recording settings. While no recording includes
+ * them, emitting one costs little more than the check of whether it is enabled.
+ */
+public final class FlightEvents {
+
+    private static final String CATEGORY = "BTO Management System";
+
+    private FlightEvents() {
+    }
+
+    /**
+     * A data file read from start to end, or as far as the reader read it.
+     */
+    @Name("com.SC2002.bto.CsvFileRead")
+    @Label("CSV File Read")
+    @Category({CATEGORY, "File I/O"})
+    @Description("A data file read, from opening it to closing the reader")
+    public static final class CsvFileRead extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+
+        @Label("Rows")
+        @Description("Lines read, including the header")
+        public long rows;
+
+        @Label("Staged")
+        @Description("Whether changes not yet written to disk were read")
+        public boolean staged;
+    }
+
+    /**
+     * A data file replaced or appended to.
+     */
+    @Name("com.SC2002.bto.CsvFileRewrite")
+    @Label("CSV File Rewrite")
+    @Category({CATEGORY, "File I/O"})
+    @Description("A data file replaced or appended to")
+    public static final class CsvFileRewrite extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Size")
+        @DataAmount
+        public long bytes;
+
+        @Label("Append")
+        public boolean append;
+
+        @Label("Staged")
+        @Description("Whether the content was staged in a unit of work or write-behind buffer rather than written to disk")
+        public boolean staged;
+    }
+
+    /**
+     * A repository query and how many rows it looked at to answer.
+     */
+    @Name("com.SC2002.bto.RepositoryQuery")
+    @Label("Repository Query")
+    @Category({CATEGORY, "Repository"})
+    @Description("A repository query, with the rows it scanned and returned")
+    public static final class RepositoryQuery extends Event {
+        @Label("Method")
+        public String method;
+
+        @Label("Rows Scanned")
+        public long rowsScanned;
+
+        @Label("Rows Returned")
+        public long rowsReturned;
+    }
+
+    /**
+     * A report generated by the report service.
+     */
+    @Name("com.SC2002.bto.ReportGenerated")
+    @Label("Report Generated")
+    @Category({CATEGORY, "Service"})
+    @Description("A report generated by the report service")
+    public static final class ReportGenerated extends Event {
+        @Label("Report Type")
+        public String reportType;
+
+        @Label("Rows")
+        @Description("Applicants or projects the report covers")
+        public long rows;
+
+        @Label("Length")
+        @Description("Characters in the report")
+        public long length;
+    }
+
+    /**
+     * A login attempt. The NRIC is not recorded, as recordings are shared for analysis.
+     */
+    @Name("com.SC2002.bto.Authentication")
+    @Label("Authentication")
+    @Category({CATEGORY, "Security"})
+    @Description("A login attempt")
+    public static final class Authentication extends Event {
+        @Label("Role")
+        @Description("The role the user logged in as, or empty if any role was allowed")
+        public String role;
+
+        @Label("Success")
+        public boolean success;
+    }
+
+    /**
+     * Starts timing a repository query.
+     *
+     * @return the event, to be passed to {@link #endQuery}
+     */
+    public static RepositoryQuery beginQuery() {
+        RepositoryQuery event = new RepositoryQuery();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends a repository query, committing its event if it is recorded.
+     *
+     * @param <T> the result type
+     * @param event the event from {@link #beginQuery}
+     * @param method the repository and method, e.g. "CSVApplicationRepository.findByProject"
+     * @param rowsScanned the rows the query looked at
+     * @param result the rows the query returns
+     * @return the result, so the call can wrap a return statement
+     */
+    public static <T extends Collection<?>> T endQuery(RepositoryQuery event, String method, long rowsScanned, T result) {
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.rowsScanned = rowsScanned;
+            event.rowsReturned = result.size();
+            event.commit();
+        }
+        return result;
+    }
+
+    /**
+     * Ends a repository query that returns at most one row. See {@link #endQuery(RepositoryQuery, String, long, Collection)}.
+     *
+     * @param <T> the row type
+     * @param event the event from {@link #beginQuery}
+     * @param method the repository and method
+     * @param rowsScanned the rows the query looked at
+     * @param result the row the query returns, if any
+     * @return the result
+     */
+    public static <T> Optional<T> endQuery(RepositoryQuery event, String method, long rowsScanned, Optional<T> result) {
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.rowsScanned = rowsScanned;
+            event.rowsReturned = result.isPresent() ? 1 : 0;
+            event.commit();
+        }
+        return result;
+    }
+}
@@ -45,7 +45,7 @@ public class InputValidator {
     }
     
     /**
-     * Validates if a single applicant meets the age requirement (35 years or older).
+     * Validates if a single applicant meets the age requirement ({@link Constants#MIN_SINGLE_AGE} years or older).
      *
      * @param age the applicant's age.
      * @param maritalStatus the applicant's marital status.
@@ -55,11 +55,11 @@ public class InputValidator {
         if (!"Single".equalsIgnoreCase(maritalStatus)) {
             return false; // Not applicable for non-single applicants
         }
-        return age >= 35;
+        return age >= Constants.MIN_SINGLE_AGE;
     }
     
     /**
-     * Validates if a married applicant meets the age requirement (21 years or older).
+     * Validates if a married applicant meets the age requirement ({@link Constants#MIN_MARRIED_AGE} years or older).
      *
      * @param age the applicant's age.
      * @param maritalStatus the applicant's marital status.
@@ -69,7 +69,7 @@ public class InputValidator {
         if (!"Married".equalsIgnoreCase(maritalStatus)) {
             return false; // Not applicable for non-married applicants
         }
-        return age >= 21;
+        return age >= Constants.MIN_MARRIED_AGE;
     }
     
     /**
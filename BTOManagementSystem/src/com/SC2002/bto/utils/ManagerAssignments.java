@@ -0,0 +1,183 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.HDBManager;
+import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.User;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Index of which manager is in charge of which projects, keyed by normalized NRIC.
+ * <p>
+ * The project file names the manager in charge by name or NRIC. As in
+ * {@link OfficerAssignments}, the entry is resolved against the manager list by exact,
+ * case-insensitive comparison: first as an NRIC, then as a name. Entries that match no
+ * manager, and names shared by several managers, are not resolved.
+ * <p>
+ * The index holds, per manager, a bitset of project IDs and the projects in charge, and,
+ * per project, the manager's NRIC. Together with the per-project groupings of
+ * {@link ApplicationCatalog} and {@link EnquiryCatalog} it serves a manager's
+ * applications and enquiries without scanning the other projects. It is rebuilt whenever
+ * the {@link ProjectCatalog} publishes a new snapshot or the manager list changes.
+ * Returned projects are shared and must be treated as read-only.
+ */
+public final class ManagerAssignments {
+
+    private static final FileBackedCache<Directory> managers =
+        new FileBackedCache<>(Constants.MANAGER_CSV, shared -> loadDirectory());
+
+    private static volatile Index index;
+
+    private ManagerAssignments() {
+    }
+
+    /**
+     * Returns the projects a manager is in charge of.
+     *
+     * @param managerNric the manager's NRIC
+     * @return an unmodifiable list of the projects, in file order
+     */
+    public static List<Project> getProjects(String managerNric) {
+        return current().projectsByManager.getOrDefault(OfficerAssignments.normalize(managerNric),
+            Collections.emptyList());
+    }
+
+    /**
+     * Returns the IDs of the projects a manager is in charge of.
+     *
+     * @param managerNric the manager's NRIC
+     * @return a new bitset with a bit set for each project ID
+     */
+    public static BitSet getProjectIds(String managerNric) {
+        BitSet ids = current().projectIdsByManager.get(OfficerAssignments.normalize(managerNric));
+        return ids == null ? new BitSet() : (BitSet) ids.clone();
+    }
+
+    /**
+     * Returns the manager in charge of a project.
+     *
+     * @param projectId the project ID
+     * @return the manager's NRIC, or empty if the project's manager entry is not resolved
+     */
+    public static Optional<String> getManagerNric(int projectId) {
+        return Optional.ofNullable(current().managerByProject.get(projectId));
+    }
+
+    /**
+     * Checks whether a manager is in charge of a project.
+     *
+     * @param managerNric the manager's NRIC
+     * @param projectId the project ID
+     * @return true if the manager is in charge of the project, false otherwise
+     */
+    public static boolean isManaging(String managerNric, int projectId) {
+        BitSet ids = current().projectIdsByManager.get(OfficerAssignments.normalize(managerNric));
+        return ids != null && projectId >= 0 && ids.get(projectId);
+    }
+
+    /**
+     * Returns the index for the current project snapshot and manager list, rebuilding it if needed.
+     */
+    private static Index current() {
+        ProjectCatalog.Snapshot source = ProjectCatalog.snapshot();
+        Directory directory = managers.get();
+        Index i = index;
+        if (i != null && i.source == source && i.directory == directory) {
+            return i;
+        }
+        if (!source.isPublished()) {
+            // Uncommitted changes of a unit of work are not shared with other threads
+            return build(source, directory);
+        }
+        synchronized (ManagerAssignments.class) {
+            i = index;
+            if (i == null || i.source != source || i.directory != directory) {
+                i = build(source, directory);
+                index = i;
+            }
+            return i;
+        }
+    }
+
+    private static Index build(ProjectCatalog.Snapshot source, Directory directory) {
+        Map<String, BitSet> idsByManager = new HashMap<>();
+        Map<String, List<Project>> projectsByManager = new HashMap<>();
+        Map<Integer, String> managerByProject = new HashMap<>();
+        for (Project p : source.getProjects()) {
+            String nric = directory.resolve(p.getManager());
+            if (nric != null) {
+                idsByManager.computeIfAbsent(nric, k -> new BitSet()).set(p.getProjectId());
+                projectsByManager.computeIfAbsent(nric, k -> new ArrayList<>()).add(p);
+                managerByProject.put(p.getProjectId(), nric);
+            }
+        }
+        projectsByManager.replaceAll((nric, projects) -> Collections.unmodifiableList(projects));
+        return new Index(source, directory, idsByManager, projectsByManager, managerByProject);
+    }
+
+    private static Directory loadDirectory() {
+        Map<String, List<String>> byName = new HashMap<>();
+        Set<String> nrics = new HashSet<>();
+        for (User user : FileManager.loadUsersFromCSV(Constants.MANAGER_CSV, Constants.USER_TYPE_MANAGER)) {
+            if (user instanceof HDBManager) {
+                String nric = OfficerAssignments.normalize(user.getNric());
+                nrics.add(nric);
+                byName.computeIfAbsent(user.getName().trim().toLowerCase(), k -> new ArrayList<>()).add(nric);
+            }
+        }
+        return new Directory(nrics, byName);
+    }
+
+    /**
+     * The managers of the manager list, by NRIC and by name.
+     */
+    private static final class Directory {
+        private final Set<String> nrics;
+        private final Map<String, List<String>> byName;
+
+        Directory(Set<String> nrics, Map<String, List<String>> byName) {
+            this.nrics = nrics;
+            this.byName = byName;
+        }
+
+        String resolve(String nameOrNric) {
+            if (nameOrNric == null || nameOrNric.trim().isEmpty()) {
+                return null;
+            }
+            String nric = OfficerAssignments.normalize(nameOrNric);
+            if (nrics.contains(nric)) {
+                return nric;
+            }
+            List<String> named = byName.get(nameOrNric.trim().toLowerCase());
+            return named != null && named.size() == 1 ? named.get(0) : null;
+        }
+    }
+
+    /**
+     * The assignments computed from one project snapshot and manager list.
+     */
+    private static final class Index {
+        private final ProjectCatalog.Snapshot source;
+        private final Directory directory;
+        private final Map<String, BitSet> projectIdsByManager;
+        private final Map<String, List<Project>> projectsByManager;
+        private final Map<Integer, String> managerByProject;
+
+        Index(ProjectCatalog.Snapshot source, Directory directory, Map<String, BitSet> projectIdsByManager,
+              Map<String, List<Project>> projectsByManager, Map<Integer, String> managerByProject) {
+            this.source = source;
+            this.directory = directory;
+            this.projectIdsByManager = projectIdsByManager;
+            this.projectsByManager = projectsByManager;
+            this.managerByProject = managerByProject;
+        }
+    }
+}
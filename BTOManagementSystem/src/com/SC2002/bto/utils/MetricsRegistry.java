@@ -0,0 +1,492 @@
+package com.SC2002.bto.utils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters, gauges and latency histograms of the system's operations.
+ * <p>
+ * Repositories and services are wrapped with {@link #instrument} when they are created,
+ * which counts the calls, failures and latency of every method. File access is counted by
+ * {@link FileManager}: files read, rows read, files rewritten and bytes written.
+ * <p>
+ * Work done while an {@link #action} is open on a thread, e.g. while a menu option runs, is
+ * also counted under that action, so the dump shows which action caused how many file
+ * reads and rewrites. Metrics can be exported as JMX MBeans under {@code com.SC2002.bto}
+ * and dumped to a text file periodically.
+ */
+public final class MetricsRegistry {
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private static final String JMX_DOMAIN = "com.SC2002.bto";
+    private static final String ACTION_PREFIX = "action.";
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, Gauge> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ThreadLocal<String> currentAction = new ThreadLocal<>();
+
+    private MBeanServer mbeanServer;
+    private ScheduledExecutorService dumper;
+    private String dumpPath;
+
+    /**
+     * Returns the registry the application records into.
+     *
+     * @return the default registry
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a counter, creating it if needed.
+     *
+     * @param name the counter name
+     * @return the counter
+     */
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(name, k -> new Counter());
+            export(counter, "Counter", name);
+        }
+        return counter;
+    }
+
+    /**
+     * Returns a latency histogram, creating it if needed.
+     *
+     * @param name the histogram name
+     * @return the histogram
+     */
+    public Histogram histogram(String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = histograms.computeIfAbsent(name, k -> new Histogram());
+            export(histogram, "Histogram", name);
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns every histogram, by name.
+     *
+     * @return an unmodifiable view of the histograms
+     */
+    public Map<String, Histogram> getHistograms() {
+        return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge of the same name.
+     *
+     * @param name the gauge name
+     * @param value supplies the current value when the gauge is read
+     */
+    public void gauge(String name, LongSupplier value) {
+        Gauge gauge = new Gauge(value);
+        gauges.put(name, gauge);
+        export(gauge, "Gauge", name);
+    }
+
+    /**
+     * Adds to a counter, and to the same counter of the current thread's action if one is open.
+     *
+     * @param name the counter name
+     * @param delta the amount to add
+     */
+    public void record(String name, long delta) {
+        counter(name).add(delta);
+        String action = currentAction.get();
+        if (action != null) {
+            counter(ACTION_PREFIX + action + "." + name).add(delta);
+        }
+    }
+
+    /**
+     * Opens an action on the current thread. Until it is closed, recorded work is also
+     * counted under the action, and its duration is recorded when it closes. Actions
+     * nest; the innermost one is charged.
+     *
+     * @param name the action name, e.g. the menu and option
+     * @return the open action, to be closed when the action finishes
+     */
+    public Action action(String name) {
+        String previous = currentAction.get();
+        currentAction.set(name);
+        counter(ACTION_PREFIX + name + ".calls").increment();
+        return new Action(this, name, previous, System.nanoTime());
+    }
+
+    /**
+     * Wraps an object so that every call through the interface is counted and timed under
+     * {@code <prefix>.<interface>.<method>}. Calls made during a controller action are also
+     * added to its breakdown in {@link OperationTimer}.
+     *
+     * @param <T> the interface type
+     * @param type the interface
+     * @param target the implementation
+     * @param prefix the metric name prefix, e.g. "repository"
+     * @return the instrumented object
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T instrument(Class<T> type, T target, String prefix) {
+        Map<Method, String> names = new ConcurrentHashMap<>();
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(target, args);
+            }
+            String name = names.computeIfAbsent(method, m -> prefix + "." + type.getSimpleName() + "." + m.getName());
+            record(name + ".calls", 1);
+            OperationTimer.enterCall(name);
+            long began = System.nanoTime();
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                record(name + ".errors", 1);
+                throw e.getCause();
+            } finally {
+                long nanos = System.nanoTime() - began;
+                histogram(name + ".latency").record(nanos);
+                OperationTimer.exitCall(nanos);
+            }
+        });
+    }
+
+    /**
+     * Formats every metric as text, sorted by name.
+     *
+     * @return the dump
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder("=== Metrics at ").append(LocalDateTime.now()).append(" ===\n");
+        sb.append("-- Counters\n");
+        for (Map.Entry<String, Counter> e : new TreeMap<>(counters).entrySet()) {
+            sb.append(String.format(Locale.ROOT, "%-80s %12d%n", e.getKey(), e.getValue().getCount()));
+        }
+        sb.append("-- Gauges\n");
+        for (Map.Entry<String, Gauge> e : new TreeMap<>(gauges).entrySet()) {
+            sb.append(String.format(Locale.ROOT, "%-80s %12d%n", e.getKey(), e.getValue().getValue()));
+        }
+        sb.append("-- Latency (ms)\n");
+        sb.append(String.format(Locale.ROOT, "%-80s %10s %10s %10s %10s %10s %10s%n", "", "count", "p50", "p90", "p99", "p99.9", "max"));
+        for (Map.Entry<String, Histogram> e : new TreeMap<>(histograms).entrySet()) {
+            Histogram h = e.getValue();
+            sb.append(String.format(Locale.ROOT, "%-80s %10d %10.3f %10.3f %10.3f %10.3f %10.3f%n", e.getKey(),
+                h.getCount(), h.getP50Millis(), h.getP90Millis(), h.getP99Millis(), h.getP999Millis(), h.getMaxMillis()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Exports every metric, now and as it is created, as an MBean on the platform MBean server.
+     */
+    public synchronized void exportToJmx() {
+        if (mbeanServer != null) {
+            return;
+        }
+        mbeanServer = ManagementFactory.getPlatformMBeanServer();
+        counters.forEach((name, counter) -> export(counter, "Counter", name));
+        gauges.forEach((name, gauge) -> export(gauge, "Gauge", name));
+        histograms.forEach((name, histogram) -> export(histogram, "Histogram", name));
+    }
+
+    /**
+     * Starts writing the dump to a file at a fixed interval, replacing the previous dump.
+     *
+     * @param intervalMs the interval between dumps in milliseconds
+     * @param path the file to write
+     */
+    public synchronized void startPeriodicDump(long intervalMs, String path) {
+        stopPeriodicDump();
+        dumpPath = path;
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-dump");
+            t.setDaemon(true);
+            return t;
+        });
+        dumper.scheduleAtFixedRate(this::writeDump, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic dump, writing a final one.
+     */
+    public synchronized void stopPeriodicDump() {
+        if (dumper == null) {
+            return;
+        }
+        dumper.shutdownNow();
+        dumper = null;
+        writeDump();
+    }
+
+    private void writeDump() {
+        String path;
+        synchronized (this) {
+            path = dumpPath;
+        }
+        // Written directly rather than through FileManager, so the dump is not counted as data I/O
+        try {
+            Path target = Paths.get(path).toAbsolutePath();
+            Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+            Files.write(temp, dump().getBytes(StandardCharsets.UTF_8));
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write metrics dump: " + e.getMessage());
+        }
+    }
+
+    private void export(Object mbean, String type, String name) {
+        MBeanServer server;
+        synchronized (this) {
+            server = mbeanServer;
+        }
+        if (server == null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+            if (!server.isRegistered(objectName)) {
+                server.registerMBean(mbean, objectName);
+            } else if (mbean instanceof Gauge) {
+                server.unregisterMBean(objectName);
+                server.registerMBean(mbean, objectName);
+            }
+        } catch (JMException e) {
+            // Another thread exported the same metric first
+        }
+    }
+
+    /**
+     * JMX view of a counter.
+     */
+    public interface CounterMXBean {
+        long getCount();
+    }
+
+    /**
+     * JMX view of a gauge.
+     */
+    public interface GaugeMXBean {
+        long getValue();
+    }
+
+    /**
+     * JMX view of a latency histogram.
+     */
+    public interface HistogramMXBean {
+        long getCount();
+
+        double getMeanMillis();
+
+        double getP50Millis();
+
+        double getP90Millis();
+
+        double getP99Millis();
+
+        double getP999Millis();
+
+        double getMaxMillis();
+    }
+
+    /**
+     * A monotonically increasing count.
+     */
+    public static final class Counter implements CounterMXBean {
+        private final LongAdder count = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            count.increment();
+        }
+
+        public void add(long delta) {
+            count.add(delta);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+    }
+
+    /**
+     * A value read when the gauge is read.
+     */
+    public static final class Gauge implements GaugeMXBean {
+        private final LongSupplier value;
+
+        private Gauge(LongSupplier value) {
+            this.value = value;
+        }
+
+        @Override
+        public long getValue() {
+            return value.getAsLong();
+        }
+    }
+
+    /**
+     * A histogram of durations in nanoseconds. Each power of two is split into eight
+     * buckets, so percentiles are accurate to within 12.5%.
+     */
+    public static final class Histogram implements HistogramMXBean {
+        private static final int SUB_BUCKETS = 8;
+        private static final int SUB_BITS = 3;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(62 * SUB_BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        private Histogram() {
+        }
+
+        /**
+         * Records a duration.
+         *
+         * @param nanos the duration in nanoseconds
+         */
+        public void record(long nanos) {
+            long value = Math.max(0, nanos);
+            buckets.incrementAndGet(bucket(value));
+            count.increment();
+            sum.add(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public double getMeanMillis() {
+            long n = count.sum();
+            return n == 0 ? 0 : sum.sum() / (double) n / 1e6;
+        }
+
+        @Override
+        public double getP50Millis() {
+            return percentile(50) / 1e6;
+        }
+
+        @Override
+        public double getP90Millis() {
+            return percentile(90) / 1e6;
+        }
+
+        @Override
+        public double getP99Millis() {
+            return percentile(99) / 1e6;
+        }
+
+        @Override
+        public double getP999Millis() {
+            return percentile(99.9) / 1e6;
+        }
+
+        @Override
+        public double getMaxMillis() {
+            return max.get() / 1e6;
+        }
+
+        /**
+         * Returns the upper bound of the bucket holding the given percentile, capped at the maximum.
+         */
+        private long percentile(double p) {
+            long total = 0;
+            long[] snapshot = new long[buckets.length()];
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(p / 100.0 * total);
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        private static int bucket(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            int exponent = bucket / SUB_BUCKETS + SUB_BITS - 1;
+            long width = 1L << (exponent - SUB_BITS);
+            return (SUB_BUCKETS + bucket % SUB_BUCKETS) * width + width - 1;
+        }
+    }
+
+    /**
+     * An action open on a thread; closing it restores the enclosing action.
+     */
+    public static final class Action implements AutoCloseable {
+        private final MetricsRegistry registry;
+        private final String name;
+        private final String previous;
+        private final long began;
+
+        private Action(MetricsRegistry registry, String name, String previous, long began) {
+            this.registry = registry;
+            this.name = name;
+            this.previous = previous;
+            this.began = began;
+        }
+
+        @Override
+        public void close() {
+            registry.histogram(ACTION_PREFIX + name + ".latency").record(System.nanoTime() - began);
+            if (previous == null) {
+                registry.currentAction.remove();
+            } else {
+                registry.currentAction.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.HDBOfficer;
+import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.User;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Index of which officers are assigned to which projects, keyed by normalized NRIC.
+ * <p>
+ * The project file lists assigned officers by name or NRIC. Each entry is resolved
+ * against the officer list by exact, case-insensitive comparison: first as an NRIC, then
+ * as a name. Entries that match no officer, and names shared by several officers, are
+ * not resolved, so an officer is never matched by part of another officer's name.
+ * <p>
+ * The index holds, per officer, a bitset of project IDs and the assigned projects, and,
+ * per project, the set of assigned officer NRICs. It is rebuilt whenever the
+ * {@link ProjectCatalog} publishes a new snapshot (i.e. after an assignment or an
+ * approved registration is saved) or the officer list changes. Returned projects are
+ * shared and must be treated as read-only.
+ */
+public final class OfficerAssignments {
+
+    private static final FileBackedCache<Directory> officers =
+        new FileBackedCache<>(Constants.OFFICER_CSV, shared -> loadDirectory());
+
+    private static volatile Index index;
+
+    private OfficerAssignments() {
+    }
+
+    /**
+     * Normalizes an NRIC for use as a key.
+     *
+     * @param nric the NRIC
+     * @return the trimmed, upper-case NRIC, or an empty string if it is null
+     */
+    public static String normalize(String nric) {
+        return nric == null ? "" : nric.trim().toUpperCase();
+    }
+
+    /**
+     * Returns the projects an officer is assigned to.
+     *
+     * @param officerNric the officer's NRIC
+     * @return an unmodifiable list of the projects, in file order
+     */
+    public static List<Project> getProjects(String officerNric) {
+        return current().projectsByOfficer.getOrDefault(normalize(officerNric), Collections.emptyList());
+    }
+
+    /**
+     * Returns the IDs of the projects an officer is assigned to.
+     *
+     * @param officerNric the officer's NRIC
+     * @return a new bitset with a bit set for each assigned project ID
+     */
+    public static BitSet getProjectIds(String officerNric) {
+        BitSet ids = current().projectIdsByOfficer.get(normalize(officerNric));
+        return ids == null ? new BitSet() : (BitSet) ids.clone();
+    }
+
+    /**
+     * Returns the officers assigned to a project.
+     *
+     * @param projectId the project ID
+     * @return an unmodifiable set of the officers' NRICs
+     */
+    public static Set<String> getOfficerNrics(int projectId) {
+        return current().officersByProject.getOrDefault(projectId, Collections.emptySet());
+    }
+
+    /**
+     * Checks whether an officer is assigned to a project.
+     *
+     * @param officerNric the officer's NRIC
+     * @param projectId the project ID
+     * @return true if the officer is assigned to the project, false otherwise
+     */
+    public static boolean isAssigned(String officerNric, int projectId) {
+        BitSet ids = current().projectIdsByOfficer.get(normalize(officerNric));
+        return ids != null && projectId >= 0 && ids.get(projectId);
+    }
+
+    /**
+     * Resolves an officer entry of the project file to the officer's NRIC.
+     *
+     * @param nameOrNric the officer's name or NRIC
+     * @return the NRIC, or empty if the entry matches no officer or several officers
+     */
+    public static Optional<String> resolveNric(String nameOrNric) {
+        return Optional.ofNullable(officers.get().resolve(nameOrNric));
+    }
+
+    /**
+     * Returns the name of an officer.
+     *
+     * @param officerNric the officer's NRIC
+     * @return the name, or empty if there is no such officer
+     */
+    public static Optional<String> getOfficerName(String officerNric) {
+        return Optional.ofNullable(officers.get().names.get(normalize(officerNric)));
+    }
+
+    /**
+     * Returns the index for the current project snapshot and officer list, rebuilding it if needed.
+     */
+    private static Index current() {
+        ProjectCatalog.Snapshot source = ProjectCatalog.snapshot();
+        Directory directory = officers.get();
+        Index i = index;
+        if (i != null && i.source == source && i.directory == directory) {
+            return i;
+        }
+        if (!source.isPublished()) {
+            // Uncommitted changes of a unit of work are not shared with other threads
+            return build(source, directory);
+        }
+        synchronized (OfficerAssignments.class) {
+            i = index;
+            if (i == null || i.source != source || i.directory != directory) {
+                i = build(source, directory);
+                index = i;
+            }
+            return i;
+        }
+    }
+
+    private static Index build(ProjectCatalog.Snapshot source, Directory directory) {
+        Map<String, BitSet> idsByOfficer = new HashMap<>();
+        Map<String, List<Project>> projectsByOfficer = new HashMap<>();
+        Map<Integer, Set<String>> officersByProject = new HashMap<>();
+        for (Project p : source.getProjects()) {
+            Set<String> assigned = new LinkedHashSet<>();
+            if (p.getOfficers() != null) {
+                for (String entry : p.getOfficers()) {
+                    String nric = directory.resolve(entry);
+                    if (nric != null) {
+                        assigned.add(nric);
+                    }
+                }
+            }
+            for (String nric : assigned) {
+                idsByOfficer.computeIfAbsent(nric, k -> new BitSet()).set(p.getProjectId());
+                projectsByOfficer.computeIfAbsent(nric, k -> new ArrayList<>()).add(p);
+            }
+            officersByProject.put(p.getProjectId(), Collections.unmodifiableSet(assigned));
+        }
+        projectsByOfficer.replaceAll((nric, projects) -> Collections.unmodifiableList(projects));
+        return new Index(source, directory, idsByOfficer, projectsByOfficer, officersByProject);
+    }
+
+    private static Directory loadDirectory() {
+        Map<String, String> names = new HashMap<>();
+        Map<String, List<String>> byName = new HashMap<>();
+        for (User user : FileManager.loadUsersFromCSV(Constants.OFFICER_CSV, Constants.USER_TYPE_OFFICER)) {
+            if (user instanceof HDBOfficer) {
+                String nric = normalize(user.getNric());
+                names.put(nric, user.getName().trim());
+                byName.computeIfAbsent(user.getName().trim().toLowerCase(), k -> new ArrayList<>()).add(nric);
+            }
+        }
+        return new Directory(names, byName);
+    }
+
+    /**
+     * The officers of the officer list, by NRIC and by name.
+     */
+    private static final class Directory {
+        private final Map<String, String> names;
+        private final Map<String, List<String>> byName;
+
+        Directory(Map<String, String> names, Map<String, List<String>> byName) {
+            this.names = names;
+            this.byName = byName;
+        }
+
+        String resolve(String nameOrNric) {
+            if (nameOrNric == null || nameOrNric.trim().isEmpty()) {
+                return null;
+            }
+            String nric = normalize(nameOrNric);
+            if (names.containsKey(nric)) {
+                return nric;
+            }
+            List<String> named = byName.get(nameOrNric.trim().toLowerCase());
+            return named != null && named.size() == 1 ? named.get(0) : null;
+        }
+    }
+
+    /**
+     * The assignments computed from one project snapshot and officer list.
+     */
+    private static final class Index {
+        private final ProjectCatalog.Snapshot source;
+        private final Directory directory;
+        private final Map<String, BitSet> projectIdsByOfficer;
+        private final Map<String, List<Project>> projectsByOfficer;
+        private final Map<Integer, Set<String>> officersByProject;
+
+        Index(ProjectCatalog.Snapshot source, Directory directory, Map<String, BitSet> projectIdsByOfficer,
+              Map<String, List<Project>> projectsByOfficer, Map<Integer, Set<String>> officersByProject) {
+            this.source = source;
+            this.directory = directory;
+            this.projectIdsByOfficer = projectIdsByOfficer;
+            this.projectsByOfficer = projectsByOfficer;
+            this.officersByProject = officersByProject;
+        }
+    }
+}
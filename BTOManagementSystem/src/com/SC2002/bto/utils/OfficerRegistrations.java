@@ -0,0 +1,243 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.OfficerRegistration;
+import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.RegistrationStatus;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-memory store of officer registrations, indexed by officer and by project.
+ * <p>
+ * The registration file is an append-only log: each line records an officer, a project
+ * and the registration's new status, and the last line for an (officer, project) pair
+ * is its current status. Lines without a status are pending registrations, as written
+ * by earlier versions. Registering, approving and rejecting each append one line.
+ * <p>
+ * The log is replayed into an immutable index shared by all readers, which is rebuilt
+ * after the file is written (see {@link FileBackedCache}). Changes are made one at a
+ * time, so the pending count of a project cannot be raised past its limit by two
+ * officers registering at once.
+ */
+public final class OfficerRegistrations {
+
+    private static final String HEADER = "OfficerNRIC,ProjectID,Status";
+
+    private static final FileBackedCache<Index> cache =
+        new FileBackedCache<>(Constants.REGISTRATION_CSV, shared -> load());
+
+    private OfficerRegistrations() {
+    }
+
+    /**
+     * Returns the current status of an officer's registration for a project.
+     *
+     * @param officerNric the officer's NRIC
+     * @param projectId the project ID
+     * @return the status, or empty if the officer never registered for the project
+     */
+    public static Optional<RegistrationStatus> getStatus(String officerNric, int projectId) {
+        OfficerRegistration r = cache.get().byKey.get(key(officerNric, projectId));
+        return r == null ? Optional.empty() : Optional.of(r.getStatus());
+    }
+
+    /**
+     * Returns all registrations of an officer, whatever their status.
+     *
+     * @param officerNric the officer's NRIC
+     * @return an unmodifiable list of the registrations, in the order they were made
+     */
+    public static List<OfficerRegistration> getByOfficer(String officerNric) {
+        return cache.get().byOfficer.getOrDefault(OfficerAssignments.normalize(officerNric), Collections.emptyList());
+    }
+
+    /**
+     * Returns the projects an officer has pending registrations for.
+     *
+     * @param officerNric the officer's NRIC
+     * @return an unmodifiable list of project IDs
+     */
+    public static List<Integer> getPendingByOfficer(String officerNric) {
+        return cache.get().pendingByOfficer.getOrDefault(OfficerAssignments.normalize(officerNric), Collections.emptyList());
+    }
+
+    /**
+     * Returns the officers with pending registrations for a project.
+     *
+     * @param projectId the project ID
+     * @return an unmodifiable list of officer NRICs
+     */
+    public static List<String> getPendingByProject(int projectId) {
+        return cache.get().pendingByProject.getOrDefault(projectId, Collections.emptyList());
+    }
+
+    /**
+     * Returns all pending registrations.
+     *
+     * @return an unmodifiable list of the registrations, in the order they were made
+     */
+    public static List<OfficerRegistration> getPending() {
+        return cache.get().pending;
+    }
+
+    /**
+     * Returns the number of pending registrations for a project.
+     *
+     * @param projectId the project ID
+     * @return the number of pending registrations
+     */
+    public static int getPendingCount(int projectId) {
+        return getPendingByProject(projectId).size();
+    }
+
+    /**
+     * Registers an officer for a project. The project must exist and its pending
+     * registrations must not exceed its remaining officer slots or
+     * {@link Constants#MAX_PENDING_REGISTRATIONS}.
+     *
+     * @param officerNric the officer's NRIC
+     * @param projectId the project ID
+     * @return true if the registration was recorded, false otherwise
+     */
+    public static synchronized boolean register(String officerNric, int projectId) {
+        Optional<RegistrationStatus> status = getStatus(officerNric, projectId);
+        if (status.isPresent() && status.get() != RegistrationStatus.REJECTED) {
+            System.out.println("❌ You have already registered for this project.");
+            return false;
+        }
+        Optional<Project> project = ProjectCatalog.findById(projectId);
+        if (!project.isPresent()) {
+            System.out.println("❌ Project not found.");
+            return false;
+        }
+        int limit = Math.min(project.get().getOfficerSlots(), Constants.MAX_PENDING_REGISTRATIONS);
+        if (getPendingCount(projectId) >= limit) {
+            System.out.println("❌ Registration limit reached: " + limit + " officer registration(s) already pending.");
+            return false;
+        }
+        return append(officerNric, projectId, RegistrationStatus.PENDING);
+    }
+
+    /**
+     * Records the approval of a pending registration. Assigning the officer to the
+     * project is up to the caller, in the same unit of work.
+     *
+     * @param officerNric the officer's NRIC
+     * @param projectId the project ID
+     * @return true if the approval was recorded, false if the registration is not pending
+     */
+    public static synchronized boolean approve(String officerNric, int projectId) {
+        return transition(officerNric, projectId, RegistrationStatus.APPROVED);
+    }
+
+    /**
+     * Records the rejection of a pending registration.
+     *
+     * @param officerNric the officer's NRIC
+     * @param projectId the project ID
+     * @return true if the rejection was recorded, false if the registration is not pending
+     */
+    public static synchronized boolean reject(String officerNric, int projectId) {
+        return transition(officerNric, projectId, RegistrationStatus.REJECTED);
+    }
+
+    private static boolean transition(String officerNric, int projectId, RegistrationStatus to) {
+        if (getStatus(officerNric, projectId).orElse(null) != RegistrationStatus.PENDING) {
+            return false;
+        }
+        return append(officerNric, projectId, to);
+    }
+
+    private static boolean append(String officerNric, int projectId, RegistrationStatus status) {
+        boolean headerNeeded = !hasHeader();
+        try (BufferedWriter bw = FileManager.openWriter(Constants.REGISTRATION_CSV, true)) {
+            if (headerNeeded) {
+                bw.write(HEADER);
+                bw.newLine();
+            }
+            bw.write(OfficerAssignments.normalize(officerNric) + "," + projectId + "," + status.name());
+            bw.newLine();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error saving officer registration: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static boolean hasHeader() {
+        try (BufferedReader br = FileManager.openReader(Constants.REGISTRATION_CSV)) {
+            return br.readLine() != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replays the registration log into an index.
+     */
+    private static Index load() {
+        Map<String, OfficerRegistration> byKey = new LinkedHashMap<>();
+        try (BufferedReader br = FileManager.openReader(Constants.REGISTRATION_CSV)) {
+            br.readLine(); // Skip header
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] tokens = line.split(",");
+                if (tokens.length < 2) continue;
+                try {
+                    String nric = OfficerAssignments.normalize(tokens[0]);
+                    int projectId = Integer.parseInt(tokens[1].trim());
+                    RegistrationStatus status = tokens.length > 2 && !tokens[2].trim().isEmpty()
+                        ? RegistrationStatus.valueOf(tokens[2].trim().toUpperCase())
+                        : RegistrationStatus.PENDING;
+                    byKey.put(key(nric, projectId), new OfficerRegistration(nric, projectId, status));
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Warning: Skipping invalid registration record: " + line);
+                }
+            }
+        } catch (IOException e) {
+            // If file doesn't exist yet, that's fine — no registrations yet
+        }
+        return new Index(byKey);
+    }
+
+    private static String key(String officerNric, int projectId) {
+        return OfficerAssignments.normalize(officerNric) + "#" + projectId;
+    }
+
+    /**
+     * The current registrations, by officer and project, by officer, and pending by project.
+     */
+    private static final class Index {
+        private final Map<String, OfficerRegistration> byKey;
+        private final Map<String, List<OfficerRegistration>> byOfficer = new HashMap<>();
+        private final Map<String, List<Integer>> pendingByOfficer = new HashMap<>();
+        private final Map<Integer, List<String>> pendingByProject = new HashMap<>();
+        private final List<OfficerRegistration> pending;
+
+        Index(Map<String, OfficerRegistration> byKey) {
+            this.byKey = byKey;
+            List<OfficerRegistration> pendingList = new ArrayList<>();
+            for (OfficerRegistration r : byKey.values()) {
+                byOfficer.computeIfAbsent(r.getOfficerNric(), k -> new ArrayList<>()).add(r);
+                if (r.getStatus() == RegistrationStatus.PENDING) {
+                    pendingList.add(r);
+                    pendingByOfficer.computeIfAbsent(r.getOfficerNric(), k -> new ArrayList<>()).add(r.getProjectId());
+                    pendingByProject.computeIfAbsent(r.getProjectId(), k -> new ArrayList<>()).add(r.getOfficerNric());
+                }
+            }
+            byOfficer.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            pendingByOfficer.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            pendingByProject.replaceAll((k, v) -> Collections.unmodifiableList(v));
+            this.pending = Collections.unmodifiableList(pendingList);
+        }
+    }
+}
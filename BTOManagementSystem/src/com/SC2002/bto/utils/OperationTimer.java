@@ -0,0 +1,291 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.User;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Times controller actions into latency histograms and logs the slow ones.
+ * <p>
+ * A controller method opens an operation with {@link #start}, optionally marks its
+ * stages, records its result, and closes it when it returns. Its duration is recorded in
+ * the {@link MetricsRegistry} histogram {@code controller.<action>}. If it took longer than
+ * the slow-operation threshold, it is also appended to the slow-operation log with its
+ * arguments and result, the time spent in each stage, and the repository and service
+ * calls it made. Only the first {@value #MAX_LOGGED_CALLS} calls are kept; later ones
+ * are counted but not logged, so an action that loops over many rows stays cheap to time.
+ * <p>
+ * Arguments and results are logged as given, except that users are logged by NRIC and
+ * collections by size. Controllers must not pass passwords.
+ */
+public final class OperationTimer {
+
+    /** Prefix of the histograms of controller actions in the metrics registry */
+    public static final String HISTOGRAM_PREFIX = "controller.";
+    /** Number of calls kept per operation for the slow-operation log */
+    public static final int MAX_LOGGED_CALLS = 100;
+
+    private static final ThreadLocal<Operation> current = new ThreadLocal<>();
+    private static volatile long slowThresholdNanos = Constants.SLOW_OPERATION_THRESHOLD_MS * 1_000_000L;
+
+    private OperationTimer() {
+    }
+
+    /**
+     * Starts timing a controller action on the current thread.
+     *
+     * @param action the controller and method, e.g. "ApplicationController.applyForProject"
+     * @param args the arguments to log if the action is slow
+     * @return the operation, to be closed when the action returns
+     */
+    public static Operation start(String action, Object... args) {
+        Operation parent = current.get();
+        if (parent != null) {
+            parent.enter(HISTOGRAM_PREFIX + action);
+        }
+        Operation operation = new Operation(action, args, parent);
+        current.set(operation);
+        return operation;
+    }
+
+    /**
+     * Sets the duration above which an action is logged as slow.
+     *
+     * @param millis the threshold in milliseconds; 0 logs every action
+     */
+    public static void setSlowThresholdMillis(long millis) {
+        slowThresholdNanos = Math.max(0, millis) * 1_000_000L;
+    }
+
+    /**
+     * Returns the duration above which an action is logged as slow.
+     *
+     * @return the threshold in milliseconds
+     */
+    public static long getSlowThresholdMillis() {
+        return slowThresholdNanos / 1_000_000L;
+    }
+
+    /**
+     * Returns the latency histograms of the controller actions, by action.
+     *
+     * @return the histograms, sorted by action
+     */
+    public static Map<String, MetricsRegistry.Histogram> getHistograms() {
+        Map<String, MetricsRegistry.Histogram> histograms = new TreeMap<>();
+        MetricsRegistry.getDefault().getHistograms().forEach((name, histogram) -> {
+            if (name.startsWith(HISTOGRAM_PREFIX)) {
+                histograms.put(name.substring(HISTOGRAM_PREFIX.length()), histogram);
+            }
+        });
+        return histograms;
+    }
+
+    /**
+     * Formats the latency histograms of the controller actions as a table.
+     *
+     * @return the table
+     */
+    public static String dumpHistograms() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-50s %8s %9s %9s %9s %9s%n", "Action (ms)", "count", "p50", "p99", "p99.9", "max"));
+        for (Map.Entry<String, MetricsRegistry.Histogram> e : getHistograms().entrySet()) {
+            MetricsRegistry.Histogram h = e.getValue();
+            sb.append(String.format(Locale.ROOT, "%-50s %8d %9.3f %9.3f %9.3f %9.3f%n", e.getKey(), h.getCount(),
+                h.getP50Millis(), h.getP99Millis(), h.getP999Millis(), h.getMaxMillis()));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Adds an instrumented call that is starting to the breakdown of the current operation, if any.
+     *
+     * @param name the metric name of the call
+     */
+    static void enterCall(String name) {
+        Operation operation = current.get();
+        if (operation != null) {
+            operation.enter(name);
+        }
+    }
+
+    /**
+     * Records how long the latest instrumented call of the current operation took.
+     *
+     * @param nanos how long it took
+     */
+    static void exitCall(long nanos) {
+        Operation operation = current.get();
+        if (operation != null) {
+            operation.exit(nanos);
+        }
+    }
+
+    /**
+     * Appends an operation to the slow-operation log. Written directly rather than through
+     * {@link FileManager}, as the action may be inside a unit of work.
+     */
+    private static synchronized void log(Operation operation, long nanos) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(LocalDateTime.now()).append(' ').append(operation.action)
+          .append(String.format(Locale.ROOT, " took %.3f ms", nanos / 1e6))
+          .append(" on ").append(Thread.currentThread().getName()).append(System.lineSeparator());
+        sb.append("  args: ").append(formatArgs(operation.args)).append(System.lineSeparator());
+        if (operation.hasResult) {
+            sb.append("  result: ").append(format(operation.result)).append(System.lineSeparator());
+        }
+        for (Map.Entry<String, Long> stage : operation.stages.entrySet()) {
+            sb.append(String.format(Locale.ROOT, "  stage %-30s %10.3f ms%n", stage.getKey(), stage.getValue() / 1e6));
+        }
+        for (Call call : operation.calls) {
+            sb.append("  ").append("  ".repeat(call.depth))
+              .append(String.format(Locale.ROOT, "call %s %.3f ms%n", call.name, call.nanos / 1e6));
+        }
+        if (operation.droppedCalls > 0) {
+            sb.append("  ... ").append(operation.droppedCalls).append(" more calls not shown")
+              .append(System.lineSeparator());
+        }
+        try (BufferedWriter bw = Files.newBufferedWriter(Paths.get(Constants.SLOW_OPERATION_LOG), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            bw.write(sb.toString());
+        } catch (IOException e) {
+            System.out.println("Warning: Could not write slow-operation log: " + e.getMessage());
+        }
+    }
+
+    private static String formatArgs(Object[] args) {
+        List<String> formatted = new ArrayList<>();
+        for (Object arg : args) {
+            formatted.add(format(arg));
+        }
+        return String.join(", ", formatted);
+    }
+
+    private static String format(Object value) {
+        if (value instanceof User) {
+            return value.getClass().getSimpleName() + "(" + ((User) value).getNric() + ")";
+        } else if (value instanceof Collection) {
+            return "[" + ((Collection<?>) value).size() + " items]";
+        }
+        return String.valueOf(value);
+    }
+
+    /**
+     * A controller action being timed on the current thread.
+     */
+    public static final class Operation implements AutoCloseable {
+        private final String action;
+        private final Object[] args;
+        private final Operation parent;
+        private final long began = System.nanoTime();
+        private final Map<String, Long> stages = new LinkedHashMap<>();
+        private final List<Call> calls = new ArrayList<>();
+        private final Deque<Call> open = new ArrayDeque<>();
+        private int droppedCalls;
+        private String stage;
+        private long stageBegan;
+        private Object result;
+        private boolean hasResult;
+
+        private Operation(String action, Object[] args, Operation parent) {
+            this.action = action;
+            this.args = args;
+            this.parent = parent;
+        }
+
+        /**
+         * Ends the current stage, if any, and starts the next one.
+         *
+         * @param name the stage name, e.g. "validate"
+         */
+        public void stage(String name) {
+            long now = System.nanoTime();
+            endStage(now);
+            stage = name;
+            stageBegan = now;
+        }
+
+        /**
+         * Records the value the action returns, to be logged if it is slow.
+         *
+         * @param <T> the type of the value
+         * @param value the value returned
+         * @return the value, so it can be returned directly
+         */
+        public <T> T result(T value) {
+            result = value;
+            hasResult = true;
+            return value;
+        }
+
+        private void enter(String name) {
+            Call call = new Call(name, open.size());
+            // Calls past the limit are still tracked as open so exits pair up with their calls
+            if (calls.size() < MAX_LOGGED_CALLS) {
+                calls.add(call);
+            } else {
+                droppedCalls++;
+            }
+            open.push(call);
+        }
+
+        private void exit(long nanos) {
+            Call call = open.poll();
+            if (call != null) {
+                call.nanos = nanos;
+            }
+        }
+
+        private void endStage(long now) {
+            if (stage != null) {
+                stages.merge(stage, now - stageBegan, Long::sum);
+            }
+        }
+
+        @Override
+        public void close() {
+            long now = System.nanoTime();
+            endStage(now);
+            long nanos = now - began;
+            if (parent == null) {
+                current.remove();
+            } else {
+                current.set(parent);
+                parent.exit(nanos);
+            }
+            MetricsRegistry.getDefault().histogram(HISTOGRAM_PREFIX + action).record(nanos);
+            if (nanos > slowThresholdNanos) {
+                log(this, nanos);
+            }
+        }
+    }
+
+    /**
+     * A repository, service or nested controller call made during an operation.
+     */
+    private static final class Call {
+        private final String name;
+        private final int depth;
+        private long nanos;
+
+        Call(String name, int depth) {
+            this.name = name;
+            this.depth = depth;
+        }
+    }
+}
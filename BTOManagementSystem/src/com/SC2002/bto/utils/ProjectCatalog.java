@@ -0,0 +1,487 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.Project;
+import com.SC2002.bto.entities.ProjectView;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * The single in-memory catalog of projects, shared by the repository layer, the
+ * entities and the menus.
+ * <p>
+ * The catalog publishes immutable snapshots of the project list through a
+ * {@link FileBackedCache}: a new snapshot is built from the project file after it has
+ * been written and when it is changed outside the application, and replaces the old
+ * one in a single reference swap, so readers always see a consistent list without
+ * locking or copying.
+ * <p>
+ * Projects in a snapshot are shared and must not be changed. Each snapshot also holds
+ * an immutable {@link ProjectView} of every project. Code that edits projects either
+ * saves changed views through the project repository, or takes copies with
+ * {@link #copyAll()} and saves them with {@link FileManager#saveProjects}.
+ * A thread with an active {@link UnitOfWork} that has staged project changes sees
+ * a private snapshot of its staged file instead of the shared one.
+ * <p>
+ * Each snapshot also indexes its projects by neighborhood, manager, flat type and
+ * visibility. An index lookup returns the positions of the matching projects in the
+ * snapshot, in ascending order, so that the lookups of several criteria can be
+ * intersected before any project is read. The prices of each flat type are kept in a
+ * {@link PriceIndex}, sorted, once over all projects and once over those with units of
+ * that flat type left. As a snapshot is rebuilt whenever the project file is written,
+ * the price indexes follow every change of price or units.
+ */
+public final class ProjectCatalog {
+
+    private static final FileBackedCache<Snapshot> cache =
+        new FileBackedCache<>(Constants.PROJECT_CSV, ProjectCatalog::load);
+
+    private ProjectCatalog() {
+    }
+
+    /**
+     * Returns the current snapshot, loading the project file if needed.
+     *
+     * @return the current snapshot
+     */
+    public static Snapshot snapshot() {
+        return cache.get();
+    }
+
+    /**
+     * Returns all projects, regardless of visibility.
+     *
+     * @return an unmodifiable list of the projects in the current snapshot
+     */
+    public static List<Project> getAll() {
+        return snapshot().getProjects();
+    }
+
+    /**
+     * Returns only visible projects.
+     *
+     * @return an unmodifiable list of the visible projects in the current snapshot
+     */
+    public static List<Project> getVisible() {
+        return snapshot().getVisibleProjects();
+    }
+
+    /**
+     * Looks up a project by ID.
+     *
+     * @param projectId the project ID
+     * @return the project, or empty if it does not exist
+     */
+    public static Optional<Project> findById(int projectId) {
+        return Optional.ofNullable(snapshot().getProject(projectId));
+    }
+
+    /**
+     * Returns copies of all projects that may be changed and saved.
+     *
+     * @return a new, modifiable list of project copies
+     */
+    public static List<Project> copyAll() {
+        List<Project> projects = snapshot().getProjects();
+        List<Project> copies = new ArrayList<>(projects.size());
+        for (Project p : projects) {
+            copies.add(new Project(p));
+        }
+        return copies;
+    }
+
+    /**
+     * Discards the current snapshot so the project file is read again on the next lookup.
+     * Writes through {@link FileManager} do this automatically.
+     */
+    public static void invalidate() {
+        cache.invalidate();
+    }
+
+    private static Snapshot load(boolean published) {
+        return new Snapshot(FileManager.loadProjectsFromCSV(Constants.PROJECT_CSV), published);
+    }
+
+    /**
+     * An immutable view of the project list at one point in time.
+     */
+    public static final class Snapshot {
+        private static final int[] NO_ROWS = new int[0];
+
+        private final List<Project> projects;
+        private final List<Project> visibleProjects;
+        private final Map<Integer, Project> projectsById;
+        private final List<ProjectView> views;
+        private final Map<Integer, ProjectView> viewsById;
+        private final Map<String, int[]> rowsByNeighborhood;
+        private final Map<String, int[]> rowsByManager;
+        private final Map<String, int[]> rowsByFlatType;
+        private final int[] visibleRows;
+        private final int[] hiddenRows;
+        private final List<String> neighborhoods;
+        private final Map<String, PriceIndex> pricesByFlatType;
+        private final Map<String, PriceIndex> availablePricesByFlatType;
+        private final boolean published;
+
+        private Snapshot(List<Project> projects, boolean published) {
+            List<Project> visible = new ArrayList<>();
+            Map<Integer, Project> byId = new HashMap<>();
+            List<ProjectView> viewList = new ArrayList<>(projects.size());
+            Map<Integer, ProjectView> viewsById = new HashMap<>();
+            Map<String, List<Integer>> byNeighborhood = new HashMap<>();
+            Map<String, List<Integer>> byManager = new HashMap<>();
+            Map<String, List<Integer>> byFlatType = new HashMap<>();
+            List<Integer> visibleRowList = new ArrayList<>();
+            List<Integer> hiddenRowList = new ArrayList<>();
+            Map<String, String> neighborhoodNames = new TreeMap<>();
+            Map<String, List<int[]>> prices = new HashMap<>();
+            Map<String, List<int[]>> availablePrices = new HashMap<>();
+            for (int row = 0; row < projects.size(); row++) {
+                Project p = projects.get(row);
+                byId.put(p.getProjectId(), p);
+                if (p.isVisible()) {
+                    visible.add(p);
+                    visibleRowList.add(row);
+                } else {
+                    hiddenRowList.add(row);
+                }
+                ProjectView view = ProjectView.of(p);
+                viewList.add(view);
+                viewsById.put(p.getProjectId(), view);
+                
+                byNeighborhood.computeIfAbsent(key(p.getNeighborhood()), k -> new ArrayList<>()).add(row);
+                byManager.computeIfAbsent(key(p.getManager()), k -> new ArrayList<>()).add(row);
+                byFlatType.computeIfAbsent(key(p.getType1Desc()), k -> new ArrayList<>()).add(row);
+                if (!key(p.getType2Desc()).equals(key(p.getType1Desc()))) {
+                    byFlatType.computeIfAbsent(key(p.getType2Desc()), k -> new ArrayList<>()).add(row);
+                }
+                neighborhoodNames.putIfAbsent(key(p.getNeighborhood()), p.getNeighborhood());
+                
+                // One price entry per flat type: {price, project ID, position}
+                int[] type1 = {p.getType1Price(), p.getProjectId(), row};
+                int[] type2 = {p.getType2Price(), p.getProjectId(), row};
+                if (!key(p.getType2Desc()).equals(key(p.getType1Desc()))) {
+                    prices.computeIfAbsent(key(p.getType1Desc()), k -> new ArrayList<>()).add(type1);
+                    prices.computeIfAbsent(key(p.getType2Desc()), k -> new ArrayList<>()).add(type2);
+                    if (p.getType1Units() > 0) {
+                        availablePrices.computeIfAbsent(key(p.getType1Desc()), k -> new ArrayList<>()).add(type1);
+                    }
+                    if (p.getType2Units() > 0) {
+                        availablePrices.computeIfAbsent(key(p.getType2Desc()), k -> new ArrayList<>()).add(type2);
+                    }
+                } else {
+                    // Both types are the same flat type: list the project once, at the lower price
+                    int[] lower = type2[0] < type1[0] ? type2 : type1;
+                    prices.computeIfAbsent(key(p.getType1Desc()), k -> new ArrayList<>()).add(lower);
+                    int[] available = p.getType1Units() > 0 && p.getType2Units() > 0 ? lower
+                        : p.getType1Units() > 0 ? type1 : p.getType2Units() > 0 ? type2 : null;
+                    if (available != null) {
+                        availablePrices.computeIfAbsent(key(p.getType1Desc()), k -> new ArrayList<>()).add(available);
+                    }
+                }
+            }
+            this.projects = Collections.unmodifiableList(new ArrayList<>(projects));
+            this.visibleProjects = Collections.unmodifiableList(visible);
+            this.projectsById = byId;
+            this.views = Collections.unmodifiableList(viewList);
+            this.viewsById = viewsById;
+            this.rowsByNeighborhood = toRowIndex(byNeighborhood);
+            this.rowsByManager = toRowIndex(byManager);
+            this.rowsByFlatType = toRowIndex(byFlatType);
+            this.visibleRows = toRows(visibleRowList);
+            this.hiddenRows = toRows(hiddenRowList);
+            this.neighborhoods = Collections.unmodifiableList(new ArrayList<>(neighborhoodNames.values()));
+            this.pricesByFlatType = toPriceIndex(prices);
+            this.availablePricesByFlatType = toPriceIndex(availablePrices);
+            this.published = published;
+        }
+        
+        private static String key(String value) {
+            return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+        }
+        
+        private static Map<String, int[]> toRowIndex(Map<String, List<Integer>> rows) {
+            Map<String, int[]> index = new HashMap<>();
+            rows.forEach((key, list) -> index.put(key, toRows(list)));
+            return index;
+        }
+        
+        private static Map<String, PriceIndex> toPriceIndex(Map<String, List<int[]>> entries) {
+            Map<String, PriceIndex> index = new HashMap<>();
+            entries.forEach((key, list) -> index.put(key, new PriceIndex(list)));
+            return index;
+        }
+        
+        private static int[] toRows(List<Integer> rows) {
+            int[] array = new int[rows.size()];
+            for (int i = 0; i < array.length; i++) {
+                array[i] = rows.get(i);
+            }
+            return array;
+        }
+
+        /**
+         * @return all projects, in file order
+         */
+        public List<Project> getProjects() {
+            return projects;
+        }
+
+        /**
+         * @return the visible projects, in file order
+         */
+        public List<Project> getVisibleProjects() {
+            return visibleProjects;
+        }
+
+        /**
+         * @param projectId the project ID
+         * @return the project, or null if it does not exist
+         */
+        public Project getProject(int projectId) {
+            return projectsById.get(projectId);
+        }
+
+        /**
+         * @return immutable views of all projects, in file order
+         */
+        public List<ProjectView> getViews() {
+            return views;
+        }
+
+        /**
+         * @param projectId the project ID
+         * @return the view of the project, or null if it does not exist
+         */
+        public ProjectView getView(int projectId) {
+            return viewsById.get(projectId);
+        }
+
+        /**
+         * @return the number of projects in this snapshot
+         */
+        public int size() {
+            return projects.size();
+        }
+
+        /**
+         * Returns the positions of the projects in a neighborhood. The array is shared
+         * and must not be changed.
+         *
+         * @param neighborhood the neighborhood, ignoring case
+         * @return the positions in {@link #getProjects()}, in ascending order
+         */
+        public int[] getRowsByNeighborhood(String neighborhood) {
+            return rowsByNeighborhood.getOrDefault(key(neighborhood), NO_ROWS);
+        }
+
+        /**
+         * Returns the positions of the projects of a manager. The array is shared and
+         * must not be changed.
+         *
+         * @param manager the manager as stored on the project, ignoring case
+         * @return the positions in {@link #getProjects()}, in ascending order
+         */
+        public int[] getRowsByManager(String manager) {
+            return rowsByManager.getOrDefault(key(manager), NO_ROWS);
+        }
+
+        /**
+         * Returns the positions of the projects that offer a flat type. The array is
+         * shared and must not be changed.
+         *
+         * @param flatType the flat type, e.g. "2-Room", ignoring case
+         * @return the positions in {@link #getProjects()}, in ascending order
+         */
+        public int[] getRowsByFlatType(String flatType) {
+            return rowsByFlatType.getOrDefault(key(flatType), NO_ROWS);
+        }
+
+        /**
+         * Returns the positions of the visible or hidden projects. The array is shared
+         * and must not be changed.
+         *
+         * @param visible true for the visible projects, false for the hidden ones
+         * @return the positions in {@link #getProjects()}, in ascending order
+         */
+        public int[] getRowsByVisibility(boolean visible) {
+            return visible ? visibleRows : hiddenRows;
+        }
+
+        /**
+         * Returns the price index of a flat type.
+         *
+         * @param flatType the flat type, e.g. "2-Room", ignoring case
+         * @param availableOnly true for only the projects with units of the flat type left
+         * @return the index, empty if no project offers the flat type
+         */
+        public PriceIndex getPriceIndex(String flatType, boolean availableOnly) {
+            Map<String, PriceIndex> index = availableOnly ? availablePricesByFlatType : pricesByFlatType;
+            return index.getOrDefault(key(flatType), PriceIndex.EMPTY);
+        }
+
+        /**
+         * Returns the price indexes of all flat types.
+         *
+         * @param availableOnly true for only the projects with units of each flat type left
+         * @return the indexes, one per flat type
+         */
+        public List<PriceIndex> getPriceIndexes(boolean availableOnly) {
+            return new ArrayList<>((availableOnly ? availablePricesByFlatType : pricesByFlatType).values());
+        }
+
+        /**
+         * @return the distinct neighborhoods of the projects, sorted ignoring case
+         */
+        public List<String> getNeighborhoods() {
+            return neighborhoods;
+        }
+
+        /**
+         * @return true if this snapshot is shared by all threads, false if it is the
+         *         private view of a unit of work
+         */
+        public boolean isPublished() {
+            return published;
+        }
+    }
+
+    /**
+     * The prices of one flat type across the projects of a snapshot, as parallel arrays
+     * sorted by price, with equal prices in project ID order. A price range is found with
+     * two binary searches, and the cheapest entries are at the start, so a range or the
+     * cheapest k entries are read in O(log n + k).
+     */
+    public static final class PriceIndex {
+        private static final PriceIndex EMPTY = new PriceIndex(Collections.emptyList());
+
+        private final int[] prices;
+        private final int[] projectIds;
+        private final int[] rows;
+
+        private PriceIndex(List<int[]> entries) {
+            List<int[]> sorted = new ArrayList<>(entries);
+            sorted.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+            prices = new int[sorted.size()];
+            projectIds = new int[sorted.size()];
+            rows = new int[sorted.size()];
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] = sorted.get(i)[0];
+                projectIds[i] = sorted.get(i)[1];
+                rows[i] = sorted.get(i)[2];
+            }
+        }
+
+        /**
+         * @return the number of entries
+         */
+        public int size() {
+            return prices.length;
+        }
+
+        /**
+         * Returns the first entry priced at or above a price.
+         *
+         * @param minPrice the lowest price
+         * @return the entry's position, or {@link #size()} if every price is lower
+         */
+        public int lowerBound(int minPrice) {
+            int lo = 0;
+            int hi = prices.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (prices[mid] < minPrice) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Returns the first entry priced above a price.
+         *
+         * @param maxPrice the highest price
+         * @return the entry's position, or {@link #size()} if no price is higher
+         */
+        public int upperBound(int maxPrice) {
+            int lo = 0;
+            int hi = prices.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (prices[mid] <= maxPrice) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Counts the entries priced within a range.
+         *
+         * @param minPrice the lowest price
+         * @param maxPrice the highest price
+         * @return the number of entries
+         */
+        public int count(int minPrice, int maxPrice) {
+            return Math.max(0, upperBound(maxPrice) - lowerBound(minPrice));
+        }
+
+        /**
+         * @param i the entry's position
+         * @return the price of the entry
+         */
+        public int priceAt(int i) {
+            return prices[i];
+        }
+
+        /**
+         * @param i the entry's position
+         * @return the project ID of the entry
+         */
+        public int projectIdAt(int i) {
+            return projectIds[i];
+        }
+
+        /**
+         * @param i the entry's position
+         * @return the position of the entry's project in {@link Snapshot#getProjects()}
+         */
+        public int rowAt(int i) {
+            return rows[i];
+        }
+
+        /**
+         * Returns the projects priced within a range, cheapest first.
+         *
+         * @param minPrice the lowest price
+         * @param maxPrice the highest price
+         * @return the positions of the projects in {@link Snapshot#getProjects()}
+         */
+        public int[] rowsInRange(int minPrice, int maxPrice) {
+            int from = lowerBound(minPrice);
+            int to = Math.max(from, upperBound(maxPrice));
+            return Arrays.copyOfRange(rows, from, to);
+        }
+
+        /**
+         * Returns the cheapest projects.
+         *
+         * @param k the number of projects
+         * @return the positions of at most k projects in {@link Snapshot#getProjects()}, cheapest first
+         */
+        public int[] cheapest(int k) {
+            return Arrays.copyOf(rows, Math.min(Math.max(k, 0), rows.length));
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.SC2002.bto.utils;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Groups file changes made by several repositories into one atomic commit.
+ * While a unit of work is active on the current thread, every write made through
+ * {@link FileManager} is staged in memory instead of going to disk, and later reads
+ * of the same file see the staged content. Several writes to one file are coalesced
+ * into a single write.
+ * <p>
+ * On commit the staged files are first recorded in a journal, which is synced to
+ * disk, and then each file is replaced atomically. If the program stops part-way
+ * through applying, {@link #recover()} replays the journal on the next start.
+ * <p>
+ * Typical usage:
+ * <pre>
+ * try (UnitOfWork uow = UnitOfWork.begin()) {
+ *     projectRepository.bookUnit(projectId, flatType);
+ *     applicationRepository.book(nric);
+ *     uow.commit();
+ * }
+ * </pre>
+ * Closing a unit of work that has not been committed rolls it back.
+ */
+public final class UnitOfWork implements AutoCloseable {
+
+    private static final ThreadLocal<UnitOfWork> CURRENT = new ThreadLocal<>();
+    private static final String COMMIT_MARKER = "COMMIT";
+
+    private final Map<String, String> stagedFiles = new LinkedHashMap<>();
+    private boolean finished;
+
+    private UnitOfWork() {
+    }
+
+    /**
+     * Starts a unit of work on the current thread.
+     *
+     * @return the new unit of work
+     * @throws IllegalStateException if a unit of work is already active on this thread
+     */
+    public static UnitOfWork begin() {
+        if (CURRENT.get() != null) {
+            throw new IllegalStateException("A unit of work is already active on this thread");
+        }
+        UnitOfWork uow = new UnitOfWork();
+        CURRENT.set(uow);
+        return uow;
+    }
+
+    /**
+     * Returns the unit of work active on the current thread.
+     *
+     * @return the active unit of work, or null if there is none
+     */
+    public static UnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Checks whether a unit of work is active on the current thread.
+     *
+     * @return true if file writes are currently being staged
+     */
+    public static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    /**
+     * Returns the staged content of a file, if it has been written in this unit of work.
+     *
+     * @param path the file path
+     * @return the staged content, or null if the file has not been written
+     */
+    String getStaged(String path) {
+        return stagedFiles.get(key(path));
+    }
+
+    /**
+     * Stages the full content of a file. A later write to the same file replaces it.
+     *
+     * @param path the file path
+     * @param content the new file content
+     */
+    void stage(String path, String content) {
+        stagedFiles.put(key(path), content);
+    }
+
+    /**
+     * Returns the number of distinct files written in this unit of work.
+     *
+     * @return the number of staged files
+     */
+    public int getStagedFileCount() {
+        return stagedFiles.size();
+    }
+
+    /**
+     * Writes the journal and applies all staged files. If the commit fails, the indexes
+     * that saw the staged writes are rebuilt from the files on disk, as on rollback.
+     *
+     * @return true if all changes were made durable, false otherwise
+     */
+    public boolean commit() {
+        if (finished) {
+            throw new IllegalStateException("Unit of work has already finished");
+        }
+        finish();
+        if (stagedFiles.isEmpty()) {
+            return true;
+        }
+
+        // Older buffered writes must reach disk first so they cannot overwrite this commit
+        if (WriteBehindBuffer.isEnabled()) {
+            WriteBehindBuffer.flush();
+        }
+
+        File journal = new File(Constants.JOURNAL_FILE);
+        try {
+            writeJournal(journal, stagedFiles);
+        } catch (IOException e) {
+            System.out.println("Error writing transaction journal: " + e.getMessage());
+            journal.delete();
+            invalidateIndexes(stagedFiles.keySet());
+            return false;
+        }
+
+        try {
+            applyAll(stagedFiles);
+        } catch (IOException e) {
+            // The journal is left in place so the changes are replayed on the next start
+            System.out.println("Error applying transaction: " + e.getMessage());
+            invalidateIndexes(stagedFiles.keySet());
+            return false;
+        }
+        journal.delete();
+        return true;
+    }
+
+    /**
+     * Discards all staged changes.
+     */
+    public void rollback() {
+        if (!finished) {
+            finish();
+            invalidateIndexes(stagedFiles.keySet());
+            stagedFiles.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        rollback();
+    }
+
+    /**
+     * Replays a committed journal left behind by an interrupted commit or write-behind flush.
+     * An incomplete journal means the commit never happened, so it is discarded. The
+     * write-behind journal is replayed first, because a commit always flushes the
+     * buffered changes before writing its own journal.
+     *
+     * @return true if no recovery was needed or recovery succeeded, false otherwise
+     */
+    public static boolean recover() {
+        boolean flushed = replay(new File(Constants.WRITE_BEHIND_JOURNAL_FILE));
+        return replay(new File(Constants.JOURNAL_FILE)) && flushed;
+    }
+
+    private static boolean replay(File journal) {
+        if (!journal.exists()) {
+            return true;
+        }
+
+        Map<String, String> files = new LinkedHashMap<>();
+        boolean committed = false;
+        try (BufferedReader br = new BufferedReader(
+                new InputStreamReader(new FileInputStream(journal), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                if (line.equals(COMMIT_MARKER)) {
+                    committed = true;
+                    break;
+                }
+                String[] tokens = line.split("\t", 2);
+                if (tokens.length < 2) {
+                    break;
+                }
+                int length = Integer.parseInt(tokens[0]);
+                char[] content = new char[length];
+                int read = 0;
+                while (read < length) {
+                    int n = br.read(content, read, length - read);
+                    if (n < 0) {
+                        break;
+                    }
+                    read += n;
+                }
+                if (read < length) {
+                    break;
+                }
+                files.put(tokens[1], new String(content));
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.out.println("Warning: Discarding unreadable transaction journal: " + e.getMessage());
+        }
+
+        if (committed) {
+            try {
+                applyAll(files);
+                System.out.println("Recovered " + files.size() + " file(s) from an interrupted transaction.");
+                invalidateIndexes(files.keySet());
+            } catch (IOException e) {
+                System.out.println("Error recovering transaction: " + e.getMessage());
+                return false;
+            }
+        }
+        journal.delete();
+        return true;
+    }
+
+    private void finish() {
+        finished = true;
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * Marks the indexes kept current by {@link FileManager} for rebuilding from disk. The
+     * credential index, waitlists and work queues may have seen staged writes that never
+     * reached disk, or may predate files replayed from the journal.
+     */
+    private static void invalidateIndexes(Collection<String> paths) {
+        for (String path : paths) {
+            CredentialIndex.markStale(path);
+            Waitlists.markStale(path);
+            EnquiryQueue.markStale(path);
+            ApplicationQueue.markStale(path);
+        }
+    }
+
+    private static String key(String path) {
+        return FileManager.normalizePath(path);
+    }
+
+    /**
+     * Writes every staged file followed by a commit marker, then syncs the journal to disk.
+     * Each entry is a "length TAB path" line followed by exactly that many characters.
+     */
+    static void writeJournal(File journal, Map<String, String> files) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(journal)) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            for (Map.Entry<String, String> entry : files.entrySet()) {
+                writer.write(entry.getValue().length() + "\t" + entry.getKey() + "\n");
+                writer.write(entry.getValue());
+            }
+            writer.write(COMMIT_MARKER + "\n");
+            writer.flush();
+            out.getFD().sync();
+        }
+    }
+
+    /**
+     * Replaces each file atomically by writing a temporary file and moving it into place.
+     */
+    private static void applyAll(Map<String, String> files) throws IOException {
+        for (Map.Entry<String, String> entry : files.entrySet()) {
+            FileManager.replaceFile(entry.getKey(), entry.getValue(), false);
+        }
+    }
+}
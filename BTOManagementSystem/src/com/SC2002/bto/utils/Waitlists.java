@@ -0,0 +1,309 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.WaitlistEntry;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Persistent waitlists of applicants waiting for a unit, one per project and flat type.
+ * <p>
+ * Applicants join a waitlist when they lose a ballot or their booking fails for lack
+ * of units, and are offered released units in the order they joined. Each waitlist is
+ * an ordered map keyed by sequence number, and every entry is also indexed by NRIC, so
+ * joining, leaving and taking the next applicant are O(log n). An applicant is on at
+ * most one waitlist; joining another replaces the earlier entry.
+ * <p>
+ * The waitlist file is an append-only log of these changes, replayed on first use and
+ * compacted when it has grown well past the live entries. Like {@link CredentialIndex},
+ * the in-memory waitlists are updated as changes are written and reloaded after a
+ * rolled-back unit of work; edits made directly to the file are picked up on restart.
+ */
+public final class Waitlists {
+
+    private static final String HEADER = "Sequence,NRIC,ProjectID,FlatType,Action";
+    private static final String ENQUEUED = "ENQUEUED";
+    private static final String REMOVED = "REMOVED";
+    private static final String OFFERED = "OFFERED";
+
+    private static Index index;
+    private static boolean stale = true;
+
+    private Waitlists() {
+    }
+
+    /**
+     * Adds an applicant to the end of a waitlist.
+     *
+     * @param applicantNric the applicant's NRIC
+     * @param projectId the project ID
+     * @param flatType the flat type
+     * @return true if the change was saved, false otherwise
+     */
+    public static boolean enqueue(String applicantNric, int projectId, String flatType) {
+        return enqueueAll(Collections.singletonList(new WaitlistEntry(0, applicantNric, projectId, flatType)));
+    }
+
+    /**
+     * Adds several applicants to the end of their waitlists, in the given order, with one
+     * write. The sequence numbers of the given entries are ignored; new ones are assigned.
+     *
+     * @param entries the applicants and the waitlists they join
+     * @return true if the change was saved, false otherwise
+     */
+    public static synchronized boolean enqueueAll(List<WaitlistEntry> entries) {
+        if (entries.isEmpty()) {
+            return true;
+        }
+        Index i = current();
+        List<String> lines = new ArrayList<>(entries.size());
+        for (WaitlistEntry request : entries) {
+            WaitlistEntry entry = new WaitlistEntry(i.nextSequence, OfficerAssignments.normalize(request.getApplicantNric()),
+                request.getProjectId(), request.getFlatType().trim());
+            i.add(entry);
+            lines.add(format(entry, ENQUEUED));
+        }
+        return append(lines);
+    }
+
+    /**
+     * Removes an applicant from their waitlist, e.g. after they applied elsewhere.
+     *
+     * @param applicantNric the applicant's NRIC
+     * @return true if the applicant was on a waitlist and the change was saved
+     */
+    public static synchronized boolean remove(String applicantNric) {
+        return take(applicantNric, REMOVED);
+    }
+
+    /**
+     * Removes an applicant from their waitlist because they have been offered a unit.
+     *
+     * @param applicantNric the applicant's NRIC
+     * @return true if the applicant was on a waitlist and the change was saved
+     */
+    public static synchronized boolean markOffered(String applicantNric) {
+        return take(applicantNric, OFFERED);
+    }
+
+    /**
+     * Returns the applicant at the head of a waitlist.
+     *
+     * @param projectId the project ID
+     * @param flatType the flat type
+     * @return the first entry, or empty if the waitlist is empty
+     */
+    public static synchronized Optional<WaitlistEntry> peek(int projectId, String flatType) {
+        TreeMap<Long, WaitlistEntry> queue = current().queues.get(key(projectId, flatType));
+        return queue == null || queue.isEmpty() ? Optional.empty() : Optional.of(queue.firstEntry().getValue());
+    }
+
+    /**
+     * Returns the waitlist entry of an applicant.
+     *
+     * @param applicantNric the applicant's NRIC
+     * @return the entry, or empty if the applicant is not on a waitlist
+     */
+    public static synchronized Optional<WaitlistEntry> getEntry(String applicantNric) {
+        return Optional.ofNullable(current().byNric.get(OfficerAssignments.normalize(applicantNric)));
+    }
+
+    /**
+     * Returns an applicant's position on their waitlist.
+     *
+     * @param applicantNric the applicant's NRIC
+     * @return the 1-based position, or 0 if the applicant is not on a waitlist
+     */
+    public static synchronized int getPosition(String applicantNric) {
+        Index i = current();
+        WaitlistEntry entry = i.byNric.get(OfficerAssignments.normalize(applicantNric));
+        if (entry == null) {
+            return 0;
+        }
+        return i.queues.get(key(entry.getProjectId(), entry.getFlatType())).headMap(entry.getSequence()).size() + 1;
+    }
+
+    /**
+     * Returns a waitlist in order.
+     *
+     * @param projectId the project ID
+     * @param flatType the flat type
+     * @return a copy of the entries, first in line first
+     */
+    public static synchronized List<WaitlistEntry> getWaitlist(int projectId, String flatType) {
+        TreeMap<Long, WaitlistEntry> queue = current().queues.get(key(projectId, flatType));
+        return queue == null ? new ArrayList<>() : new ArrayList<>(queue.values());
+    }
+
+    /**
+     * Returns the number of applicants on a waitlist.
+     *
+     * @param projectId the project ID
+     * @param flatType the flat type
+     * @return the number of entries
+     */
+    public static synchronized int size(int projectId, String flatType) {
+        TreeMap<Long, WaitlistEntry> queue = current().queues.get(key(projectId, flatType));
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Marks the waitlists for reloading from the file, e.g. after a rolled-back unit of work.
+     *
+     * @param filePath the file that changed
+     */
+    public static synchronized void markStale(String filePath) {
+        if (FileManager.normalizePath(filePath).equals(FileManager.normalizePath(Constants.WAITLIST_CSV))) {
+            stale = true;
+        }
+    }
+
+    /**
+     * Logs an entry leaving its waitlist, then removes it from the index. The entry stays
+     * on the waitlist if the log cannot be written.
+     */
+    private static boolean take(String applicantNric, String action) {
+        String nric = OfficerAssignments.normalize(applicantNric);
+        WaitlistEntry entry = current().byNric.get(nric);
+        if (entry == null || !append(Collections.singletonList(format(entry, action)))) {
+            return false;
+        }
+        index.remove(nric);
+        return true;
+    }
+
+    private static Index current() {
+        if (stale || index == null) {
+            index = load();
+            stale = false;
+        }
+        return index;
+    }
+
+    private static boolean append(List<String> lines) {
+        boolean headerNeeded = !hasHeader();
+        try (BufferedWriter bw = FileManager.openWriter(Constants.WAITLIST_CSV, true)) {
+            if (headerNeeded) {
+                bw.write(HEADER);
+                bw.newLine();
+            }
+            for (String line : lines) {
+                bw.write(line);
+                bw.newLine();
+            }
+            index.logLines += lines.size();
+            return true;
+        } catch (IOException e) {
+            System.out.println("Error saving waitlist: " + e.getMessage());
+            stale = true;
+            return false;
+        }
+    }
+
+    private static boolean hasHeader() {
+        try (BufferedReader br = FileManager.openReader(Constants.WAITLIST_CSV)) {
+            return br.readLine() != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replays the waitlist log, compacting it if most of its lines are obsolete.
+     */
+    private static Index load() {
+        Index i = new Index();
+        try (BufferedReader br = FileManager.openReader(Constants.WAITLIST_CSV)) {
+            br.readLine(); // Skip header
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] tokens = line.split(",");
+                if (tokens.length < 5) continue;
+                try {
+                    WaitlistEntry entry = new WaitlistEntry(Long.parseLong(tokens[0].trim()),
+                        OfficerAssignments.normalize(tokens[1]), Integer.parseInt(tokens[2].trim()), tokens[3].trim());
+                    if (ENQUEUED.equalsIgnoreCase(tokens[4].trim())) {
+                        i.add(entry);
+                    } else {
+                        WaitlistEntry current = i.byNric.get(entry.getApplicantNric());
+                        if (current != null && current.getSequence() == entry.getSequence()) {
+                            i.remove(entry.getApplicantNric());
+                        }
+                    }
+                    i.nextSequence = Math.max(i.nextSequence, entry.getSequence() + 1);
+                    i.logLines++;
+                } catch (NumberFormatException e) {
+                    System.out.println("Warning: Skipping invalid waitlist record: " + line);
+                }
+            }
+        } catch (IOException e) {
+            // If file doesn't exist yet, that's fine — nobody is waiting
+        }
+        if (i.logLines > 2 * i.byNric.size() + 1000 && !UnitOfWork.isActive()) {
+            compact(i);
+        }
+        return i;
+    }
+
+    /**
+     * Rewrites the log with only the live entries, keeping their sequence numbers.
+     */
+    private static void compact(Index i) {
+        List<WaitlistEntry> live = new ArrayList<>(i.byNric.values());
+        live.sort((a, b) -> Long.compare(a.getSequence(), b.getSequence()));
+        try (BufferedWriter bw = FileManager.openWriter(Constants.WAITLIST_CSV, false)) {
+            bw.write(HEADER);
+            bw.newLine();
+            for (WaitlistEntry entry : live) {
+                bw.write(format(entry, ENQUEUED));
+                bw.newLine();
+            }
+            i.logLines = live.size();
+        } catch (IOException e) {
+            System.out.println("Warning: Could not compact waitlist: " + e.getMessage());
+        }
+    }
+
+    private static String format(WaitlistEntry entry, String action) {
+        return entry.getSequence() + "," + entry.getApplicantNric() + "," + entry.getProjectId() + ","
+            + entry.getFlatType() + "," + action;
+    }
+
+    private static String key(int projectId, String flatType) {
+        return projectId + "#" + (flatType == null ? "" : flatType.trim().toLowerCase());
+    }
+
+    /**
+     * The waitlists, each ordered by sequence number, and every entry by NRIC.
+     */
+    private static final class Index {
+        private final Map<String, TreeMap<Long, WaitlistEntry>> queues = new HashMap<>();
+        private final Map<String, WaitlistEntry> byNric = new HashMap<>();
+        private long nextSequence = 1;
+        private int logLines;
+
+        void add(WaitlistEntry entry) {
+            remove(entry.getApplicantNric());
+            queues.computeIfAbsent(key(entry.getProjectId(), entry.getFlatType()), k -> new TreeMap<>())
+                .put(entry.getSequence(), entry);
+            byNric.put(entry.getApplicantNric(), entry);
+            nextSequence = Math.max(nextSequence, entry.getSequence() + 1);
+        }
+
+        WaitlistEntry remove(String nric) {
+            WaitlistEntry entry = byNric.remove(nric);
+            if (entry != null) {
+                queues.get(key(entry.getProjectId(), entry.getFlatType())).remove(entry.getSequence());
+            }
+            return entry;
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.SC2002.bto.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Optional write-behind mode for the CSV files.
+ * When enabled, writes made through {@link FileManager} outside a {@link UnitOfWork}
+ * are kept in memory and return immediately; reads see the pending content. A background
+ * thread commits all pending files together every flush interval, or sooner once enough
+ * changes have been queued. Several writes to one file between flushes are coalesced
+ * into a single write.
+ * <p>
+ * Like a {@link UnitOfWork} commit, a flush first records the pending files in a
+ * journal, which is synced to disk, and then replaces each file. If the program stops
+ * part-way through a flush, {@link UnitOfWork#recover()} replays the journal on the
+ * next start, so the files of one flush are either all written or none are.
+ * <p>
+ * Changes that have not been flushed are lost if the process is killed, so
+ * {@link #flush()} should be called before exiting; a shutdown hook is also
+ * registered as a fallback.
+ */
+public final class WriteBehindBuffer {
+
+    /**
+     * How strongly a flush makes changes durable.
+     */
+    public enum Durability {
+        /** Files are replaced atomically but not synced; the OS decides when they reach disk. */
+        ASYNC,
+        /** Each file is synced to disk before it is moved into place. */
+        SYNC
+    }
+
+    private static final Map<String, String> pending = new ConcurrentHashMap<>();
+    private static final AtomicInteger pendingChanges = new AtomicInteger();
+    private static final Object flushLock = new Object();
+
+    private static volatile boolean enabled;
+    private static volatile Durability durability = Durability.ASYNC;
+    private static int maxPendingChanges;
+    private static ScheduledExecutorService flusher;
+
+    private WriteBehindBuffer() {
+    }
+
+    /**
+     * Turns on write-behind mode.
+     *
+     * @param flushIntervalMs how often pending changes are committed, in milliseconds
+     * @param maxPending the number of queued changes that triggers an early flush
+     * @param mode how strongly each flush makes changes durable
+     */
+    public static synchronized void enable(long flushIntervalMs, int maxPending, Durability mode) {
+        if (enabled) {
+            return;
+        }
+        durability = mode;
+        maxPendingChanges = Math.max(1, maxPending);
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "write-behind-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(WriteBehindBuffer::flushQuietly,
+            flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(WriteBehindBuffer::flushQuietly, "write-behind-shutdown"));
+        enabled = true;
+    }
+
+    /**
+     * Checks whether write-behind mode is on.
+     *
+     * @return true if writes are being buffered
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Returns the pending content of a file that has not been flushed yet.
+     *
+     * @param path the file path
+     * @return the pending content, or null if there is none
+     */
+    static String getPending(String path) {
+        return enabled ? pending.get(FileManager.normalizePath(path)) : null;
+    }
+
+    /**
+     * Queues the full content of a file to be written by the next flush.
+     *
+     * @param path the file path
+     * @param content the new file content
+     */
+    static void write(String path, String content) {
+        pending.put(FileManager.normalizePath(path), content);
+        if (pendingChanges.incrementAndGet() >= maxPendingChanges) {
+            ScheduledExecutorService s = flusher;
+            if (s != null && !s.isShutdown()) {
+                s.execute(WriteBehindBuffer::flushQuietly);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of files with changes that have not been flushed.
+     *
+     * @return the number of pending files
+     */
+    public static int getPendingFileCount() {
+        return pending.size();
+    }
+
+    /**
+     * Writes all pending changes to disk now. The pending files are journaled before
+     * any of them is replaced. If a file cannot be replaced, it stays pending for the
+     * next flush and the journal is kept so the group is replayed on the next start.
+     *
+     * @return true if every pending file was written, false otherwise
+     */
+    public static boolean flush() {
+        synchronized (flushLock) {
+            pendingChanges.set(0);
+            Map<String, String> group = new LinkedHashMap<>(pending);
+            if (group.isEmpty()) {
+                return true;
+            }
+
+            File journal = new File(Constants.WRITE_BEHIND_JOURNAL_FILE);
+            try {
+                UnitOfWork.writeJournal(journal, group);
+            } catch (IOException e) {
+                System.out.println("Error writing write-behind journal: " + e.getMessage());
+                journal.delete();
+                return false;
+            }
+
+            boolean ok = true;
+            for (Map.Entry<String, String> entry : group.entrySet()) {
+                String path = entry.getKey();
+                String content = entry.getValue();
+                try {
+                    FileManager.replaceFile(path, content, durability == Durability.SYNC);
+                    // Keep the entry if it was overwritten while being flushed
+                    pending.remove(path, content);
+                } catch (IOException e) {
+                    System.out.println("Error flushing " + path + ": " + e.getMessage());
+                    ok = false;
+                }
+            }
+            if (ok) {
+                journal.delete();
+            }
+            return ok;
+        }
+    }
+
+    /**
+     * Flushes all pending changes and stops the background flusher.
+     *
+     * @return true if every pending file was written, false otherwise
+     */
+    public static synchronized boolean shutdown() {
+        if (!enabled) {
+            return true;
+        }
+        flusher.shutdown();
+        boolean ok = flush();
+        enabled = false;
+        return ok;
+    }
+
+    private static void flushQuietly() {
+        if (!pending.isEmpty()) {
+            flush();
+        }
+    }
+}
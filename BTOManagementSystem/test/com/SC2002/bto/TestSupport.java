@@ -0,0 +1,217 @@
+package com.SC2002.bto;
+
+import com.SC2002.bto.utils.Constants;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Runs the tests and provides their assertions and data fixtures.
+ * <p>
+ * Usage, after compiling {@code src} and {@code test} into one directory:
+ * <pre>
+ * java -cp &lt;classes&gt; com.SC2002.bto.TestSupport [TestClass[#method] ...]
+ * </pre>
+ * Without arguments every class named {@code *Test} on the class path is run. A test is
+ * a public, no-argument instance method whose name starts with {@code test}. The data
+ * files and caches are static and found relative to the working directory, so, as in
+ * {@link com.SC2002.bto.tools.Benchmarks}, each test method runs in a fresh JVM started
+ * in its own temporary directory, with an empty {@code data} directory.
+ */
+public final class TestSupport {
+
+    private static final String RUN_ONE = "--run";
+
+    private TestSupport() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 2 && args[0].equals(RUN_ONE)) {
+            runInThisJvm(args[1]);
+            return;
+        }
+        List<String> tests = new ArrayList<>();
+        for (String className : args.length > 0 ? Arrays.asList(args) : findTestClasses()) {
+            int hash = className.indexOf('#');
+            if (hash >= 0) {
+                tests.add(className);
+            } else {
+                for (Method m : testMethods(Class.forName(className))) {
+                    tests.add(className + "#" + m.getName());
+                }
+            }
+        }
+        int failed = 0;
+        for (String test : tests) {
+            if (!runInNewJvm(test)) {
+                failed++;
+            }
+        }
+        System.out.printf("%d test(s), %d failed%n", tests.size(), failed);
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Fails the test if a condition does not hold.
+     *
+     * @param condition the condition
+     * @param message what was expected
+     */
+    public static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new AssertionError(message);
+        }
+    }
+
+    /**
+     * Fails the test if two values are not equal.
+     *
+     * @param expected the expected value
+     * @param actual the actual value
+     * @param message what is being compared
+     */
+    public static void checkEquals(Object expected, Object actual, String message) {
+        if (!Objects.equals(expected, actual)) {
+            throw new AssertionError(message + ": expected <" + expected + "> but was <" + actual + ">");
+        }
+    }
+
+    /**
+     * Writes a data file, one line per row, creating its directory if needed.
+     *
+     * @param path the file path, e.g. {@link Constants#APPLICANT_CSV}
+     * @param lines the lines, including the header
+     */
+    public static void writeFile(String path, String... lines) throws IOException {
+        Path file = Paths.get(path);
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        StringBuilder content = new StringBuilder();
+        for (String line : lines) {
+            content.append(line).append('\n');
+        }
+        Files.write(file, content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads the lines of a data file from disk.
+     *
+     * @param path the file path
+     * @return the lines, or an empty list if the file does not exist
+     */
+    public static List<String> readFile(String path) throws IOException {
+        Path file = Paths.get(path);
+        return Files.exists(file) ? Files.readAllLines(file, StandardCharsets.UTF_8) : new ArrayList<>();
+    }
+
+    /**
+     * Writes an applicant list with the given data rows.
+     *
+     * @param rows rows in the layout Name,NRIC,Age,MaritalStatus,Password,AppliedID,Status,FlatType
+     */
+    public static void writeApplicants(String... rows) throws IOException {
+        writeFile(Constants.APPLICANT_CSV, prepend("Name,NRIC,Age,MaritalStatus,Password,AppliedID,Status,FlatType", rows));
+    }
+
+    /**
+     * Writes a project list with the given data rows.
+     *
+     * @param rows rows in the layout of the project list
+     */
+    public static void writeProjects(String... rows) throws IOException {
+        writeFile(Constants.PROJECT_CSV, prepend("Project Name,Neighborhood,Type 1,Number of units for Type1,"
+            + "Selling price for Type1,Type 2,Number of units for Type2,Selling price for Type2,"
+            + "Application opening date,Application closing date,Manager,Officer Slot,Officer,Visible", rows));
+    }
+
+    private static String[] prepend(String header, String[] rows) {
+        String[] lines = new String[rows.length + 1];
+        lines[0] = header;
+        System.arraycopy(rows, 0, lines, 1, rows.length);
+        return lines;
+    }
+
+    private static List<Method> testMethods(Class<?> testClass) {
+        return Arrays.stream(testClass.getMethods())
+            .filter(m -> m.getName().startsWith("test") && m.getParameterCount() == 0
+                && !Modifier.isStatic(m.getModifiers()))
+            .sorted(Comparator.comparing(Method::getName))
+            .collect(Collectors.toList());
+    }
+
+    private static void runInThisJvm(String test) throws Exception {
+        String[] parts = test.split("#", 2);
+        Class<?> testClass = Class.forName(parts[0]);
+        Files.createDirectories(Paths.get(Constants.DATA_DIR));
+        try {
+            testClass.getMethod(parts[1]).invoke(testClass.getDeclaredConstructor().newInstance());
+        } catch (InvocationTargetException e) {
+            e.getCause().printStackTrace(System.out);
+            System.exit(1);
+        }
+        System.exit(0);
+    }
+
+    private static boolean runInNewJvm(String test) throws IOException, InterruptedException {
+        Path dir = Files.createTempDirectory("bto-test");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process process = new ProcessBuilder(java, "-cp", absoluteClassPath(), TestSupport.class.getName(), RUN_ONE, test)
+            .directory(dir.toFile())
+            .redirectErrorStream(true)
+            .start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        boolean passed = process.waitFor() == 0;
+        System.out.println((passed ? "PASS " : "FAIL ") + test);
+        if (!passed) {
+            System.out.print(output);
+        }
+        deleteRecursively(dir);
+        return passed;
+    }
+
+    private static String absoluteClassPath() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+            .map(entry -> new File(entry).getAbsolutePath())
+            .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static List<String> findTestClasses() throws IOException {
+        List<String> classes = new ArrayList<>();
+        for (String entry : System.getProperty("java.class.path").split(File.pathSeparator)) {
+            Path root = Paths.get(entry);
+            if (!Files.isDirectory(root)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(root)) {
+                files.map(root::relativize)
+                    .map(Path::toString)
+                    .filter(name -> name.endsWith("Test.class"))
+                    .map(name -> name.substring(0, name.length() - ".class".length()).replace(File.separatorChar, '.'))
+                    .sorted()
+                    .forEach(classes::add);
+            }
+        }
+        return classes;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.SC2002.bto.boundary.api;
+
+import com.SC2002.bto.di.Bootstrap;
+import com.SC2002.bto.utils.Constants;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.SC2002.bto.TestSupport.check;
+import static com.SC2002.bto.TestSupport.checkEquals;
+import static com.SC2002.bto.TestSupport.readFile;
+import static com.SC2002.bto.TestSupport.writeApplicants;
+import static com.SC2002.bto.TestSupport.writeFile;
+import static com.SC2002.bto.TestSupport.writeProjects;
+
+/**
+ * Tests that staff can only decide applications of their own projects over the API,
+ * and only make the decisions their role makes in the menus.
+ */
+public class ApiServerTest {
+
+    private ApiServer server;
+    private int port;
+
+    private void start() throws IOException {
+        writeProjects(
+            "Acacia Breeze,Yishun,2-Room,2,350000,3-Room,3,450000,15/2/25,20/3/25,Jessica,3,\"Daniel\",TRUE",
+            "Maple Grove,Tampines,2-Room,2,300000,3-Room,3,400000,15/2/25,20/3/25,Michael,3,\"Emily\",TRUE");
+        writeApplicants(
+            "John,S1234567A,35,Single,password,1,PENDING,2-Room",
+            "Sarah,T7654321B,40,Married,password,2,PENDING,3-Room");
+        writeFile(Constants.OFFICER_CSV, "Name,NRIC,Age,MaritalStatus,Password",
+            "Daniel,T2109876H,36,Single,password", "Emily,S6543210I,28,Single,password");
+        writeFile(Constants.MANAGER_CSV, "Name,NRIC,Age,MaritalStatus,Password",
+            "Michael,T8765432F,36,Single,password", "Jessica,S5678901G,26,Married,password");
+        Bootstrap.registerServices();
+        server = new ApiServer(60_000L);
+        port = server.start(0, 2);
+    }
+
+    public void testOfficerCannotDecideOutsideAssignedProjects() throws Exception {
+        start();
+        try {
+            String token = login("HDBOfficer", "T2109876H");
+            List<String> before = readFile(Constants.APPLICANT_CSV);
+            checkEquals(403, decide(token, "T7654321B", "UNSUCCESSFUL"), "reject in another project");
+            checkEquals(403, decide(token, "S1234567A", "SUCCESSFUL"), "approve as an officer");
+            checkEquals(before, readFile(Constants.APPLICANT_CSV), "applicant list");
+            checkEquals(200, decide(token, "S1234567A", "UNSUCCESSFUL"), "reject in the assigned project");
+        } finally {
+            server.stop();
+        }
+    }
+
+    public void testManagerCannotDecideOtherProjectsOrBook() throws Exception {
+        start();
+        try {
+            String token = login("HDBManager", "S5678901G");
+            List<String> before = readFile(Constants.APPLICANT_CSV);
+            checkEquals(403, decide(token, "T7654321B", "SUCCESSFUL"), "approve in another project");
+            checkEquals(403, decide(token, "S1234567A", "BOOKED"), "book as a manager");
+            checkEquals(before, readFile(Constants.APPLICANT_CSV), "applicant list");
+            checkEquals(404, decide(token, "S0000000Z", "SUCCESSFUL"), "unknown applicant");
+            checkEquals(200, decide(token, "S1234567A", "SUCCESSFUL"), "approve in the managed project");
+        } finally {
+            server.stop();
+        }
+    }
+
+    public void testOfficerCannotAnswerEnquiriesOfOtherProjects() throws Exception {
+        writeFile(Constants.ENQUIRY_CSV, "ID,UserNRIC,ProjectID,EnquiryText,Response",
+            "1,S1234567A,1,Is there parking?,", "2,T7654321B,2,Is there a school nearby?,");
+        start();
+        try {
+            String token = login("HDBOfficer", "T2109876H");
+            checkEquals(403, respond(token, 2), "answer an enquiry of another project");
+            checkEquals("2,T7654321B,2,Is there a school nearby?,", readFile(Constants.ENQUIRY_CSV).get(2), "enquiry row");
+            checkEquals(200, respond(token, 1), "answer an enquiry of the assigned project");
+        } finally {
+            server.stop();
+        }
+    }
+
+    public void testStaffOnlyReachTheirOwnProjects() throws Exception {
+        start();
+        try {
+            String token = login("HDBOfficer", "T2109876H");
+            String listing = body(get("/api/applications", token));
+            check(listing.contains("S1234567A") && !listing.contains("T7654321B"), "default listing: " + listing);
+            String page = body(get("/api/applications?pageToken=", token));
+            check(page.contains("S1234567A") && !page.contains("T7654321B"), "paged listing: " + page);
+
+            checkEquals(403, get("/api/applications?projectId=2", token).getResponseCode(), "list another project");
+            checkEquals(403, post("/api/applications/claim?projectId=2", token, "").getResponseCode(),
+                "claim another project's applications");
+            checkEquals(403, post("/api/enquiries/claim?projectId=2", token, "").getResponseCode(),
+                "claim another project's enquiries");
+            checkEquals(403, get("/api/receipts/T7654321B", token).getResponseCode(), "receipt of another project");
+            checkEquals(200, get("/api/receipts/S1234567A", token).getResponseCode(), "receipt of the assigned project");
+        } finally {
+            server.stop();
+        }
+    }
+
+    public void testRoleIsCaseInsensitiveAtLogin() throws Exception {
+        start();
+        try {
+            String token = login("hdbofficer", "T2109876H");
+            String listing = body(get("/api/applications", token));
+            check(listing.contains("S1234567A") && !listing.contains("T7654321B"), "officer listing: " + listing);
+        } finally {
+            server.stop();
+        }
+    }
+
+    private String login(String role, String nric) throws IOException {
+        HttpURLConnection c = post("/api/login", null, "role=" + role + "&nric=" + nric + "&password=password");
+        checkEquals(200, c.getResponseCode(), "login as " + nric);
+        String body = body(c);
+        int start = body.indexOf("\"token\"");
+        start = body.indexOf('"', body.indexOf(':', start)) + 1;
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    private int decide(String token, String nric, String status) throws IOException {
+        return post("/api/applications/decision", token, "nric=" + nric + "&status=" + status).getResponseCode();
+    }
+
+    private int respond(String token, int enquiryId) throws IOException {
+        return post("/api/enquiries/" + enquiryId + "/response", token, "response=Yes").getResponseCode();
+    }
+
+    private static String body(HttpURLConnection c) throws IOException {
+        checkEquals(200, c.getResponseCode(), "status of " + c.getURL());
+        try (InputStream in = c.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private HttpURLConnection get(String path, String token) throws IOException {
+        HttpURLConnection c = (HttpURLConnection) new URL("http://127.0.0.1:" + port + path).openConnection();
+        c.setRequestProperty("Authorization", "Bearer " + token);
+        return c;
+    }
+
+    private HttpURLConnection post(String path, String token, String form) throws IOException {
+        HttpURLConnection c = (HttpURLConnection) new URL("http://127.0.0.1:" + port + path).openConnection();
+        c.setRequestMethod("POST");
+        c.setDoOutput(true);
+        if (token != null) {
+            c.setRequestProperty("Authorization", "Bearer " + token);
+        }
+        try (OutputStream out = c.getOutputStream()) {
+            out.write(form.getBytes(StandardCharsets.UTF_8));
+        }
+        return c;
+    }
+}
@@ -0,0 +1,83 @@
+package com.SC2002.bto.service.impl;
+
+import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.repository.csv.CSVApplicationRepository;
+import com.SC2002.bto.repository.csv.CSVProjectRepository;
+import com.SC2002.bto.service.IApplicationService.Decision;
+import com.SC2002.bto.service.IApplicationService.DecisionResult;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.MetricsRegistry;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.SC2002.bto.TestSupport.check;
+import static com.SC2002.bto.TestSupport.checkEquals;
+import static com.SC2002.bto.TestSupport.readFile;
+import static com.SC2002.bto.TestSupport.writeApplicants;
+
+/**
+ * Tests that a batch of decisions is validated and saved in one pass over the applicant list.
+ */
+public class ApplicationServiceTest {
+
+    private static final String OFFICER = "T2109876H";
+    private static final String READS = "file.reads[ApplicantList.csv]";
+    private static final String REWRITES = "file.rewrites[ApplicantList.csv]";
+
+    private final ApplicationService applicationService =
+        new ApplicationService(new CSVApplicationRepository(), new CSVProjectRepository());
+
+    public void testMixedBatchIsLoadedAndWrittenOnce() throws Exception {
+        writeApplicants("John,S1234567A,35,Single,password,1,PENDING,2-Room",
+            "Sarah,T7654321B,40,Married,password,-1,NOT_APPLIED,",
+            "Grace,S9876543C,37,Married,password,1,PENDING,3-Room");
+        long reads = count(READS);
+        long rewrites = count(REWRITES);
+
+        List<DecisionResult> results = applicationService.processApplications(Arrays.asList(
+            new Decision("S1234567A", ApplicationStatus.SUCCESSFUL),
+            new Decision("T7654321B", ApplicationStatus.SUCCESSFUL),
+            new Decision("S0000000Z", ApplicationStatus.SUCCESSFUL),
+            new Decision("s1234567a", ApplicationStatus.UNSUCCESSFUL),
+            new Decision("S9876543C", ApplicationStatus.UNSUCCESSFUL)));
+
+        // One read to load and validate the batch, one by the rewrite to copy the other rows
+        checkEquals(2L, count(READS) - reads, "applicant list reads");
+        checkEquals(1L, count(REWRITES) - rewrites, "applicant list rewrites");
+
+        checkEquals(5, results.size(), "results");
+        check(results.get(0).isSuccess(), "valid approval: " + results.get(0).getMessage());
+        check(!results.get(1).isSuccess(), "approval without an application");
+        checkEquals("Applicant not found", results.get(2).getMessage(), "unknown applicant");
+        checkEquals("Duplicate decision in batch", results.get(3).getMessage(), "second decision on one applicant");
+        check(results.get(4).isSuccess(), "valid rejection: " + results.get(4).getMessage());
+
+        List<String> lines = readFile(Constants.APPLICANT_CSV);
+        checkEquals("John,S1234567A,35,Single,password,1,SUCCESSFUL,2-Room", lines.get(1), "approved row");
+        checkEquals("Sarah,T7654321B,40,Married,password,-1,NOT_APPLIED,", lines.get(2), "rejected decision's row");
+        checkEquals("Grace,S9876543C,37,Married,password,-1,UNSUCCESSFUL,", lines.get(3), "rejected row");
+    }
+
+    public void testClaimedApplicationIsOnlyDecidedByItsClaimant() throws Exception {
+        writeApplicants("John,S1234567A,35,Single,password,1,PENDING,2-Room");
+        checkEquals(1, applicationService.claimApplications(OFFICER, ApplicationStatus.PENDING,
+            Collections.singletonList(1), 10).size(), "claims");
+
+        checkEquals("Claimed by another staff member", applicationService.processApplications(Collections.singletonList(
+            new Decision("S1234567A", ApplicationStatus.SUCCESSFUL))).get(0).getMessage(), "decision without a caller");
+        checkEquals("Claimed by another staff member", applicationService.processApplications("S1234567A",
+            Collections.singletonList(new Decision("S1234567A", ApplicationStatus.PENDING_WITHDRAWAL))).get(0).getMessage(),
+            "withdrawal while claimed");
+        checkEquals("John,S1234567A,35,Single,password,1,PENDING,2-Room", readFile(Constants.APPLICANT_CSV).get(1),
+            "row while claimed");
+
+        check(applicationService.processApplications(OFFICER, Collections.singletonList(
+            new Decision("S1234567A", ApplicationStatus.UNSUCCESSFUL))).get(0).isSuccess(), "claimant's decision");
+    }
+
+    private static long count(String name) {
+        return MetricsRegistry.getDefault().counter(name).getCount();
+    }
+}
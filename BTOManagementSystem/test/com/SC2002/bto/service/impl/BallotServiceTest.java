@@ -0,0 +1,74 @@
+package com.SC2002.bto.service.impl;
+
+import com.SC2002.bto.entities.ApplicationStatus;
+import com.SC2002.bto.repository.csv.CSVApplicationRepository;
+import com.SC2002.bto.repository.csv.CSVProjectRepository;
+import com.SC2002.bto.service.IBallotService;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.MetricsRegistry;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.SC2002.bto.TestSupport.check;
+import static com.SC2002.bto.TestSupport.checkEquals;
+import static com.SC2002.bto.TestSupport.readFile;
+import static com.SC2002.bto.TestSupport.writeApplicants;
+import static com.SC2002.bto.TestSupport.writeProjects;
+
+/**
+ * Tests which applications take part in a ballot and how its outcome is saved.
+ */
+public class BallotServiceTest {
+
+    private final CSVApplicationRepository applicationRepository = new CSVApplicationRepository();
+    private final CSVProjectRepository projectRepository = new CSVProjectRepository();
+    private final BallotService ballotService = new BallotService(applicationRepository, projectRepository);
+    private final ApplicationService applicationService = new ApplicationService(applicationRepository, projectRepository);
+
+    public void testEachBallotStagesOnlyItsOwnLog() throws Exception {
+        writeData();
+        IBallotService.BallotResult first = ballotService.runBallot(Collections.singletonList(1), 1L,
+            Collections.emptyList());
+        check(first.isCommitted(), "first ballot committed");
+        writeApplicants("John,S1234567A,35,Single,password,1,PENDING,3-Room");
+
+        IBallotService.BallotResult second = ballotService.runBallot(Collections.singletonList(1), 2L,
+            Collections.emptyList());
+        check(second.isCommitted(), "second ballot committed");
+        check(first.getBallotId() != second.getBallotId(), "ballot IDs differ");
+
+        List<String> log = readFile(Constants.BALLOT_LOG_DIR + "/Ballot-" + second.getBallotId() + ".csv");
+        checkEquals(2, log.size(), "header and one draw");
+        check(log.get(1).endsWith(",S1234567A,SUCCESSFUL"), "draw: " + log.get(1));
+        checkEquals(3, readFile(Constants.BALLOT_LOG_DIR + "/Ballot-" + first.getBallotId() + ".csv").size(),
+            "first ballot's log");
+        long logBytes = log.stream().mapToLong(line -> line.length() + 1).sum();
+        checkEquals(logBytes, count("file.bytes.written[Ballot-" + second.getBallotId() + ".csv]"),
+            "bytes written to the second log");
+    }
+
+    private static long count(String name) {
+        return MetricsRegistry.getDefault().counter(name).getCount();
+    }
+
+    private void writeData() throws Exception {
+        writeProjects("Acacia Breeze,Yishun,2-Room,1,350000,3-Room,3,450000,15/2/25,20/3/25,Jessica,3,\"Daniel\",TRUE");
+        writeApplicants("John,S1234567A,35,Single,password,1,PENDING,2-Room",
+            "Sarah,T7654321B,40,Married,password,1,PENDING,2-Room");
+    }
+
+    public void testClaimedApplicationsAreLeftOutOfTheDraw() throws Exception {
+        writeData();
+        checkEquals(1, applicationService.claimApplications("T2109876H", ApplicationStatus.PENDING,
+            Collections.singletonList(1), 1).size(), "claims");
+
+        IBallotService.BallotResult result = ballotService.runBallot(Collections.singletonList(1), 42L,
+            Collections.emptyList());
+        check(result.isCommitted(), "ballot committed");
+
+        List<String> lines = readFile(Constants.APPLICANT_CSV);
+        checkEquals("John,S1234567A,35,Single,password,1,PENDING,2-Room", lines.get(1), "claimed application");
+        checkEquals("Sarah,T7654321B,40,Married,password,1,SUCCESSFUL,2-Room", lines.get(2), "drawn application");
+    }
+}
@@ -0,0 +1,94 @@
+package com.SC2002.bto.service.impl;
+
+import com.SC2002.bto.service.IImportService;
+import com.SC2002.bto.utils.Constants;
+import com.SC2002.bto.utils.FileManager;
+import com.SC2002.bto.utils.UnitOfWork;
+import com.SC2002.bto.utils.WriteBehindBuffer;
+
+import java.io.File;
+import java.util.List;
+
+import static com.SC2002.bto.TestSupport.check;
+import static com.SC2002.bto.TestSupport.checkEquals;
+import static com.SC2002.bto.TestSupport.readFile;
+import static com.SC2002.bto.TestSupport.writeApplicants;
+import static com.SC2002.bto.TestSupport.writeFile;
+
+/**
+ * Tests that imported rows are written through {@link FileManager}, so they are neither
+ * lost to a pending write-behind buffer nor applied outside a unit of work.
+ */
+public class ImportServiceTest {
+
+    private static final String SOURCE = "import.csv";
+
+    private final ImportService importService = new ImportService(new ValidationService(), 1);
+
+    public void testImportKeepsPendingWriteBehindChanges() throws Exception {
+        writeApplicants("John,S1234567A,35,Single,password,-1,NOT_APPLIED,");
+        writeFile(SOURCE, "Name,NRIC,Age,MaritalStatus,Password",
+            "Alice,S7654321B,30,Single,password1", "Bob,T1111111C,40,Married,password2");
+        WriteBehindBuffer.enable(3_600_000L, 1_000, WriteBehindBuffer.Durability.ASYNC);
+
+        // Still pending when the import starts
+        check(FileManager.updatePasswordInCSV(Constants.APPLICANT_CSV, "S1234567A", "changed123"), "password update");
+        check(WriteBehindBuffer.getPendingFileCount() == 1, "password change is buffered");
+
+        IImportService.ImportReport report = importService.importApplicants(SOURCE);
+        check(report.isCompleted(), "import completes");
+        checkEquals(2L, report.getImported(), "imported rows");
+        check(WriteBehindBuffer.flush(), "flush");
+
+        List<String> lines = readFile(Constants.APPLICANT_CSV);
+        checkEquals(4, lines.size(), "header and three applicants");
+        check(lines.get(1).startsWith("John,S1234567A,35,Single,changed123,"), "buffered change kept: " + lines.get(1));
+        check(lines.get(2).startsWith("Alice,S7654321B,"), "first imported row: " + lines.get(2));
+        check(lines.get(3).startsWith("Bob,T1111111C,"), "second imported row: " + lines.get(3));
+    }
+
+    public void testImportInsideUnitOfWorkIsStaged() throws Exception {
+        writeApplicants("John,S1234567A,35,Single,password,-1,NOT_APPLIED,");
+        writeFile(SOURCE, "Name,NRIC,Age,MaritalStatus,Password", "Alice,S7654321B,30,Single,password1");
+        List<String> before = readFile(Constants.APPLICANT_CSV);
+
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            checkEquals(1L, importService.importApplicants(SOURCE).getImported(), "imported rows");
+            checkEquals(before, readFile(Constants.APPLICANT_CSV), "file on disk before commit");
+            checkEquals(2, uow.getStagedFileCount(), "staged list and checkpoint");
+            check(!new File(Constants.APPLICANT_CSV + ".import").exists(), "checkpoint is not on disk before commit");
+        }
+        checkEquals(before, readFile(Constants.APPLICANT_CSV), "file on disk after rollback");
+        check(!FileManager.loadUsersFromCSV(Constants.APPLICANT_CSV, Constants.USER_TYPE_APPLICANT).stream()
+            .anyMatch(u -> u.getNric().equals("S7654321B")), "rolled-back row is not read");
+    }
+
+    public void testCheckpointIsRolledBackWithTheBatch() throws Exception {
+        writeApplicants("John,S1234567A,35,Single,password,-1,NOT_APPLIED,");
+        writeFile(SOURCE, "Name,NRIC,Age,MaritalStatus,Password",
+            "Alice,S7654321B,30,Single,password1", "Bob,T1111111C,40,Married,password2");
+
+        // Fail on the second batch, after the first one has been staged and checkpointed
+        ImportService failing = new ImportService(new ValidationService() {
+            @Override
+            public boolean validateNric(String nric) {
+                if (nric.equals("T1111111C")) {
+                    throw new IllegalStateException("interrupted");
+                }
+                return super.validateNric(nric);
+            }
+        }, 1);
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            failing.importApplicants(SOURCE);
+            uow.commit();
+            check(false, "import should have failed");
+        } catch (IllegalStateException expected) {
+            // The unit of work was rolled back
+        }
+        check(!new File(Constants.APPLICANT_CSV + ".import").exists(), "no checkpoint after rollback");
+
+        IImportService.ImportReport report = importService.importApplicants(SOURCE);
+        checkEquals(0L, report.getResumedFromLine(), "import starts again from the beginning");
+        checkEquals(2L, report.getImported(), "imported rows");
+    }
+}
@@ -0,0 +1,37 @@
+package com.SC2002.bto.utils;
+
+import static com.SC2002.bto.TestSupport.check;
+import static com.SC2002.bto.TestSupport.writeApplicants;
+
+/**
+ * Tests that reloading a user list picks up passwords changed in the file.
+ */
+public class CredentialIndexTest {
+
+    private static final String APPLICANT = Constants.USER_TYPE_APPLICANT;
+
+    public void testReloadPicksUpPasswordEditedInFile() throws Exception {
+        writeApplicants("John,S1234567A,35,Single,password,-1,NOT_APPLIED,",
+            "Sarah,T7654321B,40,Married,password,-1,NOT_APPLIED,");
+        check(CredentialIndex.authenticate(APPLICANT, "S1234567A", "password").isPresent(), "original password");
+
+        writeApplicants("John,S1234567A,35,Single,edited123,-1,NOT_APPLIED,",
+            "Sarah,T7654321B,40,Married,password,-1,NOT_APPLIED,");
+        CredentialIndex.markStale(Constants.APPLICANT_CSV);
+
+        check(CredentialIndex.authenticate(APPLICANT, "S1234567A", "edited123").isPresent(), "edited password");
+        check(!CredentialIndex.authenticate(APPLICANT, "S1234567A", "password").isPresent(), "old password rejected");
+        check(CredentialIndex.authenticate(APPLICANT, "T7654321B", "password").isPresent(), "unchanged entry");
+    }
+
+    public void testReloadKeepsPasswordChangedThroughFileManager() throws Exception {
+        writeApplicants("John,S1234567A,35,Single,password,-1,NOT_APPLIED,");
+        check(CredentialIndex.authenticate(APPLICANT, "S1234567A", "password").isPresent(), "original password");
+
+        check(FileManager.updatePasswordInCSV(Constants.APPLICANT_CSV, "S1234567A", "changed123"), "password update");
+        CredentialIndex.markStale(Constants.APPLICANT_CSV);
+
+        check(CredentialIndex.authenticate(APPLICANT, "S1234567A", "changed123").isPresent(), "changed password");
+        check(!CredentialIndex.authenticate(APPLICANT, "S1234567A", "password").isPresent(), "old password rejected");
+    }
+}
@@ -0,0 +1,32 @@
+package com.SC2002.bto.utils;
+
+import java.util.List;
+
+import static com.SC2002.bto.TestSupport.check;
+import static com.SC2002.bto.TestSupport.checkEquals;
+import static com.SC2002.bto.TestSupport.readFile;
+
+/**
+ * Tests that the slow-operation log of {@link OperationTimer} keeps a bounded number of calls.
+ */
+public class OperationTimerTest {
+
+    public void testSlowOperationLogCapsCalls() throws Exception {
+        FileManager.ensureDataDirectoryExists();
+        OperationTimer.setSlowThresholdMillis(0);
+        int total = OperationTimer.MAX_LOGGED_CALLS + 50;
+
+        try (OperationTimer.Operation operation = OperationTimer.start("Test.loop")) {
+            operation.stage("read");
+            for (int i = 0; i < total; i++) {
+                OperationTimer.enterCall("repository.read");
+                OperationTimer.exitCall(1_000L);
+            }
+        }
+
+        List<String> lines = readFile(Constants.SLOW_OPERATION_LOG);
+        long calls = lines.stream().filter(line -> line.trim().startsWith("call ")).count();
+        checkEquals((long) OperationTimer.MAX_LOGGED_CALLS, calls, "logged calls");
+        check(lines.contains("  ... 50 more calls not shown"), "dropped calls are counted: " + lines);
+    }
+}
@@ -0,0 +1,37 @@
+package com.SC2002.bto.utils;
+
+import static com.SC2002.bto.TestSupport.checkEquals;
+import static com.SC2002.bto.TestSupport.writeProjects;
+
+/**
+ * Tests the price indexes of the project catalog.
+ */
+public class ProjectCatalogTest {
+
+    public void testProjectWithSameFlatTypeTwiceIsListedOnce() throws Exception {
+        writeProjects(
+            "Acacia Breeze,Yishun,2-Room,0,350000,2-Room,3,300000,15/2/25,20/3/25,Jessica,3,\"Daniel\",TRUE",
+            "Maple Grove,Tampines,2-Room,2,320000,3-Room,3,400000,15/2/25,20/3/25,Michael,3,\"Emily\",TRUE");
+        ProjectCatalog.Snapshot snapshot = ProjectCatalog.snapshot();
+
+        ProjectCatalog.PriceIndex all = snapshot.getPriceIndex("2-Room", false);
+        checkEquals(2, all.size(), "2-Room entries");
+        checkEquals(300000, all.priceAt(0), "lower price of the project listing 2-Room twice");
+        checkEquals(1, all.projectIdAt(0), "cheapest project");
+        checkEquals(320000, all.priceAt(1), "next price");
+
+        checkEquals(2, snapshot.getPriceIndex("2-Room", true).size(), "available 2-Room entries");
+        checkEquals(1, snapshot.getPriceIndex("3-Room", false).size(), "3-Room entries");
+    }
+
+    public void testSameFlatTypeTwiceUsesPriceOfTypeWithUnitsLeft() throws Exception {
+        writeProjects(
+            "Acacia Breeze,Yishun,2-Room,2,350000,2-Room,0,300000,15/2/25,20/3/25,Jessica,3,\"Daniel\",TRUE");
+        ProjectCatalog.Snapshot snapshot = ProjectCatalog.snapshot();
+
+        checkEquals(1, snapshot.getPriceIndex("2-Room", false).size(), "2-Room entries");
+        ProjectCatalog.PriceIndex available = snapshot.getPriceIndex("2-Room", true);
+        checkEquals(1, available.size(), "available 2-Room entries");
+        checkEquals(350000, available.priceAt(0), "price of the type with units left");
+    }
+}
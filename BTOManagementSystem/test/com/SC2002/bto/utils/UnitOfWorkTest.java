@@ -0,0 +1,94 @@
+package com.SC2002.bto.utils;
+
+import com.SC2002.bto.entities.Enquiry;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.util.List;
+
+import static com.SC2002.bto.TestSupport.check;
+import static com.SC2002.bto.TestSupport.checkEquals;
+import static com.SC2002.bto.TestSupport.readFile;
+import static com.SC2002.bto.TestSupport.writeFile;
+
+/**
+ * Tests commit, rollback and journal recovery of {@link UnitOfWork}.
+ */
+public class UnitOfWorkTest {
+
+    private static final String ENQUIRY_HEADER = "ID,UserNRIC,ProjectID,EnquiryText,Response";
+    private static final String OTHER_FILE = Constants.DATA_DIR + "/Other.csv";
+
+    public void testRollbackDiscardsStagedWrites() throws Exception {
+        writeFile(Constants.ENQUIRY_CSV, ENQUIRY_HEADER, "1,S1234567A,1,Is there parking?,");
+        check(EnquiryQueue.isQueued(1), "unanswered enquiry is queued");
+
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            check(FileManager.updateEnquiryResponse(answer(1)), "staged response");
+            check(!EnquiryQueue.isQueued(1), "answered enquiry leaves the queue while staged");
+            checkEquals(1, uow.getStagedFileCount(), "staged files");
+        }
+        check(EnquiryQueue.isQueued(1), "enquiry is queued again after rollback");
+        checkEquals("1,S1234567A,1,Is there parking?,", readFile(Constants.ENQUIRY_CSV).get(1), "file on disk");
+    }
+
+    public void testFailedCommitRestoresIndexes() throws Exception {
+        writeFile(Constants.ENQUIRY_CSV, ENQUIRY_HEADER, "1,S1234567A,1,Is there parking?,");
+        check(EnquiryQueue.isQueued(1), "unanswered enquiry is queued");
+        // The journal cannot be written where a directory is in the way
+        check(new File(Constants.JOURNAL_FILE, "blocked").mkdirs(), "block the journal");
+
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            check(FileManager.updateEnquiryResponse(answer(1)), "staged response");
+            check(!uow.commit(), "commit fails");
+        }
+        checkEquals("1,S1234567A,1,Is there parking?,", readFile(Constants.ENQUIRY_CSV).get(1), "file on disk");
+        check(EnquiryQueue.isQueued(1), "queue is rebuilt from disk after the failed commit");
+    }
+
+    public void testRecoverReplaysJournalOfInterruptedCommit() throws Exception {
+        writeFile(Constants.ENQUIRY_CSV, ENQUIRY_HEADER, "1,S1234567A,1,Is there parking?,");
+        check(EnquiryQueue.isQueued(1), "unanswered enquiry is queued");
+        // The first staged file cannot be moved into place, so nothing is applied
+        check(new File(OTHER_FILE, "blocked").mkdirs(), "block the other file");
+
+        try (UnitOfWork uow = UnitOfWork.begin()) {
+            try (BufferedWriter bw = FileManager.openWriter(OTHER_FILE, false)) {
+                bw.write("replayed\n");
+            }
+            check(FileManager.updateEnquiryResponse(answer(1)), "staged response");
+            check(!uow.commit(), "commit fails while applying");
+        }
+        check(new File(Constants.JOURNAL_FILE).exists(), "journal is kept for replay");
+        check(EnquiryQueue.isQueued(1), "queue matches the file on disk after the failed commit");
+
+        new File(OTHER_FILE, "blocked").delete();
+        new File(OTHER_FILE).delete();
+        check(UnitOfWork.recover(), "recovery succeeds");
+
+        check(!new File(Constants.JOURNAL_FILE).exists(), "journal is removed after replay");
+        checkEquals(List.of("replayed"), readFile(OTHER_FILE), "replayed file");
+        checkEquals("1,S1234567A,1,Is there parking?,Yes, at level 2", readFile(Constants.ENQUIRY_CSV).get(1),
+            "replayed enquiry");
+        check(!EnquiryQueue.isQueued(1), "queue is rebuilt from the replayed file");
+    }
+
+    public void testRecoverDiscardsIncompleteJournal() throws Exception {
+        writeFile(Constants.ENQUIRY_CSV, ENQUIRY_HEADER, "1,S1234567A,1,Is there parking?,");
+        List<String> before = readFile(Constants.ENQUIRY_CSV);
+        String content = ENQUIRY_HEADER + "\n";
+        // An entry without the commit marker: the commit never happened
+        writeFile(Constants.JOURNAL_FILE,
+            content.length() + "\t" + FileManager.normalizePath(Constants.ENQUIRY_CSV) + "\n" + content);
+
+        check(UnitOfWork.recover(), "recovery succeeds");
+        check(!new File(Constants.JOURNAL_FILE).exists(), "journal is discarded");
+        checkEquals(before, readFile(Constants.ENQUIRY_CSV), "file is unchanged");
+    }
+
+    private static Enquiry answer(int enquiryId) {
+        Enquiry enquiry = new Enquiry(enquiryId, "S1234567A", "Is there parking?", 1);
+        enquiry.setResponse("Yes, at level 2");
+        return enquiry;
+    }
+}
@@ -0,0 +1,55 @@
+package com.SC2002.bto.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.util.List;
+
+import static com.SC2002.bto.TestSupport.check;
+import static com.SC2002.bto.TestSupport.checkEquals;
+import static com.SC2002.bto.TestSupport.readFile;
+
+/**
+ * Tests that a write-behind flush is journaled, so an interrupted flush is replayed.
+ */
+public class WriteBehindBufferTest {
+
+    private static final String FIRST_FILE = Constants.DATA_DIR + "/First.csv";
+    private static final String SECOND_FILE = Constants.DATA_DIR + "/Second.csv";
+
+    public void testRecoverReplaysJournalOfInterruptedFlush() throws Exception {
+        WriteBehindBuffer.enable(3_600_000L, 1_000, WriteBehindBuffer.Durability.ASYNC);
+        write(FIRST_FILE, "first");
+        write(SECOND_FILE, "second");
+        check(WriteBehindBuffer.getPendingFileCount() == 2, "both files are buffered");
+        // The second file cannot be moved into place
+        check(new File(SECOND_FILE, "blocked").mkdirs(), "block the second file");
+
+        check(!WriteBehindBuffer.flush(), "flush fails part-way");
+        check(new File(Constants.WRITE_BEHIND_JOURNAL_FILE).exists(), "journal is kept for replay");
+        checkEquals(1, WriteBehindBuffer.getPendingFileCount(), "failed file stays pending");
+
+        new File(SECOND_FILE, "blocked").delete();
+        new File(SECOND_FILE).delete();
+        check(UnitOfWork.recover(), "recovery succeeds");
+
+        check(!new File(Constants.WRITE_BEHIND_JOURNAL_FILE).exists(), "journal is removed after replay");
+        checkEquals(List.of("first"), readFile(FIRST_FILE), "first file");
+        checkEquals(List.of("second"), readFile(SECOND_FILE), "replayed file");
+    }
+
+    public void testSuccessfulFlushRemovesJournal() throws Exception {
+        WriteBehindBuffer.enable(3_600_000L, 1_000, WriteBehindBuffer.Durability.SYNC);
+        write(FIRST_FILE, "first");
+
+        check(WriteBehindBuffer.flush(), "flush succeeds");
+        check(!new File(Constants.WRITE_BEHIND_JOURNAL_FILE).exists(), "no journal left behind");
+        checkEquals(0, WriteBehindBuffer.getPendingFileCount(), "nothing pending");
+        checkEquals(List.of("first"), readFile(FIRST_FILE), "flushed file");
+    }
+
+    private static void write(String path, String line) throws Exception {
+        try (BufferedWriter bw = FileManager.openWriter(path, false)) {
+            bw.write(line + "\n");
+        }
+    }
+}